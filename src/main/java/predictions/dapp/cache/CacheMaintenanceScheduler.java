@@ -3,6 +3,9 @@ package predictions.dapp.cache;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import predictions.dapp.service.CacheService;
+import predictions.dapp.service.PredictionMatrixService;
+import predictions.dapp.service.TeamStatsService;
+import predictions.dapp.service.UpstreamGuard;
 
 /**
  * Scheduled task to clean up expired cache entries periodically
@@ -11,9 +14,16 @@ import predictions.dapp.service.CacheService;
 public class CacheMaintenanceScheduler {
 
     private final CacheService cacheService;
+    private final TeamStatsService teamStatsService;
+    private final UpstreamGuard upstreamGuard;
+    private final PredictionMatrixService predictionMatrixService;
 
-    public CacheMaintenanceScheduler(CacheService cacheService) {
+    public CacheMaintenanceScheduler(CacheService cacheService, TeamStatsService teamStatsService,
+                                     UpstreamGuard upstreamGuard, PredictionMatrixService predictionMatrixService) {
         this.cacheService = cacheService;
+        this.teamStatsService = teamStatsService;
+        this.upstreamGuard = upstreamGuard;
+        this.predictionMatrixService = predictionMatrixService;
     }
 
     /**
@@ -22,5 +32,8 @@ public class CacheMaintenanceScheduler {
     @Scheduled(fixedRate = 1800000) // 30 minutes in milliseconds
     public void cleanExpiredCacheEntries() {
         cacheService.clearExpiredEntries();
+        teamStatsService.clearExpiredEntries();
+        upstreamGuard.clearExpiredEntries();
+        predictionMatrixService.clearExpiredEntries();
     }
 }
\ No newline at end of file
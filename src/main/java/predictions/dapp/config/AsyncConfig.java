@@ -0,0 +1,33 @@
+package predictions.dapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Runs long background jobs (e.g. cold performance lookups). Kept small because
+     * those jobs spend most of their time waiting on the rate-limited upstream API.
+     * In virtual-thread mode the pool size and queue still apply, but each worker
+     * is a virtual thread.
+     */
+    @Bean(name = "jobExecutor")
+    public ThreadPoolTaskExecutor jobExecutor(@Value("${jobs.executor.threads:2}") int threads,
+                                              @Value("${jobs.executor.queue-capacity:100}") int queueCapacity,
+                                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("job-", 1).factory());
+        }
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
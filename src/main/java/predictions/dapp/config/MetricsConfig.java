@@ -0,0 +1,25 @@
+package predictions.dapp.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Safety net for tag cardinality: the endpoint and path tags come from route
+     * templates, but if a bug ever puts raw ids in them, stop registering new series
+     * after the limit instead of flooding Prometheus.
+     */
+    @Bean
+    public MeterFilter endpointTagLimit(@Value("${metrics.max-tag-values:100}") int maxEndpoints) {
+        return MeterFilter.maximumAllowableTags("predictions_", "endpoint", maxEndpoints, MeterFilter.deny());
+    }
+
+    @Bean
+    public MeterFilter upstreamPathTagLimit(@Value("${metrics.max-tag-values:100}") int maxPaths) {
+        return MeterFilter.maximumAllowableTags("football_api_request", "path", maxPaths, MeterFilter.deny());
+    }
+}
@@ -10,6 +10,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import predictions.dapp.service.CacheService;
+import predictions.dapp.service.PredictionMatrixService;
+import predictions.dapp.service.TeamStatsService;
 
 import java.util.Map;
 
@@ -19,9 +21,14 @@ import java.util.Map;
 public class CacheController {
 
     private final CacheService cacheService;
+    private final TeamStatsService teamStatsService;
+    private final PredictionMatrixService predictionMatrixService;
 
-    public CacheController(CacheService cacheService) {
+    public CacheController(CacheService cacheService, TeamStatsService teamStatsService,
+                           PredictionMatrixService predictionMatrixService) {
         this.cacheService = cacheService;
+        this.teamStatsService = teamStatsService;
+        this.predictionMatrixService = predictionMatrixService;
     }
 
     @GetMapping("/stats")
@@ -56,7 +63,7 @@ public class CacheController {
     @DeleteMapping("/clear")
     @Operation(
             summary = "Clear all caches",
-            description = "Manually clears all cached data (predictions and performance). Use with caution - this will force all subsequent requests to fetch fresh data from the API."
+            description = "Manually clears all cached data (predictions, performance, per-team stats and competition prediction matrices). Use with caution - this will force all subsequent requests to fetch fresh data from the API."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -76,6 +83,8 @@ public class CacheController {
     })
     public ResponseEntity<Map<String, String>> clearAllCaches() {
         cacheService.clearAllCaches();
+        teamStatsService.clearAll();
+        predictionMatrixService.clearAll();
         return ResponseEntity.ok(Map.of("message", "All caches cleared successfully"));
     }
 
@@ -102,6 +111,8 @@ public class CacheController {
     })
     public ResponseEntity<Map<String, String>> clearExpiredEntries() {
         cacheService.clearExpiredEntries();
+        teamStatsService.clearExpiredEntries();
+        predictionMatrixService.clearExpiredEntries();
         return ResponseEntity.ok(Map.of("message", "Expired cache entries cleared"));
     }
 }
\ No newline at end of file
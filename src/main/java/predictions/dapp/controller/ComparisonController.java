@@ -1,5 +1,7 @@
 package predictions.dapp.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,13 +11,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import predictions.dapp.dtos.CompareRequest;
 import predictions.dapp.service.ComparisonService;
 import predictions.dapp.service.MetricsService;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -25,6 +31,7 @@ public class ComparisonController {
 
     private final ComparisonService comparisonService;
     private final MetricsService metricsService;
+    private final ObjectMapper mapper = new ObjectMapper();
 
     public ComparisonController(ComparisonService comparisonService, MetricsService metricsService) {
         this.comparisonService = comparisonService;
@@ -97,4 +104,81 @@ public class ComparisonController {
             ));
         }
     }
+
+    @PostMapping("/compare")
+    @Operation(
+            summary = "Compare several teams at once",
+            description = "Fetches the statistics of every distinct team exactly once, concurrently, and streams back a comparison table ordered by points, goal difference and wins. Comparing 8 teams costs 8 team lookups instead of one per pair. Accepts up to 30 teams."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Comparison table, streamed row by row",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"teams\": 2, \"table\": [{\"rank\": 1, \"id\": \"65\", \"name\": \"Manchester City FC\", \"wonGames\": 8, \"totalPoints\": 32, \"goalDifference\": 20}, {\"rank\": 2, \"id\": \"86\", \"name\": \"Arsenal FC\", \"wonGames\": 7, \"totalPoints\": 28, \"goalDifference\": 15}]}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Fewer than two distinct teams, too many teams or blank team id",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"At least two teams are required\"}"
+                            )
+                    )
+            )
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<StreamingResponseBody> compareManyTeams(@RequestBody CompareRequest request) {
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getPrincipal())) {
+            return json(200, Map.of("message", "User not logged in"));
+        }
+
+        metricsService.incrementRequests();
+        return metricsService.measureLatency(() -> {
+            List<Map<String, Object>> table;
+            try {
+                table = comparisonService.compareTeams(request.getTeamIds());
+            } catch (IllegalArgumentException e) {
+                metricsService.incrementErrors();
+                return json(400, Map.of("error", e.getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                metricsService.incrementErrors();
+                return json(500, Map.of("error", "Request interrupted"));
+            } catch (Exception e) {
+                metricsService.incrementErrors();
+                return json(500, Map.of("error", "Error al realizar comparación", "details", String.valueOf(e.getMessage())));
+            }
+
+            // Every row is ready; write them one at a time instead of building the whole document
+            StreamingResponseBody body = out -> {
+                try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("teams", table.size());
+                    generator.writeArrayFieldStart("table");
+                    for (Map<String, Object> row : table) {
+                        generator.writeObject(row);
+                        generator.flush();
+                    }
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                }
+            };
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+        });
+    }
+
+    private ResponseEntity<StreamingResponseBody> json(int status, Map<String, String> body) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> mapper.writeValue(out, body));
+    }
 }
@@ -0,0 +1,196 @@
+package predictions.dapp.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import predictions.dapp.service.BacktestService;
+import predictions.dapp.service.MetricsService;
+import predictions.dapp.service.PowerRankingService;
+import predictions.dapp.service.SeasonSimulationService;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/competitions")
+@Tag(name = "Competitions", description = "Competition-wide projections computed from the local prediction models")
+public class CompetitionController {
+
+    private final SeasonSimulationService seasonSimulationService;
+    private final PowerRankingService powerRankingService;
+    private final BacktestService backtestService;
+    private final MetricsService metricsService;
+
+    public CompetitionController(SeasonSimulationService seasonSimulationService,
+                                 PowerRankingService powerRankingService,
+                                 BacktestService backtestService,
+                                 MetricsService metricsService) {
+        this.seasonSimulationService = seasonSimulationService;
+        this.powerRankingService = powerRankingService;
+        this.backtestService = backtestService;
+        this.metricsService = metricsService;
+    }
+
+    @GetMapping("/{competitionId}/simulate")
+    @Operation(
+            summary = "Simulate the rest of the season",
+            description = "Plays the remaining fixtures of the competition thousands of times, using the result probabilities of the fitted goal model (or the team ratings), and returns for every team the probability of each final position, of the title and of relegation."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Simulation finished",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"competitionId\": \"2021\", \"iterations\": 10000, \"remainingFixtures\": 90, \"modelledFixtures\": 90, \"simulationsPerSecond\": 850000, \"teams\": [{\"id\": \"64\", \"name\": \"Liverpool FC\", \"currentPosition\": 1, \"points\": 70, \"expectedPoints\": 88.4, \"title\": \"93.12%\", \"relegation\": \"0.00%\", \"positions\": [\"93.12%\", \"6.51%\", \"0.37%\"]}]}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Iterations out of range or competition without a standings table",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"Iterations must be between 1 and 100000\"}"
+                            )
+                    )
+            )
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> simulateSeason(
+            @Parameter(description = "Competition ID from Football-Data API", example = "2021", required = true)
+            @PathVariable String competitionId,
+            @Parameter(description = "Number of simulated seasons (1 to 100000)", example = "10000")
+            @RequestParam(defaultValue = "10000") int iterations) {
+
+        metricsService.incrementRequests();
+        return metricsService.measureLatency(() -> {
+            try {
+                return ResponseEntity.ok(seasonSimulationService.simulate(competitionId, iterations));
+            } catch (IllegalArgumentException e) {
+                metricsService.incrementErrors();
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                metricsService.incrementErrors();
+                return ResponseEntity.internalServerError().body(e.getMessage());
+            } catch (Exception e) {
+                metricsService.incrementErrors();
+                return ResponseEntity.internalServerError().body(e.getMessage());
+            }
+        });
+    }
+
+    @GetMapping("/{competitionId}/power-rankings")
+    @Operation(
+            summary = "Power rankings of a competition",
+            description = "Scores every team of the competition table with the prediction heuristic (recent wins, goals in wins, points, position and goal difference) and orders them strongest first. Rankings are recomputed only when the standings change."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Rankings computed",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"competitionId\": \"2021\", \"standingsVersion\": 12, \"teams\": [{\"rank\": 1, \"id\": \"64\", \"name\": \"Liverpool FC\", \"score\": 71.5, \"position\": 1, \"points\": 70, \"goalDifference\": 42, \"recentWins\": 8, \"goalsInWins\": 25}]}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Competition without a standings table",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"Competition 9999 has no standings table\"}"
+                            )
+                    )
+            )
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> getPowerRankings(
+            @Parameter(description = "Competition ID from Football-Data API", example = "2021", required = true)
+            @PathVariable String competitionId) {
+
+        metricsService.incrementRequests();
+        return metricsService.measureLatency(() -> {
+            try {
+                return ResponseEntity.ok(powerRankingService.getPowerRankings(competitionId));
+            } catch (IllegalArgumentException e) {
+                metricsService.incrementErrors();
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                metricsService.incrementErrors();
+                return ResponseEntity.internalServerError().body(e.getMessage());
+            } catch (Exception e) {
+                metricsService.incrementErrors();
+                return ResponseEntity.internalServerError().body(e.getMessage());
+            }
+        });
+    }
+
+    @GetMapping("/backtest")
+    @Operation(
+            summary = "Backtest predictions over all stored seasons",
+            description = "Replays every season of finished matches held locally in kick-off order, predicts each match from the table and form as they stood at kick-off, and reports the accuracy (matches with a winner) and Brier score (draws count as half) of the prediction heuristic."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Backtest finished",
+            content = @Content(
+                    mediaType = "application/json",
+                    examples = @ExampleObject(
+                            value = "{\"seasons\": 4, \"matches\": 1520, \"decided\": 1140, \"accuracy\": \"61.23%\", \"brierScore\": 0.2231, \"matchesPerSecond\": 2500000, \"bySeason\": [{\"competitionId\": \"2021\", \"competition\": \"Premier League\", \"season\": \"2024/25\", \"matches\": 380, \"decided\": 290, \"accuracy\": \"62.07%\", \"brierScore\": 0.2204}]}"
+                    )
+            )
+    )
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> backtestAll() {
+        metricsService.incrementRequests();
+        return metricsService.measureLatency(() -> ResponseEntity.ok(backtestService.backtestAll()));
+    }
+
+    @GetMapping("/{competitionId}/backtest")
+    @Operation(
+            summary = "Backtest predictions over the stored seasons of a competition",
+            description = "Same as the global backtest, restricted to one competition."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Backtest finished"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Competition without finished matches in the local store",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"Competition 9999 has no finished matches to replay\"}"
+                            )
+                    )
+            )
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> backtestCompetition(
+            @Parameter(description = "Competition ID from Football-Data API", example = "2021", required = true)
+            @PathVariable String competitionId) {
+
+        metricsService.incrementRequests();
+        return metricsService.measureLatency(() -> {
+            try {
+                return ResponseEntity.ok(backtestService.backtest(competitionId));
+            } catch (IllegalArgumentException e) {
+                metricsService.incrementErrors();
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+        });
+    }
+}
@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.RestController;
 import predictions.dapp.security.JwtUtil;
 import predictions.dapp.service.HistoryService;
 import predictions.dapp.service.MetricsService;
+import predictions.dapp.service.PredictionAccuracyService;
 
 import java.util.Map;
 
@@ -29,11 +30,14 @@ public class HistoryController {
     private final HistoryService historyService;
     private final JwtUtil jwtUtil;
     private final MetricsService metricsService;
+    private final PredictionAccuracyService predictionAccuracyService;
 
-    public HistoryController(HistoryService historyService, JwtUtil jwtUtil, MetricsService metricsService) {
+    public HistoryController(HistoryService historyService, JwtUtil jwtUtil, MetricsService metricsService,
+                             PredictionAccuracyService predictionAccuracyService) {
         this.historyService = historyService;
         this.jwtUtil = jwtUtil;
         this.metricsService = metricsService;
+        this.predictionAccuracyService = predictionAccuracyService;
     }
 
     @GetMapping("/history")
@@ -122,4 +126,72 @@ public class HistoryController {
             }
         });
     }
+
+    @GetMapping("/history/accuracy")
+    @Operation(
+            summary = "Get prediction accuracy",
+            description = "Returns how many of the user's stored predictions, and of all users' predictions, were right once the match was played. " +
+                    "Aggregates are computed periodically by a background job; pending counts predictions not settled yet or saved without team ids. Requires authentication."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Accuracy as of the last evaluation (null when not evaluated yet)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = """
+                                            {
+                                              "user": {
+                                                "predictions": 12,
+                                                "evaluated": 9,
+                                                "correct": 6,
+                                                "draws": 2,
+                                                "pending": 3,
+                                                "accuracy": "66.67%",
+                                                "evaluatedAt": "2024-11-06T12:00:00Z"
+                                              },
+                                              "global": {
+                                                "predictions": 840,
+                                                "evaluated": 702,
+                                                "correct": 401,
+                                                "draws": 171,
+                                                "pending": 138,
+                                                "accuracy": "57.12%",
+                                                "evaluatedAt": "2024-11-06T12:00:00Z"
+                                              }
+                                            }
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "User not authenticated",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"message\": \"User not logged in\"}"
+                            )
+                    )
+            )
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> accuracy() {
+        metricsService.incrementRequests();
+        return metricsService.measureLatency(() -> {
+            try {
+                Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+                if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
+                    Long userId = jwtUtil.extractUserId(auth.getName());
+                    return ResponseEntity.ok(predictionAccuracyService.getAccuracy(userId));
+                }
+                return ResponseEntity.ok(Map.of("message", "User not logged in"));
+            } catch (Exception e) {
+                metricsService.incrementErrors();
+                return ResponseEntity.internalServerError().body(e.getMessage());
+            }
+        });
+    }
 }
@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,23 +18,35 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import predictions.dapp.security.JwtUtil;
 import predictions.dapp.service.MetricsService;
+import predictions.dapp.service.PerformanceJob;
+import predictions.dapp.service.PerformanceJobService;
 import predictions.dapp.service.PerformanceService;
 
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api")
 @Tag(name = "Performance", description = "Player performance analysis APIs - retrieves player statistics across competitions")
 public class PerformanceController {
 
+    private static final long EVENTS_TIMEOUT_MS = 600000; // 10 minutes
+
     private final PerformanceService performanceService;
+    private final PerformanceJobService performanceJobService;
     private final JwtUtil jwtUtil;
     private final MetricsService metricsService;
 
-    public PerformanceController(PerformanceService performanceService, JwtUtil jwtUtil, MetricsService metricsService) {
+    public PerformanceController(PerformanceService performanceService, PerformanceJobService performanceJobService,
+                                 JwtUtil jwtUtil, MetricsService metricsService) {
         this.performanceService = performanceService;
+        this.performanceJobService = performanceJobService;
         this.jwtUtil = jwtUtil;
         this.metricsService = metricsService;
     }
@@ -137,4 +150,137 @@ public class PerformanceController {
                     .body(Map.of("error", "Failed to fetch performance data: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping(value = "/performance/{playerId}", params = "async=true")
+    @Operation(
+            summary = "Get player performance statistics as a background job",
+            description = "Same lookup as GET /api/performance/{playerId}, but a cold lookup (which can take minutes) " +
+                    "runs in the background: the response is 202 with a job id to poll at /api/performance/jobs/{jobId} " +
+                    "or to follow at /api/performance/jobs/{jobId}/events. Cached results are returned right away with 200. " +
+                    "Concurrent requests for the same player share one job."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Result was cached and is returned right away"),
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Lookup started (or joined) in the background",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"jobId\": \"7f6c1c1e-5b7a-4a3e-9a55-0b9d3c2f8e11\", \"playerId\": \"44\", \"status\": \"RUNNING\"}"
+                            )
+                    )
+            )
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> performanceAsync(
+            @Parameter(description = "Player ID from Football-Data API", example = "44", required = true)
+            @PathVariable String playerId) {
+        metricsService.incrementRequests();
+        return metricsService.measureLatency(() -> {
+            try {
+                Long userId = currentUserId();
+                if (userId == null) {
+                    return ResponseEntity.ok(Map.of("message", "User not logged in"));
+                }
+
+                Optional<ObjectNode> cached = performanceService.findCachedPerformance(playerId);
+                if (cached.isPresent()) {
+                    performanceService.recordPerformance(userId, cached.get());
+                    return ResponseEntity.ok(cached.get());
+                }
+
+                PerformanceJob job = performanceJobService.submit(userId, playerId);
+                return ResponseEntity.accepted()
+                        .location(URI.create("/api/performance/jobs/" + job.getId()))
+                        .body(toResponse(job));
+            } catch (Exception e) {
+                metricsService.incrementErrors();
+                return ResponseEntity.internalServerError().body(e.getMessage());
+            }
+        });
+    }
+
+    @GetMapping("/performance/jobs/{jobId}")
+    @Operation(
+            summary = "Get the status of a performance job",
+            description = "Returns PENDING, RUNNING, DONE (with the result) or FAILED (with the error) for a job started with ?async=true"
+    )
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> performanceJob(
+            @Parameter(description = "Job id returned by the async performance request", required = true)
+            @PathVariable String jobId) {
+        metricsService.incrementRequests();
+        return metricsService.measureLatency(() -> {
+            if (currentUserId() == null) {
+                return ResponseEntity.ok(Map.of("message", "User not logged in"));
+            }
+            return performanceJobService.getJob(jobId)
+                    .<ResponseEntity<Object>>map(job -> ResponseEntity.ok(toResponse(job)))
+                    .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "Job not found")));
+        });
+    }
+
+    @GetMapping(value = "/performance/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Follow a performance job with Server-Sent Events",
+            description = "Sends a 'status' event with the current state and a 'done' event with the final state, then closes the stream"
+    )
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<SseEmitter> performanceJobEvents(
+            @Parameter(description = "Job id returned by the async performance request", required = true)
+            @PathVariable String jobId) {
+        metricsService.incrementRequests();
+
+        if (currentUserId() == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        Optional<PerformanceJob> found = performanceJobService.getJob(jobId);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        PerformanceJob job = found.get();
+        SseEmitter emitter = new SseEmitter(EVENTS_TIMEOUT_MS);
+        try {
+            emitter.send(SseEmitter.event().name("status").data(toResponse(job)));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return ResponseEntity.ok(emitter);
+        }
+
+        job.getCompletion().thenAccept(finished -> {
+            try {
+                emitter.send(SseEmitter.event().name("done").data(toResponse(finished)));
+                emitter.complete();
+            } catch (IOException e) {
+                // Client went away
+                emitter.completeWithError(e);
+            }
+        });
+        return ResponseEntity.ok(emitter);
+    }
+
+    private Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
+            return jwtUtil.extractUserId(auth.getName());
+        }
+        return null;
+    }
+
+    private Map<String, Object> toResponse(PerformanceJob job) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("jobId", job.getId());
+        body.put("playerId", job.getPlayerId());
+        body.put("status", job.getStatus().name());
+        if (job.getResult() != null) {
+            body.put("result", job.getResult());
+        }
+        if (job.getError() != null) {
+            body.put("error", job.getError());
+        }
+        return body;
+    }
+}
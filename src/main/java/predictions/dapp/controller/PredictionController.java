@@ -13,11 +13,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import predictions.dapp.dtos.BatchPredictionRequest;
 import predictions.dapp.security.JwtUtil;
 import predictions.dapp.service.MetricsService;
+import predictions.dapp.service.PredictionMatrixService;
 import predictions.dapp.service.PredictionService;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api")
@@ -25,12 +29,16 @@ import java.util.Map;
 public class PredictionController {
 
     private final PredictionService predictionService;
+    private final PredictionMatrixService predictionMatrixService;
     private final MetricsService metricsService;
     private final JwtUtil jwtUtil;
 
-    public PredictionController(PredictionService predictionService, MetricsService metricsService,
+    public PredictionController(PredictionService predictionService,
+                                PredictionMatrixService predictionMatrixService,
+                                MetricsService metricsService,
                                 JwtUtil jwtUtil) {
         this.predictionService = predictionService;
+        this.predictionMatrixService = predictionMatrixService;
         this.metricsService = metricsService;
         this.jwtUtil = jwtUtil;
     }
@@ -112,4 +120,194 @@ public class PredictionController {
             ));
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/predictions/{teamId1}/{teamId2}/scorelines")
+    @Operation(
+            summary = "Scoreline probabilities of a match",
+            description = "Reads the Poisson goal model fitted for a competition both teams play in, with the first team at home: expected goals, home/draw/away probabilities and the ten most likely scorelines. Models are refitted after every replica sync, so no Football-Data call is made."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Scorelines computed from the fitted model",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"competition\": \"Premier League\", \"homeTeam\": \"Arsenal FC\", \"awayTeam\": \"Chelsea FC\", \"expectedGoals\": {\"home\": 1.82, \"away\": 0.97}, \"outcome\": {\"home\": \"55.10%\", \"draw\": \"23.40%\", \"away\": \"21.50%\"}, \"scorelines\": [{\"score\": \"1-0\", \"probability\": \"11.02%\"}]}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "No fitted competition holds both teams",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"No goal model for teams 86 and 65\"}"
+                            )
+                    )
+            )
+    })
+    public ResponseEntity<Object> predictScorelines(
+            @Parameter(description = "ID of the home team from Football-Data API", example = "86", required = true)
+            @PathVariable String teamId1,
+            @Parameter(description = "ID of the away team from Football-Data API", example = "65", required = true)
+            @PathVariable String teamId2) {
+
+        metricsService.incrementRequests();
+        return metricsService.measureLatency(() -> {
+            Optional<Map<String, Object>> scorelines = predictionService.predictScorelines(teamId1, teamId2);
+            if (scorelines.isEmpty()) {
+                metricsService.incrementErrors();
+                return ResponseEntity.status(404).body(Map.of(
+                        "error", "No goal model for teams " + teamId1 + " and " + teamId2));
+            }
+            return ResponseEntity.ok(scorelines.get());
+        });
+    }
+
+    @PostMapping("/predictions/batch")
+    @Operation(
+            summary = "Predict several matches in one request",
+            description = "Predicts every fixture of the request body. Team statistics are fetched concurrently and only once per team, and the whole batch is saved to the user history at once. Accepts up to 50 fixtures."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Predictions successfully generated",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "[{\"teamId1\": \"86\", \"teamId2\": \"65\", \"probabilidad_Arsenal\": \"65.42%\", \"probabilidad_Chelsea\": \"34.58%\", \"prediction\": \"Arsenal con 65.42%\"}]"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Empty batch, too many fixtures or fixture without team ids",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"At least one fixture is required\"}"
+                            )
+                    )
+            )
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> predictBatch(@RequestBody BatchPredictionRequest request) {
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getPrincipal())) {
+            return ResponseEntity.ok(Map.of("message", "User not logged in"));
+        }
+
+        Long userId = jwtUtil.extractUserId(auth.getName());
+        metricsService.incrementRequests();
+
+        return metricsService.measureLatency(() -> {
+            try {
+                List<Map<String, Object>> predictions = predictionService.predictBatch(request.getFixtures(), userId);
+                return ResponseEntity.ok(predictions);
+            } catch (IllegalArgumentException e) {
+                metricsService.incrementErrors();
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                metricsService.incrementErrors();
+                return ResponseEntity.internalServerError().body(e.getMessage());
+            } catch (Exception e) {
+                metricsService.incrementErrors();
+                return ResponseEntity.internalServerError().body(e.getMessage());
+            }
+        });
+    }
+
+    @GetMapping("/predictions/competition/{code}/matchday/{matchday}")
+    @Operation(
+            summary = "Predict every match of a competition matchday",
+            description = "Loads the fixtures of the given matchday and predicts all of them as a single batch."
+    )
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> predictMatchday(
+            @Parameter(description = "Competition code from Football-Data API", example = "PL", required = true)
+            @PathVariable String code,
+            @Parameter(description = "Matchday number", example = "12", required = true)
+            @PathVariable int matchday) {
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getPrincipal())) {
+            return ResponseEntity.ok(Map.of("message", "User not logged in"));
+        }
+
+        Long userId = jwtUtil.extractUserId(auth.getName());
+        metricsService.incrementRequests();
+
+        return metricsService.measureLatency(() -> {
+            try {
+                return ResponseEntity.ok(predictionService.predictMatchday(code, matchday, userId));
+            } catch (IllegalArgumentException e) {
+                metricsService.incrementErrors();
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                metricsService.incrementErrors();
+                return ResponseEntity.internalServerError().body(e.getMessage());
+            } catch (Exception e) {
+                metricsService.incrementErrors();
+                return ResponseEntity.internalServerError().body(e.getMessage());
+            }
+        });
+    }
+
+    @PostMapping("/predictions/competition/{competitionId}/matrix")
+    @Operation(
+            summary = "Precompute the predictions of a whole competition",
+            description = "Fetches the statistics of every team of the competition once and precomputes the prediction of every pair in parallel. For the next 30 minutes, /api/predictions/{teamId1}/{teamId2} answers any pair of that competition from the matrix without calling Football-Data."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Matrix built",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"competitionId\": 2021, \"competition\": \"Premier League\", \"teams\": 20, \"pairs\": 380, \"builtAt\": \"2025-03-01T15:00:00Z\", \"buildMillis\": 412}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid competition id or competition without teams",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"Competition 2021 has no teams to pair\"}"
+                            )
+                    )
+            )
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> buildCompetitionMatrix(
+            @Parameter(description = "Competition ID from Football-Data API", example = "2021", required = true)
+            @PathVariable String competitionId) {
+
+        metricsService.incrementRequests();
+        return metricsService.measureLatency(() -> {
+            try {
+                return ResponseEntity.ok(predictionMatrixService.build(competitionId));
+            } catch (IllegalArgumentException e) {
+                metricsService.incrementErrors();
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                metricsService.incrementErrors();
+                return ResponseEntity.internalServerError().body(e.getMessage());
+            } catch (Exception e) {
+                metricsService.incrementErrors();
+                return ResponseEntity.internalServerError().body(e.getMessage());
+            }
+        });
+    }
+}
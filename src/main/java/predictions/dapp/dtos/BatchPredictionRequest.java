@@ -0,0 +1,46 @@
+package predictions.dapp.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Request body for predicting several fixtures at once")
+public class BatchPredictionRequest {
+
+    @Schema(
+            description = "Fixtures to predict, usually a whole matchday",
+            requiredMode = Schema.RequiredMode.REQUIRED
+    )
+    private List<Fixture> fixtures = new ArrayList<>();
+
+    public List<Fixture> getFixtures() {
+        return fixtures;
+    }
+
+    @Schema(description = "A single fixture between two teams")
+    public static class Fixture {
+
+        @Schema(description = "ID of the first team from Football-Data API", example = "86")
+        private String teamId1;
+
+        @Schema(description = "ID of the second team from Football-Data API", example = "65")
+        private String teamId2;
+
+        public Fixture() {
+        }
+
+        public Fixture(String teamId1, String teamId2) {
+            this.teamId1 = teamId1;
+            this.teamId2 = teamId2;
+        }
+
+        public String getTeamId1() {
+            return teamId1;
+        }
+
+        public String getTeamId2() {
+            return teamId2;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package predictions.dapp.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Request body for comparing several teams at once")
+public class CompareRequest {
+
+    @Schema(
+            description = "IDs of the teams to compare, from Football-Data API (duplicates are ignored)",
+            example = "[\"86\", \"65\", \"57\", \"64\"]",
+            requiredMode = Schema.RequiredMode.REQUIRED
+    )
+    private List<String> teamIds = new ArrayList<>();
+
+    public CompareRequest() {
+    }
+
+    public CompareRequest(List<String> teamIds) {
+        this.teamIds = teamIds;
+    }
+
+    public List<String> getTeamIds() {
+        return teamIds;
+    }
+}
@@ -0,0 +1,25 @@
+package predictions.dapp.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Non-2xx response from an upstream API, keeping the status code so callers
+ * can tell client errors apart from throttling (429) and server errors (5xx)
+ */
+public class UpstreamHttpException extends IOException {
+
+    private final int statusCode;
+
+    public UpstreamHttpException(int statusCode, String msg) {
+        super(msg);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isServerSideFailure() {
+        return statusCode == 429 || statusCode >= 500;
+    }
+}
@@ -0,0 +1,11 @@
+package predictions.dapp.exceptions;
+
+/**
+ * Thrown without calling the upstream API when the remaining request quota is
+ * reserved for higher-priority callers, and no stale copy is available
+ */
+public class UpstreamThrottledException extends UpstreamUnavailableException {
+    public UpstreamThrottledException(String msg) {
+        super(msg);
+    }
+}
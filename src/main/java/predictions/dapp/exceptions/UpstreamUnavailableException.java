@@ -0,0 +1,13 @@
+package predictions.dapp.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Thrown without calling the upstream API when its circuit breaker is open
+ * or too many calls are already in flight, and no stale copy is available
+ */
+public class UpstreamUnavailableException extends IOException {
+    public UpstreamUnavailableException(String msg) {
+        super(msg);
+    }
+}
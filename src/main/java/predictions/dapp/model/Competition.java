@@ -0,0 +1,60 @@
+package predictions.dapp.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Local replica of a Football-Data competition. The id is the upstream one.
+ */
+@Entity
+@Table(name = "competitions", indexes = @Index(name = "idx_competitions_code", columnList = "code"))
+public class Competition {
+
+    @Id
+    private Long id;
+
+    private String code;
+    private String name;
+    private String area;
+
+    /** When the competition last appeared in the upstream competitions list */
+    private Instant listedAt;
+
+    /** When standings, teams, matches and scorers were last synced together */
+    private Instant lastSyncedAt;
+
+    /** High-water mark of the incremental match sync: matches before this day are final */
+    private LocalDate matchesSyncedThrough;
+
+    public Competition() {}
+
+    public Competition(Long id, String code, String name, String area) {
+        this.id = id;
+        this.code = code;
+        this.name = name;
+        this.area = area;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getArea() { return area; }
+    public void setArea(String area) { this.area = area; }
+
+    public Instant getListedAt() { return listedAt; }
+    public void setListedAt(Instant listedAt) { this.listedAt = listedAt; }
+
+    public Instant getLastSyncedAt() { return lastSyncedAt; }
+    public void setLastSyncedAt(Instant lastSyncedAt) { this.lastSyncedAt = lastSyncedAt; }
+
+    public LocalDate getMatchesSyncedThrough() { return matchesSyncedThrough; }
+    public void setMatchesSyncedThrough(LocalDate matchesSyncedThrough) { this.matchesSyncedThrough = matchesSyncedThrough; }
+}
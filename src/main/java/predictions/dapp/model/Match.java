@@ -0,0 +1,74 @@
+package predictions.dapp.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Local replica of a Football-Data match. Team names are stored with the match so
+ * a team's recent form can be read from this table alone.
+ */
+@Entity
+@Table(name = "matches", indexes = {
+        @Index(name = "idx_matches_home", columnList = "homeTeamId, utcDate"),
+        @Index(name = "idx_matches_away", columnList = "awayTeamId, utcDate"),
+        @Index(name = "idx_matches_competition", columnList = "competitionId, matchday")
+})
+public class Match {
+
+    @Id
+    private Long id;
+
+    private Long competitionId;
+    private Instant utcDate;
+    private String status;
+    private Integer matchday;
+
+    private Long homeTeamId;
+    private String homeTeamName;
+    private Long awayTeamId;
+    private String awayTeamName;
+
+    /** HOME_TEAM, AWAY_TEAM or DRAW once finished */
+    private String winner;
+    private Integer homeGoals;
+    private Integer awayGoals;
+
+    public Match() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getCompetitionId() { return competitionId; }
+    public void setCompetitionId(Long competitionId) { this.competitionId = competitionId; }
+
+    public Instant getUtcDate() { return utcDate; }
+    public void setUtcDate(Instant utcDate) { this.utcDate = utcDate; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Integer getMatchday() { return matchday; }
+    public void setMatchday(Integer matchday) { this.matchday = matchday; }
+
+    public Long getHomeTeamId() { return homeTeamId; }
+    public void setHomeTeamId(Long homeTeamId) { this.homeTeamId = homeTeamId; }
+
+    public String getHomeTeamName() { return homeTeamName; }
+    public void setHomeTeamName(String homeTeamName) { this.homeTeamName = homeTeamName; }
+
+    public Long getAwayTeamId() { return awayTeamId; }
+    public void setAwayTeamId(Long awayTeamId) { this.awayTeamId = awayTeamId; }
+
+    public String getAwayTeamName() { return awayTeamName; }
+    public void setAwayTeamName(String awayTeamName) { this.awayTeamName = awayTeamName; }
+
+    public String getWinner() { return winner; }
+    public void setWinner(String winner) { this.winner = winner; }
+
+    public Integer getHomeGoals() { return homeGoals; }
+    public void setHomeGoals(Integer homeGoals) { this.homeGoals = homeGoals; }
+
+    public Integer getAwayGoals() { return awayGoals; }
+    public void setAwayGoals(Integer awayGoals) { this.awayGoals = awayGoals; }
+}
@@ -1,9 +1,44 @@
 package predictions.dapp.model;
 
+import jakarta.persistence.*;
+
+/**
+ * Local replica of a Football-Data person, taken from the team squads
+ */
+@Entity
+@Table(name = "players", indexes = @Index(name = "idx_players_team", columnList = "teamId"))
 public class Player {
-    Long id;
-    String name;
-    String position;
-    int number;
-    Long teamId;
+
+    @Id
+    private Long id;
+
+    private String name;
+    private String position;
+    private Integer number;
+    private Long teamId;
+
+    public Player() {}
+
+    public Player(Long id, String name, String position, Integer number, Long teamId) {
+        this.id = id;
+        this.name = name;
+        this.position = position;
+        this.number = number;
+        this.teamId = teamId;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getPosition() { return position; }
+    public void setPosition(String position) { this.position = position; }
+
+    public Integer getNumber() { return number; }
+    public void setNumber(Integer number) { this.number = number; }
+
+    public Long getTeamId() { return teamId; }
+    public void setTeamId(Long teamId) { this.teamId = teamId; }
 }
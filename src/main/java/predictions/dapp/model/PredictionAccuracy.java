@@ -0,0 +1,56 @@
+package predictions.dapp.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Accuracy of the predictions stored in a user's history, checked against the
+ * actual results by the accuracy job. The id is the user id; the row with id 0
+ * aggregates every user.
+ */
+@Entity
+@Table(name = "prediction_accuracy")
+public class PredictionAccuracy {
+
+    @Id
+    private Long userId;
+
+    /** Predictions in the history */
+    private int predictions;
+
+    /** Predictions whose match has been played */
+    private int evaluated;
+
+    /** Evaluated predictions whose predicted team won */
+    private int correct;
+
+    /** Evaluated predictions whose match ended in a draw */
+    private int draws;
+
+    private Instant evaluatedAt;
+
+    public PredictionAccuracy() {}
+
+    public PredictionAccuracy(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public int getPredictions() { return predictions; }
+    public void setPredictions(int predictions) { this.predictions = predictions; }
+
+    public int getEvaluated() { return evaluated; }
+    public void setEvaluated(int evaluated) { this.evaluated = evaluated; }
+
+    public int getCorrect() { return correct; }
+    public void setCorrect(int correct) { this.correct = correct; }
+
+    public int getDraws() { return draws; }
+    public void setDraws(int draws) { this.draws = draws; }
+
+    public Instant getEvaluatedAt() { return evaluatedAt; }
+    public void setEvaluatedAt(Instant evaluatedAt) { this.evaluatedAt = evaluatedAt; }
+}
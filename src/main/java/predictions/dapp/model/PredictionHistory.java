@@ -0,0 +1,12 @@
+package predictions.dapp.model;
+
+/**
+ * Read-only projection of a {@link Consultas} row: the user and their stored
+ * predictions, without the performance history.
+ */
+public interface PredictionHistory {
+
+    Long getUserId();
+
+    String getPredicciones();
+}
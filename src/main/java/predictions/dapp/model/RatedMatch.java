@@ -0,0 +1,33 @@
+package predictions.dapp.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Marks a replica match as already applied to the team ratings, so each match
+ * is rated exactly once whenever its result reaches the replica. The id is the
+ * Football-Data match id.
+ */
+@Entity
+@Table(name = "rated_matches")
+public class RatedMatch {
+
+    @Id
+    private Long matchId;
+
+    private Instant ratedAt;
+
+    public RatedMatch() {}
+
+    public RatedMatch(Long matchId, Instant ratedAt) {
+        this.matchId = matchId;
+        this.ratedAt = ratedAt;
+    }
+
+    public Long getMatchId() { return matchId; }
+    public void setMatchId(Long matchId) { this.matchId = matchId; }
+
+    public Instant getRatedAt() { return ratedAt; }
+    public void setRatedAt(Instant ratedAt) { this.ratedAt = ratedAt; }
+}
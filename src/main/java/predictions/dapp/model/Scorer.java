@@ -0,0 +1,62 @@
+package predictions.dapp.model;
+
+import jakarta.persistence.*;
+
+/**
+ * One entry of the local replica of a competition's top scorers for a season
+ */
+@Entity
+@Table(name = "scorers", indexes = {
+        @Index(name = "idx_scorers_competition", columnList = "competitionId, season"),
+        @Index(name = "idx_scorers_player", columnList = "playerId")
+})
+public class Scorer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long competitionId;
+    private String season;
+    private Long playerId;
+    private String playerName;
+    private String teamName;
+    private int goals;
+    private int playedMatches;
+
+    public Scorer() {}
+
+    public Scorer(Long competitionId, String season, Long playerId, String playerName,
+                  String teamName, int goals, int playedMatches) {
+        this.competitionId = competitionId;
+        this.season = season;
+        this.playerId = playerId;
+        this.playerName = playerName;
+        this.teamName = teamName;
+        this.goals = goals;
+        this.playedMatches = playedMatches;
+    }
+
+    public Long getId() { return id; }
+
+    public Long getCompetitionId() { return competitionId; }
+    public void setCompetitionId(Long competitionId) { this.competitionId = competitionId; }
+
+    public String getSeason() { return season; }
+    public void setSeason(String season) { this.season = season; }
+
+    public Long getPlayerId() { return playerId; }
+    public void setPlayerId(Long playerId) { this.playerId = playerId; }
+
+    public String getPlayerName() { return playerName; }
+    public void setPlayerName(String playerName) { this.playerName = playerName; }
+
+    public String getTeamName() { return teamName; }
+    public void setTeamName(String teamName) { this.teamName = teamName; }
+
+    public int getGoals() { return goals; }
+    public void setGoals(int goals) { this.goals = goals; }
+
+    public int getPlayedMatches() { return playedMatches; }
+    public void setPlayedMatches(int playedMatches) { this.playedMatches = playedMatches; }
+}
@@ -0,0 +1,60 @@
+package predictions.dapp.model;
+
+import jakarta.persistence.*;
+
+/**
+ * One row of the local replica of a competition table (total standings)
+ */
+@Entity
+@Table(name = "standings", uniqueConstraints = @UniqueConstraint(
+        name = "uk_standings_competition_team", columnNames = {"competitionId", "teamId"}))
+public class Standing {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long competitionId;
+    private Long teamId;
+    private String teamName;
+    private int position;
+    private int points;
+    private int goalDifference;
+    private int playedGames;
+
+    public Standing() {}
+
+    public Standing(Long competitionId, Long teamId, String teamName,
+                    int position, int points, int goalDifference, int playedGames) {
+        this.competitionId = competitionId;
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.position = position;
+        this.points = points;
+        this.goalDifference = goalDifference;
+        this.playedGames = playedGames;
+    }
+
+    public Long getId() { return id; }
+
+    public Long getCompetitionId() { return competitionId; }
+    public void setCompetitionId(Long competitionId) { this.competitionId = competitionId; }
+
+    public Long getTeamId() { return teamId; }
+    public void setTeamId(Long teamId) { this.teamId = teamId; }
+
+    public String getTeamName() { return teamName; }
+    public void setTeamName(String teamName) { this.teamName = teamName; }
+
+    public int getPosition() { return position; }
+    public void setPosition(int position) { this.position = position; }
+
+    public int getPoints() { return points; }
+    public void setPoints(int points) { this.points = points; }
+
+    public int getGoalDifference() { return goalDifference; }
+    public void setGoalDifference(int goalDifference) { this.goalDifference = goalDifference; }
+
+    public int getPlayedGames() { return playedGames; }
+    public void setPlayedGames(int playedGames) { this.playedGames = playedGames; }
+}
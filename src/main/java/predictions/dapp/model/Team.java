@@ -1,10 +1,45 @@
 package predictions.dapp.model;
 
-import java.util.List;
+import jakarta.persistence.*;
 
+/**
+ * Local replica of a Football-Data team. The id is the upstream one; the squad
+ * is stored as {@link Player} rows pointing back through {@code teamId}.
+ */
+@Entity
+@Table(name = "teams")
 public class Team {
-    Long id;
-    String name;
-    String country;
-    List<Player> players;
+
+    @Id
+    private Long id;
+
+    private String name;
+    private String shortName;
+    private String tla;
+    private String country;
+
+    public Team() {}
+
+    public Team(Long id, String name, String shortName, String tla, String country) {
+        this.id = id;
+        this.name = name;
+        this.shortName = shortName;
+        this.tla = tla;
+        this.country = country;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getShortName() { return shortName; }
+    public void setShortName(String shortName) { this.shortName = shortName; }
+
+    public String getTla() { return tla; }
+    public void setTla(String tla) { this.tla = tla; }
+
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
 }
@@ -0,0 +1,45 @@
+package predictions.dapp.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Elo-style strength of a team, kept up to date by the rating engine as
+ * finished matches reach the replica. The id is the Football-Data team id.
+ */
+@Entity
+@Table(name = "team_ratings")
+public class TeamRating {
+
+    @Id
+    private Long teamId;
+
+    private String teamName;
+    private double rating;
+    private int matchesRated;
+
+    /** Kick-off of the latest match applied to this rating */
+    private Instant lastMatchAt;
+
+    public TeamRating() {}
+
+    public TeamRating(Long teamId) {
+        this.teamId = teamId;
+    }
+
+    public Long getTeamId() { return teamId; }
+    public void setTeamId(Long teamId) { this.teamId = teamId; }
+
+    public String getTeamName() { return teamName; }
+    public void setTeamName(String teamName) { this.teamName = teamName; }
+
+    public double getRating() { return rating; }
+    public void setRating(double rating) { this.rating = rating; }
+
+    public int getMatchesRated() { return matchesRated; }
+    public void setMatchesRated(int matchesRated) { this.matchesRated = matchesRated; }
+
+    public Instant getLastMatchAt() { return lastMatchAt; }
+    public void setLastMatchAt(Instant lastMatchAt) { this.lastMatchAt = lastMatchAt; }
+}
@@ -0,0 +1,15 @@
+package predictions.dapp.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import predictions.dapp.model.Competition;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CompetitionRepository extends JpaRepository<Competition, Long> {
+    Optional<Competition> findByCode(String code);
+    List<Competition> findByListedAtAfter(Instant since);
+}
@@ -1,12 +1,23 @@
 package predictions.dapp.repositories;
 
 import predictions.dapp.model.Consultas;
+import predictions.dapp.model.PredictionHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ConsultasRepository extends JpaRepository<Consultas, Long> {
     Optional<Consultas> findByUserId(Long userId);
-}
\ No newline at end of file
+
+    /**
+     * Prediction history of every user, scrolled through a database cursor; the rows
+     * are projections, not managed entities, so memory stays bounded.
+     * Must be consumed and closed inside a transaction.
+     */
+    @Query("select c.userId as userId, c.predicciones as predicciones from Consultas c")
+    Stream<PredictionHistory> streamPredictionHistories();
+}
@@ -0,0 +1,25 @@
+package predictions.dapp.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import predictions.dapp.model.Match;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MatchRepository extends JpaRepository<Match, Long> {
+
+    @Query("select m from Match m where m.status = :status "
+            + "and (m.homeTeamId = :teamId or m.awayTeamId = :teamId) order by m.utcDate desc")
+    List<Match> findLatestByTeam(@Param("teamId") Long teamId, @Param("status") String status, Pageable page);
+
+    List<Match> findByCompetitionIdOrderByUtcDate(Long competitionId);
+
+    List<Match> findByCompetitionIdAndMatchdayOrderByUtcDate(Long competitionId, Integer matchday);
+
+    List<Match> findByCompetitionIdIn(Collection<Long> competitionIds);
+}
@@ -0,0 +1,12 @@
+package predictions.dapp.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import predictions.dapp.model.Player;
+
+import java.util.List;
+
+@Repository
+public interface PlayerRepository extends JpaRepository<Player, Long> {
+    List<Player> findByTeamId(Long teamId);
+}
@@ -0,0 +1,9 @@
+package predictions.dapp.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import predictions.dapp.model.PredictionAccuracy;
+
+@Repository
+public interface PredictionAccuracyRepository extends JpaRepository<PredictionAccuracy, Long> {
+}
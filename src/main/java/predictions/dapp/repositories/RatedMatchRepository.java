@@ -0,0 +1,15 @@
+package predictions.dapp.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import predictions.dapp.model.RatedMatch;
+
+import java.util.List;
+
+@Repository
+public interface RatedMatchRepository extends JpaRepository<RatedMatch, Long> {
+
+    @Query("SELECT r.matchId FROM RatedMatch r")
+    List<Long> findAllMatchIds();
+}
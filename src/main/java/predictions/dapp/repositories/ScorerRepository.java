@@ -0,0 +1,19 @@
+package predictions.dapp.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import predictions.dapp.model.Scorer;
+
+import java.util.List;
+
+@Repository
+public interface ScorerRepository extends JpaRepository<Scorer, Long> {
+    List<Scorer> findByCompetitionIdAndSeasonOrderByGoalsDesc(Long competitionId, String season);
+
+    @Modifying
+    @Query("delete from Scorer s where s.competitionId = :competitionId and s.season = :season")
+    void deleteByCompetitionIdAndSeason(@Param("competitionId") Long competitionId, @Param("season") String season);
+}
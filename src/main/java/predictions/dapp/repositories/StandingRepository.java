@@ -0,0 +1,20 @@
+package predictions.dapp.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import predictions.dapp.model.Standing;
+
+import java.util.List;
+
+@Repository
+public interface StandingRepository extends JpaRepository<Standing, Long> {
+    List<Standing> findByCompetitionIdOrderByPosition(Long competitionId);
+
+    /** Bulk delete, executed right away so the table can be refilled in the same transaction */
+    @Modifying
+    @Query("delete from Standing s where s.competitionId = :competitionId")
+    void deleteByCompetitionId(@Param("competitionId") Long competitionId);
+}
@@ -0,0 +1,9 @@
+package predictions.dapp.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import predictions.dapp.model.TeamRating;
+
+@Repository
+public interface TeamRatingRepository extends JpaRepository<TeamRating, Long> {
+}
@@ -0,0 +1,9 @@
+package predictions.dapp.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import predictions.dapp.model.Team;
+
+@Repository
+public interface TeamRepository extends JpaRepository<Team, Long> {
+}
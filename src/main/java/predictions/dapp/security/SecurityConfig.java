@@ -51,6 +51,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/performance/**", "/api/history").permitAll()
                         // Allow access to predictions endpoint (checks authentication internally)
                         .requestMatchers(HttpMethod.GET, "/api/predictions/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/predictions/batch").permitAll()
                         .anyRequest().authenticated() // All other requests require authentication
                 )
 
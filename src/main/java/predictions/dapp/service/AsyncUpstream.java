@@ -0,0 +1,72 @@
+package predictions.dapp.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Composition helpers for the asynchronous Football-Data API
+ */
+public final class AsyncUpstream {
+
+    private AsyncUpstream() {
+    }
+
+    /**
+     * Returns a copy of the future that fails with a {@link TimeoutException}
+     * if it is not complete within the given time (the original is not affected)
+     */
+    public static <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future, Duration timeout) {
+        return future.copy().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Completes when every future is complete, keeping the keys (and their order);
+     * if any of them failed, it fails with that failure, but only once all have completed
+     */
+    public static <K, V> CompletableFuture<Map<K, V>> allOf(Map<K, CompletableFuture<V>> futures) {
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    Map<K, V> results = new LinkedHashMap<>();
+                    futures.forEach((key, future) -> results.put(key, future.join()));
+                    return results;
+                });
+    }
+
+    /**
+     * Same as {@link #allOf(Map)} for a plain collection, keeping the order
+     */
+    public static <V> CompletableFuture<List<V>> allOf(Collection<CompletableFuture<V>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<V> results = new ArrayList<>(futures.size());
+                    futures.forEach(future -> results.add(future.join()));
+                    return results;
+                });
+    }
+
+    /**
+     * Blocks until the future completes, translating failures back into the
+     * checked exceptions of the blocking API
+     */
+    public static <T> T await(CompletableFuture<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof InterruptedException ie) throw ie;
+            if (cause instanceof TimeoutException) throw new IOException("Football-Data call timed out", cause);
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IOException("Error in Football-Data call", cause);
+        }
+    }
+}
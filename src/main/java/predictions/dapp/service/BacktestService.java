@@ -0,0 +1,211 @@
+package predictions.dapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.Month;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Backtests the heuristic prediction against the finished matches of the
+ * {@link MatchStore}, without calling Football-Data.
+ *
+ * Matches are split by competition and season (a season starts in July) and each
+ * season is replayed by a {@link Backtester} as its own fork/join task, so every
+ * season of every competition runs in parallel. The result reports accuracy and
+ * Brier score per season and overall, plus the replay throughput.
+ */
+@Service
+public class BacktestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BacktestService.class);
+    private static final String PERCENTAGE_FORMAT = "%.2f%%";
+    private static final double BRIER_SCALE = 10_000.0;
+
+    private final MatchStoreService matchStoreService;
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    public BacktestService(MatchStoreService matchStoreService) {
+        this.matchStoreService = matchStoreService;
+    }
+
+    /**
+     * Replays every season in the store
+     */
+    public Map<String, Object> backtestAll() {
+        return backtest(-1);
+    }
+
+    /**
+     * Replays every season of one competition
+     *
+     * @throws IllegalArgumentException if the store holds no finished match of the competition
+     */
+    public Map<String, Object> backtest(String competitionId) {
+        int id = parseId(competitionId);
+        if (id < 0) {
+            throw new IllegalArgumentException("Invalid competition id: " + competitionId);
+        }
+        Map<String, Object> response = backtest(id);
+        if ((int) response.get("matches") == 0) {
+            throw new IllegalArgumentException("Competition " + competitionId + " has no finished matches to replay");
+        }
+        return response;
+    }
+
+    // ============================================================
+    // REPLAY
+    // ============================================================
+
+    private Map<String, Object> backtest(int competitionId) {
+        long start = System.nanoTime();
+        MatchStore store = matchStoreService.current();
+
+        // Group the finished slots by competition and season; slots are newest first
+        Map<Long, Integer> positions = new HashMap<>();
+        List<long[]> seasons = new ArrayList<>();
+        int[] seasonOf = new int[store.size()];
+        int[] counts = new int[store.size() + 1];
+        for (int slot = 0; slot < store.size(); slot++) {
+            seasonOf[slot] = -1;
+            int competition = store.competitionId(slot);
+            if (!store.finished(slot) || competition < 0 || (competitionId >= 0 && competition != competitionId)) {
+                continue;
+            }
+            long key = ((long) competition << 32) | seasonStart(store.kickOff(slot));
+            Integer s = positions.get(key);
+            if (s == null) {
+                s = seasons.size();
+                positions.put(key, s);
+                seasons.add(new long[]{competition, seasonStart(store.kickOff(slot)), slot});
+            }
+            seasonOf[slot] = s;
+            counts[s]++;
+        }
+
+        List<SeasonTask> tasks = new ArrayList<>(seasons.size());
+        int[][] slots = new int[seasons.size()][];
+        for (int s = 0; s < slots.length; s++) {
+            slots[s] = new int[counts[s]];
+            counts[s] = 0;
+        }
+        // Oldest first, so each season is filled in kick-off order
+        for (int slot = store.size() - 1; slot >= 0; slot--) {
+            int s = seasonOf[slot];
+            if (s >= 0) slots[s][counts[s]++] = slot;
+        }
+        for (int s = 0; s < slots.length; s++) {
+            tasks.add(new SeasonTask(store, slots[s]));
+        }
+        for (SeasonTask task : tasks) {
+            pool.execute(task);
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>(tasks.size());
+        Backtester.Result total = Backtester.NONE;
+        for (int s = 0; s < tasks.size(); s++) {
+            Backtester.Result result = tasks.get(s).join();
+            long[] season = seasons.get(s);
+            total = total.plus(result);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("competitionId", String.valueOf(season[0]));
+            row.put("competition", store.competitionName((int) season[2]));
+            row.put("season", season[1] + "/" + String.format("%02d", (season[1] + 1) % 100));
+            putMetrics(row, result);
+            rows.add(row);
+        }
+        // Newest season first, then by competition
+        rows.sort(Comparator.comparing((Map<String, Object> row) -> (String) row.get("season")).reversed()
+                .thenComparing(row -> (String) row.get("competitionId")));
+
+        double seconds = Math.max((System.nanoTime() - start) / 1e9, 1e-9);
+        logger.info("Backtest replayed {} match(es) over {} season(s) in {}ms", total.matches(), rows.size(),
+                Math.round(seconds * 1000));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("seasons", rows.size());
+        putMetrics(response, total);
+        response.put("matchesPerSecond", Math.round(total.matches() / seconds));
+        response.put("bySeason", rows);
+        return response;
+    }
+
+    /**
+     * Copies one season's matches out of the store into dense arrays and replays them
+     */
+    private static final class SeasonTask extends RecursiveTask<Backtester.Result> {
+
+        private final MatchStore store;
+        private final int[] slots;
+
+        SeasonTask(MatchStore store, int[] slots) {
+            this.store = store;
+            this.slots = slots;
+        }
+
+        @Override
+        protected Backtester.Result compute() {
+            int matches = slots.length;
+            int[] home = new int[matches];
+            int[] away = new int[matches];
+            int[] homeGoals = new int[matches];
+            int[] awayGoals = new int[matches];
+            IntIntMap positions = new IntIntMap(matches);
+
+            for (int k = 0; k < matches; k++) {
+                int slot = slots[k];
+                home[k] = position(positions, store.homeTeam(slot));
+                away[k] = position(positions, store.awayTeam(slot));
+                homeGoals[k] = store.homeGoals(slot);
+                awayGoals[k] = store.awayGoals(slot);
+            }
+            return Backtester.replay(positions.size(), home, away, homeGoals, awayGoals);
+        }
+
+        private static int position(IntIntMap positions, int teamId) {
+            int t = positions.get(teamId, -1);
+            if (t < 0) {
+                t = positions.size();
+                positions.put(teamId, t);
+            }
+            return t;
+        }
+    }
+
+    // ============================================================
+    // HELPERS
+    // ============================================================
+
+    private static void putMetrics(Map<String, Object> row, Backtester.Result result) {
+        row.put("matches", result.matches());
+        row.put("decided", result.decided());
+        row.put("accuracy", String.format(PERCENTAGE_FORMAT, result.accuracy() * 100));
+        row.put("brierScore", Math.round(result.brierScore() * BRIER_SCALE) / BRIER_SCALE);
+    }
+
+    /** Year the season of a kick-off started in; seasons run from July to June */
+    static int seasonStart(long kickOffEpochSecond) {
+        ZonedDateTime date = Instant.ofEpochSecond(kickOffEpochSecond).atZone(ZoneOffset.UTC);
+        return date.getMonth().compareTo(Month.JULY) >= 0 ? date.getYear() : date.getYear() - 1;
+    }
+
+    private static int parseId(String id) {
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package predictions.dapp.service;
+
+/**
+ * Replays one season of finished matches in kick-off order and scores the
+ * heuristic prediction each match would have received at kick-off.
+ *
+ * Before a match is played the two teams are scored from the season as it stood
+ * then: wins and goals in wins over their last {@link #FORM_MATCHES} matches,
+ * points, goal difference and table position. The home side's share of the two
+ * scores is its win probability. The match result is applied only afterwards, so
+ * no prediction sees its own result. All state is held in primitive arrays indexed
+ * by the team position in the season; the recent results of a team are a ring of
+ * {@link #FORM_MATCHES} entries.
+ */
+final class Backtester {
+
+    static final int FORM_MATCHES = 10;
+
+    private Backtester() {
+    }
+
+    /**
+     * Outcome of a replay. Accuracy counts only matches with a winner; the Brier
+     * score counts every match, a draw as an outcome of one half.
+     */
+    record Result(int matches, int decided, int correct, double brierSum) {
+
+        double accuracy() {
+            return decided == 0 ? 0 : (double) correct / decided;
+        }
+
+        double brierScore() {
+            return matches == 0 ? 0 : brierSum / matches;
+        }
+
+        Result plus(Result other) {
+            return new Result(matches + other.matches, decided + other.decided, correct + other.correct,
+                    brierSum + other.brierSum);
+        }
+    }
+
+    static final Result NONE = new Result(0, 0, 0, 0);
+
+    /**
+     * @param teams     number of team positions
+     * @param home      home team position of every match, oldest first
+     * @param away      away team position of every match
+     * @param homeGoals goals of the home side of every match
+     * @param awayGoals goals of the away side of every match
+     */
+    static Result replay(int teams, int[] home, int[] away, int[] homeGoals, int[] awayGoals) {
+        int[] points = new int[teams];
+        int[] goalDiff = new int[teams];
+        int[] recentWins = new int[teams];
+        int[] recentGoalsInWins = new int[teams];
+        int[] played = new int[teams];
+        // Per team, the last FORM_MATCHES results: goals in the match if won, -1 otherwise
+        int[] ring = new int[teams * FORM_MATCHES];
+
+        int decided = 0;
+        int correct = 0;
+        double brierSum = 0;
+        for (int k = 0; k < home.length; k++) {
+            int h = home[k];
+            int a = away[k];
+
+            double homeScore = HeuristicScore.score(recentWins[h], recentGoalsInWins[h], points[h],
+                    position(h, points, goalDiff), goalDiff[h]);
+            double awayScore = HeuristicScore.score(recentWins[a], recentGoalsInWins[a], points[a],
+                    position(a, points, goalDiff), goalDiff[a]);
+            double homeWin = homeScore / (homeScore + awayScore);
+
+            int diff = homeGoals[k] - awayGoals[k];
+            double actual = diff > 0 ? 1 : diff < 0 ? 0 : 0.5;
+            brierSum += (homeWin - actual) * (homeWin - actual);
+            if (diff != 0) {
+                decided++;
+                if ((homeWin > 0.5 && diff > 0) || (homeWin < 0.5 && diff < 0)) {
+                    correct++;
+                }
+            }
+
+            int goals = homeGoals[k] + awayGoals[k];
+            record(h, diff > 0 ? goals : -1, played, ring, recentWins, recentGoalsInWins);
+            record(a, diff < 0 ? goals : -1, played, ring, recentWins, recentGoalsInWins);
+            points[h] += diff > 0 ? 3 : diff == 0 ? 1 : 0;
+            points[a] += diff < 0 ? 3 : diff == 0 ? 1 : 0;
+            goalDiff[h] += diff;
+            goalDiff[a] -= diff;
+        }
+        return new Result(home.length, decided, correct, brierSum);
+    }
+
+    /** Table position of the team: one plus the teams ahead on points, then goal difference */
+    private static int position(int team, int[] points, int[] goalDiff) {
+        int ahead = 0;
+        for (int t = 0; t < points.length; t++) {
+            if (points[t] > points[team] || (points[t] == points[team] && goalDiff[t] > goalDiff[team])) {
+                ahead++;
+            }
+        }
+        return ahead + 1;
+    }
+
+    private static void record(int team, int goalsIfWon, int[] played, int[] ring,
+                               int[] recentWins, int[] recentGoalsInWins) {
+        int index = team * FORM_MATCHES + played[team] % FORM_MATCHES;
+        if (played[team] >= FORM_MATCHES && ring[index] >= 0) {
+            recentWins[team]--;
+            recentGoalsInWins[team] -= ring[index];
+        }
+        ring[index] = goalsIfWon;
+        if (goalsIfWon >= 0) {
+            recentWins[team]++;
+            recentGoalsInWins[team] += goalsIfWon;
+        }
+        played[team]++;
+    }
+}
@@ -0,0 +1,41 @@
+package predictions.dapp.service;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times cache lookups as {@code cache_lookup_seconds{cache, result}}. Uses the global
+ * registry (bound to the application registry by Spring Boot) so caches built with
+ * plain constructors, as in unit tests, need no extra wiring; there it is a no-op.
+ */
+final class CacheMetrics {
+
+    private CacheMetrics() {
+    }
+
+    /**
+     * Runs the lookup and records its duration; null, empty Optional and empty Map count as a miss
+     */
+    static <T> T timeLookup(String cache, Supplier<T> lookup) {
+        long start = System.nanoTime();
+        T value = lookup.get();
+        Timer.builder("cache_lookup_seconds")
+                .description("Latencia de las lecturas de cache por capa")
+                .tags("cache", cache, "result", isHit(value) ? "hit" : "miss")
+                .register(Metrics.globalRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return value;
+    }
+
+    private static boolean isHit(Object value) {
+        if (value == null) return false;
+        if (value instanceof Optional<?> optional) return optional.isPresent();
+        if (value instanceof Map<?, ?> map) return !map.isEmpty();
+        return true;
+    }
+}
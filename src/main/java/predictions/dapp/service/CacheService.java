@@ -31,20 +31,22 @@ public class CacheService {
     private final ObjectMapper mapper = new ObjectMapper();
 
     // Separate caches for different data types
-    private final Map<String, CacheEntry> predictionCache = new ConcurrentHashMap<>();
+    // Predictions and comparisons are keyed by team pair (see TeamPairKey), performance by player
+    private final Map<Long, CacheEntry> predictionCache = new ConcurrentHashMap<>();
     private final Map<String, CacheEntry> performanceCache = new ConcurrentHashMap<>();
-    private final Map<String, CacheEntry> comparisonCache = new ConcurrentHashMap<>();
+    private final Map<Long, CacheEntry> comparisonCache = new ConcurrentHashMap<>();
 
     /**
-     * Get prediction from cache if available and not expired
+     * Get prediction from cache if available and not expired. Both orders of the
+     * pair share one entry, returned as it was cached.
      *
      * @param team1Id First team ID
      * @param team2Id Second team ID
      * @return Cached prediction or empty map if not found/expired
      */
     public Map<String, Object> getPrediction(String team1Id, String team2Id) {
-        String cacheKey = generatePredictionKey(team1Id, team2Id);
-        return getCachedData(predictionCache, cacheKey, PREDICTION_TYPE);
+        long cacheKey = TeamPairKey.of(team1Id, team2Id);
+        return CacheMetrics.timeLookup("prediction", () -> getCachedData(predictionCache, cacheKey, PREDICTION_TYPE));
     }
 
     /**
@@ -55,7 +57,7 @@ public class CacheService {
      * @param prediction Prediction data to cache
      */
     public void cachePrediction(String team1Id, String team2Id, Map<String, Object> prediction) {
-        String cacheKey = generatePredictionKey(team1Id, team2Id);
+        long cacheKey = TeamPairKey.of(team1Id, team2Id);
         cacheData(predictionCache, cacheKey, prediction, PREDICTION_TYPE);
     }
 
@@ -67,8 +69,8 @@ public class CacheService {
      * @return Cached comparison or empty map if not found/expired
      */
     public Map<String, Object> getComparison(String team1Id, String team2Id) {
-        String cacheKey = generateComparisonKey(team1Id, team2Id);
-        return getCachedData(comparisonCache, cacheKey, COMPARISON_TYPE);
+        long cacheKey = TeamPairKey.of(team1Id, team2Id);
+        return CacheMetrics.timeLookup("comparison", () -> getCachedData(comparisonCache, cacheKey, COMPARISON_TYPE));
     }
 
     /**
@@ -79,7 +81,7 @@ public class CacheService {
      * @param comparison Comparison data to cache
      */
     public void cacheComparison(String team1Id, String team2Id, Map<String, Object> comparison) {
-        String cacheKey = generateComparisonKey(team1Id, team2Id);
+        long cacheKey = TeamPairKey.of(team1Id, team2Id);
         cacheData(comparisonCache, cacheKey, comparison, COMPARISON_TYPE);
     }
 
@@ -90,6 +92,10 @@ public class CacheService {
      * @return Cached performance data or null if not found/expired
      */
     public ObjectNode getPerformance(String playerId) {
+        return CacheMetrics.timeLookup("performance", () -> lookupPerformance(playerId));
+    }
+
+    private ObjectNode lookupPerformance(String playerId) {
         String cacheKey = generatePerformanceKey(playerId);
         Map<String, Object> cached = getCachedData(performanceCache, cacheKey, PERFORMANCE_TYPE);
 
@@ -166,38 +172,13 @@ public class CacheService {
 
     // ==================== Private Helper Methods ====================
 
-    private String generatePredictionKey(String team1Id, String team2Id) {
-        // Normalize key: always put smaller ID first for consistency
-        // This way "86-65" and "65-86" produce the same key
-        int id1 = Integer.parseInt(team1Id);
-        int id2 = Integer.parseInt(team2Id);
-
-        if (id1 <= id2) {
-            return "pred:" + team1Id + ":" + team2Id;
-        } else {
-            return "pred:" + team2Id + ":" + team1Id;
-        }
-    }
-
-    private String generateComparisonKey(String team1Id, String team2Id) {
-        // Normalize key: always put smaller ID first for consistency
-        int id1 = Integer.parseInt(team1Id);
-        int id2 = Integer.parseInt(team2Id);
-
-        if (id1 <= id2) {
-            return "comp:" + team1Id + ":" + team2Id;
-        } else {
-            return "comp:" + team2Id + ":" + team1Id;
-        }
-    }
-
     private String generatePerformanceKey(String playerId) {
         return "perf:" + playerId;
     }
 
-    private Map<String, Object> getCachedData(Map<String, CacheEntry> cache,
-                                              String key,
-                                              String dataType) {
+    private <K> Map<String, Object> getCachedData(Map<K, CacheEntry> cache,
+                                                  K key,
+                                                  String dataType) {
         CacheEntry entry = cache.get(key);
 
         if (entry == null) {
@@ -216,18 +197,18 @@ public class CacheService {
         return entry.data;
     }
 
-    private void cacheData(Map<String, CacheEntry> cache,
-                           String key,
-                           Map<String, Object> data,
-                           String dataType) {
+    private <K> void cacheData(Map<K, CacheEntry> cache,
+                               K key,
+                               Map<String, Object> data,
+                               String dataType) {
         CacheEntry entry = new CacheEntry(data);
         cache.put(key, entry);
         logger.info("{} cached for key: {}", dataType, key);
     }
 
-    private int clearExpiredFromCache(Map<String, CacheEntry> cache) {
+    private int clearExpiredFromCache(Map<?, CacheEntry> cache) {
         int removed = 0;
-        for (Map.Entry<String, CacheEntry> entry : cache.entrySet()) {
+        for (Map.Entry<?, CacheEntry> entry : cache.entrySet()) {
             if (entry.getValue().isExpired()) {
                 cache.remove(entry.getKey());
                 removed++;
@@ -236,7 +217,7 @@ public class CacheService {
         return removed;
     }
 
-    private int countActiveEntries(Map<String, CacheEntry> cache) {
+    private int countActiveEntries(Map<?, CacheEntry> cache) {
         return (int) cache.values().stream()
                 .filter(entry -> !entry.isExpired())
                 .count();
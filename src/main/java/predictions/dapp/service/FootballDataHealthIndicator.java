@@ -0,0 +1,41 @@
+package predictions.dapp.service;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the Football-Data circuit breaker in /actuator/health. An open circuit
+ * is reported as DEGRADED rather than DOWN: the application keeps answering
+ * from cached data, so it should not be taken out of rotation.
+ */
+@Component("footballData")
+public class FootballDataHealthIndicator implements HealthIndicator {
+
+    private static final Status DEGRADED = new Status("DEGRADED", "Football-Data circuit is open");
+
+    private final UpstreamGuard upstreamGuard;
+    private final UpstreamQuota upstreamQuota;
+
+    public FootballDataHealthIndicator(UpstreamGuard upstreamGuard, UpstreamQuota upstreamQuota) {
+        this.upstreamGuard = upstreamGuard;
+        this.upstreamQuota = upstreamQuota;
+    }
+
+    @Override
+    public Health health() {
+        UpstreamGuard.State state = upstreamGuard.getState();
+        Health.Builder builder = (state == UpstreamGuard.State.OPEN) ? Health.status(DEGRADED) : Health.up();
+        return builder
+                .withDetail("circuit", state.name())
+                .withDetail("consecutiveFailures", upstreamGuard.getConsecutiveFailures())
+                .withDetail("availableCalls", upstreamGuard.getAvailablePermits())
+                .withDetail("maxConcurrentCalls", upstreamGuard.getMaxConcurrent())
+                .withDetail("queuedCalls", upstreamGuard.getQueuedCalls())
+                .withDetail("quotaRemaining", upstreamQuota.getRemaining().orElse(-1))
+                .withDetail("quotaResetSeconds", upstreamQuota.getSecondsToReset().orElse(-1))
+                .withDetail("requestsLastMinute", upstreamQuota.getTotalRequestsPerMinute())
+                .build();
+    }
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import predictions.dapp.exceptions.UpstreamHttpException;
 
 import java.io.IOException;
 import java.net.URI;
@@ -14,6 +15,10 @@ import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Cliente simple para Football-Data v4 usando Java 11 HttpClient.
@@ -32,17 +37,31 @@ public class FootballDataService {
     private final ObjectMapper mapper = new ObjectMapper();
     private final String baseUrl;
     private final String token;
+    private final Duration requestTimeout;
+    private final UpstreamGuard upstreamGuard;
+    private final UpstreamQuota upstreamQuota;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     public FootballDataService(
             @Value("${football.api.base}") String baseUrl,
-            @Value("${football.api.token:}") String tokenFromProps
+            @Value("${football.api.token:}") String tokenFromProps,
+            @Value("${football.api.timeout-seconds:10}") long timeoutSeconds,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            UpstreamGuard upstreamGuard,
+            UpstreamQuota upstreamQuota
     ) {
-        this.http = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(15))
-                .build();
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(15));
+        if (virtualThreads) {
+            // Las respuestas async se procesan en virtual threads en vez del pool interno del cliente
+            builder.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+        this.http = builder.build();
 
         this.baseUrl = baseUrl;
+        this.requestTimeout = Duration.ofSeconds(timeoutSeconds);
+        this.upstreamGuard = upstreamGuard;
+        this.upstreamQuota = upstreamQuota;
 
         // Prioridad: variable de entorno
         String env = System.getenv("FOOTBALL_DATA_TOKEN");
@@ -55,19 +74,52 @@ public class FootballDataService {
         }
     }
 
+    /**
+     * Todas las llamadas pasan por el circuit breaker y el bulkhead de {@link UpstreamGuard}
+     */
     private JsonNode get(String pathAndQuery) throws IOException, InterruptedException {
-        HttpRequest req = HttpRequest.newBuilder()
+        return upstreamGuard.execute(pathAndQuery, () -> send(pathAndQuery));
+    }
+
+    private JsonNode send(String pathAndQuery) throws IOException, InterruptedException {
+        HttpResponse<String> res = http.send(buildRequest(pathAndQuery), HttpResponse.BodyHandlers.ofString());
+        return readBody(res);
+    }
+
+    /**
+     * Versión no bloqueante de {@link #get}: ningún thread queda esperando la respuesta
+     */
+    private CompletableFuture<JsonNode> getAsync(String pathAndQuery) {
+        return upstreamGuard.executeAsync(pathAndQuery, () -> sendAsync(pathAndQuery));
+    }
+
+    private CompletableFuture<JsonNode> sendAsync(String pathAndQuery) {
+        return http.sendAsync(buildRequest(pathAndQuery), HttpResponse.BodyHandlers.ofString())
+                .thenApply(res -> {
+                    try {
+                        return readBody(res);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private HttpRequest buildRequest(String pathAndQuery) {
+        return HttpRequest.newBuilder()
                 .uri(URI.create(baseUrl + pathAndQuery))
                 .header("X-Auth-Token", token)
                 .GET()
-                .timeout(Duration.ofSeconds(30))
+                .timeout(requestTimeout)
                 .build();
+    }
 
-        HttpResponse<String> res = http.send(req, HttpResponse.BodyHandlers.ofString());
-
+    private JsonNode readBody(HttpResponse<String> res) throws IOException {
+        // Los headers de cuota vienen también en los 429
+        upstreamQuota.recordResponse(res.headers());
         int sc = res.statusCode();
         if (sc < 200 || sc >= 300) {
-            throw new IOException("Football-Data HTTP " + sc + " body=" + res.body());
+            throw new UpstreamHttpException(sc, "Football-Data HTTP " + sc + " body=" + res.body());
         }
         return mapper.readTree(res.body());
     }
@@ -86,6 +138,17 @@ public class FootballDataService {
         return get(path);
     }
 
+    /**
+     * Partidos de una competición jugados (o programados) entre dos fechas, ambas incluidas.
+     * Football-Data limita el rango a unos pocos días por consulta.
+     */
+    public JsonNode getMatchesByCompetitionBetween(String competitionId, LocalDate dateFrom, LocalDate dateTo)
+            throws IOException, InterruptedException {
+        String path = String.format("%s%s/matches?dateFrom=%s&dateTo=%s",
+                competitionsPath, competitionId, dateFrom.format(DATE_FORMATTER), dateTo.format(DATE_FORMATTER));
+        return get(path);
+    }
+
     /** Resultados finalizados por competición */
     public JsonNode getResultsByCompetition(String competitionCode) throws IOException, InterruptedException {
         String path = competitionsPath + competitionCode + "/matches?status=FINISHED";
@@ -194,4 +257,52 @@ public class FootballDataService {
         String path = String.format("%s%s/standings", competitionsPath, competitionId);
         return get(path);
     }
-}
\ No newline at end of file
+
+    /**
+     * Equipos de una competición, con sus planteles
+     *
+     * @param competitionId ID de la competición
+     * @return JsonNode con los equipos
+     */
+    public JsonNode getTeamsByCompetition(String competitionId) throws IOException, InterruptedException {
+        String path = String.format("%s%s/teams", competitionsPath, competitionId);
+        return get(path);
+    }
+
+    //#################### ASYNC API #########################
+    // Mismas consultas que arriba, sin bloquear el thread que llama. Los futures
+    // fallan con IOException (o TimeoutException) igual que la API bloqueante;
+    // AsyncUpstream tiene helpers para combinarlos y esperarlos.
+
+    public CompletableFuture<JsonNode> getCompetitionsAsync() {
+        return getAsync("/competitions");
+    }
+
+    public CompletableFuture<JsonNode> getMatchesByCompetitionAsync(String competitionCode, Integer matchday) {
+        String path = competitionsPath + competitionCode + "/matches";
+        if (matchday != null) {
+            path += "?matchday=" + matchday;
+        }
+        return getAsync(path);
+    }
+
+    public CompletableFuture<JsonNode> getTopScorersByCompetitionIdAsync(String competitionId, int limit, String season) {
+        String path = String.format("%s%s/scorers?limit=%d&season=%s",
+                competitionsPath, competitionId, limit, season);
+        return getAsync(path);
+    }
+
+    public CompletableFuture<JsonNode> getPlayerByIdAsync(String playerId) {
+        return getAsync("/persons/" + playerId);
+    }
+
+    public CompletableFuture<JsonNode> getLastMatchesFinishedAsync(String teamId, int limit) {
+        String path = String.format("%s%s/matches?status=FINISHED&limit=%d", teamsPath, teamId, limit);
+        return getAsync(path);
+    }
+
+    public CompletableFuture<JsonNode> getStandingsAsync(String competitionId) {
+        String path = String.format("%s%s/standings", competitionsPath, competitionId);
+        return getAsync(path);
+    }
+}
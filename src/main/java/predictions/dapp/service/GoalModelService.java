@@ -0,0 +1,294 @@
+package predictions.dapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Poisson goal models of every competition in the {@link MatchStore}, refitted
+ * at startup and after every replica sync.
+ *
+ * The finished matches are split by competition into primitive arrays and each
+ * competition is fitted as its own fork/join task, so a sync refits all the
+ * leagues in parallel. The fitted models are published together and then only
+ * read: a prediction or a scoreline grid is a few array lookups and never calls
+ * Football-Data.
+ */
+@Service
+public class GoalModelService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoalModelService.class);
+    private static final String PERCENTAGE_FORMAT = "%.2f%%";
+    static final int MIN_MATCHES = 20;
+    private static final int TOP_SCORELINES = 10;
+
+    private final MatchStoreService matchStoreService;
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    private volatile List<PoissonModel> models = List.of();
+
+    public GoalModelService(MatchStoreService matchStoreService) {
+        this.matchStoreService = matchStoreService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(3)
+    public void onStartup() {
+        fit(matchStoreService.current());
+    }
+
+    // ============================================================
+    // PUBLIC API
+    // ============================================================
+
+    /**
+     * Probability that the first team beats the second on neutral ground (draws
+     * count as half), or empty when no model holds both teams
+     */
+    public OptionalDouble winProbability(String teamId1, String teamId2) {
+        int id1 = parseTeamId(teamId1);
+        int id2 = parseTeamId(teamId2);
+        PoissonModel model = findModel(id1, id2);
+        return model == null ? OptionalDouble.empty() : OptionalDouble.of(model.winProbability(id1, id2));
+    }
+
+    /**
+     * Home win, draw and away win probabilities of a match with the first team at
+     * home, or empty when no model holds both teams
+     */
+    public Optional<double[]> getOutcome(String homeTeamId, String awayTeamId) {
+        int home = parseTeamId(homeTeamId);
+        int away = parseTeamId(awayTeamId);
+        PoissonModel model = findModel(home, away);
+        if (model == null) {
+            return Optional.empty();
+        }
+        return Optional.of(PoissonModel.outcome(model.expectedHomeGoals(home, away),
+                model.expectedAwayGoals(home, away)));
+    }
+
+    /**
+     * Expected goals, result probabilities and the most likely scorelines of a
+     * match with the first team at home, or empty when no model holds both teams
+     */
+    public Optional<Map<String, Object>> getScorelines(String homeTeamId, String awayTeamId) {
+        int home = parseTeamId(homeTeamId);
+        int away = parseTeamId(awayTeamId);
+        PoissonModel model = findModel(home, away);
+        if (model == null) {
+            return Optional.empty();
+        }
+
+        double homeExpected = model.expectedHomeGoals(home, away);
+        double awayExpected = model.expectedAwayGoals(home, away);
+        double[] outcome = PoissonModel.outcome(homeExpected, awayExpected);
+        double[][] grid = PoissonModel.scorelines(homeExpected, awayExpected);
+
+        List<int[]> scores = new ArrayList<>();
+        for (int h = 0; h < grid.length; h++) {
+            for (int a = 0; a < grid[h].length; a++) {
+                scores.add(new int[]{h, a});
+            }
+        }
+        scores.sort((x, y) -> Double.compare(grid[y[0]][y[1]], grid[x[0]][x[1]]));
+
+        List<Map<String, Object>> likely = new ArrayList<>(TOP_SCORELINES);
+        for (int[] score : scores.subList(0, TOP_SCORELINES)) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("score", score[0] + "-" + score[1]);
+            entry.put("probability", String.format(PERCENTAGE_FORMAT, grid[score[0]][score[1]] * 100));
+            likely.add(entry);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("competition", model.competitionName());
+        response.put("homeTeam", model.teamName(home));
+        response.put("awayTeam", model.teamName(away));
+        response.put("expectedGoals", Map.of(
+                "home", Math.round(homeExpected * 100) / 100.0,
+                "away", Math.round(awayExpected * 100) / 100.0));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("home", String.format(PERCENTAGE_FORMAT, outcome[0] * 100));
+        result.put("draw", String.format(PERCENTAGE_FORMAT, outcome[1] * 100));
+        result.put("away", String.format(PERCENTAGE_FORMAT, outcome[2] * 100));
+        response.put("outcome", result);
+        response.put("scorelines", likely);
+        return Optional.of(response);
+    }
+
+    /** Name of the team in the first model that holds it, or its id when unknown */
+    public String getTeamName(String teamId) {
+        int id = parseTeamId(teamId);
+        for (PoissonModel model : models) {
+            if (model.hasTeam(id)) {
+                return model.teamName(id);
+            }
+        }
+        return teamId;
+    }
+
+    public int getModelCount() {
+        return models.size();
+    }
+
+    // ============================================================
+    // FITTING
+    // ============================================================
+
+    /**
+     * Fits one model per competition with at least {@value #MIN_MATCHES} finished
+     * matches in the store and publishes them, replacing the previous ones
+     *
+     * @return how many models were fitted
+     */
+    public int fit(MatchStore store) {
+        long start = System.nanoTime();
+
+        // Group the finished slots by competition: count, then fill one int array each
+        IntIntMap positions = new IntIntMap(16);
+        int[] counts = new int[store.size() + 1];
+        for (int slot = 0; slot < store.size(); slot++) {
+            if (store.finished(slot) && store.competitionId(slot) >= 0) {
+                counts[competitionPosition(positions, store.competitionId(slot))]++;
+            }
+        }
+        int[][] slots = new int[positions.size()][];
+        int[] competitionIds = new int[positions.size()];
+        String[] competitionNames = new String[positions.size()];
+        for (int c = 0; c < slots.length; c++) {
+            slots[c] = new int[counts[c]];
+            counts[c] = 0;
+        }
+        for (int slot = 0; slot < store.size(); slot++) {
+            if (!store.finished(slot) || store.competitionId(slot) < 0) continue;
+            int c = positions.get(store.competitionId(slot), -1);
+            slots[c][counts[c]++] = slot;
+            competitionIds[c] = store.competitionId(slot);
+            competitionNames[c] = store.competitionName(slot);
+        }
+
+        List<FitTask> tasks = new ArrayList<>();
+        for (int c = 0; c < slots.length; c++) {
+            if (slots[c].length >= MIN_MATCHES) {
+                tasks.add(new FitTask(store, competitionIds[c], competitionNames[c], slots[c]));
+            }
+        }
+        for (FitTask task : tasks) {
+            pool.execute(task);
+        }
+
+        List<PoissonModel> fitted = new ArrayList<>(tasks.size());
+        for (FitTask task : tasks) {
+            fitted.add(task.join());
+        }
+        // Largest competitions first, so a pair found in a league and a cup uses the league
+        fitted.sort((a, b) -> Integer.compare(b.matches(), a.matches()));
+        models = List.copyOf(fitted);
+
+        logger.info("Goal models fitted for {} competition(s) in {}ms", fitted.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return fitted.size();
+    }
+
+    /**
+     * Copies one competition's matches out of the store into dense arrays and fits them
+     */
+    private static final class FitTask extends RecursiveTask<PoissonModel> {
+
+        private final MatchStore store;
+        private final int competitionId;
+        private final String competitionName;
+        private final int[] slots;
+
+        FitTask(MatchStore store, int competitionId, String competitionName, int[] slots) {
+            this.store = store;
+            this.competitionId = competitionId;
+            this.competitionName = competitionName;
+            this.slots = slots;
+        }
+
+        @Override
+        protected PoissonModel compute() {
+            int matches = slots.length;
+            int[] home = new int[matches];
+            int[] away = new int[matches];
+            int[] homeGoals = new int[matches];
+            int[] awayGoals = new int[matches];
+            IntIntMap positions = new IntIntMap(matches);
+            int[] teamIds = new int[matches * 2];
+
+            for (int k = 0; k < matches; k++) {
+                int slot = slots[k];
+                home[k] = position(positions, teamIds, store.homeTeam(slot));
+                away[k] = position(positions, teamIds, store.awayTeam(slot));
+                homeGoals[k] = store.homeGoals(slot);
+                awayGoals[k] = store.awayGoals(slot);
+            }
+
+            int teams = positions.size();
+            int[] ids = Arrays.copyOf(teamIds, teams);
+            String[] teamNames = new String[teams];
+            for (int t = 0; t < teams; t++) {
+                teamNames[t] = store.teamName(ids[t]);
+            }
+            PoissonModel model = PoissonModel.fit(competitionId, competitionName, ids, teamNames,
+                    home, away, homeGoals, awayGoals);
+            logger.debug("Goal model of {}: {} team(s), {} match(es), {} iteration(s)", competitionName,
+                    model.teamCount(), model.matches(), model.iterations());
+            return model;
+        }
+
+        private static int position(IntIntMap positions, int[] teamIds, int teamId) {
+            int t = positions.get(teamId, -1);
+            if (t < 0) {
+                t = positions.size();
+                positions.put(teamId, t);
+                teamIds[t] = teamId;
+            }
+            return t;
+        }
+    }
+
+    // ============================================================
+    // HELPERS
+    // ============================================================
+
+    private static int competitionPosition(IntIntMap positions, int competitionId) {
+        int c = positions.get(competitionId, -1);
+        if (c < 0) {
+            c = positions.size();
+            positions.put(competitionId, c);
+        }
+        return c;
+    }
+
+    private PoissonModel findModel(int teamId1, int teamId2) {
+        for (PoissonModel model : models) {
+            if (model.hasTeams(teamId1, teamId2)) {
+                return model;
+            }
+        }
+        return null;
+    }
+
+    private static int parseTeamId(String teamId) {
+        try {
+            return Integer.parseInt(teamId);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
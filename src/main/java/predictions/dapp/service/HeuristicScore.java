@@ -0,0 +1,56 @@
+package predictions.dapp.service;
+
+/**
+ * Weights of the heuristic team score used by predictions, comparisons and power
+ * rankings. Two teams split 100% in proportion to their scores.
+ *
+ * {@link #scoreAll} takes one primitive array per input, so the loop body is
+ * branch-free arithmetic over parallel arrays that the JIT can vectorise.
+ */
+final class HeuristicScore {
+
+    private static final double WIN_WEIGHT = 0.30;
+    private static final double GOALS_IN_WINS_WEIGHT = 0.20;
+    private static final double POINTS_WEIGHT = 0.25;
+    private static final double POSITION_WEIGHT = 0.15;
+    private static final double GOAL_DIFF_WEIGHT = 0.10;
+
+    // Every component is on a 0..100 scale
+    private static final double CAP = 100;
+    private static final double MIN_SCORE = 1.0;
+
+    private HeuristicScore() {
+    }
+
+    static double score(int wins, int goalsInWins, int points, double position, int goalDiff) {
+        return weighted(wins, goalsInWins, points, position, goalDiff);
+    }
+
+    /**
+     * Scores {@code scores.length} teams at once; every array is indexed by team
+     */
+    static void scoreAll(int[] wins, int[] goalsInWins, int[] points, int[] positions, int[] goalDiffs,
+                         double[] scores) {
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = weighted(wins[i], goalsInWins[i], points[i], positions[i], goalDiffs[i]);
+        }
+    }
+
+    // Small enough to be inlined into the scoreAll loop
+    private static double weighted(int wins, int goalsInWins, int points, double position, int goalDiff) {
+        double winRate = wins * 10.0;
+        double goalScore = Math.min(goalsInWins * 2.0, CAP);
+        double pointsScore = Math.min(points * 2.0, CAP);
+        double positionScore = Math.max(0, CAP - (position * 5));
+        double goalDiffScore = Math.min(Math.max(goalDiff * 3.0, 0), CAP);
+
+        return Math.max(
+                (winRate * WIN_WEIGHT) +
+                        (goalScore * GOALS_IN_WINS_WEIGHT) +
+                        (pointsScore * POINTS_WEIGHT) +
+                        (positionScore * POSITION_WEIGHT) +
+                        (goalDiffScore * GOAL_DIFF_WEIGHT),
+                MIN_SCORE
+        );
+    }
+}
@@ -0,0 +1,96 @@
+package predictions.dapp.service;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from int keys to double values, without boxing.
+ * Same layout as {@link IntIntMap}; {@link #copy()} lets a writer update a
+ * private copy and publish it while readers keep using the previous one.
+ */
+final class IntDoubleMap {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private double[] values;
+    private boolean[] used;
+    private int size;
+
+    IntDoubleMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new int[capacity];
+        values = new double[capacity];
+        used = new boolean[capacity];
+    }
+
+    private IntDoubleMap(IntDoubleMap other) {
+        keys = Arrays.copyOf(other.keys, other.keys.length);
+        values = Arrays.copyOf(other.values, other.values.length);
+        used = Arrays.copyOf(other.used, other.used.length);
+        size = other.size;
+    }
+
+    void put(int key, double value) {
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            grow();
+        }
+        int slot = findSlot(key);
+        if (!used[slot]) {
+            used[slot] = true;
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Returns the value of the key, or the given default when it is not present
+     */
+    double get(int key, double defaultValue) {
+        int slot = findSlot(key);
+        return used[slot] ? values[slot] : defaultValue;
+    }
+
+    boolean containsKey(int key) {
+        return used[findSlot(key)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    IntDoubleMap copy() {
+        return new IntDoubleMap(this);
+    }
+
+    private int findSlot(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        double[] oldValues = values;
+        boolean[] oldUsed = used;
+
+        keys = new int[oldKeys.length << 1];
+        values = new double[oldKeys.length << 1];
+        used = new boolean[oldKeys.length << 1];
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
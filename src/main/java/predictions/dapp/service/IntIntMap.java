@@ -0,0 +1,83 @@
+package predictions.dapp.service;
+
+/**
+ * Open-addressing hash map from int keys to int values, without boxing.
+ * Used to index compact tables (e.g. a standings table) by team id.
+ * Not thread-safe: instances are built once and then only read.
+ */
+final class IntIntMap {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+
+    IntIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+    }
+
+    void put(int key, int value) {
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            grow();
+        }
+        int slot = findSlot(key);
+        if (!used[slot]) {
+            used[slot] = true;
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Returns the value of the key, or the given default when it is not present
+     */
+    int get(int key, int defaultValue) {
+        int slot = findSlot(key);
+        return used[slot] ? values[slot] : defaultValue;
+    }
+
+    boolean containsKey(int key) {
+        return used[findSlot(key)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int findSlot(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+
+        keys = new int[oldKeys.length << 1];
+        values = new int[oldKeys.length << 1];
+        used = new boolean[oldKeys.length << 1];
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
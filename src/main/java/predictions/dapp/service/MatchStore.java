@@ -0,0 +1,399 @@
+package predictions.dapp.service;
+
+import predictions.dapp.model.Match;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable column-oriented copy of the replica matches.
+ *
+ * Each match is a slot in a set of parallel primitive arrays (match id, teams,
+ * goals, winner code, kick-off, competition), sorted newest first. Every team has an
+ * index list of its slots, stored back to back in one int array and located
+ * through an {@link IntIntMap}, so the last N finished matches of a team and its
+ * form are read with int comparisons and no allocation.
+ *
+ * The columns can be written to and read back from a {@link SnapshotFile}
+ * as they are, without going through the entities again.
+ */
+public final class MatchStore {
+
+    public static final byte WINNER_NONE = 0;
+    public static final byte WINNER_HOME = 1;
+    public static final byte WINNER_AWAY = 2;
+    public static final byte WINNER_DRAW = 3;
+
+    static final MatchStore EMPTY = build(List.of(), Map.of(), Instant.EPOCH);
+
+    private static final String FINISHED = "FINISHED";
+    private static final String SCHEDULED = "SCHEDULED";
+    private static final String TIMED = "TIMED";
+
+    private final Instant builtAt;
+
+    // Match columns, one entry per slot
+    private final long[] matchId;
+    private final int[] homeTeam;
+    private final int[] awayTeam;
+    private final int[] homeGoals;
+    private final int[] awayGoals;
+    private final byte[] winner;
+    private final boolean[] finished;
+    private final boolean[] scheduled;
+    private final long[] kickOff;
+    private final int[] competition;
+
+    // Per-team index lists: slots of team t are teamSlots[teamStart[t] .. teamStart[t + 1])
+    private final IntIntMap teamIndex;
+    private final int[] teamIds;
+    private final int[] teamStart;
+    private final int[] teamSlots;
+    private final String[] teamNames;
+
+    private final IntIntMap competitionIndex;
+    private final int[] competitionIds;
+    private final String[] competitionNames;
+
+    private MatchStore(Instant builtAt, int size, IntIntMap teamIndex, int competitions) {
+        int teams = teamIndex.size();
+        this.builtAt = builtAt;
+        this.matchId = new long[size];
+        this.homeTeam = new int[size];
+        this.awayTeam = new int[size];
+        this.homeGoals = new int[size];
+        this.awayGoals = new int[size];
+        this.winner = new byte[size];
+        this.finished = new boolean[size];
+        this.scheduled = new boolean[size];
+        this.kickOff = new long[size];
+        this.competition = new int[size];
+        this.teamIndex = teamIndex;
+        this.teamIds = new int[teams];
+        this.teamStart = new int[teams + 1];
+        this.teamSlots = new int[size * 2];
+        this.teamNames = new String[teams];
+        this.competitionIndex = new IntIntMap(competitions);
+        this.competitionIds = new int[competitions];
+        this.competitionNames = new String[competitions];
+    }
+
+    /**
+     * Builds the store from replica rows; matches without both team ids or a
+     * kick-off are skipped
+     *
+     * @param competitionNames name of every competition the matches may belong to
+     */
+    static MatchStore build(Collection<Match> matches, Map<Long, String> competitionNames, Instant builtAt) {
+        Match[] rows = matches.stream()
+                .filter(m -> m.getHomeTeamId() != null && m.getAwayTeamId() != null && m.getUtcDate() != null)
+                .sorted(Comparator.comparing(Match::getUtcDate).reversed())
+                .toArray(Match[]::new);
+
+        // First pass: dense team numbering and the size of each team's list
+        IntIntMap teams = new IntIntMap(rows.length);
+        int[] counts = new int[rows.length * 2 + 1];
+        for (Match row : rows) {
+            counts[number(teams, row.getHomeTeamId().intValue())]++;
+            counts[number(teams, row.getAwayTeamId().intValue())]++;
+        }
+
+        MatchStore store = new MatchStore(builtAt, rows.length, teams, competitionNames.size());
+        int offset = 0;
+        for (int t = 0; t < teams.size(); t++) {
+            store.teamStart[t] = offset;
+            offset += counts[t];
+        }
+        store.teamStart[teams.size()] = offset;
+
+        int c = 0;
+        for (Map.Entry<Long, String> entry : competitionNames.entrySet()) {
+            store.competitionIndex.put(entry.getKey().intValue(), c);
+            store.competitionIds[c] = entry.getKey().intValue();
+            store.competitionNames[c++] = entry.getValue();
+        }
+
+        // Second pass: fill the columns; rows are newest first, so every team list is too
+        int[] next = Arrays.copyOf(store.teamStart, teams.size());
+        for (int slot = 0; slot < rows.length; slot++) {
+            Match row = rows[slot];
+            int home = row.getHomeTeamId().intValue();
+            int away = row.getAwayTeamId().intValue();
+            store.matchId[slot] = row.getId() != null ? row.getId() : -1;
+            store.homeTeam[slot] = home;
+            store.awayTeam[slot] = away;
+            store.homeGoals[slot] = row.getHomeGoals() != null ? row.getHomeGoals() : 0;
+            store.awayGoals[slot] = row.getAwayGoals() != null ? row.getAwayGoals() : 0;
+            store.winner[slot] = winnerCode(row.getWinner());
+            store.finished[slot] = FINISHED.equals(row.getStatus()) && row.getHomeGoals() != null;
+            store.scheduled[slot] = SCHEDULED.equals(row.getStatus()) || TIMED.equals(row.getStatus());
+            store.kickOff[slot] = row.getUtcDate().getEpochSecond();
+            store.competition[slot] = row.getCompetitionId() != null ? row.getCompetitionId().intValue() : -1;
+
+            int h = teams.get(home, -1);
+            int a = teams.get(away, -1);
+            store.teamIds[h] = home;
+            store.teamIds[a] = away;
+            store.teamSlots[next[h]++] = slot;
+            store.teamSlots[next[a]++] = slot;
+            if (store.teamNames[h] == null) store.teamNames[h] = row.getHomeTeamName();
+            if (store.teamNames[a] == null) store.teamNames[a] = row.getAwayTeamName();
+        }
+        return store;
+    }
+
+    /**
+     * Reads a store written by {@link #writeTo}, starting at the buffer position
+     */
+    static MatchStore readFrom(ByteBuffer in) {
+        Instant builtAt = Instant.ofEpochMilli(in.getLong());
+        int size = in.getInt();
+        int teams = in.getInt();
+        int competitions = in.getInt();
+
+        int[] teamIds = SnapshotFile.getInts(in, new int[teams]);
+        IntIntMap teamIndex = new IntIntMap(teams);
+        for (int t = 0; t < teams; t++) {
+            teamIndex.put(teamIds[t], t);
+        }
+
+        MatchStore store = new MatchStore(builtAt, size, teamIndex, competitions);
+        System.arraycopy(teamIds, 0, store.teamIds, 0, teams);
+        SnapshotFile.getLongs(in, store.matchId);
+        SnapshotFile.getInts(in, store.homeTeam);
+        SnapshotFile.getInts(in, store.awayTeam);
+        SnapshotFile.getInts(in, store.homeGoals);
+        SnapshotFile.getInts(in, store.awayGoals);
+        in.get(store.winner);
+        for (int i = 0; i < size; i++) {
+            store.finished[i] = in.get() != 0;
+        }
+        for (int i = 0; i < size; i++) {
+            store.scheduled[i] = in.get() != 0;
+        }
+        SnapshotFile.getLongs(in, store.kickOff);
+        SnapshotFile.getInts(in, store.competition);
+        SnapshotFile.getInts(in, store.teamStart);
+        SnapshotFile.getInts(in, store.teamSlots);
+        for (int t = 0; t < teams; t++) {
+            store.teamNames[t] = SnapshotFile.getString(in);
+        }
+        for (int c = 0; c < competitions; c++) {
+            store.competitionIds[c] = in.getInt();
+            store.competitionNames[c] = SnapshotFile.getString(in);
+            store.competitionIndex.put(store.competitionIds[c], c);
+        }
+        return store;
+    }
+
+    void writeTo(ByteBuffer out) {
+        out.putLong(builtAt.toEpochMilli());
+        out.putInt(size()).putInt(teamIds.length).putInt(competitionIds.length);
+        SnapshotFile.putInts(out, teamIds);
+        SnapshotFile.putLongs(out, matchId);
+        SnapshotFile.putInts(out, homeTeam);
+        SnapshotFile.putInts(out, awayTeam);
+        SnapshotFile.putInts(out, homeGoals);
+        SnapshotFile.putInts(out, awayGoals);
+        out.put(winner);
+        for (boolean f : finished) {
+            out.put(f ? (byte) 1 : (byte) 0);
+        }
+        for (boolean s : scheduled) {
+            out.put(s ? (byte) 1 : (byte) 0);
+        }
+        SnapshotFile.putLongs(out, kickOff);
+        SnapshotFile.putInts(out, competition);
+        SnapshotFile.putInts(out, teamStart);
+        SnapshotFile.putInts(out, teamSlots);
+        for (String name : teamNames) {
+            SnapshotFile.putString(out, name);
+        }
+        for (int c = 0; c < competitionIds.length; c++) {
+            out.putInt(competitionIds[c]);
+            SnapshotFile.putString(out, competitionNames[c]);
+        }
+    }
+
+    /** Exact number of bytes {@link #writeTo} writes */
+    int byteSize() {
+        long bytes = Long.BYTES + 3L * Integer.BYTES
+                + (long) teamIds.length * Integer.BYTES
+                + (long) size() * (2 * Long.BYTES + 4 * Integer.BYTES + 3 + Integer.BYTES)
+                + (long) teamStart.length * Integer.BYTES
+                + (long) teamSlots.length * Integer.BYTES
+                + (long) competitionIds.length * Integer.BYTES;
+        for (String name : teamNames) {
+            bytes += SnapshotFile.stringSize(name);
+        }
+        for (String name : competitionNames) {
+            bytes += SnapshotFile.stringSize(name);
+        }
+        return Math.toIntExact(bytes);
+    }
+
+    // ============================================================
+    // QUERIES
+    // ============================================================
+
+    /**
+     * Copies into {@code out} the slots of the team's last finished matches,
+     * newest first, and returns how many were found (at most {@code out.length})
+     */
+    public int lastFinished(int teamId, int[] out) {
+        int t = teamIndex.get(teamId, -1);
+        if (t < 0) return 0;
+
+        int found = 0;
+        for (int i = teamStart[t]; i < teamStart[t + 1] && found < out.length; i++) {
+            int slot = teamSlots[i];
+            if (finished[slot]) {
+                out[found++] = slot;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Adds the results of the given slots, seen from the team's side, to {@code form}
+     */
+    public void accumulateForm(int teamId, int[] slots, int count, Form form) {
+        for (int i = 0; i < count; i++) {
+            int slot = slots[i];
+            boolean home = homeTeam[slot] == teamId;
+            int scored = home ? homeGoals[slot] : awayGoals[slot];
+            int conceded = home ? awayGoals[slot] : homeGoals[slot];
+            byte result = winner[slot];
+
+            form.played++;
+            form.scored += scored;
+            form.conceded += conceded;
+            if (result == (home ? WINNER_HOME : WINNER_AWAY)) {
+                form.won++;
+                form.goalsInWins += scored + conceded;
+            } else if (result == (home ? WINNER_AWAY : WINNER_HOME)) {
+                form.lost++;
+            } else {
+                form.drawn++;
+            }
+        }
+    }
+
+    public boolean hasTeam(int teamId) {
+        return teamIndex.containsKey(teamId);
+    }
+
+    /** Name of the team as written on its newest match, or null if unknown */
+    public String teamName(int teamId) {
+        int t = teamIndex.get(teamId, -1);
+        return t < 0 ? null : teamNames[t];
+    }
+
+    public int teamCount() {
+        return teamNames.length;
+    }
+
+    public int size() {
+        return homeTeam.length;
+    }
+
+    public Instant builtAt() {
+        return builtAt;
+    }
+
+    /** Replica id of the match, or -1 if the row had none */
+    public long matchId(int slot) {
+        return matchId[slot];
+    }
+
+    public int homeTeam(int slot) {
+        return homeTeam[slot];
+    }
+
+    public int awayTeam(int slot) {
+        return awayTeam[slot];
+    }
+
+    public int homeGoals(int slot) {
+        return homeGoals[slot];
+    }
+
+    public int awayGoals(int slot) {
+        return awayGoals[slot];
+    }
+
+    public byte winner(int slot) {
+        return winner[slot];
+    }
+
+    public boolean finished(int slot) {
+        return finished[slot];
+    }
+
+    /** Whether the match is still to be played (SCHEDULED or TIMED), unlike a postponed or cancelled one */
+    public boolean scheduled(int slot) {
+        return scheduled[slot];
+    }
+
+    /** Kick-off of the match in epoch seconds */
+    public long kickOff(int slot) {
+        return kickOff[slot];
+    }
+
+    public int competitionId(int slot) {
+        return competition[slot];
+    }
+
+    /** Name of the match competition, or null if it was not given at build time */
+    public String competitionName(int slot) {
+        int c = competitionIndex.get(competition[slot], -1);
+        return c < 0 ? null : competitionNames[c];
+    }
+
+    // ============================================================
+    // BUILD HELPERS
+    // ============================================================
+
+    private static int number(IntIntMap teams, int teamId) {
+        int t = teams.get(teamId, -1);
+        if (t < 0) {
+            t = teams.size();
+            teams.put(teamId, t);
+        }
+        return t;
+    }
+
+    private static byte winnerCode(String winner) {
+        if (winner == null) return WINNER_NONE;
+        return switch (winner) {
+            case "HOME_TEAM" -> WINNER_HOME;
+            case "AWAY_TEAM" -> WINNER_AWAY;
+            case "DRAW" -> WINNER_DRAW;
+            default -> WINNER_NONE;
+        };
+    }
+
+    /**
+     * Mutable form accumulator, so a caller can reuse one instance across teams
+     */
+    public static final class Form {
+        public String teamName = "";
+        public int played;
+        public int won;
+        public int drawn;
+        public int lost;
+        public int scored;
+        public int conceded;
+        public int goalsInWins;
+
+        public void reset() {
+            teamName = "";
+            played = won = drawn = lost = scored = conceded = goalsInWins = 0;
+        }
+    }
+}
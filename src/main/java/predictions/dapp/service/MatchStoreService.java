@@ -0,0 +1,97 @@
+package predictions.dapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import predictions.dapp.model.Competition;
+import predictions.dapp.model.Match;
+import predictions.dapp.repositories.CompetitionRepository;
+import predictions.dapp.repositories.MatchRepository;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the current {@link MatchStore}, rebuilt from the replica at startup and
+ * after every sync. Only competitions that are fresh at build time are loaded,
+ * and the whole store is dropped once it is older than {@code replica.max-age-hours},
+ * so callers never read older data than the replica itself would serve.
+ * A store restored from the snapshot file follows the same rule, using the
+ * instant it was originally built.
+ */
+@Service
+public class MatchStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchStoreService.class);
+
+    private final MatchRepository matchRepository;
+    private final CompetitionRepository competitionRepository;
+    private final ReplicaService replicaService;
+    private volatile MatchStore current = MatchStore.EMPTY;
+
+    public MatchStoreService(MatchRepository matchRepository,
+                             CompetitionRepository competitionRepository,
+                             ReplicaService replicaService) {
+        this.matchRepository = matchRepository;
+        this.competitionRepository = competitionRepository;
+        this.replicaService = replicaService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void onStartup() {
+        rebuild();
+    }
+
+    /**
+     * Loads the matches of every fresh competition into a new store and publishes it
+     */
+    public MatchStore rebuild() {
+        long start = System.nanoTime();
+        Map<Long, String> competitions = new HashMap<>();
+        for (Competition competition : competitionRepository.findAll()) {
+            if (replicaService.isFresh(competition)) {
+                competitions.put(competition.getId(), competition.getName());
+            }
+        }
+        List<Match> matches = competitions.isEmpty()
+                ? List.of()
+                : matchRepository.findByCompetitionIdIn(competitions.keySet());
+
+        MatchStore store = MatchStore.build(matches, competitions, Instant.now());
+        current = store;
+        logger.info("Match store rebuilt: {} match(es) of {} team(s) in {}ms", store.size(), store.teamCount(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return store;
+    }
+
+    /**
+     * Publishes a store read from the snapshot file, only while there is nothing
+     * fresher to serve
+     *
+     * @return whether the store is now the current one
+     */
+    public boolean restore(MatchStore store) {
+        if (current().size() > 0 || !replicaService.isFresh(store.builtAt())) {
+            return false;
+        }
+        current = store;
+        logger.info("Match store restored: {} match(es) of {} team(s) built at {}", store.size(),
+                store.teamCount(), store.builtAt());
+        return true;
+    }
+
+    /**
+     * Returns the current store, or an empty one if it was built too long ago
+     */
+    public MatchStore current() {
+        MatchStore store = current;
+        return replicaService.isFresh(store.builtAt()) ? store : MatchStore.EMPTY;
+    }
+}
@@ -19,6 +19,7 @@ import java.util.Optional;
 public class MethodCacheService {
 
     private static final Logger logger = LoggerFactory.getLogger(MethodCacheService.class);
+    private static final String METHOD_CACHE = "method";
     private static final int CACHE_DURATION_MINUTES = 5;
 
     private final MethodAspectsRepository methodAspectsRepository;
@@ -37,6 +38,10 @@ public class MethodCacheService {
      * Retrieve cached result if valid - Generic version for any Class type
      */
     public <T> Optional<T> getCachedResult(String methodSignature, Class<T> resultType) {
+        return CacheMetrics.timeLookup(METHOD_CACHE, () -> lookup(methodSignature, resultType));
+    }
+
+    private <T> Optional<T> lookup(String methodSignature, Class<T> resultType) {
         try {
             Optional<MethodAspects> cached = methodAspectsRepository.findValidCache(
                     methodSignature,
@@ -64,6 +69,10 @@ public class MethodCacheService {
      * Retrieve cached result if valid - TypeReference version for complex generic types like Map<String, Object>
      */
     public <T> Optional<T> getCachedResult(String methodSignature, TypeReference<T> typeReference) {
+        return CacheMetrics.timeLookup(METHOD_CACHE, () -> lookup(methodSignature, typeReference));
+    }
+
+    private <T> Optional<T> lookup(String methodSignature, TypeReference<T> typeReference) {
         try {
             Optional<MethodAspects> cached = methodAspectsRepository.findValidCache(
                     methodSignature,
@@ -3,44 +3,106 @@ package predictions.dapp.service;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
 import predictions.dapp.exceptions.MetricsException;
 
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Request metrics shared by every controller. Meters are tagged with the route
+ * template of the current request (e.g. {@code /api/predictions/{teamId1}/{teamId2}})
+ * and the handler method serving it, so each endpoint can be told apart without
+ * changing the controllers; the latency timer is also tagged with the outcome.
+ * Both tags come from the route table, so their cardinality is bounded.
+ */
 @Component
 public class MetricsService {
 
-    private final Counter predictionRequests;
-    private final Counter predictionErrors;
-    private final Timer predictionLatency;
+    private static final String REQUESTS = "predictions_requests_total";
+    private static final String ERRORS = "predictions_errors_total";
+    private static final String LATENCY = "predictions_latency_seconds";
+    private static final String UNKNOWN = "unknown";
+    private static final Endpoint UNKNOWN_ENDPOINT = new Endpoint(UNKNOWN, UNKNOWN);
+
+    private final MeterRegistry registry;
+    private final Map<Endpoint, Counter> requestCounters = new ConcurrentHashMap<>();
+    private final Map<Endpoint, Counter> errorCounters = new ConcurrentHashMap<>();
 
     public MetricsService(MeterRegistry registry) {
-        this.predictionRequests = Counter.builder("predictions_requests_total")
-                .description("Cantidad de requests al endpoint de predicciones")
-                .register(registry);
-
-        this.predictionErrors = Counter.builder("predictions_errors_total")
-                .description("Errores en el endpoint de predicciones")
-                .tag("type", "internal")
-                .register(registry);
-
-        this.predictionLatency = Timer.builder("predictions_latency_seconds")
-                .description("Latencia del endpoint de predicciones")
-                .register(registry);
+        this.registry = registry;
     }
 
     public void incrementRequests() {
-        predictionRequests.increment();
+        requestCounters.computeIfAbsent(currentEndpoint(), endpoint -> Counter.builder(REQUESTS)
+                .description("Cantidad de requests por endpoint")
+                .tags("endpoint", endpoint.path(), "handler", endpoint.handler())
+                .register(registry)
+        ).increment();
     }
 
     public void incrementErrors() {
-        predictionErrors.increment();
+        errorCounters.computeIfAbsent(currentEndpoint(), endpoint -> Counter.builder(ERRORS)
+                .description("Errores por endpoint")
+                .tags("type", "internal", "endpoint", endpoint.path(), "handler", endpoint.handler())
+                .register(registry)
+        ).increment();
     }
 
-    public <T> T measureLatency(java.util.concurrent.Callable<T> supplier) {
+    public <T> T measureLatency(Callable<T> supplier) {
+        Endpoint endpoint = currentEndpoint();
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "EXCEPTION";
         try {
-            return predictionLatency.recordCallable(supplier);
+            T result = supplier.call();
+            outcome = outcomeOf(result);
+            return result;
         } catch (Exception e) {
             throw new MetricsException("Error al medir la latencia:", e);
+        } finally {
+            sample.stop(Timer.builder(LATENCY)
+                    .description("Latencia por endpoint")
+                    .tags("endpoint", endpoint.path(), "handler", endpoint.handler(), "outcome", outcome)
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Route template and handler of the request being handled, or "unknown" outside a request
+     */
+    private Endpoint currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return UNKNOWN_ENDPOINT;
         }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        Object handler = attributes.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        return new Endpoint(
+                pattern != null ? pattern.toString() : UNKNOWN,
+                handler instanceof HandlerMethod method
+                        ? method.getBeanType().getSimpleName() + "." + method.getMethod().getName()
+                        : UNKNOWN
+        );
+    }
+
+    private String outcomeOf(Object result) {
+        if (!(result instanceof ResponseEntity<?> response)) {
+            return "SUCCESS";
+        }
+        int status = response.getStatusCode().value();
+        if (status >= 500) return "SERVER_ERROR";
+        if (status >= 400) return "CLIENT_ERROR";
+        return "SUCCESS";
+    }
+
+    private record Endpoint(String path, String handler) {
     }
 }
@@ -0,0 +1,114 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Background lookup of a player performance. One job serves every user that asks
+ * for the same player while it runs; each of them gets the result in their history.
+ */
+public class PerformanceJob {
+
+    public enum Status { PENDING, RUNNING, DONE, FAILED }
+
+    private final String id;
+    private final String playerId;
+    private final Instant createdAt = Instant.now();
+    private final CompletableFuture<PerformanceJob> completion = new CompletableFuture<>();
+    private final List<Long> requesters = new ArrayList<>();
+    // A lock instead of synchronized so virtual threads never get pinned here
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Status status = Status.PENDING;
+    private volatile ObjectNode result;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    PerformanceJob(String id, String playerId) {
+        this.id = id;
+        this.playerId = playerId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getPlayerId() {
+        return playerId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public ObjectNode getResult() {
+        return result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+
+    /**
+     * Completes (with this job) once the job is DONE or FAILED
+     */
+    public CompletableFuture<PerformanceJob> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Registers a user to receive the result; false if the job already finished
+     */
+    boolean addRequester(Long userId) {
+        lock.lock();
+        try {
+            if (isFinished()) {
+                return false;
+            }
+            requesters.add(userId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void markRunning() {
+        status = Status.RUNNING;
+    }
+
+    /**
+     * Stores the outcome and returns the users registered until now
+     */
+    List<Long> finish(ObjectNode result, String error) {
+        List<Long> users;
+        lock.lock();
+        try {
+            this.result = result;
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.status = (error == null) ? Status.DONE : Status.FAILED;
+            users = List.copyOf(requesters);
+        } finally {
+            lock.unlock();
+        }
+        completion.complete(this);
+        return users;
+    }
+}
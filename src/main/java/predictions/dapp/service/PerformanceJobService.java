@@ -0,0 +1,116 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs cold performance lookups in the background so the request thread can answer
+ * right away with a job id. There is at most one running job per player: later
+ * requests for the same player join it instead of starting another search.
+ */
+@Service
+public class PerformanceJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceJobService.class);
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+
+    private final PerformanceService performanceService;
+    private final TaskExecutor jobExecutor;
+    private final Map<String, PerformanceJob> jobsById = new ConcurrentHashMap<>();
+    private final Map<String, PerformanceJob> activeJobsByPlayer = new ConcurrentHashMap<>();
+
+    public PerformanceJobService(PerformanceService performanceService,
+                                 @Qualifier("jobExecutor") TaskExecutor jobExecutor) {
+        this.performanceService = performanceService;
+        this.jobExecutor = jobExecutor;
+    }
+
+    /**
+     * Returns the running job for the player, starting one if there is none,
+     * and registers the user to get the result saved in their history
+     */
+    public PerformanceJob submit(Long userId, String playerId) {
+        while (true) {
+            PerformanceJob candidate = new PerformanceJob(UUID.randomUUID().toString(), playerId);
+            PerformanceJob running = activeJobsByPlayer.putIfAbsent(playerId, candidate);
+
+            if (running == null) {
+                candidate.addRequester(userId);
+                start(candidate);
+                return candidate;
+            }
+            if (running.addRequester(userId)) {
+                logger.info("Joining running performance job {} for playerId: {}", running.getId(), playerId);
+                return running;
+            }
+            // The job finished between the lookup and the registration: start a new one
+            activeJobsByPlayer.remove(playerId, running);
+        }
+    }
+
+    public Optional<PerformanceJob> getJob(String jobId) {
+        return Optional.ofNullable(jobsById.get(jobId));
+    }
+
+    /**
+     * Forgets finished jobs older than the retention period
+     */
+    @Scheduled(fixedRate = 600000) // 10 minutes
+    public void cleanupFinishedJobs() {
+        Instant limit = Instant.now().minus(FINISHED_JOB_RETENTION);
+        jobsById.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(limit));
+    }
+
+    private void start(PerformanceJob job) {
+        jobsById.put(job.getId(), job);
+        logger.info("Starting performance job {} for playerId: {}", job.getId(), job.getPlayerId());
+        try {
+            jobExecutor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            activeJobsByPlayer.remove(job.getPlayerId(), job);
+            job.finish(null, "Too many performance jobs running, try again later");
+        }
+    }
+
+    private void run(PerformanceJob job) {
+        job.markRunning();
+        ObjectNode result = null;
+        String error = null;
+        try {
+            result = performanceService.computePerformance(job.getPlayerId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "Request interrupted: " + e.getMessage();
+        } catch (Exception e) {
+            error = "Failed to fetch performance data: " + e.getMessage();
+        }
+
+        activeJobsByPlayer.remove(job.getPlayerId(), job);
+        List<Long> users = job.finish(result, error);
+        logger.info("Performance job {} finished with status {}", job.getId(), job.getStatus());
+
+        if (result != null) {
+            for (Long userId : users) {
+                try {
+                    performanceService.recordPerformance(userId, result);
+                } catch (RuntimeException e) {
+                    logger.warn("Could not save performance job {} for userId {}: {}", job.getId(), userId, e.getMessage());
+                }
+            }
+        }
+    }
+}
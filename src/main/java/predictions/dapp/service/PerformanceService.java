@@ -8,8 +8,10 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import predictions.dapp.exceptions.PerformanceDataException;
+import predictions.dapp.exceptions.UpstreamThrottledException;
 import predictions.dapp.model.Consultas;
 import predictions.dapp.repositories.ConsultasRepository;
 
@@ -24,12 +26,18 @@ public class PerformanceService {
 
     private static final Logger logger = LoggerFactory.getLogger(PerformanceService.class);
     private static final String UNKNOWN_VALUE = "Unknown";
+    private static final String METHOD_CACHE_KEY = "handlePerformance(%s)";
+
+    // Season of the top scorers lists searched (also the one kept in the local replica)
+    static final String SCORERS_SEASON = "2024";
 
     private final ConsultasRepository consultasRepository;
     private final FootballDataService footballDataService;
     private final CacheService cacheService;
     private final ObjectMapper mapper = new ObjectMapper();
     private final MethodCacheService methodCacheService;
+    private final ReplicaService replicaService;
+    private final TransactionTemplate transactionTemplate;
 
     // Delay between API calls in milliseconds (6 seconds = 10 requests per minute max)
     private static final long API_CALL_DELAY_MS = 6000;
@@ -41,21 +49,45 @@ public class PerformanceService {
     public PerformanceService(ConsultasRepository consultasRepository,
                               FootballDataService footballDataService,
                               CacheService cacheService,
-                              MethodCacheService methodCacheService) {
+                              MethodCacheService methodCacheService,
+                              ReplicaService replicaService,
+                              PlatformTransactionManager transactionManager) {
         this.consultasRepository = consultasRepository;
         this.footballDataService = footballDataService;
         this.cacheService = cacheService;
         this.methodCacheService = methodCacheService;
+        this.replicaService = replicaService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
+    /**
+     * Serves the player performance and appends it to the user history. The search
+     * runs outside any transaction (it may wait minutes on the upstream rate limit);
+     * only the history update gets one.
+     */
     public ObjectNode handlePerformance(Long userId, String playerId) throws IOException, InterruptedException {
         if (logger.isInfoEnabled()) {
             logger.info("Fetching performance data for userId: {} and playerId: [PROTECTED]", userId);
         }
 
+        ObjectNode performance = findCachedPerformance(playerId)
+                .orElse(null);
+
+        if (performance == null) {
+            performance = computePerformance(playerId);
+        }
+
+        // Save to user history even if cached
+        savePlayerPerformanceToDatabase(userId, performance);
+        return performance;
+    }
+
+    /**
+     * Looks the player up in the method cache and then in the old cache, without calling Football-Data
+     */
+    public Optional<ObjectNode> findCachedPerformance(String playerId) {
         // Generate cache key based on method signature and parameters
-        String cacheKey = String.format("handlePerformance(%s)", playerId);
+        String cacheKey = String.format(METHOD_CACHE_KEY, playerId);
 
         // Try to get cached result from method cache
         Optional<Map<String, Object>> cachedResult = methodCacheService.getCachedResult(
@@ -65,10 +97,7 @@ public class PerformanceService {
 
         if (cachedResult.isPresent()) {
             logger.info("Method cache HIT for playerId: {}", playerId);
-            ObjectNode cachedNode = mapper.valueToTree(cachedResult.get());
-            // Still save to user history even if cached
-            savePlayerPerformanceToDatabase(userId, cachedNode);
-            return cachedNode;
+            return Optional.of(mapper.valueToTree(cachedResult.get()));
         }
 
         // Method cache miss - check old cache system
@@ -79,46 +108,60 @@ public class PerformanceService {
             logger.info("Old cache HIT - storing in method cache for playerId: {}", playerId);
             // Store in method cache for future requests
             methodCacheService.cacheResult(cacheKey, cachedPerformance);
-            savePlayerPerformanceToDatabase(userId, cachedPerformance);
-            return cachedPerformance;
+            return Optional.of(cachedPerformance);
         }
 
-        // Both caches miss - fetch fresh data
+        return Optional.empty();
+    }
+
+    /**
+     * Cold path: searches the player across competitions (can take minutes because of
+     * the upstream rate limit) and stores the result in both caches. Does not touch
+     * the user history, so it can run in a background job.
+     */
+    public ObjectNode computePerformance(String playerId) throws IOException, InterruptedException {
         logger.info("Both caches MISS - fetching fresh performance data for playerId: {}", playerId);
 
-        // Fetch all available competitions from API
-        JsonNode allCompetitions = fetchAllCompetitions();
+        ObjectNode performance;
+        try (UpstreamCaller.Scope ignored = UpstreamCaller.PERFORMANCE.enter()) {
+            // Fetch all available competitions from API
+            JsonNode allCompetitions = fetchAllCompetitions();
 
-        // Organize competitions by priority (major leagues first)
-        CompetitionLists organizedCompetitions = organizeCompetitionsByPriority(allCompetitions);
+            // Organize competitions by priority (major leagues first)
+            CompetitionLists organizedCompetitions = organizeCompetitionsByPriority(allCompetitions);
 
-        // Search for player in competitions (priority first, then others)
-        ObjectNode playerStats = searchForPlayerInAllCompetitions(
-                organizedCompetitions.priorityCompetitions,
-                organizedCompetitions.otherCompetitions,
-                playerId
-        );
+            // Search for player in competitions (priority first, then others)
+            performance = searchForPlayerInAllCompetitions(
+                    organizedCompetitions.priorityCompetitions,
+                    organizedCompetitions.otherCompetitions,
+                    playerId
+            );
 
-        // If player found in top scorers, cache and return
-        if (playerStats != null) {
-            cacheService.cachePerformance(playerId, playerStats);
-            methodCacheService.cacheResult(cacheKey, playerStats);
-            savePlayerPerformanceToDatabase(userId, playerStats);
-            return playerStats;
+            // Player not in any top scorers list - get basic info as fallback
+            if (performance == null) {
+                performance = fetchBasicPlayerInfoAsFallback(playerId);
+            }
         }
 
-        // Player not in any top scorers list - get basic info as fallback
-        ObjectNode basicPlayerInfo = fetchBasicPlayerInfoAsFallback(playerId);
-
         // Store in both caches
-        cacheService.cachePerformance(playerId, basicPlayerInfo);
-        methodCacheService.cacheResult(cacheKey, basicPlayerInfo);
+        cacheService.cachePerformance(playerId, performance);
+        methodCacheService.cacheResult(String.format(METHOD_CACHE_KEY, playerId), performance);
+        return performance;
+    }
 
-        savePlayerPerformanceToDatabase(userId, basicPlayerInfo);
-        return basicPlayerInfo;
+    /**
+     * Appends a performance result to the user history
+     */
+    public void recordPerformance(Long userId, ObjectNode performance) {
+        savePlayerPerformanceToDatabase(userId, performance);
     }
 
     private JsonNode fetchAllCompetitions() throws IOException, InterruptedException {
+        Optional<JsonNode> local = replicaService.findCompetitions();
+        if (local.isPresent()) {
+            return local.get().path("competitions");
+        }
+
         JsonNode competitionsResponse = footballDataService.getCompetitions();
         JsonNode competitions = competitionsResponse.path("competitions");
 
@@ -173,11 +216,14 @@ public class PerformanceService {
             }
 
             try {
-                // Get top 200 scorers for this competition in 2024 season
-                JsonNode topScorers = footballDataService.getTopScorersByCompetitionId(competitionId, 200, "2024");
+                // Get top 200 scorers for this competition, from the local replica when possible
+                JsonNode topScorers = replicaService.findTopScorers(competitionId, SCORERS_SEASON).orElse(null);
+                if (topScorers == null) {
+                    topScorers = footballDataService.getTopScorersByCompetitionId(competitionId, 200, SCORERS_SEASON);
 
-                // Wait after API call to respect rate limit
-                Thread.sleep(API_CALL_DELAY_MS);
+                    // Wait after API call to respect rate limit
+                    Thread.sleep(API_CALL_DELAY_MS);
+                }
 
                 // Search for the player in this competition's top scorers
                 ObjectNode playerStats = findPlayerInTopScorers(topScorers, playerId);
@@ -194,8 +240,8 @@ public class PerformanceService {
                 // Log error and continue to next competition
                 logger.warn("Failed to get scorers for competition {}: {}", competitionName, e.getMessage());
 
-                // If rate limit error (HTTP 429), wait longer before continuing
-                if (e.getMessage() != null && e.getMessage().contains("429")) {
+                // If rate limit error (HTTP 429) or our own quota reserve kicked in, wait longer before continuing
+                if (e instanceof UpstreamThrottledException || (e.getMessage() != null && e.getMessage().contains("429"))) {
                     logger.warn("Rate limit hit, waiting 30 seconds...");
                     Thread.sleep(RATE_LIMIT_DELAY_MS);
                 }
@@ -249,7 +295,10 @@ public class PerformanceService {
             logger.info("Player not found in any competition's top scorers, fetching basic info");
         }
 
-        JsonNode playerInfo = footballDataService.getPlayerById(playerId);
+        JsonNode playerInfo = replicaService.findPlayer(playerId).orElse(null);
+        if (playerInfo == null) {
+            playerInfo = footballDataService.getPlayerById(playerId);
+        }
 
         ObjectNode response = mapper.createObjectNode();
         response.put("id", Integer.parseInt(playerId));
@@ -275,6 +324,10 @@ public class PerformanceService {
     }
 
     private void savePlayerPerformanceToDatabase(Long userId, ObjectNode newPerformanceData) {
+        transactionTemplate.executeWithoutResult(status -> appendPerformance(userId, newPerformanceData));
+    }
+
+    private void appendPerformance(Long userId, ObjectNode newPerformanceData) {
         // Find existing consulta record or create new one
         Consultas consulta = consultasRepository.findByUserId(userId)
                 .orElse(new Consultas());
@@ -0,0 +1,271 @@
+package predictions.dapp.service;
+
+import java.util.Arrays;
+
+/**
+ * Independent-Poisson goal model of one competition: a team scores
+ * {@code rate * attack[team] * defence[opponent]} goals on average, with one rate
+ * for home sides and one for away sides.
+ *
+ * Parameters are fitted by maximum likelihood with block coordinate updates
+ * (attack, then defence, then the two rates, each in closed form given the
+ * others) until no parameter moves more than {@link #TOLERANCE}. Each strength
+ * starts from a pseudo-count of {@link #PRIOR_GOALS} goals at the league average,
+ * so a team with a handful of matches is pulled towards 1 instead of 0.
+ * Immutable once fitted; everything is held in primitive arrays indexed by the
+ * team position in the competition.
+ */
+final class PoissonModel {
+
+    static final int MAX_GOALS = 10;
+    static final int MAX_ITERATIONS = 100;
+    static final double TOLERANCE = 1e-6;
+    static final double PRIOR_GOALS = 2.0;
+
+    private final int competitionId;
+    private final String competitionName;
+    private final IntIntMap teamIndex;
+    private final int[] teamIds;
+    private final String[] teamNames;
+    private final double[] attack;
+    private final double[] defence;
+    private final double homeRate;
+    private final double awayRate;
+    private final int matches;
+    private final int iterations;
+
+    private PoissonModel(int competitionId, String competitionName, int[] teamIds, String[] teamNames,
+                         double[] attack, double[] defence, double homeRate, double awayRate,
+                         int matches, int iterations) {
+        this.competitionId = competitionId;
+        this.competitionName = competitionName;
+        this.teamIds = teamIds;
+        this.teamNames = teamNames;
+        this.attack = attack;
+        this.defence = defence;
+        this.homeRate = homeRate;
+        this.awayRate = awayRate;
+        this.matches = matches;
+        this.iterations = iterations;
+        this.teamIndex = new IntIntMap(teamIds.length);
+        for (int t = 0; t < teamIds.length; t++) {
+            teamIndex.put(teamIds[t], t);
+        }
+    }
+
+    /**
+     * Fits the model to finished matches given as team positions and goals
+     *
+     * @param teamIds   team id of every position
+     * @param home      home team position of every match
+     * @param away      away team position of every match
+     */
+    static PoissonModel fit(int competitionId, String competitionName, int[] teamIds, String[] teamNames,
+                            int[] home, int[] away, int[] homeGoals, int[] awayGoals) {
+        int teams = teamIds.length;
+        int matches = home.length;
+
+        double[] scored = new double[teams];
+        double[] conceded = new double[teams];
+        double totalHome = 0;
+        double totalAway = 0;
+        for (int k = 0; k < matches; k++) {
+            scored[home[k]] += homeGoals[k];
+            scored[away[k]] += awayGoals[k];
+            conceded[home[k]] += awayGoals[k];
+            conceded[away[k]] += homeGoals[k];
+            totalHome += homeGoals[k];
+            totalAway += awayGoals[k];
+        }
+
+        double[] attack = new double[teams];
+        double[] defence = new double[teams];
+        Arrays.fill(attack, 1.0);
+        Arrays.fill(defence, 1.0);
+        double homeRate = Math.max(totalHome, 1) / Math.max(matches, 1);
+        double awayRate = Math.max(totalAway, 1) / Math.max(matches, 1);
+        double[] exposure = new double[teams];
+
+        int iteration = 0;
+        double change = Double.MAX_VALUE;
+        while (iteration < MAX_ITERATIONS && change > TOLERANCE) {
+            iteration++;
+            change = 0;
+
+            // Attack: goals scored over the goals expected from the opponents' defences
+            Arrays.fill(exposure, 0);
+            for (int k = 0; k < matches; k++) {
+                exposure[home[k]] += homeRate * defence[away[k]];
+                exposure[away[k]] += awayRate * defence[home[k]];
+            }
+            for (int t = 0; t < teams; t++) {
+                double next = (scored[t] + PRIOR_GOALS) / (exposure[t] + PRIOR_GOALS);
+                change = Math.max(change, Math.abs(next - attack[t]));
+                attack[t] = next;
+            }
+
+            // Defence: goals conceded over the goals expected from the opponents' attacks
+            Arrays.fill(exposure, 0);
+            for (int k = 0; k < matches; k++) {
+                exposure[away[k]] += homeRate * attack[home[k]];
+                exposure[home[k]] += awayRate * attack[away[k]];
+            }
+            for (int t = 0; t < teams; t++) {
+                double next = (conceded[t] + PRIOR_GOALS) / (exposure[t] + PRIOR_GOALS);
+                change = Math.max(change, Math.abs(next - defence[t]));
+                defence[t] = next;
+            }
+
+            // Mean strengths of 1 keep the parameters identifiable; the rates absorb the scale
+            normalise(attack);
+            normalise(defence);
+
+            double homeExposure = 0;
+            double awayExposure = 0;
+            for (int k = 0; k < matches; k++) {
+                homeExposure += attack[home[k]] * defence[away[k]];
+                awayExposure += attack[away[k]] * defence[home[k]];
+            }
+            double nextHome = homeExposure > 0 ? totalHome / homeExposure : homeRate;
+            double nextAway = awayExposure > 0 ? totalAway / awayExposure : awayRate;
+            change = Math.max(change, Math.max(Math.abs(nextHome - homeRate), Math.abs(nextAway - awayRate)));
+            homeRate = nextHome;
+            awayRate = nextAway;
+        }
+
+        return new PoissonModel(competitionId, competitionName, teamIds, teamNames, attack, defence,
+                homeRate, awayRate, matches, iteration);
+    }
+
+    private static void normalise(double[] strengths) {
+        double mean = 0;
+        for (double strength : strengths) mean += strength;
+        mean /= Math.max(strengths.length, 1);
+        for (int t = 0; t < strengths.length; t++) {
+            strengths[t] /= mean;
+        }
+    }
+
+    // ============================================================
+    // QUERIES
+    // ============================================================
+
+    boolean hasTeams(int teamId1, int teamId2) {
+        return teamIndex.containsKey(teamId1) && teamIndex.containsKey(teamId2);
+    }
+
+    boolean hasTeam(int teamId) {
+        return teamIndex.containsKey(teamId);
+    }
+
+    /** Expected goals of the home side; both teams must be in the model */
+    double expectedHomeGoals(int homeTeamId, int awayTeamId) {
+        return homeRate * attack[teamIndex.get(homeTeamId, -1)] * defence[teamIndex.get(awayTeamId, -1)];
+    }
+
+    /** Expected goals of the away side; both teams must be in the model */
+    double expectedAwayGoals(int homeTeamId, int awayTeamId) {
+        return awayRate * attack[teamIndex.get(awayTeamId, -1)] * defence[teamIndex.get(homeTeamId, -1)];
+    }
+
+    /**
+     * Probability that the first team beats the second on neutral ground (draws
+     * count as half), using the geometric mean of the home and away rates
+     */
+    double winProbability(int teamId1, int teamId2) {
+        int t1 = teamIndex.get(teamId1, -1);
+        int t2 = teamIndex.get(teamId2, -1);
+        double neutralRate = Math.sqrt(homeRate * awayRate);
+        double[] outcome = outcome(neutralRate * attack[t1] * defence[t2], neutralRate * attack[t2] * defence[t1]);
+        return outcome[0] + outcome[1] / 2;
+    }
+
+    /**
+     * Probability of every scoreline up to {@value #MAX_GOALS} goals a side:
+     * {@code [homeGoals][awayGoals]}
+     */
+    static double[][] scorelines(double homeExpected, double awayExpected) {
+        double[] home = distribution(homeExpected);
+        double[] away = distribution(awayExpected);
+        double[][] grid = new double[MAX_GOALS + 1][MAX_GOALS + 1];
+        for (int h = 0; h <= MAX_GOALS; h++) {
+            for (int a = 0; a <= MAX_GOALS; a++) {
+                grid[h][a] = home[h] * away[a];
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Home win, draw and away win probabilities, normalised over the scorelines counted
+     */
+    static double[] outcome(double homeExpected, double awayExpected) {
+        double[] home = distribution(homeExpected);
+        double[] away = distribution(awayExpected);
+        double homeWin = 0;
+        double draw = 0;
+        double awayWin = 0;
+        for (int h = 0; h <= MAX_GOALS; h++) {
+            for (int a = 0; a <= MAX_GOALS; a++) {
+                double p = home[h] * away[a];
+                if (h > a) homeWin += p;
+                else if (h == a) draw += p;
+                else awayWin += p;
+            }
+        }
+        double total = homeWin + draw + awayWin;
+        return new double[]{homeWin / total, draw / total, awayWin / total};
+    }
+
+    /** Poisson probabilities of 0..{@value #MAX_GOALS} goals */
+    private static double[] distribution(double expected) {
+        double[] p = new double[MAX_GOALS + 1];
+        p[0] = Math.exp(-expected);
+        for (int k = 1; k <= MAX_GOALS; k++) {
+            p[k] = p[k - 1] * expected / k;
+        }
+        return p;
+    }
+
+    /** Name of the team as seen in the fitted matches, or null if it is not in the model */
+    String teamName(int teamId) {
+        int t = teamIndex.get(teamId, -1);
+        return t < 0 ? null : teamNames[t];
+    }
+
+    double attack(int teamId) {
+        return attack[teamIndex.get(teamId, -1)];
+    }
+
+    double defence(int teamId) {
+        return defence[teamIndex.get(teamId, -1)];
+    }
+
+    int competitionId() {
+        return competitionId;
+    }
+
+    String competitionName() {
+        return competitionName;
+    }
+
+    int teamCount() {
+        return teamIds.length;
+    }
+
+    int matches() {
+        return matches;
+    }
+
+    int iterations() {
+        return iterations;
+    }
+
+    double homeRate() {
+        return homeRate;
+    }
+
+    double awayRate() {
+        return awayRate;
+    }
+}
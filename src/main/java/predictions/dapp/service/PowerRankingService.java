@@ -0,0 +1,136 @@
+package predictions.dapp.service;
+
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Power rankings of a competition: every team of the standings table scored at
+ * once with the heuristic used for predictions.
+ *
+ * The table is copied into one primitive array per column (points, position,
+ * goal difference, recent wins, goals in those wins) and scored in a single
+ * {@link HeuristicScore#scoreAll} pass. Wins come from the team's last matches in
+ * the {@link MatchStore}, like {@link TeamStatsService} counts them. A ranking is
+ * kept until the standings snapshot or the store it was computed from is replaced.
+ */
+@Service
+public class PowerRankingService {
+
+    private static final int LAST_MATCHES_LIMIT = 10;
+    private static final double SCORE_SCALE = 100.0;
+
+    private final StandingsSnapshotService standingsSnapshotService;
+    private final MatchStoreService matchStoreService;
+    private final Map<String, Ranking> rankings = new ConcurrentHashMap<>();
+
+    /** A computed ranking and the inputs it is valid for */
+    private record Ranking(long standingsVersion, MatchStore store, Map<String, Object> response) {
+    }
+
+    public PowerRankingService(StandingsSnapshotService standingsSnapshotService,
+                               MatchStoreService matchStoreService) {
+        this.standingsSnapshotService = standingsSnapshotService;
+        this.matchStoreService = matchStoreService;
+    }
+
+    /**
+     * Teams of the competition ordered by heuristic score, strongest first
+     *
+     * @throws IllegalArgumentException if the competition has no table
+     */
+    public Map<String, Object> getPowerRankings(String competitionId) throws IOException, InterruptedException {
+        StandingsSnapshot table;
+        try (UpstreamCaller.Scope ignored = UpstreamCaller.PREDICTION.enter()) {
+            table = standingsSnapshotService.getSnapshot(competitionId);
+        }
+        if (table == null || table.size() == 0) {
+            throw new IllegalArgumentException("Competition " + competitionId + " has no standings table");
+        }
+        MatchStore store = matchStoreService.current();
+
+        Ranking cached = rankings.get(competitionId);
+        if (cached != null && cached.standingsVersion() == table.getVersion() && cached.store() == store) {
+            return cached.response();
+        }
+
+        Ranking ranking = new Ranking(table.getVersion(), store, compute(competitionId, table, store));
+        rankings.put(competitionId, ranking);
+        return ranking.response();
+    }
+
+    public int getRankingCount() {
+        return rankings.size();
+    }
+
+    public void clearAll() {
+        rankings.clear();
+    }
+
+    // ============================================================
+    // SCORING
+    // ============================================================
+
+    private Map<String, Object> compute(String competitionId, StandingsSnapshot table, MatchStore store) {
+        int n = table.size();
+        int[] teamIds = new int[n];
+        int[] points = new int[n];
+        int[] positions = new int[n];
+        int[] goalDiffs = new int[n];
+        int[] wins = new int[n];
+        int[] goalsInWins = new int[n];
+
+        int[] slots = new int[LAST_MATCHES_LIMIT];
+        MatchStore.Form form = new MatchStore.Form();
+        for (int t = 0; t < n; t++) {
+            StandingsSnapshot.Row row = table.rowAt(t);
+            teamIds[t] = row.teamId();
+            points[t] = row.points();
+            positions[t] = row.position();
+            goalDiffs[t] = row.goalDifference();
+
+            form.reset();
+            store.accumulateForm(row.teamId(), slots, store.lastFinished(row.teamId(), slots), form);
+            wins[t] = form.won;
+            goalsInWins[t] = form.goalsInWins;
+        }
+
+        double[] scores = new double[n];
+        HeuristicScore.scoreAll(wins, goalsInWins, points, positions, goalDiffs, scores);
+
+        // Strongest first; the table order breaks ties
+        Integer[] order = new Integer[n];
+        Arrays.setAll(order, t -> t);
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+
+        List<Map<String, Object>> teams = new ArrayList<>(n);
+        for (int rank = 0; rank < n; rank++) {
+            int t = order[rank];
+            String name = store.teamName(teamIds[t]);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("rank", rank + 1);
+            row.put("id", String.valueOf(teamIds[t]));
+            row.put("name", name != null ? name : String.valueOf(teamIds[t]));
+            row.put("score", Math.round(scores[t] * SCORE_SCALE) / SCORE_SCALE);
+            row.put("position", positions[t]);
+            row.put("points", points[t]);
+            row.put("goalDifference", goalDiffs[t]);
+            row.put("recentWins", wins[t]);
+            row.put("goalsInWins", goalsInWins[t]);
+            teams.add(row);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("competitionId", competitionId);
+        response.put("standingsVersion", table.getVersion());
+        response.put("teams", teams);
+        return response;
+    }
+}
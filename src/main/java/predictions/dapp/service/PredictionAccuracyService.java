@@ -0,0 +1,352 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import predictions.dapp.model.PredictionAccuracy;
+import predictions.dapp.model.PredictionHistory;
+import predictions.dapp.repositories.ConsultasRepository;
+import predictions.dapp.repositories.PredictionAccuracyRepository;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Checks the predictions stored in the users' histories against the actual
+ * results and materialises the accuracy per user and overall in
+ * {@code prediction_accuracy}, so reading it is a primary-key lookup.
+ *
+ * A scheduled job (disabled with {@code prediction.accuracy.enabled=false})
+ * streams the histories through a database cursor and closes it before any
+ * result is looked up. A prediction is settled by the
+ * first finished match between its two teams that kicked off after it was made.
+ * Results are read from the {@link MatchStore}; a team the store does not hold is
+ * fetched once per run from Football-Data, as {@link UpstreamCaller#SYNC}.
+ * History entries saved before the team ids were recorded cannot be checked and
+ * only count as predictions.
+ */
+@Service
+public class PredictionAccuracyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PredictionAccuracyService.class);
+    private static final String PERCENTAGE_FORMAT = "%.2f%%";
+    private static final String PROBABILITY_PREFIX = "probabilidad_";
+    static final long GLOBAL_ID = 0L;
+
+    /** Format of the history timestamps, as written by {@link java.util.Date#toString()} */
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy", Locale.US);
+
+    private final ConsultasRepository consultasRepository;
+    private final PredictionAccuracyRepository predictionAccuracyRepository;
+    private final MatchStoreService matchStoreService;
+    private final FootballDataService footballDataService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /** Finished matches of one team, newest first, with the result seen from its side */
+    private record TeamResults(long[] kickOff, int[] opponent, byte[] result) {
+        static final byte WIN = 1;
+        static final byte DRAW = 0;
+        static final byte LOSS = -1;
+        static final TeamResults NONE = new TeamResults(new long[0], new int[0], new byte[0]);
+    }
+
+    /** A checkable history entry, read inside the cursor and settled after it is closed */
+    private record Pick(PredictionAccuracy accuracy, int team1, int team2, long predictedAt, boolean team1Predicted) {
+    }
+
+    public PredictionAccuracyService(ConsultasRepository consultasRepository,
+                                     PredictionAccuracyRepository predictionAccuracyRepository,
+                                     MatchStoreService matchStoreService,
+                                     FootballDataService footballDataService,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${prediction.accuracy.enabled:true}") boolean enabled) {
+        this.consultasRepository = consultasRepository;
+        this.predictionAccuracyRepository = predictionAccuracyRepository;
+        this.matchStoreService = matchStoreService;
+        this.footballDataService = footballDataService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @Scheduled(initialDelayString = "${prediction.accuracy.initial-delay:PT10M}",
+            fixedDelayString = "${prediction.accuracy.interval:PT6H}")
+    public void scheduledEvaluation() {
+        if (!enabled) {
+            return;
+        }
+        evaluate();
+    }
+
+    // ============================================================
+    // PUBLIC API
+    // ============================================================
+
+    /**
+     * Re-evaluates every stored prediction and replaces the aggregates
+     *
+     * @return how many users were evaluated
+     */
+    public int evaluate() {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        MatchStore store = matchStoreService.current();
+        Map<Integer, TeamResults> results = new HashMap<>();
+        int[] buffer = new int[store.size()];
+
+        // Only the database read runs in the transaction; results may need Football-Data calls
+        Map<Long, PredictionAccuracy> accuracies = new LinkedHashMap<>();
+        PredictionAccuracy global = new PredictionAccuracy(GLOBAL_ID);
+        List<Pick> picks = new ArrayList<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<PredictionHistory> histories =
+                         consultasRepository.streamPredictionHistories()) {
+                Iterator<PredictionHistory> iterator = histories.iterator();
+                while (iterator.hasNext()) {
+                    PredictionHistory history = iterator.next();
+                    PredictionAccuracy accuracy = accuracies.computeIfAbsent(history.getUserId(),
+                            PredictionAccuracy::new);
+                    readHistory(history.getPredicciones(), accuracy, global, picks);
+                }
+            }
+        });
+        for (Pick pick : picks) {
+            settle(pick, global, results.computeIfAbsent(pick.team1(), id -> loadResults(id, store, buffer)));
+        }
+
+        for (PredictionAccuracy accuracy : accuracies.values()) {
+            accuracy.setEvaluatedAt(now);
+        }
+        global.setEvaluatedAt(now);
+        accuracies.put(GLOBAL_ID, global);
+        predictionAccuracyRepository.saveAll(accuracies.values());
+
+        logger.info("Prediction accuracy evaluated: {} user(s), {}/{} prediction(s) settled, {} team(s) looked up in {}ms",
+                accuracies.size() - 1, global.getEvaluated(), global.getPredictions(), results.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return accuracies.size() - 1;
+    }
+
+    /**
+     * Accuracy of the user's predictions and of everyone's, as of the last evaluation
+     */
+    public Map<String, Object> getAccuracy(Long userId) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("user", predictionAccuracyRepository.findById(userId).map(this::format).orElse(null));
+        response.put("global", predictionAccuracyRepository.findById(GLOBAL_ID).map(this::format).orElse(null));
+        return response;
+    }
+
+    // ============================================================
+    // EVALUATION
+    // ============================================================
+
+    /**
+     * Counts the entries of a history as predictions and collects the ones that can be checked
+     */
+    private void readHistory(String predicciones, PredictionAccuracy accuracy, PredictionAccuracy global,
+                             List<Pick> picks) {
+        if (predicciones == null || !predicciones.startsWith("[")) {
+            return;
+        }
+        JsonNode entries;
+        try {
+            entries = mapper.readTree(predicciones);
+        } catch (IOException e) {
+            logger.debug("Unreadable prediction history skipped: {}", e.getMessage());
+            return;
+        }
+
+        for (JsonNode entry : entries) {
+            accuracy.setPredictions(accuracy.getPredictions() + 1);
+            global.setPredictions(global.getPredictions() + 1);
+
+            int team1 = entry.path("teamId1").asInt(-1);
+            int team2 = entry.path("teamId2").asInt(-1);
+            Instant predictedAt = parseTimestamp(entry.path("timestamp").asText(""));
+            Boolean team1Predicted = predictsTeam1(entry);
+            if (team1 >= 0 && team2 >= 0 && predictedAt != null && team1Predicted != null) {
+                picks.add(new Pick(accuracy, team1, team2, predictedAt.getEpochSecond(), team1Predicted));
+            }
+        }
+    }
+
+    private static void settle(Pick pick, PredictionAccuracy global, TeamResults teamResults) {
+        byte result = firstResultAfter(teamResults, pick.team2(), pick.predictedAt());
+        if (result == Byte.MIN_VALUE) {
+            return;
+        }
+        boolean correct = result == (pick.team1Predicted() ? TeamResults.WIN : TeamResults.LOSS);
+        for (PredictionAccuracy target : new PredictionAccuracy[]{pick.accuracy(), global}) {
+            target.setEvaluated(target.getEvaluated() + 1);
+            if (correct) target.setCorrect(target.getCorrect() + 1);
+            if (result == TeamResults.DRAW) target.setDraws(target.getDraws() + 1);
+        }
+    }
+
+    /**
+     * Result of the first match against the opponent that kicked off at or after
+     * the given time, or {@code Byte.MIN_VALUE} if it has not been played
+     */
+    private static byte firstResultAfter(TeamResults results, int opponent, long epochSecond) {
+        byte found = Byte.MIN_VALUE;
+        // Newest first: the last match seen that still qualifies is the first one played
+        for (int i = 0; i < results.kickOff().length && results.kickOff()[i] >= epochSecond; i++) {
+            if (results.opponent()[i] == opponent) {
+                found = results.result()[i];
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Whether the entry picked its first team, from the order of its two
+     * probabilities; null if they cannot be read
+     */
+    private static Boolean predictsTeam1(JsonNode entry) {
+        double[] probabilities = new double[2];
+        int found = 0;
+        for (Map.Entry<String, JsonNode> field : entry.properties()) {
+            if (found == 2) break;
+            if (field.getKey().startsWith(PROBABILITY_PREFIX)) {
+                try {
+                    probabilities[found++] = Double.parseDouble(field.getValue().asText().replace("%", "")
+                            .replace(',', '.'));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return found == 2 ? probabilities[0] > probabilities[1] : null;
+    }
+
+    private static Instant parseTimestamp(String timestamp) {
+        try {
+            return ZonedDateTime.parse(timestamp, TIMESTAMP_FORMAT).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // ============================================================
+    // RESULTS
+    // ============================================================
+
+    private TeamResults loadResults(int teamId, MatchStore store, int[] buffer) {
+        if (store.hasTeam(teamId)) {
+            int count = store.lastFinished(teamId, buffer);
+            long[] kickOff = new long[count];
+            int[] opponent = new int[count];
+            byte[] result = new byte[count];
+            for (int i = 0; i < count; i++) {
+                int slot = buffer[i];
+                boolean home = store.homeTeam(slot) == teamId;
+                kickOff[i] = store.kickOff(slot);
+                opponent[i] = home ? store.awayTeam(slot) : store.homeTeam(slot);
+                result[i] = resultFor(home, store.homeGoals(slot) - store.awayGoals(slot));
+            }
+            return new TeamResults(kickOff, opponent, result);
+        }
+        return fetchResults(teamId);
+    }
+
+    private TeamResults fetchResults(int teamId) {
+        JsonNode response;
+        try (UpstreamCaller.Scope ignored = UpstreamCaller.SYNC.enter()) {
+            response = footballDataService.getResultsByTeam(String.valueOf(teamId));
+        } catch (IOException e) {
+            logger.warn("Results of team {} not available for accuracy evaluation: {}", teamId, e.getMessage());
+            return TeamResults.NONE;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return TeamResults.NONE;
+        }
+
+        JsonNode matches = response.path("matches");
+        long[] kickOff = new long[matches.size()];
+        int[] opponent = new int[matches.size()];
+        byte[] result = new byte[matches.size()];
+        int count = 0;
+        for (JsonNode match : matches) {
+            Instant utcDate = parseInstant(match.path("utcDate").asText(""));
+            JsonNode fullTime = match.path("score").path("fullTime");
+            if (utcDate == null || !fullTime.path("home").isNumber() || !fullTime.path("away").isNumber()) {
+                continue;
+            }
+            boolean home = match.path("homeTeam").path("id").asInt(-1) == teamId;
+            kickOff[count] = utcDate.getEpochSecond();
+            opponent[count] = (home ? match.path("awayTeam") : match.path("homeTeam")).path("id").asInt(-1);
+            result[count] = resultFor(home, fullTime.path("home").asInt() - fullTime.path("away").asInt());
+            count++;
+        }
+        return sortNewestFirst(kickOff, opponent, result, count);
+    }
+
+    private static TeamResults sortNewestFirst(long[] kickOff, int[] opponent, byte[] result, int count) {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(kickOff[b], kickOff[a]));
+
+        long[] sortedKickOff = new long[count];
+        int[] sortedOpponent = new int[count];
+        byte[] sortedResult = new byte[count];
+        for (int i = 0; i < count; i++) {
+            sortedKickOff[i] = kickOff[order[i]];
+            sortedOpponent[i] = opponent[order[i]];
+            sortedResult[i] = result[order[i]];
+        }
+        return new TeamResults(sortedKickOff, sortedOpponent, sortedResult);
+    }
+
+    private static byte resultFor(boolean home, int homeGoalDiff) {
+        int diff = home ? homeGoalDiff : -homeGoalDiff;
+        return diff > 0 ? TeamResults.WIN : diff < 0 ? TeamResults.LOSS : TeamResults.DRAW;
+    }
+
+    private static Instant parseInstant(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // ============================================================
+    // OUTPUT
+    // ============================================================
+
+    private Map<String, Object> format(PredictionAccuracy accuracy) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("predictions", accuracy.getPredictions());
+        row.put("evaluated", accuracy.getEvaluated());
+        row.put("correct", accuracy.getCorrect());
+        row.put("draws", accuracy.getDraws());
+        row.put("pending", accuracy.getPredictions() - accuracy.getEvaluated());
+        row.put("accuracy", accuracy.getEvaluated() == 0 ? null
+                : String.format(PERCENTAGE_FORMAT, accuracy.getCorrect() * 100.0 / accuracy.getEvaluated()));
+        row.put("evaluatedAt", accuracy.getEvaluatedAt() != null ? accuracy.getEvaluatedAt().toString() : null);
+        return row;
+    }
+}
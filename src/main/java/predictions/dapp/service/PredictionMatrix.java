@@ -0,0 +1,120 @@
+package predictions.dapp.service;
+
+import java.time.Instant;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Precomputed win probabilities of every ordered pair of teams of one competition.
+ *
+ * Teams are numbered by position and the probability that team {@code i} beats
+ * team {@code j} is {@code probabilities[i * n + j]}, stored as a float: a
+ * 20-team league takes 1.6 KB. The rows are filled in parallel by a fork/join
+ * task that splits the row range until it is small enough, reading one score per
+ * team computed beforehand.
+ */
+final class PredictionMatrix {
+
+    private static final int ROWS_PER_TASK = 8;
+
+    private final int competitionId;
+    private final String competitionName;
+    private final IntIntMap teamIndex;
+    private final String[] teamNames;
+    private final float[] probabilities;
+    private final Instant builtAt;
+
+    private PredictionMatrix(int competitionId, String competitionName, IntIntMap teamIndex,
+                             String[] teamNames, float[] probabilities, Instant builtAt) {
+        this.competitionId = competitionId;
+        this.competitionName = competitionName;
+        this.teamIndex = teamIndex;
+        this.teamNames = teamNames;
+        this.probabilities = probabilities;
+        this.builtAt = builtAt;
+    }
+
+    /**
+     * Builds the matrix from one heuristic score per team: team {@code i} beats
+     * team {@code j} with probability {@code score[i] / (score[i] + score[j])}
+     */
+    static PredictionMatrix compute(int competitionId, String competitionName, int[] teamIds,
+                                    String[] teamNames, double[] scores, ForkJoinPool pool) {
+        int n = teamIds.length;
+        IntIntMap teamIndex = new IntIntMap(n);
+        for (int t = 0; t < n; t++) {
+            teamIndex.put(teamIds[t], t);
+        }
+        float[] probabilities = new float[n * n];
+        pool.invoke(new RowTask(scores, probabilities, 0, n));
+        return new PredictionMatrix(competitionId, competitionName, teamIndex, teamNames, probabilities,
+                Instant.now());
+    }
+
+    private static final class RowTask extends RecursiveAction {
+
+        private final double[] scores;
+        private final float[] probabilities;
+        private final int from;
+        private final int to;
+
+        RowTask(double[] scores, float[] probabilities, int from, int to) {
+            this.scores = scores;
+            this.probabilities = probabilities;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROWS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowTask(scores, probabilities, from, middle),
+                        new RowTask(scores, probabilities, middle, to));
+                return;
+            }
+            int n = scores.length;
+            for (int i = from; i < to; i++) {
+                int row = i * n;
+                for (int j = 0; j < n; j++) {
+                    probabilities[row + j] = (float) (scores[i] / (scores[i] + scores[j]));
+                }
+            }
+        }
+    }
+
+    // ============================================================
+    // QUERIES
+    // ============================================================
+
+    boolean hasTeams(int teamId1, int teamId2) {
+        return teamIndex.containsKey(teamId1) && teamIndex.containsKey(teamId2);
+    }
+
+    /** Probability that the first team beats the second; both must be in the matrix */
+    double probability(int teamId1, int teamId2) {
+        return probabilities[teamIndex.get(teamId1, -1) * teamNames.length + teamIndex.get(teamId2, -1)];
+    }
+
+    /** Name of the team, or null if it is not in the matrix */
+    String teamName(int teamId) {
+        int t = teamIndex.get(teamId, -1);
+        return t < 0 ? null : teamNames[t];
+    }
+
+    int competitionId() {
+        return competitionId;
+    }
+
+    String competitionName() {
+        return competitionName;
+    }
+
+    int teamCount() {
+        return teamNames.length;
+    }
+
+    Instant builtAt() {
+        return builtAt;
+    }
+}
@@ -0,0 +1,185 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Competition-wide {@link PredictionMatrix} job: the stats of every team of a
+ * competition are fetched once (through {@link TeamStatsService}, as a batch),
+ * turned into one heuristic score per team, and every pair is precomputed.
+ * Afterwards a prediction for any two teams of that competition is a matrix read
+ * with no upstream call, until the matrix is as old as the team stats it was
+ * built from.
+ *
+ * Teams are taken from the {@link MatchStore}; a competition that is not in the
+ * store is listed from Football-Data once, as {@link UpstreamCaller#SYNC}.
+ */
+@Service
+public class PredictionMatrixService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PredictionMatrixService.class);
+    static final Duration MATRIX_TTL = Duration.ofMinutes(30);
+
+    private final TeamStatsService teamStatsService;
+    private final MatchStoreService matchStoreService;
+    private final FootballDataService footballDataService;
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    private final Map<Integer, PredictionMatrix> matrices = new ConcurrentHashMap<>();
+
+    public PredictionMatrixService(TeamStatsService teamStatsService,
+                                   MatchStoreService matchStoreService,
+                                   FootballDataService footballDataService) {
+        this.teamStatsService = teamStatsService;
+        this.matchStoreService = matchStoreService;
+        this.footballDataService = footballDataService;
+    }
+
+    // ============================================================
+    // PUBLIC API
+    // ============================================================
+
+    /**
+     * Computes and publishes the matrix of a competition, replacing the previous one
+     *
+     * @return a summary of the matrix built
+     * @throws IllegalArgumentException if the competition has fewer than two teams
+     */
+    public Map<String, Object> build(String competitionId) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        int id = parseId(competitionId);
+        if (id < 0) {
+            throw new IllegalArgumentException("Invalid competition id: " + competitionId);
+        }
+        MatchStore store = matchStoreService.current();
+
+        Set<String> teamIds = new LinkedHashSet<>();
+        String competitionName = null;
+        for (int slot = 0; slot < store.size(); slot++) {
+            if (store.competitionId(slot) != id) continue;
+            teamIds.add(String.valueOf(store.homeTeam(slot)));
+            teamIds.add(String.valueOf(store.awayTeam(slot)));
+            competitionName = store.competitionName(slot);
+        }
+
+        Map<String, TeamStats> stats;
+        try (UpstreamCaller.Scope ignored = UpstreamCaller.SYNC.enter()) {
+            if (teamIds.isEmpty()) {
+                JsonNode teams = footballDataService.getTeamsByCompetition(competitionId);
+                competitionName = teams.path("competition").path("name").asText(null);
+                for (JsonNode team : teams.path("teams")) {
+                    if (team.hasNonNull("id")) teamIds.add(team.get("id").asText());
+                }
+            }
+            if (teamIds.size() < 2) {
+                throw new IllegalArgumentException("Competition " + competitionId + " has no teams to pair");
+            }
+            stats = teamStatsService.getStatsForTeams(teamIds);
+        }
+
+        // One score per team, shared by all of its pairs
+        List<String> ordered = new ArrayList<>(teamIds);
+        int n = ordered.size();
+        int[] ids = new int[n];
+        String[] names = new String[n];
+        double[] scores = new double[n];
+        for (int t = 0; t < n; t++) {
+            TeamStats teamStats = stats.get(ordered.get(t));
+            ids[t] = parseId(ordered.get(t));
+            names[t] = teamStats.teamName();
+            scores[t] = PredictionService.calculateProbability(teamStats);
+        }
+
+        PredictionMatrix matrix = PredictionMatrix.compute(id, competitionName, ids, names, scores, pool);
+        matrices.put(id, matrix);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("Prediction matrix of competition {} built: {} team(s) in {}ms", competitionId, n, millis);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("competitionId", id);
+        summary.put("competition", competitionName);
+        summary.put("teams", n);
+        summary.put("pairs", n * (n - 1));
+        summary.put("builtAt", matrix.builtAt().toString());
+        summary.put("buildMillis", millis);
+        return summary;
+    }
+
+    /**
+     * Probability that the first team beats the second, from a live matrix holding
+     * both teams, or empty when there is none
+     */
+    public OptionalDouble findProbability(String teamId1, String teamId2) {
+        int id1 = parseId(teamId1);
+        int id2 = parseId(teamId2);
+        PredictionMatrix matrix = findMatrix(id1, id2);
+        return matrix == null ? OptionalDouble.empty() : OptionalDouble.of(matrix.probability(id1, id2));
+    }
+
+    /** Name of the team in a live matrix, or its id when unknown */
+    public String getTeamName(String teamId) {
+        int id = parseId(teamId);
+        for (PredictionMatrix matrix : matrices.values()) {
+            String name = matrix.teamName(id);
+            if (name != null && isLive(matrix)) {
+                return name;
+            }
+        }
+        return teamId;
+    }
+
+    /**
+     * Removes expired matrices (maintenance operation)
+     */
+    public void clearExpiredEntries() {
+        matrices.values().removeIf(matrix -> !isLive(matrix));
+    }
+
+    public void clearAll() {
+        matrices.clear();
+    }
+
+    public int getMatrixCount() {
+        return matrices.size();
+    }
+
+    // ============================================================
+    // HELPERS
+    // ============================================================
+
+    private PredictionMatrix findMatrix(int teamId1, int teamId2) {
+        for (PredictionMatrix matrix : matrices.values()) {
+            if (matrix.hasTeams(teamId1, teamId2) && isLive(matrix)) {
+                return matrix;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isLive(PredictionMatrix matrix) {
+        return matrix.builtAt().plus(MATRIX_TTL).isAfter(Instant.now());
+    }
+
+    private static int parseId(String id) {
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package predictions.dapp.service;
+
+/**
+ * How {@link PredictionService} turns two teams into win probabilities
+ * ({@code prediction.mode})
+ */
+public enum PredictionMode {
+
+    /** Score built per request from the last matches and the standings */
+    HEURISTIC,
+
+    /** Lookup of the incremental team ratings; falls back to HEURISTIC for unrated teams */
+    ELO,
+
+    /** Lookup of the per-competition goal models; falls back to HEURISTIC for teams outside them */
+    POISSON
+}
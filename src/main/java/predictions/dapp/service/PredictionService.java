@@ -1,173 +1,230 @@
 package predictions.dapp.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import predictions.dapp.exceptions.MetricsException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import predictions.dapp.dtos.BatchPredictionRequest;
 import predictions.dapp.model.Consultas;
 import predictions.dapp.repositories.ConsultasRepository;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
+/**
+ * Predictions are computed outside any transaction (the team stats may need
+ * Football-Data calls) and only the user history update runs in a short
+ * transaction of its own, so no JDBC connection is held while waiting on the network.
+ *
+ * With {@code prediction.mode=elo} a fixture between two rated teams is answered
+ * from {@link RatingService} alone, and with {@code prediction.mode=poisson} a
+ * fixture between two teams of a fitted competition from {@link GoalModelService};
+ * other fixtures use the heuristic score, read from a precomputed
+ * {@link PredictionMatrixService competition matrix} when one holds both teams.
+ */
 @Service
 public class PredictionService {
 
     private static final Logger logger = LoggerFactory.getLogger(PredictionService.class);
     private static final String PERCENTAGE_FORMAT = "%.2f%%";
-    private static final String POINTS_KEY = "points";
-    private static final String POSITION_KEY = "position";
-    private static final String GOAL_DIFFERENCE_KEY = "goalDifference";
+    private static final String METHOD_CACHE_NAME = "predictWinner";
+    private static final String PROBABILITY_PREFIX = "probabilidad_";
+    private static final int MAX_BATCH_FIXTURES = 50;
 
     private final FootballDataService footballDataService;
     private final ConsultasRepository consultasRepository;
     private final CacheService cacheService;
     private final MethodCacheService methodCacheService;
+    private final TeamStatsService teamStatsService;
+    private final ReplicaService replicaService;
+    private final TransactionTemplate transactionTemplate;
+    private final RatingService ratingService;
+    private final GoalModelService goalModelService;
+    private final PredictionMatrixService predictionMatrixService;
+    private final PredictionMode mode;
     private final ObjectMapper mapper = new ObjectMapper();
 
     public PredictionService(FootballDataService footballDataService,
                              ConsultasRepository consultasRepository,
                              CacheService cacheService,
-                             MethodCacheService methodCacheService) {
+                             MethodCacheService methodCacheService,
+                             TeamStatsService teamStatsService,
+                             ReplicaService replicaService,
+                             PlatformTransactionManager transactionManager,
+                             RatingService ratingService,
+                             GoalModelService goalModelService,
+                             PredictionMatrixService predictionMatrixService,
+                             @Value("${prediction.mode:heuristic}") PredictionMode mode) {
         this.footballDataService = footballDataService;
         this.consultasRepository = consultasRepository;
         this.cacheService = cacheService;
         this.methodCacheService = methodCacheService;
+        this.teamStatsService = teamStatsService;
+        this.replicaService = replicaService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ratingService = ratingService;
+        this.goalModelService = goalModelService;
+        this.predictionMatrixService = predictionMatrixService;
+        this.mode = mode;
     }
 
     // ============================================================
-    // INTERNAL DEDUPLICATION HELPERS
+    // PUBLIC API WITH CACHE INTEGRATION
     // ============================================================
 
-    private JsonNode safeArray(JsonNode parent, String field) {
-        JsonNode arr = parent.get(field);
-        return (arr != null && arr.isArray()) ? arr : null;
-    }
+    public Map<String, Object> predictWinner(String teamId1, String teamId2, Long userId)
+            throws IOException, InterruptedException {
 
-    private String safeText(JsonNode node, String field) {
-        return node != null ? node.path(field).asText("") : "";
-    }
+        Map<String, Object> prediction = findModelPrediction(teamId1, teamId2);
+        if (prediction == null) {
+            prediction = findMatrixPrediction(teamId1, teamId2);
+        }
+        if (prediction == null) {
+            prediction = findCachedPrediction(teamId1, teamId2);
+        }
 
-    private int safeInt(JsonNode node, String field) {
-        return node != null ? node.path(field).asInt(0) : 0;
-    }
+        if (prediction == null) {
+            // Both caches miss - calculate fresh prediction
+            logger.info("Both caches MISS - calculating fresh prediction for teams {} vs {}", teamId1, teamId2);
 
-    private Set<String> extractLeagues(JsonNode matchesResponse) {
-        Set<String> leagues = new HashSet<>();
-        JsonNode matches = safeArray(matchesResponse, "matches");
-        if (matches == null) return leagues;
+            try (UpstreamCaller.Scope ignored = UpstreamCaller.PREDICTION.enter()) {
+                TeamStats stats1 = teamStatsService.getStats(teamId1);
+                TeamStats stats2 = teamStatsService.getStats(teamId2);
 
-        for (JsonNode match : matches) {
-            String league = match.path("competition").path("name").asText("");
-            if (!league.isEmpty()) leagues.add(league);
+                prediction = buildPrediction(stats1, stats2);
+            }
+            cachePrediction(teamId1, teamId2, prediction);
         }
-        return leagues;
+
+        // Save to user history even if cached
+        savePrediction(userId, teamId1, teamId2, prediction);
+        return prediction;
     }
 
-    private String getCompetitionId(String leagueName) throws IOException, InterruptedException {
-        JsonNode competitions = footballDataService.getCompetitions();
-        JsonNode list = safeArray(competitions, "competitions");
-        if (list == null) return null;
+    /**
+     * Predicts several fixtures at once. Cached pairs are served from cache, the
+     * stats of the remaining teams are fetched concurrently and only once per team,
+     * and the whole batch is recorded in the user history with a single save.
+     */
+    public List<Map<String, Object>> predictBatch(List<BatchPredictionRequest.Fixture> fixtures, Long userId)
+            throws IOException, InterruptedException {
+
+        validateFixtures(fixtures);
+
+        List<Map<String, Object>> predictions = new ArrayList<>(fixtures.size());
+        Set<String> teamsToFetch = new LinkedHashSet<>();
 
-        for (JsonNode comp : list) {
-            if (leagueName.equals(safeText(comp, "name"))) {
-                return safeText(comp, "id");
+        for (BatchPredictionRequest.Fixture fixture : fixtures) {
+            Map<String, Object> cached = findModelPrediction(fixture.getTeamId1(), fixture.getTeamId2());
+            if (cached == null) {
+                cached = findMatrixPrediction(fixture.getTeamId1(), fixture.getTeamId2());
+            }
+            if (cached == null) {
+                cached = findCachedPrediction(fixture.getTeamId1(), fixture.getTeamId2());
+            }
+            predictions.add(cached);
+            if (cached == null) {
+                teamsToFetch.add(fixture.getTeamId1());
+                teamsToFetch.add(fixture.getTeamId2());
             }
         }
-        return null;
-    }
 
-    private Map<String, Object> extractTeamStanding(JsonNode standingsResponse, String teamId) {
-        JsonNode standings = safeArray(standingsResponse, "standings");
-        if (standings == null || standings.isEmpty()) return Collections.emptyMap();
+        if (!teamsToFetch.isEmpty()) {
+            logger.info("Batch prediction: {} fixture(s), {} team(s) to fetch", fixtures.size(), teamsToFetch.size());
+            Map<String, TeamStats> stats;
+            try (UpstreamCaller.Scope ignored = UpstreamCaller.PREDICTION.enter()) {
+                stats = teamStatsService.getStatsForTeams(teamsToFetch);
+            }
 
-        JsonNode table = safeArray(standings.get(0), "table");
-        if (table == null) return Collections.emptyMap();
+            for (int i = 0; i < fixtures.size(); i++) {
+                if (predictions.get(i) != null) continue;
 
-        for (JsonNode entry : table) {
-            if (teamId.equals(entry.path("team").path("id").asText(""))) {
-                Map<String, Object> out = new HashMap<>();
-                out.put(POSITION_KEY, safeInt(entry, POSITION_KEY));
-                out.put(POINTS_KEY, safeInt(entry, POINTS_KEY));
-                out.put(GOAL_DIFFERENCE_KEY, safeInt(entry, GOAL_DIFFERENCE_KEY));
-                return out;
+                BatchPredictionRequest.Fixture fixture = fixtures.get(i);
+                Map<String, Object> prediction = buildPrediction(
+                        stats.get(fixture.getTeamId1()),
+                        stats.get(fixture.getTeamId2())
+                );
+                cachePrediction(fixture.getTeamId1(), fixture.getTeamId2(), prediction);
+                predictions.set(i, prediction);
             }
         }
-        return Collections.emptyMap();
-    }
 
-    private StandingResult evaluateLeague(String leagueName, String teamId)
-            throws IOException, InterruptedException {
-
-        try {
-            String competitionId = getCompetitionId(leagueName);
-            if (competitionId != null) {
-                JsonNode standings = footballDataService.getStandings(competitionId);
-                Map<String, Object> standing = extractTeamStanding(standings, teamId);
-                if (!standing.isEmpty()) {
-                    return new StandingResult(
-                            true,
-                            (int) standing.get(POINTS_KEY),
-                            (int) standing.get(POSITION_KEY),
-                            (int) standing.get(GOAL_DIFFERENCE_KEY)
-                    );
-                }
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new MetricsException("Error obteniendo standings para: " + leagueName, e);
-        } catch (IOException e) {
-            throw new MetricsException("Error obteniendo standings para: " + leagueName, e);
+        List<Map<String, Object>> response = new ArrayList<>(fixtures.size());
+        for (int i = 0; i < fixtures.size(); i++) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("teamId1", fixtures.get(i).getTeamId1());
+            entry.put("teamId2", fixtures.get(i).getTeamId2());
+            entry.putAll(predictions.get(i));
+            response.add(entry);
         }
 
-        return new StandingResult(false, 0, 0, 0);
+        savePredictions(userId, response);
+        return response;
     }
 
-    private StandingsData processLeagueStandings(Set<String> leagues, String teamId)
+    /**
+     * Predicts every fixture of a competition matchday (e.g. "PL", matchday 12)
+     */
+    public List<Map<String, Object>> predictMatchday(String competitionCode, int matchday, Long userId)
             throws IOException, InterruptedException {
 
-        int totalPoints = 0;
-        int totalPos = 0;
-        int totalGD = 0;
-        int count = 0;
-
-        for (String league : leagues) {
-            StandingResult res = evaluateLeague(league, teamId);
-            if (res.found) {
-                totalPoints += res.points;
-                totalPos += res.position;
-                totalGD += res.goalDifference;
-                count++;
+        JsonNode response = replicaService.findMatchesByCompetition(competitionCode, matchday).orElse(null);
+        if (response == null) {
+            try (UpstreamCaller.Scope ignored = UpstreamCaller.PREDICTION.enter()) {
+                response = footballDataService.getMatchesByCompetition(competitionCode, matchday);
             }
         }
+        JsonNode matches = response.path("matches");
 
-        double avgPos = (count > 0) ? (double) totalPos / count : 20;
-        return new StandingsData(totalPoints, avgPos, totalGD, count);
+        List<BatchPredictionRequest.Fixture> fixtures = new ArrayList<>();
+        for (JsonNode match : matches) {
+            String home = match.path("homeTeam").path("id").asText("");
+            String away = match.path("awayTeam").path("id").asText("");
+            // Knockout fixtures may not have both teams defined yet
+            if (!home.isEmpty() && !away.isEmpty()) {
+                fixtures.add(new BatchPredictionRequest.Fixture(home, away));
+            }
+        }
+
+        if (fixtures.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return predictBatch(fixtures, userId);
+    }
+
+    /**
+     * Scoreline probabilities of a match with the first team at home, from the
+     * fitted goal model of a competition both teams play in
+     */
+    public Optional<Map<String, Object>> predictScorelines(String homeTeamId, String awayTeamId) {
+        return goalModelService.getScorelines(homeTeamId, awayTeamId);
     }
 
     // ============================================================
-    // PUBLIC API WITH CACHE INTEGRATION
+    // CACHE INTEGRATION
     // ============================================================
 
-    @Transactional
-    public Map<String, Object> predictWinner(String teamId1, String teamId2, Long userId)
-            throws IOException, InterruptedException {
-
-        // Generate cache key based on method signature and parameters
-        String cacheKey = String.format("predictWinner(%s,%s)", teamId1, teamId2);
+    /**
+     * The cached prediction of the pair, mirrored when asked for in the other order
+     * than it was cached in, or null if neither cache holds it
+     */
+    private Map<String, Object> findCachedPrediction(String teamId1, String teamId2) {
+        long pair = TeamPairKey.of(teamId1, teamId2);
+        boolean reversed = TeamPairKey.isReversed(teamId1, teamId2);
+        String cacheKey = TeamPairKey.signature(METHOD_CACHE_NAME, pair);
 
         // Try to get cached result from method cache
         Optional<Map<String, Object>> cachedResult = methodCacheService.getCachedMapResult(cacheKey);
 
         if (cachedResult.isPresent()) {
             logger.info("Method cache HIT for prediction: {} vs {}", teamId1, teamId2);
-            Map<String, Object> prediction = cachedResult.get();
-            // Save to user history even if cached
-            savePrediction(userId, prediction);
-            return prediction;
+            return reversed ? mirror(cachedResult.get()) : cachedResult.get();
         }
 
         // Method cache miss - check old cache system
@@ -178,157 +235,169 @@ public class PredictionService {
             logger.info("Old cache HIT - storing in method cache for prediction: {} vs {}", teamId1, teamId2);
             // Store in method cache for future requests
             methodCacheService.cacheResult(cacheKey, cachedPrediction);
-            savePrediction(userId, cachedPrediction);
-            return cachedPrediction;
+            return reversed ? mirror(cachedPrediction) : cachedPrediction;
         }
 
-        // Both caches miss - calculate fresh prediction
-        logger.info("Both caches MISS - calculating fresh prediction for teams {} vs {}", teamId1, teamId2);
-
-        TeamStats stats1 = getStats(teamId1);
-        TeamStats stats2 = getStats(teamId2);
-
-        double prob1 = calculateProbability(stats1);
-        double prob2 = calculateProbability(stats2);
-
-        double total = prob1 + prob2;
-        prob1 = (prob1 / total) * 100;
-        prob2 = (prob2 / total) * 100;
-
-        String winner = (prob1 > prob2) ? stats1.teamName : stats2.teamName;
-        double winnerProb = Math.max(prob1, prob2);
-
-        Map<String, Object> response = new LinkedHashMap<>();
-        response.put("probabilidad_" + stats1.teamName, String.format(PERCENTAGE_FORMAT, prob1));
-        response.put("probabilidad_" + stats2.teamName, String.format(PERCENTAGE_FORMAT, prob2));
-        response.put("prediction", winner + " con " + String.format(PERCENTAGE_FORMAT, winnerProb));
-
-        // Store in both caches
-        cacheService.cachePrediction(teamId1, teamId2, response);
-        methodCacheService.cacheResult(cacheKey, response);
-
-        // Save to user history
-        savePrediction(userId, response);
-
-        return response;
+        return null;
     }
 
-    // ============================================================
-    // TEAM DATA PROCESSING
-    // ============================================================
-
-    private TeamStats getStats(String teamId) throws IOException, InterruptedException {
-        TeamStats stats = new TeamStats();
-
-        JsonNode matches = footballDataService.getLastMatchesFinished(teamId, 10);
-        evaluateMatches(matches, teamId, stats);
-
-        Set<String> leagues = extractLeagues(matches);
-        StandingsData sd = processLeagueStandings(leagues, teamId);
-
-        stats.totalPoints = sd.totalPoints;
-        stats.avgPosition = sd.avgPosition;
-        stats.totalGoalDiff = sd.totalGoalDiff;
-        stats.leagueCount = sd.leagueCount;
+    /**
+     * Elo and Poisson modes: the prediction from the fitted model, or null if it
+     * does not cover both teams
+     */
+    private Map<String, Object> findModelPrediction(String teamId1, String teamId2) {
+        OptionalDouble probability = switch (mode) {
+            case ELO -> ratingService.winProbability(teamId1, teamId2);
+            case POISSON -> goalModelService.winProbability(teamId1, teamId2);
+            case HEURISTIC -> OptionalDouble.empty();
+        };
+        if (probability.isEmpty()) {
+            return null;
+        }
+        return formatPrediction(modelTeamName(teamId1), probability.getAsDouble() * 100,
+                modelTeamName(teamId2), (1 - probability.getAsDouble()) * 100);
+    }
 
-        return stats;
+    /**
+     * The heuristic prediction read from a competition matrix, or null if no live matrix holds both teams
+     */
+    private Map<String, Object> findMatrixPrediction(String teamId1, String teamId2) {
+        OptionalDouble probability = predictionMatrixService.findProbability(teamId1, teamId2);
+        if (probability.isEmpty()) {
+            return null;
+        }
+        return formatPrediction(predictionMatrixService.getTeamName(teamId1), probability.getAsDouble() * 100,
+                predictionMatrixService.getTeamName(teamId2), (1 - probability.getAsDouble()) * 100);
     }
 
-    private void evaluateMatches(JsonNode matchesResponse, String teamId, TeamStats stats) {
-        JsonNode matches = safeArray(matchesResponse, "matches");
-        if (matches == null) return;
+    private String modelTeamName(String teamId) {
+        return mode == PredictionMode.POISSON ? goalModelService.getTeamName(teamId) : ratingService.getTeamName(teamId);
+    }
 
-        int won = 0;
-        int goals = 0;
-        String name = "";
+    /**
+     * Caches the prediction once for the pair, oriented lower team id first
+     */
+    private void cachePrediction(String teamId1, String teamId2, Map<String, Object> prediction) {
+        long pair = TeamPairKey.of(teamId1, teamId2);
+        Map<String, Object> oriented = TeamPairKey.isReversed(teamId1, teamId2) ? mirror(prediction) : prediction;
+        cacheService.cachePrediction(teamId1, teamId2, oriented);
+        methodCacheService.cacheResult(TeamPairKey.signature(METHOD_CACHE_NAME, pair), oriented);
+    }
 
-        for (JsonNode match : matches) {
-            MatchResult r = parseMatch(match, teamId);
-            if (r.teamName != null && !r.teamName.isEmpty()) name = r.teamName;
-            if (r.won) {
-                won++;
-                goals += r.goals;
+    /**
+     * The same prediction seen from the other team: the two probabilities swap places
+     */
+    static Map<String, Object> mirror(Map<String, Object> prediction) {
+        Map<String, Object> mirrored = new LinkedHashMap<>();
+        List<Map.Entry<String, Object>> probabilities = new ArrayList<>(2);
+        for (Map.Entry<String, Object> entry : prediction.entrySet()) {
+            if (entry.getKey().startsWith(PROBABILITY_PREFIX)) {
+                probabilities.add(entry);
             }
         }
-
-        stats.teamName = name;
-        stats.wonGames = won;
-        stats.goalQuantity = goals;
+        for (int i = probabilities.size() - 1; i >= 0; i--) {
+            mirrored.put(probabilities.get(i).getKey(), probabilities.get(i).getValue());
+        }
+        for (Map.Entry<String, Object> entry : prediction.entrySet()) {
+            mirrored.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        return mirrored;
     }
 
-    private MatchResult parseMatch(JsonNode match, String teamId) {
-
-        JsonNode score = match.get("score");
-        JsonNode full = (score != null) ? score.get("fullTime") : null;
-
-        if (full == null) return new MatchResult(null, false, 0);
+    private void validateFixtures(List<BatchPredictionRequest.Fixture> fixtures) {
+        if (fixtures == null || fixtures.isEmpty()) {
+            throw new IllegalArgumentException("At least one fixture is required");
+        }
+        if (fixtures.size() > MAX_BATCH_FIXTURES) {
+            throw new IllegalArgumentException("A batch accepts at most " + MAX_BATCH_FIXTURES + " fixtures");
+        }
+        for (BatchPredictionRequest.Fixture fixture : fixtures) {
+            if (fixture == null || isBlank(fixture.getTeamId1()) || isBlank(fixture.getTeamId2())) {
+                throw new IllegalArgumentException("Every fixture needs teamId1 and teamId2");
+            }
+        }
+    }
 
-        int home = full.path("home").asInt(0);
-        int away = full.path("away").asInt(0);
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
 
-        JsonNode homeTeam = match.path("homeTeam");
-        JsonNode awayTeam = match.path("awayTeam");
+    // ============================================================
+    // PROBABILITY + SAVING
+    // ============================================================
 
-        boolean isHome = teamId.equals(homeTeam.path("id").asText(""));
-        boolean isAway = teamId.equals(awayTeam.path("id").asText(""));
+    private Map<String, Object> buildPrediction(TeamStats stats1, TeamStats stats2) {
+        double prob1 = calculateProbability(stats1);
+        double prob2 = calculateProbability(stats2);
 
-        if (!isHome && !isAway) return new MatchResult(null, false, 0);
+        double total = prob1 + prob2;
+        prob1 = (prob1 / total) * 100;
+        prob2 = (prob2 / total) * 100;
 
-        String winner = safeText(score, "winner");
-        String name = isHome ? homeTeam.path("name").asText("") : awayTeam.path("name").asText("");
+        return formatPrediction(stats1.teamName(), prob1, stats2.teamName(), prob2);
+    }
 
-        boolean won = isHome ? "HOME_TEAM".equals(winner) : "AWAY_TEAM".equals(winner);
-        int goals = won ? (home + away) : 0;
+    private Map<String, Object> formatPrediction(String name1, double prob1, String name2, double prob2) {
+        String winner = (prob1 > prob2) ? name1 : name2;
+        double winnerProb = Math.max(prob1, prob2);
 
-        return new MatchResult(name, won, goals);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put(PROBABILITY_PREFIX + name1, String.format(PERCENTAGE_FORMAT, prob1));
+        response.put(PROBABILITY_PREFIX + name2, String.format(PERCENTAGE_FORMAT, prob2));
+        response.put("prediction", winner + " con " + String.format(PERCENTAGE_FORMAT, winnerProb));
+        return response;
     }
 
-    // ============================================================
-    // PROBABILITY + SAVING
-    // ============================================================
-
-    private double calculateProbability(TeamStats stats) {
-        double winRate = stats.wonGames * 10.0;
-        double goalScore = Math.min(stats.goalQuantity * 2.0, 100);
-        double pointsScore = Math.min(stats.totalPoints * 2.0, 100);
-        double positionScore = Math.max(0, 100 - (stats.avgPosition * 5));
-        double goalDiffScore = Math.clamp(stats.totalGoalDiff * 3.0, 0, 100);
-
-        return Math.max(
-                (winRate * 0.30) +
-                        (goalScore * 0.20) +
-                        (pointsScore * 0.25) +
-                        (positionScore * 0.15) +
-                        (goalDiffScore * 0.10),
-                1.0
-        );
+    /**
+     * Heuristic strength of a team; two teams split 100% in proportion to their scores
+     */
+    static double calculateProbability(TeamStats stats) {
+        return HeuristicScore.score(stats.wonGames(), stats.goalsInWins(), stats.totalPoints(),
+                stats.avgPosition(), stats.totalGoalDiff());
     }
 
-    private void savePrediction(Long userId, Map<String, Object> prediction) {
-        savePredictionData(userId, prediction);
+    /**
+     * Records the prediction with the team ids, so it can be checked later against the result
+     */
+    private void savePrediction(Long userId, String teamId1, String teamId2, Map<String, Object> prediction) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("teamId1", teamId1);
+        entry.put("teamId2", teamId2);
+        entry.putAll(prediction);
+        savePredictions(userId, List.of(entry));
     }
 
-    private void savePredictionData(Long userId, Map<String, Object> prediction) {
+    private void savePredictions(Long userId, List<Map<String, Object>> predictions) {
         try {
-            Consultas consulta = consultasRepository.findByUserId(userId)
-                    .orElse(new Consultas());
+            transactionTemplate.executeWithoutResult(status -> appendPredictions(userId, predictions));
+        } catch (Exception e) {
+            logger.error("Error guardando predicción", e);
+        }
+    }
 
-            if (consulta.getId() == null) {
-                consulta.setUserId(userId);
-            }
+    private void appendPredictions(Long userId, List<Map<String, Object>> predictions) {
+        Consultas consulta = consultasRepository.findByUserId(userId)
+                .orElse(new Consultas());
 
-            List<Map<String, Object>> predictionsList = getExistingPredictions(consulta);
+        if (consulta.getId() == null) {
+            consulta.setUserId(userId);
+        }
+
+        List<Map<String, Object>> predictionsList = getExistingPredictions(consulta);
 
+        String timestamp = new Date().toString();
+        for (Map<String, Object> prediction : predictions) {
             Map<String, Object> predictionWithTime = new LinkedHashMap<>(prediction);
-            predictionWithTime.put("timestamp", new Date().toString());
+            predictionWithTime.put("timestamp", timestamp);
             predictionsList.add(predictionWithTime);
+        }
 
+        try {
             consulta.setPredicciones(mapper.writeValueAsString(predictionsList));
-            consultasRepository.save(consulta);
-
-        } catch (Exception e) {
-            logger.error("Error guardando predicción", e);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
         }
+        consultasRepository.save(consulta);
     }
 
     private List<Map<String, Object>> getExistingPredictions(Consultas consulta) {
@@ -350,58 +419,4 @@ public class PredictionService {
         }
         return list;
     }
-
-    // ============================================================
-    // INTERNAL CLASSES
-    // ============================================================
-
-    private static class TeamStats {
-        String teamName = "";
-        int wonGames = 0;
-        int goalQuantity = 0;
-        int totalPoints = 0;
-        double avgPosition = 20.0;
-        int totalGoalDiff = 0;
-        int leagueCount = 0;
-    }
-
-    private static class StandingsData {
-        final int totalPoints;
-        final double avgPosition;
-        final int totalGoalDiff;
-        final int leagueCount;
-
-        StandingsData(int p, double a, int gd, int c) {
-            this.totalPoints = p;
-            this.avgPosition = a;
-            this.totalGoalDiff = gd;
-            this.leagueCount = c;
-        }
-    }
-
-    private static class StandingResult {
-        final boolean found;
-        final int points;
-        final int position;
-        final int goalDifference;
-
-        StandingResult(boolean f, int p, int pos, int gd) {
-            this.found = f;
-            this.points = p;
-            this.position = pos;
-            this.goalDifference = gd;
-        }
-    }
-
-    private static class MatchResult {
-        final String teamName;
-        final boolean won;
-        final int goals;
-
-        MatchResult(String n, boolean w, int g) {
-            this.teamName = n;
-            this.won = w;
-            this.goals = g;
-        }
-    }
-}
\ No newline at end of file
+}
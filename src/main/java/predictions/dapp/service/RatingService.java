@@ -0,0 +1,265 @@
+package predictions.dapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import predictions.dapp.model.RatedMatch;
+import predictions.dapp.model.TeamRating;
+import predictions.dapp.repositories.RatedMatchRepository;
+import predictions.dapp.repositories.TeamRatingRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Elo-style rating per team, updated incrementally from the finished matches of
+ * the {@link MatchStore} and persisted in {@code team_ratings}.
+ *
+ * Every match is applied once, tracked by match id in {@code rated_matches}, so
+ * a result that reaches the replica late (a competition synced later, a postponed
+ * match played under its original date) is still rated on the next update. New
+ * matches are applied in kick-off order, some hours after kick-off so the result
+ * has settled. Reads go to an {@link IntDoubleMap} that is replaced as a whole on every
+ * update, so a lookup is a single hash probe and never waits on a writer.
+ */
+@Service
+public class RatingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingService.class);
+
+    static final double INITIAL_RATING = 1500;
+    static final double K_FACTOR = 20;
+    static final double HOME_ADVANTAGE = 60;
+    private static final Duration SETTLE_TIME = Duration.ofHours(6);
+
+    private final TeamRatingRepository teamRatingRepository;
+    private final RatedMatchRepository ratedMatchRepository;
+    private final MatchStoreService matchStoreService;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Integer, String> teamNames = new ConcurrentHashMap<>();
+    private volatile IntDoubleMap ratings = new IntDoubleMap(0);
+
+    // Guarded by lock; not synchronized, as load and update wait on the database
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Set<Long> rated = new HashSet<>();
+
+    public RatingService(TeamRatingRepository teamRatingRepository,
+                         RatedMatchRepository ratedMatchRepository,
+                         MatchStoreService matchStoreService,
+                         PlatformTransactionManager transactionManager) {
+        this.teamRatingRepository = teamRatingRepository;
+        this.ratedMatchRepository = ratedMatchRepository;
+        this.matchStoreService = matchStoreService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(2)
+    public void onStartup() {
+        load();
+        update(matchStoreService.current());
+    }
+
+    // ============================================================
+    // PUBLIC API
+    // ============================================================
+
+    /**
+     * Probability that the first team beats the second on neutral ground (draws
+     * count as half), or empty when either team has no rating yet
+     */
+    public OptionalDouble winProbability(String teamId1, String teamId2) {
+        IntDoubleMap current = ratings;
+        int id1 = parseTeamId(teamId1);
+        int id2 = parseTeamId(teamId2);
+        if (!current.containsKey(id1) || !current.containsKey(id2)) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of(expected(current.get(id1, INITIAL_RATING), current.get(id2, INITIAL_RATING)));
+    }
+
+    public OptionalDouble getRating(String teamId) {
+        IntDoubleMap current = ratings;
+        int id = parseTeamId(teamId);
+        return current.containsKey(id) ? OptionalDouble.of(current.get(id, INITIAL_RATING)) : OptionalDouble.empty();
+    }
+
+    /** Name last seen for the team, or its id when unknown */
+    public String getTeamName(String teamId) {
+        return teamNames.getOrDefault(parseTeamId(teamId), teamId);
+    }
+
+    public int getRatedTeamCount() {
+        return ratings.size();
+    }
+
+    // ============================================================
+    // UPDATES
+    // ============================================================
+
+    /**
+     * Replaces the in-memory ratings and the set of rated matches with the persisted ones
+     */
+    public void load() {
+        lock.lock();
+        try {
+            List<TeamRating> stored = teamRatingRepository.findAll();
+            List<Long> ratedIds = ratedMatchRepository.findAllMatchIds();
+            IntDoubleMap loaded = new IntDoubleMap(stored.size());
+            for (TeamRating rating : stored) {
+                loaded.put(rating.getTeamId().intValue(), rating.getRating());
+                if (rating.getTeamName() != null) {
+                    teamNames.put(rating.getTeamId().intValue(), rating.getTeamName());
+                }
+            }
+            ratings = loaded;
+            rated.clear();
+            rated.addAll(ratedIds);
+            logger.info("Loaded {} team rating(s), {} rated match(es)", loaded.size(), ratedIds.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the finished matches of the store that are not rated yet and are old
+     * enough to be settled, oldest first, and persists them with the teams involved
+     *
+     * @return how many matches were applied
+     */
+    public int update(MatchStore store) {
+        lock.lock();
+        try {
+            return applyUnrated(store);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int applyUnrated(MatchStore store) {
+        long settled = Instant.now().minus(SETTLE_TIME).getEpochSecond();
+        IntDoubleMap next = null;
+        Map<Long, Integer> applied = new LinkedHashMap<>();
+        Map<Long, Long> lastMatch = new HashMap<>();
+        List<Long> newlyRated = new ArrayList<>();
+
+        // Slots are newest first
+        for (int slot = store.size() - 1; slot >= 0; slot--) {
+            long kickOff = store.kickOff(slot);
+            if (kickOff > settled) break;
+            long matchId = store.matchId(slot);
+            if (!store.finished(slot) || matchId < 0 || rated.contains(matchId)) continue;
+
+            if (next == null) next = ratings.copy();
+            apply(next, store, slot);
+            track(store, store.homeTeam(slot), kickOff, applied, lastMatch);
+            track(store, store.awayTeam(slot), kickOff, applied, lastMatch);
+            newlyRated.add(matchId);
+        }
+
+        if (newlyRated.isEmpty()) {
+            return 0;
+        }
+        IntDoubleMap updated = next;
+        transactionTemplate.executeWithoutResult(status -> persist(updated, applied, lastMatch, newlyRated));
+        rated.addAll(newlyRated);
+        ratings = next;
+        logger.info("Ratings updated with {} match(es), {} team(s) rated", newlyRated.size(), next.size());
+        return newlyRated.size();
+    }
+
+    private static void apply(IntDoubleMap ratings, MatchStore store, int slot) {
+        int home = store.homeTeam(slot);
+        int away = store.awayTeam(slot);
+        double homeRating = ratings.get(home, INITIAL_RATING);
+        double awayRating = ratings.get(away, INITIAL_RATING);
+
+        double expectedHome = expected(homeRating + HOME_ADVANTAGE, awayRating);
+        double scoreHome = switch (store.winner(slot)) {
+            case MatchStore.WINNER_HOME -> 1.0;
+            case MatchStore.WINNER_AWAY -> 0.0;
+            default -> 0.5;
+        };
+        int margin = Math.abs(store.homeGoals(slot) - store.awayGoals(slot));
+        double delta = K_FACTOR * marginMultiplier(margin) * (scoreHome - expectedHome);
+
+        ratings.put(home, homeRating + delta);
+        ratings.put(away, awayRating - delta);
+    }
+
+    private void track(MatchStore store, int teamId, long kickOff,
+                       Map<Long, Integer> applied, Map<Long, Long> lastMatch) {
+        applied.merge((long) teamId, 1, Integer::sum);
+        lastMatch.put((long) teamId, kickOff);
+        String name = store.teamName(teamId);
+        if (name != null) {
+            teamNames.put(teamId, name);
+        }
+    }
+
+    private void persist(IntDoubleMap next, Map<Long, Integer> applied, Map<Long, Long> lastMatch,
+                         List<Long> newlyRated) {
+        Instant now = Instant.now();
+        List<RatedMatch> marks = new ArrayList<>(newlyRated.size());
+        for (Long matchId : newlyRated) {
+            marks.add(new RatedMatch(matchId, now));
+        }
+        ratedMatchRepository.saveAll(marks);
+
+        Map<Long, TeamRating> entities = new HashMap<>();
+        for (TeamRating rating : teamRatingRepository.findAllById(applied.keySet())) {
+            entities.put(rating.getTeamId(), rating);
+        }
+        for (Map.Entry<Long, Integer> entry : applied.entrySet()) {
+            Long teamId = entry.getKey();
+            TeamRating rating = entities.computeIfAbsent(teamId, TeamRating::new);
+            rating.setTeamName(teamNames.get(teamId.intValue()));
+            rating.setRating(next.get(teamId.intValue(), INITIAL_RATING));
+            rating.setMatchesRated(rating.getMatchesRated() + entry.getValue());
+            Instant matchAt = Instant.ofEpochSecond(lastMatch.get(teamId));
+            if (rating.getLastMatchAt() == null || matchAt.isAfter(rating.getLastMatchAt())) {
+                rating.setLastMatchAt(matchAt);
+            }
+        }
+        teamRatingRepository.saveAll(entities.values());
+    }
+
+    // ============================================================
+    // HELPERS
+    // ============================================================
+
+    /** Expected score of a team rated {@code rating} against one rated {@code opponent} */
+    static double expected(double rating, double opponent) {
+        return 1.0 / (1.0 + Math.pow(10, (opponent - rating) / 400.0));
+    }
+
+    /** Wins by a wider margin move the ratings more */
+    static double marginMultiplier(int goalDifference) {
+        if (goalDifference <= 1) return 1.0;
+        if (goalDifference == 2) return 1.5;
+        return (11.0 + goalDifference) / 8.0;
+    }
+
+    private static int parseTeamId(String teamId) {
+        try {
+            return Integer.parseInt(teamId);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
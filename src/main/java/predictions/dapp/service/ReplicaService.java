@@ -0,0 +1,269 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import predictions.dapp.model.Competition;
+import predictions.dapp.model.Match;
+import predictions.dapp.model.Scorer;
+import predictions.dapp.model.Standing;
+import predictions.dapp.model.Team;
+import predictions.dapp.repositories.CompetitionRepository;
+import predictions.dapp.repositories.MatchRepository;
+import predictions.dapp.repositories.PlayerRepository;
+import predictions.dapp.repositories.ScorerRepository;
+import predictions.dapp.repositories.StandingRepository;
+import predictions.dapp.repositories.TeamRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of the local Football-Data replica filled by {@link ReplicaSyncService}.
+ *
+ * Every lookup answers with the same JSON shape as the matching Football-Data
+ * endpoint, so callers keep their parsing code and fall back to the live client
+ * when the result is empty: nothing synced yet, or the competition was last
+ * synced longer than {@code replica.max-age-hours} ago.
+ */
+@Service
+public class ReplicaService {
+
+    private static final String FINISHED = "FINISHED";
+
+    private final CompetitionRepository competitionRepository;
+    private final MatchRepository matchRepository;
+    private final StandingRepository standingRepository;
+    private final ScorerRepository scorerRepository;
+    private final PlayerRepository playerRepository;
+    private final TeamRepository teamRepository;
+    private final Duration maxAge;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public ReplicaService(CompetitionRepository competitionRepository,
+                          MatchRepository matchRepository,
+                          StandingRepository standingRepository,
+                          ScorerRepository scorerRepository,
+                          PlayerRepository playerRepository,
+                          TeamRepository teamRepository,
+                          @Value("${replica.max-age-hours:24}") long maxAgeHours) {
+        this.competitionRepository = competitionRepository;
+        this.matchRepository = matchRepository;
+        this.standingRepository = standingRepository;
+        this.scorerRepository = scorerRepository;
+        this.playerRepository = playerRepository;
+        this.teamRepository = teamRepository;
+        this.maxAge = Duration.ofHours(maxAgeHours);
+    }
+
+    // ============================================================
+    // LOOKUPS (same shape as the Football-Data responses)
+    // ============================================================
+
+    /** Like GET /competitions */
+    public Optional<JsonNode> findCompetitions() {
+        List<Competition> competitions = competitionRepository.findByListedAtAfter(Instant.now().minus(maxAge));
+        if (competitions.isEmpty()) {
+            return Optional.empty();
+        }
+        ObjectNode response = mapper.createObjectNode();
+        ArrayNode list = response.putArray("competitions");
+        for (Competition competition : competitions) {
+            list.add(competitionNode(competition).put("area", competition.getArea()));
+        }
+        return Optional.of(response);
+    }
+
+    /** Like GET /teams/{id}/matches?status=FINISHED&limit={limit} */
+    public Optional<JsonNode> findLastMatchesFinished(String teamId, int limit) {
+        Long id = parseId(teamId);
+        if (id == null) {
+            return Optional.empty();
+        }
+        List<Match> matches = matchRepository.findLatestByTeam(id, FINISHED, PageRequest.of(0, limit));
+        return matchesResponse(matches);
+    }
+
+    /** Like GET /competitions/{code}/matches[?matchday=] */
+    public Optional<JsonNode> findMatchesByCompetition(String competitionCode, Integer matchday) {
+        Optional<Competition> competition = competitionRepository.findByCode(competitionCode)
+                .or(() -> Optional.ofNullable(parseId(competitionCode)).flatMap(competitionRepository::findById));
+        if (competition.isEmpty() || !isFresh(competition.get())) {
+            return Optional.empty();
+        }
+        Long id = competition.get().getId();
+        List<Match> matches = (matchday != null)
+                ? matchRepository.findByCompetitionIdAndMatchdayOrderByUtcDate(id, matchday)
+                : matchRepository.findByCompetitionIdOrderByUtcDate(id);
+        return matchesResponse(matches);
+    }
+
+    /** Like GET /competitions/{id}/standings, total table only */
+    public Optional<JsonNode> findStandings(String competitionId) {
+        Optional<Competition> competition = freshCompetition(competitionId);
+        if (competition.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Standing> rows = standingRepository.findByCompetitionIdOrderByPosition(competition.get().getId());
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ObjectNode response = mapper.createObjectNode();
+        response.set("competition", competitionNode(competition.get()));
+        ObjectNode total = response.putArray("standings").addObject().put("type", "TOTAL");
+        ArrayNode table = total.putArray("table");
+        for (Standing row : rows) {
+            ObjectNode entry = table.addObject();
+            entry.put("position", row.getPosition());
+            entry.putObject("team").put("id", row.getTeamId()).put("name", row.getTeamName());
+            entry.put("playedGames", row.getPlayedGames());
+            entry.put("points", row.getPoints());
+            entry.put("goalDifference", row.getGoalDifference());
+        }
+        return Optional.of(response);
+    }
+
+    /** Like GET /competitions/{id}/scorers?season={season} */
+    public Optional<JsonNode> findTopScorers(String competitionId, String season) {
+        Optional<Competition> competition = freshCompetition(competitionId);
+        if (competition.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Scorer> scorers = scorerRepository.findByCompetitionIdAndSeasonOrderByGoalsDesc(
+                competition.get().getId(), season);
+        if (scorers.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ObjectNode response = mapper.createObjectNode();
+        response.set("competition", competitionNode(competition.get()));
+        ArrayNode list = response.putArray("scorers");
+        for (Scorer scorer : scorers) {
+            ObjectNode entry = list.addObject();
+            entry.putObject("player").put("id", scorer.getPlayerId()).put("name", scorer.getPlayerName());
+            entry.putObject("team").put("name", scorer.getTeamName());
+            entry.put("playedMatches", scorer.getPlayedMatches());
+            entry.put("goals", scorer.getGoals());
+        }
+        return Optional.of(response);
+    }
+
+    /** Like GET /persons/{id} (name, position and current team only) */
+    public Optional<JsonNode> findPlayer(String playerId) {
+        Long id = parseId(playerId);
+        if (id == null) {
+            return Optional.empty();
+        }
+        return playerRepository.findById(id).map(player -> {
+            ObjectNode response = mapper.createObjectNode();
+            response.put("id", player.getId());
+            response.put("name", player.getName());
+            response.put("position", player.getPosition());
+            response.put("shirtNumber", player.getNumber());
+            if (player.getTeamId() != null) {
+                teamRepository.findById(player.getTeamId()).ifPresent(team -> currentTeam(response, team));
+            }
+            return response;
+        });
+    }
+
+    // ============================================================
+    // HELPERS
+    // ============================================================
+
+    boolean isFresh(Competition competition) {
+        return isFresh(competition.getLastSyncedAt());
+    }
+
+    /** Whether data copied at the given instant is still within {@code replica.max-age-hours} */
+    boolean isFresh(Instant syncedAt) {
+        return syncedAt != null && syncedAt.isAfter(Instant.now().minus(maxAge));
+    }
+
+    private Optional<Competition> freshCompetition(String competitionId) {
+        Long id = parseId(competitionId);
+        if (id == null) {
+            return Optional.empty();
+        }
+        return competitionRepository.findById(id).filter(this::isFresh);
+    }
+
+    /**
+     * Serves the matches only if every competition they belong to is fresh,
+     * otherwise a newer match may be missing
+     */
+    private Optional<JsonNode> matchesResponse(List<Match> matches) {
+        if (matches.isEmpty()) {
+            return Optional.empty();
+        }
+        Set<Long> competitionIds = matches.stream().map(Match::getCompetitionId).collect(Collectors.toSet());
+        Map<Long, Competition> competitions = new HashMap<>();
+        for (Competition competition : competitionRepository.findAllById(competitionIds)) {
+            competitions.put(competition.getId(), competition);
+        }
+        for (Long competitionId : competitionIds) {
+            Competition competition = competitions.get(competitionId);
+            if (competition == null || !isFresh(competition)) {
+                return Optional.empty();
+            }
+        }
+
+        ObjectNode response = mapper.createObjectNode();
+        ArrayNode list = response.putArray("matches");
+        for (Match match : matches) {
+            list.add(matchNode(match, competitions.get(match.getCompetitionId())));
+        }
+        return Optional.of(response);
+    }
+
+    private ObjectNode matchNode(Match match, Competition competition) {
+        ObjectNode node = mapper.createObjectNode();
+        node.put("id", match.getId());
+        node.set("competition", competitionNode(competition));
+        node.put("utcDate", match.getUtcDate() != null ? match.getUtcDate().toString() : null);
+        node.put("status", match.getStatus());
+        node.put("matchday", match.getMatchday());
+        node.putObject("homeTeam").put("id", match.getHomeTeamId()).put("name", match.getHomeTeamName());
+        node.putObject("awayTeam").put("id", match.getAwayTeamId()).put("name", match.getAwayTeamName());
+        ObjectNode score = node.putObject("score");
+        score.put("winner", match.getWinner());
+        if (match.getHomeGoals() != null && match.getAwayGoals() != null) {
+            score.putObject("fullTime").put("home", match.getHomeGoals()).put("away", match.getAwayGoals());
+        }
+        return node;
+    }
+
+    private ObjectNode competitionNode(Competition competition) {
+        ObjectNode node = mapper.createObjectNode()
+                .put("id", competition.getId())
+                .put("code", competition.getCode())
+                .put("name", competition.getName());
+        if (competition.getLastSyncedAt() != null) {
+            node.put("lastUpdated", competition.getLastSyncedAt().toString());
+        }
+        return node;
+    }
+
+    private static void currentTeam(ObjectNode response, Team team) {
+        response.putObject("currentTeam").put("id", team.getId()).put("name", team.getName());
+    }
+
+    private static Long parseId(String id) {
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import predictions.dapp.exceptions.UpstreamHttpException;
+import predictions.dapp.exceptions.UpstreamThrottledException;
+import predictions.dapp.model.Competition;
+import predictions.dapp.model.Match;
+import predictions.dapp.model.Player;
+import predictions.dapp.model.Scorer;
+import predictions.dapp.model.Standing;
+import predictions.dapp.model.Team;
+import predictions.dapp.repositories.CompetitionRepository;
+import predictions.dapp.repositories.MatchRepository;
+import predictions.dapp.repositories.PlayerRepository;
+import predictions.dapp.repositories.ScorerRepository;
+import predictions.dapp.repositories.StandingRepository;
+import predictions.dapp.repositories.TeamRepository;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write side of the local Football-Data replica read by {@link ReplicaService}.
+ *
+ * A scheduled job (disabled with {@code replica.sync.enabled=false}) lists the
+ * competitions and, for each one, downloads standings, teams with their squads,
+ * the new matches and the top scorers, then stores them in a single transaction.
+ * A competition only counts as synced when all four parts were stored, so a
+ * half-failed sync never looks fresh.
+ *
+ * Finished matches never change, so matches are synced incrementally: the first
+ * sync takes the whole season, later ones only ask for the days since the
+ * competition's high-water mark (plus one day of overlap and a few days ahead for
+ * upcoming fixtures), in windows of at most {@value #WINDOW_DAYS} days, and upsert
+ * them. A mark older than {@value #MAX_INCREMENTAL_DAYS} days falls back to the
+ * season query.
+ *
+ * Calls run as {@link UpstreamCaller#SYNC}, which is never served the guard's
+ * stale copies: a competition is only stored and marked synced with fresh data.
+ * When the quota is reserved for user-facing calls the job waits for the counter
+ * to reset and retries.
+ */
+@Service
+public class ReplicaSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaSyncService.class);
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long DEFAULT_RESET_SECONDS = 60;
+    private static final int SCORERS_LIMIT = 200;
+    static final int WINDOW_DAYS = 10;
+    static final int OVERLAP_DAYS = 1;
+    static final int MAX_INCREMENTAL_DAYS = 60;
+
+    private final FootballDataService footballDataService;
+    private final UpstreamQuota upstreamQuota;
+    private final CompetitionRepository competitionRepository;
+    private final TeamRepository teamRepository;
+    private final PlayerRepository playerRepository;
+    private final MatchRepository matchRepository;
+    private final StandingRepository standingRepository;
+    private final ScorerRepository scorerRepository;
+    private final MatchStoreService matchStoreService;
+    private final RatingService ratingService;
+    private final GoalModelService goalModelService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final List<String> competitionCodes;
+    private final int lookaheadDays;
+
+    public ReplicaSyncService(FootballDataService footballDataService,
+                              UpstreamQuota upstreamQuota,
+                              CompetitionRepository competitionRepository,
+                              TeamRepository teamRepository,
+                              PlayerRepository playerRepository,
+                              MatchRepository matchRepository,
+                              StandingRepository standingRepository,
+                              ScorerRepository scorerRepository,
+                              MatchStoreService matchStoreService,
+                              RatingService ratingService,
+                              GoalModelService goalModelService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${replica.sync.enabled:true}") boolean enabled,
+                              @Value("${replica.sync.competitions:}") List<String> competitionCodes,
+                              @Value("${replica.sync.lookahead-days:14}") int lookaheadDays) {
+        this.footballDataService = footballDataService;
+        this.upstreamQuota = upstreamQuota;
+        this.competitionRepository = competitionRepository;
+        this.teamRepository = teamRepository;
+        this.playerRepository = playerRepository;
+        this.matchRepository = matchRepository;
+        this.standingRepository = standingRepository;
+        this.scorerRepository = scorerRepository;
+        this.matchStoreService = matchStoreService;
+        this.ratingService = ratingService;
+        this.goalModelService = goalModelService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.competitionCodes = competitionCodes;
+        this.lookaheadDays = lookaheadDays;
+    }
+
+    @Scheduled(initialDelayString = "${replica.sync.initial-delay:PT1M}",
+            fixedDelayString = "${replica.sync.interval:PT1H}")
+    public void scheduledSync() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            syncAll();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.warn("Replica sync failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Refreshes the competition list and every selected competition
+     *
+     * @return how many competitions were fully synced
+     */
+    public int syncAll() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        try (UpstreamCaller.Scope ignored = UpstreamCaller.SYNC.enter()) {
+            List<Competition> competitions = syncCompetitionList();
+
+            int synced = 0;
+            for (Competition competition : competitions) {
+                if (!competitionCodes.isEmpty() && !competitionCodes.contains(competition.getCode())) {
+                    continue;
+                }
+                if (syncCompetition(competition)) {
+                    synced++;
+                }
+            }
+            logger.info("Replica sync finished: {}/{} competition(s) in {}s", synced, competitions.size(),
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+            if (synced > 0) {
+                MatchStore store = matchStoreService.rebuild();
+                ratingService.update(store);
+                goalModelService.fit(store);
+            }
+            return synced;
+        }
+    }
+
+    /**
+     * Downloads and stores one competition; returns false (keeping the previous copy)
+     * if any part could not be fetched
+     */
+    public boolean syncCompetition(Competition competition) throws InterruptedException {
+        String id = String.valueOf(competition.getId());
+        JsonNode standings;
+        JsonNode teams;
+        List<JsonNode> matches;
+        JsonNode scorers;
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        try (UpstreamCaller.Scope ignored = UpstreamCaller.SYNC.enter()) {
+            standings = fetch(() -> footballDataService.getStandings(id));
+            teams = fetch(() -> footballDataService.getTeamsByCompetition(id));
+            matches = fetchMatches(competition, today);
+            scorers = fetch(() -> footballDataService.getTopScorersByCompetitionId(
+                    id, SCORERS_LIMIT, PerformanceService.SCORERS_SEASON));
+        } catch (IOException e) {
+            logger.warn("Replica sync of competition {} skipped: {}", competition.getCode(), e.getMessage());
+            return false;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            storeStandings(competition.getId(), standings);
+            storeTeams(teams);
+            for (JsonNode page : matches) {
+                matchRepository.saveAll(parseMatches(competition.getId(), page));
+            }
+            // Everything before today is final; today is read again next time
+            competition.setMatchesSyncedThrough(today);
+            storeScorers(competition.getId(), scorers);
+            competition.setLastSyncedAt(Instant.now());
+            competitionRepository.save(competition);
+        });
+        logger.info("Replica synced competition {} ({})", competition.getCode(), competition.getName());
+        return true;
+    }
+
+    // ============================================================
+    // UPSTREAM
+    // ============================================================
+
+    /**
+     * Matches changed since the competition's high-water mark, as one response per window
+     */
+    private List<JsonNode> fetchMatches(Competition competition, LocalDate today)
+            throws IOException, InterruptedException {
+        String id = String.valueOf(competition.getId());
+        List<JsonNode> pages = new ArrayList<>();
+
+        LocalDate mark = competition.getMatchesSyncedThrough();
+        if (mark == null || mark.isBefore(today.minusDays(MAX_INCREMENTAL_DAYS))) {
+            pages.add(fetch(() -> footballDataService.getMatchesByCompetition(id, null)));
+            return pages;
+        }
+
+        for (DateWindow window : windows(mark.minusDays(OVERLAP_DAYS), today.plusDays(lookaheadDays))) {
+            pages.add(fetch(() -> footballDataService.getMatchesByCompetitionBetween(id, window.from(), window.to())));
+        }
+        return pages;
+    }
+
+    /**
+     * Splits {@code from..to} (both included) into consecutive windows of at most {@value #WINDOW_DAYS} days
+     */
+    static List<DateWindow> windows(LocalDate from, LocalDate to) {
+        List<DateWindow> windows = new ArrayList<>();
+        for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(WINDOW_DAYS)) {
+            LocalDate end = start.plusDays(WINDOW_DAYS - 1L);
+            windows.add(new DateWindow(start, end.isAfter(to) ? to : end));
+        }
+        return windows;
+    }
+
+    record DateWindow(LocalDate from, LocalDate to) {
+    }
+
+    /**
+     * Runs the call, waiting for the quota window to reset when it is throttled
+     */
+    private JsonNode fetch(UpstreamGuard.UpstreamCall call) throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.call();
+            } catch (IOException e) {
+                if (!isThrottled(e) || attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                long waitSeconds = upstreamQuota.getSecondsToReset().orElse(DEFAULT_RESET_SECONDS) + 1;
+                logger.info("Replica sync throttled, waiting {}s for the quota to reset", waitSeconds);
+                TimeUnit.SECONDS.sleep(waitSeconds);
+            }
+        }
+    }
+
+    private static boolean isThrottled(IOException e) {
+        return e instanceof UpstreamThrottledException
+                || (e instanceof UpstreamHttpException http && http.getStatusCode() == 429);
+    }
+
+    // ============================================================
+    // STORAGE
+    // ============================================================
+
+    private List<Competition> syncCompetitionList() throws IOException, InterruptedException {
+        JsonNode response = fetch(footballDataService::getCompetitions);
+        Instant now = Instant.now();
+
+        Map<Long, Competition> existing = new HashMap<>();
+        for (Competition competition : competitionRepository.findAll()) {
+            existing.put(competition.getId(), competition);
+        }
+
+        List<Competition> listed = new ArrayList<>();
+        for (JsonNode node : response.path("competitions")) {
+            long id = node.path("id").asLong(0);
+            if (id == 0) continue;
+            Competition competition = existing.computeIfAbsent(id, key -> new Competition(key, null, null, null));
+            competition.setCode(node.path("code").asText(null));
+            competition.setName(node.path("name").asText(null));
+            competition.setArea(node.path("area").path("name").asText(null));
+            competition.setListedAt(now);
+            listed.add(competition);
+        }
+        return competitionRepository.saveAll(listed);
+    }
+
+    private void storeStandings(Long competitionId, JsonNode response) {
+        standingRepository.deleteByCompetitionId(competitionId);
+
+        // Only the overall table; home/away splits are not replicated
+        JsonNode total = response.path("standings").path(0);
+        for (JsonNode standing : response.path("standings")) {
+            if ("TOTAL".equals(standing.path("type").asText())) {
+                total = standing;
+                break;
+            }
+        }
+
+        List<Standing> rows = new ArrayList<>();
+        for (JsonNode row : total.path("table")) {
+            JsonNode team = row.path("team");
+            rows.add(new Standing(competitionId, team.path("id").asLong(), team.path("name").asText(null),
+                    row.path("position").asInt(0), row.path("points").asInt(0),
+                    row.path("goalDifference").asInt(0), row.path("playedGames").asInt(0)));
+        }
+        standingRepository.saveAll(rows);
+    }
+
+    private void storeTeams(JsonNode response) {
+        List<Team> teams = new ArrayList<>();
+        List<Player> players = new ArrayList<>();
+        for (JsonNode node : response.path("teams")) {
+            long teamId = node.path("id").asLong();
+            teams.add(new Team(teamId, node.path("name").asText(null), node.path("shortName").asText(null),
+                    node.path("tla").asText(null), node.path("area").path("name").asText(null)));
+            for (JsonNode person : node.path("squad")) {
+                Integer number = person.hasNonNull("shirtNumber") ? person.get("shirtNumber").asInt() : null;
+                players.add(new Player(person.path("id").asLong(), person.path("name").asText(null),
+                        person.path("position").asText(null), number, teamId));
+            }
+        }
+        teamRepository.saveAll(teams);
+        playerRepository.saveAll(players);
+    }
+
+    private void storeScorers(Long competitionId, JsonNode response) {
+        String season = PerformanceService.SCORERS_SEASON;
+        scorerRepository.deleteByCompetitionIdAndSeason(competitionId, season);
+
+        List<Scorer> scorers = new ArrayList<>();
+        for (JsonNode node : response.path("scorers")) {
+            JsonNode player = node.path("player");
+            scorers.add(new Scorer(competitionId, season, player.path("id").asLong(),
+                    player.path("name").asText(null), node.path("team").path("name").asText(null),
+                    node.path("goals").asInt(0), node.path("playedMatches").asInt(0)));
+        }
+        scorerRepository.saveAll(scorers);
+    }
+
+    /**
+     * Maps a Football-Data matches response to replica rows (matches without both teams are skipped)
+     */
+    static List<Match> parseMatches(Long competitionId, JsonNode response) {
+        List<Match> matches = new ArrayList<>();
+        for (JsonNode node : response.path("matches")) {
+            JsonNode home = node.path("homeTeam");
+            JsonNode away = node.path("awayTeam");
+            if (!home.hasNonNull("id") || !away.hasNonNull("id")) continue;
+
+            Match match = new Match();
+            match.setId(node.path("id").asLong());
+            match.setCompetitionId(competitionId);
+            match.setUtcDate(parseInstant(node.path("utcDate").asText("")));
+            match.setStatus(node.path("status").asText(null));
+            match.setMatchday(node.hasNonNull("matchday") ? node.get("matchday").asInt() : null);
+            match.setHomeTeamId(home.get("id").asLong());
+            match.setHomeTeamName(home.path("name").asText(null));
+            match.setAwayTeamId(away.get("id").asLong());
+            match.setAwayTeamName(away.path("name").asText(null));
+
+            JsonNode score = node.path("score");
+            match.setWinner(score.hasNonNull("winner") ? score.get("winner").asText() : null);
+            JsonNode fullTime = score.path("fullTime");
+            match.setHomeGoals(fullTime.hasNonNull("home") ? fullTime.get("home").asInt() : null);
+            match.setAwayGoals(fullTime.hasNonNull("away") ? fullTime.get("away").asInt() : null);
+            matches.add(match);
+        }
+        return matches;
+    }
+
+    private static Instant parseInstant(String value) {
+        if (value.isEmpty()) return null;
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
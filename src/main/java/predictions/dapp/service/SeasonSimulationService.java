@@ -0,0 +1,234 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Simulates the rest of a league season with a {@link SeasonSimulator}: the
+ * current table comes from {@link StandingsSnapshotService}, the remaining
+ * fixtures from the {@link MatchStore} (or Football-Data's scheduled matches when
+ * the competition is not replicated), and every fixture's result probabilities
+ * from the fitted goal model, falling back to the team ratings and then to an
+ * even split.
+ */
+@Service
+public class SeasonSimulationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeasonSimulationService.class);
+    private static final String PERCENTAGE_FORMAT = "%.2f%%";
+    static final int MAX_ITERATIONS = 100_000;
+    static final int RELEGATION_SPOTS = 3;
+    static final double DRAW_RATE = 0.26;
+
+    private final StandingsSnapshotService standingsSnapshotService;
+    private final MatchStoreService matchStoreService;
+    private final GoalModelService goalModelService;
+    private final RatingService ratingService;
+    private final FootballDataService footballDataService;
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    public SeasonSimulationService(StandingsSnapshotService standingsSnapshotService,
+                                   MatchStoreService matchStoreService,
+                                   GoalModelService goalModelService,
+                                   RatingService ratingService,
+                                   FootballDataService footballDataService) {
+        this.standingsSnapshotService = standingsSnapshotService;
+        this.matchStoreService = matchStoreService;
+        this.goalModelService = goalModelService;
+        this.ratingService = ratingService;
+        this.footballDataService = footballDataService;
+    }
+
+    /**
+     * Plays the remaining fixtures {@code iterations} times and returns, per team,
+     * the probability of every final position, of the title and of relegation
+     *
+     * @throws IllegalArgumentException if the iteration count is out of range or
+     *                                  the competition has no table
+     */
+    public Map<String, Object> simulate(String competitionId, int iterations)
+            throws IOException, InterruptedException {
+        if (iterations < 1 || iterations > MAX_ITERATIONS) {
+            throw new IllegalArgumentException("Iterations must be between 1 and " + MAX_ITERATIONS);
+        }
+
+        StandingsSnapshot table;
+        List<int[]> fixtures;
+        try (UpstreamCaller.Scope ignored = UpstreamCaller.PREDICTION.enter()) {
+            table = standingsSnapshotService.getSnapshot(competitionId);
+            if (table == null || table.size() < 2) {
+                throw new IllegalArgumentException("Competition " + competitionId + " has no standings table");
+            }
+            fixtures = remainingFixtures(competitionId);
+        }
+
+        int n = table.size();
+        int[] teamIds = new int[n];
+        int[] points = new int[n];
+        int[] goalDiff = new int[n];
+        IntIntMap positions = new IntIntMap(n);
+        for (int t = 0; t < n; t++) {
+            StandingsSnapshot.Row row = table.rowAt(t);
+            teamIds[t] = row.teamId();
+            points[t] = row.points();
+            goalDiff[t] = row.goalDifference();
+            positions.put(row.teamId(), t);
+        }
+
+        // Keep the fixtures between teams of the table, with their result probabilities
+        List<int[]> pairs = new ArrayList<>(fixtures.size());
+        List<double[]> outcomes = new ArrayList<>(fixtures.size());
+        int modelled = 0;
+        for (int[] fixture : fixtures) {
+            int h = positions.get(fixture[0], -1);
+            int a = positions.get(fixture[1], -1);
+            if (h < 0 || a < 0) continue;
+            double[] outcome = outcome(String.valueOf(fixture[0]), String.valueOf(fixture[1]));
+            if (outcome != null) {
+                modelled++;
+            } else {
+                outcome = new double[]{(1 - DRAW_RATE) / 2, DRAW_RATE, (1 - DRAW_RATE) / 2};
+            }
+            pairs.add(new int[]{h, a});
+            outcomes.add(outcome);
+        }
+
+        int m = pairs.size();
+        int[] home = new int[m];
+        int[] away = new int[m];
+        double[] homeWin = new double[m];
+        double[] draw = new double[m];
+        for (int k = 0; k < m; k++) {
+            home[k] = pairs.get(k)[0];
+            away[k] = pairs.get(k)[1];
+            homeWin[k] = outcomes.get(k)[0];
+            draw[k] = outcomes.get(k)[1];
+        }
+
+        SeasonSimulator simulator = new SeasonSimulator(points, goalDiff, home, away, homeWin, draw);
+        long start = System.nanoTime();
+        long[] counts = simulator.simulate(iterations, System.nanoTime(), pool);
+        double seconds = Math.max((System.nanoTime() - start) / 1e9, 1e-9);
+        logger.info("Simulated {} season(s) of competition {} ({} fixture(s)) in {}ms", iterations, competitionId,
+                m, Math.round(seconds * 1000));
+
+        return buildResponse(competitionId, iterations, m, modelled, seconds, teamIds, points, counts);
+    }
+
+    // ============================================================
+    // INPUTS
+    // ============================================================
+
+    /**
+     * Home and away team ids of the fixtures still to be played; cancelled,
+     * postponed, suspended and in-play matches are left out
+     */
+    private List<int[]> remainingFixtures(String competitionId) throws IOException, InterruptedException {
+        int id = parseId(competitionId);
+        MatchStore store = matchStoreService.current();
+        List<int[]> fixtures = new ArrayList<>();
+        boolean replicated = false;
+        for (int slot = 0; slot < store.size(); slot++) {
+            if (store.competitionId(slot) != id) continue;
+            replicated = true;
+            if (store.scheduled(slot)) {
+                fixtures.add(new int[]{store.homeTeam(slot), store.awayTeam(slot)});
+            }
+        }
+        if (replicated) {
+            return fixtures;
+        }
+
+        JsonNode response = footballDataService.getFixtures(competitionId);
+        for (JsonNode match : response.path("matches")) {
+            int home = match.path("homeTeam").path("id").asInt(-1);
+            int away = match.path("awayTeam").path("id").asInt(-1);
+            if (home >= 0 && away >= 0) {
+                fixtures.add(new int[]{home, away});
+            }
+        }
+        return fixtures;
+    }
+
+    /**
+     * Home win, draw and away win probabilities from the goal model or the
+     * ratings, or null when neither knows both teams
+     */
+    private double[] outcome(String homeTeamId, String awayTeamId) {
+        Optional<double[]> fitted = goalModelService.getOutcome(homeTeamId, awayTeamId);
+        if (fitted.isPresent()) {
+            return fitted.get();
+        }
+        OptionalDouble rated = ratingService.winProbability(homeTeamId, awayTeamId);
+        if (rated.isPresent()) {
+            double p = rated.getAsDouble();
+            return new double[]{p * (1 - DRAW_RATE), DRAW_RATE, (1 - p) * (1 - DRAW_RATE)};
+        }
+        return null;
+    }
+
+    // ============================================================
+    // OUTPUT
+    // ============================================================
+
+    private Map<String, Object> buildResponse(String competitionId, int iterations, int fixtures, int modelled,
+                                              double seconds, int[] teamIds, int[] points, long[] counts) {
+        int n = teamIds.length;
+        MatchStore store = matchStoreService.current();
+        List<Map<String, Object>> teams = new ArrayList<>(n);
+        for (int t = 0; t < n; t++) {
+            List<String> distribution = new ArrayList<>(n);
+            for (int p = 0; p < n; p++) {
+                distribution.add(percentage(counts[t * n + p], iterations));
+            }
+            long relegated = 0;
+            for (int p = Math.max(n - RELEGATION_SPOTS, 1); p < n; p++) {
+                relegated += counts[t * n + p];
+            }
+            String name = store.teamName(teamIds[t]);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", String.valueOf(teamIds[t]));
+            row.put("name", name != null ? name : goalModelService.getTeamName(String.valueOf(teamIds[t])));
+            row.put("currentPosition", t + 1);
+            row.put("points", points[t]);
+            row.put("expectedPoints", Math.round(counts[n * n + t] * 10.0 / iterations) / 10.0);
+            row.put("title", percentage(counts[t * n], iterations));
+            row.put("relegation", percentage(relegated, iterations));
+            row.put("positions", distribution);
+            teams.add(row);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("competitionId", competitionId);
+        response.put("iterations", iterations);
+        response.put("remainingFixtures", fixtures);
+        response.put("modelledFixtures", modelled);
+        response.put("simulationsPerSecond", Math.round(iterations / seconds));
+        response.put("teams", teams);
+        return response;
+    }
+
+    private static String percentage(long count, int iterations) {
+        return String.format(PERCENTAGE_FORMAT, count * 100.0 / iterations);
+    }
+
+    private static int parseId(String id) {
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
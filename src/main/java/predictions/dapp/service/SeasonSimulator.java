@@ -0,0 +1,146 @@
+package predictions.dapp.service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo simulation of the rest of a league season.
+ *
+ * The table is a set of primitive arrays (points and goal difference per team
+ * position) and each remaining fixture is a home/away pair with the cumulative
+ * probabilities of a home win and of a draw. A simulation plays every fixture
+ * once and ranks the table by sorting one packed {@code long} key per team
+ * (points, goal difference, random tie-break, team position), so a run allocates
+ * nothing. Runs are split into batches executed as fork/join tasks; every task
+ * gets its own {@link SplittableRandom}, split from the parent before forking,
+ * so results are reproducible for a given seed regardless of scheduling.
+ * A decided match moves goal difference by one, which is enough to break most
+ * ties on points.
+ */
+public final class SeasonSimulator {
+
+    static final int BATCH_SIZE = 500;
+    private static final int GOAL_DIFF_OFFSET = 1 << 15;
+
+    private final int teams;
+    private final int[] basePoints;
+    private final int[] baseGoalDiff;
+    private final int[] home;
+    private final int[] away;
+    private final double[] homeWinBelow;
+    private final double[] drawBelow;
+
+    /**
+     * @param basePoints   current points of every team position
+     * @param baseGoalDiff current goal difference of every team position
+     * @param home         home team position of every remaining fixture
+     * @param away         away team position of every remaining fixture
+     * @param homeWin      probability of a home win of every fixture
+     * @param draw         probability of a draw of every fixture
+     */
+    public SeasonSimulator(int[] basePoints, int[] baseGoalDiff, int[] home, int[] away,
+                           double[] homeWin, double[] draw) {
+        this.teams = basePoints.length;
+        this.basePoints = basePoints;
+        this.baseGoalDiff = baseGoalDiff;
+        this.home = home;
+        this.away = away;
+        this.homeWinBelow = homeWin.clone();
+        this.drawBelow = new double[draw.length];
+        for (int k = 0; k < draw.length; k++) {
+            drawBelow[k] = homeWin[k] + draw[k];
+        }
+    }
+
+    /**
+     * Runs the season {@code iterations} times
+     *
+     * @return how many times team position {@code t} finished in table position
+     * {@code p}, at {@code [t * teams + p]}, followed by the total points of every
+     * team over all runs at {@code [teams * teams + t]}
+     */
+    public long[] simulate(int iterations, long seed, ForkJoinPool pool) {
+        return pool.invoke(new BatchTask(new SplittableRandom(seed), iterations));
+    }
+
+    public int teamCount() {
+        return teams;
+    }
+
+    public int fixtureCount() {
+        return home.length;
+    }
+
+    private final class BatchTask extends RecursiveTask<long[]> {
+
+        private final SplittableRandom random;
+        private final int iterations;
+
+        BatchTask(SplittableRandom random, int iterations) {
+            this.random = random;
+            this.iterations = iterations;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (iterations > BATCH_SIZE) {
+                int half = iterations >>> 1;
+                BatchTask left = new BatchTask(random.split(), half);
+                BatchTask right = new BatchTask(random.split(), iterations - half);
+                left.fork();
+                long[] counts = right.compute();
+                long[] other = left.join();
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += other[i];
+                }
+                return counts;
+            }
+            return run();
+        }
+
+        private long[] run() {
+            long[] counts = new long[teams * teams + teams];
+            int[] points = new int[teams];
+            int[] goalDiff = new int[teams];
+            long[] keys = new long[teams];
+
+            for (int i = 0; i < iterations; i++) {
+                System.arraycopy(basePoints, 0, points, 0, teams);
+                System.arraycopy(baseGoalDiff, 0, goalDiff, 0, teams);
+
+                for (int k = 0; k < home.length; k++) {
+                    double roll = random.nextDouble();
+                    if (roll < homeWinBelow[k]) {
+                        points[home[k]] += 3;
+                        goalDiff[home[k]]++;
+                        goalDiff[away[k]]--;
+                    } else if (roll < drawBelow[k]) {
+                        points[home[k]]++;
+                        points[away[k]]++;
+                    } else {
+                        points[away[k]] += 3;
+                        goalDiff[away[k]]++;
+                        goalDiff[home[k]]--;
+                    }
+                }
+
+                // points | goal difference | tie-break | position, highest first after sorting
+                for (int t = 0; t < teams; t++) {
+                    keys[t] = ((long) points[t] << 40)
+                            | ((long) (goalDiff[t] + GOAL_DIFF_OFFSET) << 24)
+                            | ((long) random.nextInt(1 << 12) << 12)
+                            | t;
+                    counts[teams * teams + t] += points[t];
+                }
+                Arrays.sort(keys);
+                for (int p = 0; p < teams; p++) {
+                    int t = (int) (keys[teams - 1 - p] & 0xFFF);
+                    counts[t * teams + p]++;
+                }
+            }
+            return counts;
+        }
+    }
+}
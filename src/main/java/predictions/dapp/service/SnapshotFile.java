@@ -0,0 +1,165 @@
+package predictions.dapp.service;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Compact binary copy of the reference data: the {@link MatchStore} (with its
+ * competition names) and the standings tables.
+ *
+ * The file is written through a read-write mapping into a temporary file that
+ * then replaces the previous one, and read back through a read-only mapping,
+ * where the match columns are bulk-copied into their arrays. Layout:
+ * magic, format version, written-at millis, match store, standings count,
+ * standings tables.
+ */
+final class SnapshotFile {
+
+    private static final int MAGIC = 0x50524453; // "PRDS"
+    private static final int FORMAT_VERSION = 3;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES;
+
+    private final Instant writtenAt;
+    private final MatchStore matchStore;
+    private final List<StandingsSnapshot> standings;
+
+    private SnapshotFile(Instant writtenAt, MatchStore matchStore, List<StandingsSnapshot> standings) {
+        this.writtenAt = writtenAt;
+        this.matchStore = matchStore;
+        this.standings = standings;
+    }
+
+    static void write(Path path, Instant writtenAt, MatchStore matchStore, Collection<StandingsSnapshot> standings)
+            throws IOException {
+        long size = HEADER_BYTES + matchStore.byteSize() + Integer.BYTES;
+        for (StandingsSnapshot snapshot : standings) {
+            size += snapshot.byteSize();
+        }
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(writtenAt.toEpochMilli());
+            matchStore.writeTo(out);
+            out.putInt(standings.size());
+            for (StandingsSnapshot snapshot : standings) {
+                snapshot.writeTo(out);
+            }
+            out.force();
+        }
+
+        try {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Maps and decodes the file; empty if it does not exist
+     *
+     * @throws IOException if it cannot be read or is not a snapshot of this format
+     */
+    static Optional<SnapshotFile> read(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() < HEADER_BYTES || in.getInt() != MAGIC) {
+                throw new IOException("Not a snapshot file: " + path);
+            }
+            int version = in.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot format " + version + ": " + path);
+            }
+            Instant writtenAt = Instant.ofEpochMilli(in.getLong());
+            MatchStore matchStore = MatchStore.readFrom(in);
+            int count = in.getInt();
+            List<StandingsSnapshot> standings = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                standings.add(StandingsSnapshot.readFrom(in));
+            }
+            return Optional.of(new SnapshotFile(writtenAt, matchStore, standings));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Truncated snapshot file: " + path, e);
+        }
+    }
+
+    Instant getWrittenAt() {
+        return writtenAt;
+    }
+
+    MatchStore getMatchStore() {
+        return matchStore;
+    }
+
+    List<StandingsSnapshot> getStandings() {
+        return standings;
+    }
+
+    // ============================================================
+    // ENCODING HELPERS
+    // ============================================================
+
+    static void putInts(ByteBuffer out, int[] values) {
+        out.asIntBuffer().put(values);
+        out.position(out.position() + values.length * Integer.BYTES);
+    }
+
+    static int[] getInts(ByteBuffer in, int[] values) {
+        in.asIntBuffer().get(values);
+        in.position(in.position() + values.length * Integer.BYTES);
+        return values;
+    }
+
+    static void putLongs(ByteBuffer out, long[] values) {
+        out.asLongBuffer().put(values);
+        out.position(out.position() + values.length * Long.BYTES);
+    }
+
+    static long[] getLongs(ByteBuffer in, long[] values) {
+        in.asLongBuffer().get(values);
+        in.position(in.position() + values.length * Long.BYTES);
+        return values;
+    }
+
+    /** Length-prefixed UTF-8; null is written as length -1 */
+    static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putInt(bytes.length).put(bytes);
+    }
+
+    static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static int stringSize(String value) {
+        return Integer.BYTES + (value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length);
+    }
+}
@@ -0,0 +1,115 @@
+package predictions.dapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically saves the match store and standings tables to a {@link SnapshotFile},
+ * and restores them at startup, so a restarted instance serves team form and
+ * standings from the file instead of waiting for the first replica sync or
+ * going to Football-Data for every team.
+ *
+ * The startup listener runs after {@link MatchStoreService} has built its store
+ * from the replica, so the file is only used when the replica had nothing fresh.
+ */
+@Service
+public class SnapshotFileService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotFileService.class);
+
+    private final MatchStoreService matchStoreService;
+    private final StandingsSnapshotService standingsSnapshotService;
+    private final Path path;
+    private final boolean enabled;
+
+    public SnapshotFileService(MatchStoreService matchStoreService,
+                               StandingsSnapshotService standingsSnapshotService,
+                               @Value("${snapshot.file.path:${java.io.tmpdir}/predictions-snapshot.bin}") String path,
+                               @Value("${snapshot.file.enabled:true}") boolean enabled) {
+        this.matchStoreService = matchStoreService;
+        this.standingsSnapshotService = standingsSnapshotService;
+        this.path = Path.of(path);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void onStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            restore();
+        } catch (IOException e) {
+            logger.warn("Snapshot file {} ignored: {}", path, e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${snapshot.file.interval:PT15M}",
+            fixedDelayString = "${snapshot.file.interval:PT15M}")
+    public void scheduledWrite() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            write();
+        } catch (IOException e) {
+            logger.warn("Snapshot file {} not written: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the current match store and standings; skipped when there is nothing
+     * to save, so an idle instance never overwrites a useful file
+     *
+     * @return whether the file was written
+     */
+    public boolean write() throws IOException {
+        MatchStore store = matchStoreService.current();
+        Collection<StandingsSnapshot> standings = standingsSnapshotService.getSnapshots();
+        if (store.size() == 0 && standings.isEmpty()) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+        SnapshotFile.write(path, Instant.now(), store, standings);
+        logger.info("Snapshot file written: {} match(es), {} standings table(s) in {}ms", store.size(),
+                standings.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return true;
+    }
+
+    /**
+     * Maps the file and seeds whatever is still fresh enough to serve
+     *
+     * @return whether a file was found
+     */
+    public boolean restore() throws IOException {
+        long start = System.nanoTime();
+        Optional<SnapshotFile> file = SnapshotFile.read(path);
+        if (file.isEmpty()) {
+            return false;
+        }
+
+        boolean matches = matchStoreService.restore(file.get().getMatchStore());
+        for (StandingsSnapshot snapshot : file.get().getStandings()) {
+            standingsSnapshotService.restore(snapshot);
+        }
+        logger.info("Snapshot file written at {} loaded in {}ms (match store {}, {} standings table(s))",
+                file.get().getWrittenAt(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                matches ? "restored" : "skipped", file.get().getStandings().size());
+        return true;
+    }
+}
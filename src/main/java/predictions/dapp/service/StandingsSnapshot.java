@@ -0,0 +1,141 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Immutable copy of a competition standings table, indexed by team id.
+ * Rows are kept as small records in table order and looked up through an
+ * int map, so reading a team position is O(1) instead of scanning the JSON.
+ */
+public final class StandingsSnapshot {
+
+    private final String competitionId;
+    private final long version;
+    private final Instant fetchedAt;
+    private final Row[] rows;
+    private final IntIntMap rowByTeam;
+
+    private StandingsSnapshot(String competitionId, long version, Instant fetchedAt, Row[] rows, IntIntMap rowByTeam) {
+        this.competitionId = competitionId;
+        this.version = version;
+        this.fetchedAt = fetchedAt;
+        this.rows = rows;
+        this.rowByTeam = rowByTeam;
+    }
+
+    /**
+     * Builds a snapshot from a Football-Data standings response (first table only)
+     */
+    static StandingsSnapshot from(String competitionId, long version, Instant fetchedAt, JsonNode standingsResponse) {
+        JsonNode table = standingsResponse.path("standings").path(0).path("table");
+
+        Row[] rows = new Row[table.size()];
+        IntIntMap rowByTeam = new IntIntMap(table.size());
+        int count = 0;
+
+        for (JsonNode entry : table) {
+            int teamId = entry.path("team").path("id").asInt(-1);
+            if (teamId < 0) continue;
+
+            rows[count] = new Row(
+                    teamId,
+                    entry.path("position").asInt(0),
+                    entry.path("points").asInt(0),
+                    entry.path("goalDifference").asInt(0),
+                    entry.path("playedGames").asInt(0)
+            );
+            rowByTeam.put(teamId, count);
+            count++;
+        }
+
+        Row[] compact = (count == rows.length) ? rows : Arrays.copyOf(rows, count);
+        return new StandingsSnapshot(competitionId, version, fetchedAt, compact, rowByTeam);
+    }
+
+    /**
+     * Reads a snapshot written by {@link #writeTo}; its version is 0 until
+     * {@link #withVersion} gives it one
+     */
+    static StandingsSnapshot readFrom(ByteBuffer in) {
+        String competitionId = SnapshotFile.getString(in);
+        Instant fetchedAt = Instant.ofEpochMilli(in.getLong());
+        Row[] rows = new Row[in.getInt()];
+        IntIntMap rowByTeam = new IntIntMap(rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Row(in.getInt(), in.getInt(), in.getInt(), in.getInt(), in.getInt());
+            rowByTeam.put(rows[i].teamId(), i);
+        }
+        return new StandingsSnapshot(competitionId, 0, fetchedAt, rows, rowByTeam);
+    }
+
+    StandingsSnapshot withVersion(long newVersion) {
+        return new StandingsSnapshot(competitionId, newVersion, fetchedAt, rows, rowByTeam);
+    }
+
+    /** Whether both tables have the same rows, in the same order */
+    boolean sameRows(StandingsSnapshot other) {
+        return Arrays.equals(rows, other.rows);
+    }
+
+    void writeTo(ByteBuffer out) {
+        SnapshotFile.putString(out, competitionId);
+        out.putLong(fetchedAt.toEpochMilli());
+        out.putInt(rows.length);
+        for (Row row : rows) {
+            out.putInt(row.teamId()).putInt(row.position()).putInt(row.points())
+                    .putInt(row.goalDifference()).putInt(row.playedGames());
+        }
+    }
+
+    /** Exact number of bytes {@link #writeTo} writes */
+    int byteSize() {
+        return SnapshotFile.stringSize(competitionId) + Long.BYTES + Integer.BYTES + rows.length * 5 * Integer.BYTES;
+    }
+
+    /**
+     * Returns the row of the team, or null when the team is not in this table
+     */
+    public Row find(int teamId) {
+        int index = rowByTeam.get(teamId, -1);
+        return index < 0 ? null : rows[index];
+    }
+
+    public Row find(String teamId) {
+        try {
+            return find(Integer.parseInt(teamId));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public String getCompetitionId() {
+        return competitionId;
+    }
+
+    /**
+     * Increases every time any competition table is refreshed; re-reading an
+     * unchanged replica copy keeps the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    public Row rowAt(int index) {
+        return rows[index];
+    }
+
+    public record Row(int teamId, int position, int points, int goalDifference, int playedGames) {
+    }
+}
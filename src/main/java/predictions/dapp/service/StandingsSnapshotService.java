@@ -0,0 +1,223 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one standings snapshot per competition. A table is fetched from
+ * Football-Data at most once per refresh interval, or earlier when a match of
+ * that competition finished after the snapshot was taken (i.e. a matchday
+ * was played and the table has moved).
+ *
+ * A table read from the replica is dated by the replica's last sync, and keeps
+ * its version when it has not changed since it was last read, so consumers keyed
+ * by version are not invalidated by a re-read.
+ *
+ * Tables restored from the snapshot file at startup are served after the
+ * replica and before Football-Data, for as long as they are within
+ * {@code replica.max-age-hours} and no newer copy has been stored.
+ */
+@Service
+public class StandingsSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StandingsSnapshotService.class);
+
+    // Kick-off times are reported, so a match is considered over this long after it
+    private static final Duration MATCH_DURATION = Duration.ofHours(2);
+
+    private final FootballDataService footballDataService;
+    private final ReplicaService replicaService;
+    private final Duration refreshInterval;
+    private final Map<String, StandingsSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, StandingsSnapshot> restored = new ConcurrentHashMap<>();
+    private final Map<String, Instant> replicaReadAt = new ConcurrentHashMap<>();
+    private final Set<String> invalidated = ConcurrentHashMap.newKeySet();
+    private final AtomicLong versions = new AtomicLong();
+
+    public StandingsSnapshotService(FootballDataService footballDataService,
+                                    ReplicaService replicaService,
+                                    @Value("${football.standings.refresh-minutes:30}") long refreshMinutes) {
+        this.footballDataService = footballDataService;
+        this.replicaService = replicaService;
+        this.refreshInterval = Duration.ofMinutes(refreshMinutes);
+    }
+
+    /**
+     * Returns the current snapshot of the competition, fetching it when missing or outdated
+     */
+    public StandingsSnapshot getSnapshot(String competitionId) throws IOException, InterruptedException {
+        StandingsSnapshot snapshot = CacheMetrics.timeLookup("standings", () -> snapshots.get(competitionId));
+        if (snapshot != null && !isOutdated(snapshot)) {
+            return snapshot;
+        }
+        return refresh(competitionId);
+    }
+
+    /**
+     * Non-blocking variant of {@link #getSnapshot}, used when fanning out over several competitions
+     */
+    public CompletableFuture<StandingsSnapshot> getSnapshotAsync(String competitionId) {
+        StandingsSnapshot snapshot = snapshots.get(competitionId);
+        if (snapshot != null && !isOutdated(snapshot)) {
+            return CompletableFuture.completedFuture(snapshot);
+        }
+        Optional<StandingsSnapshot> local = findLocal(competitionId);
+        if (local.isPresent()) {
+            return CompletableFuture.completedFuture(local.get());
+        }
+        logger.debug("Fetching standings snapshot for competition {} (async)", competitionId);
+        return footballDataService.getStandingsAsync(competitionId)
+                .thenApply(response -> store(competitionId, response, Instant.now()));
+    }
+
+    /**
+     * Marks the competition table as outdated if the given match kicked off
+     * early enough to have finished after the snapshot was taken
+     */
+    public void onMatchFinished(String competitionId, Instant kickOff) {
+        StandingsSnapshot snapshot = snapshots.get(competitionId);
+        // Kept until replaced, so an unchanged replica copy can keep its version
+        if (snapshot != null && kickOff != null
+                && kickOff.plus(MATCH_DURATION).isAfter(snapshot.getFetchedAt())
+                && invalidated.add(competitionId)) {
+            logger.info("Standings of competition {} invalidated by a match finished after the snapshot", competitionId);
+        }
+    }
+
+    /**
+     * Version of the most recent snapshot taken, for consumers caching derived data
+     */
+    public long getCurrentVersion() {
+        return versions.get();
+    }
+
+    public int getSnapshotCount() {
+        return snapshots.size();
+    }
+
+    /**
+     * Current tables, plus the restored ones no newer copy has replaced yet
+     */
+    public Collection<StandingsSnapshot> getSnapshots() {
+        Map<String, StandingsSnapshot> all = new HashMap<>(restored);
+        all.putAll(snapshots);
+        return List.copyOf(all.values());
+    }
+
+    /**
+     * Seeds a table read from the snapshot file, unless a copy is already held
+     */
+    public void restore(StandingsSnapshot snapshot) {
+        if (!replicaService.isFresh(snapshot.getFetchedAt())) {
+            return;
+        }
+        StandingsSnapshot versioned = snapshot.withVersion(versions.incrementAndGet());
+        if (snapshots.putIfAbsent(snapshot.getCompetitionId(), versioned) == null) {
+            restored.put(snapshot.getCompetitionId(), versioned);
+        }
+    }
+
+    public void clearAll() {
+        snapshots.clear();
+        restored.clear();
+        replicaReadAt.clear();
+        invalidated.clear();
+    }
+
+    private StandingsSnapshot refresh(String competitionId) throws IOException, InterruptedException {
+        Optional<StandingsSnapshot> local = findLocal(competitionId);
+        if (local.isPresent()) {
+            return local.get();
+        }
+        logger.debug("Fetching standings snapshot for competition {}", competitionId);
+        return store(competitionId, footballDataService.getStandings(competitionId), Instant.now());
+    }
+
+    /**
+     * The replica copy if it is fresh, otherwise the restored one if still usable
+     */
+    private Optional<StandingsSnapshot> findLocal(String competitionId) {
+        Optional<JsonNode> replica = replicaService.findStandings(competitionId);
+        if (replica.isPresent()) {
+            return Optional.of(storeReplica(competitionId, replica.get()));
+        }
+        StandingsSnapshot snapshot = restored.get(competitionId);
+        if (snapshot == null) {
+            return Optional.empty();
+        }
+        if (!replicaService.isFresh(snapshot.getFetchedAt())) {
+            restored.remove(competitionId, snapshot);
+            return Optional.empty();
+        }
+        snapshots.put(competitionId, snapshot);
+        invalidated.remove(competitionId);
+        return Optional.of(snapshot);
+    }
+
+    private StandingsSnapshot store(String competitionId, JsonNode response, Instant fetchedAt) {
+        return store(StandingsSnapshot.from(competitionId, versions.incrementAndGet(), fetchedAt, response));
+    }
+
+    /**
+     * Stores a replica copy dated by its last sync, keeping the held version when the rows are unchanged
+     */
+    private StandingsSnapshot storeReplica(String competitionId, JsonNode response) {
+        Instant syncedAt = parseInstant(response.path("competition").path("lastUpdated").asText(""));
+        StandingsSnapshot parsed = StandingsSnapshot.from(competitionId, 0,
+                syncedAt != null ? syncedAt : Instant.now(), response);
+        StandingsSnapshot previous = snapshots.get(competitionId);
+        long version = (previous != null && previous.sameRows(parsed))
+                ? previous.getVersion() : versions.incrementAndGet();
+        replicaReadAt.put(competitionId, Instant.now());
+        return store(parsed.withVersion(version));
+    }
+
+    private StandingsSnapshot store(StandingsSnapshot snapshot) {
+        snapshots.put(snapshot.getCompetitionId(), snapshot);
+        restored.remove(snapshot.getCompetitionId());
+        invalidated.remove(snapshot.getCompetitionId());
+        return snapshot;
+    }
+
+    /**
+     * Due for a refresh once invalidated or a refresh interval after it was taken;
+     * a replica copy counts from when it was last read, as its sync may be older
+     */
+    private boolean isOutdated(StandingsSnapshot snapshot) {
+        String competitionId = snapshot.getCompetitionId();
+        if (invalidated.contains(competitionId)) {
+            return true;
+        }
+        Instant since = snapshot.getFetchedAt();
+        Instant readAt = replicaReadAt.get(competitionId);
+        if (readAt != null && readAt.isAfter(since)) {
+            since = readAt;
+        }
+        return Instant.now().isAfter(since.plus(refreshInterval));
+    }
+
+    private static Instant parseInstant(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
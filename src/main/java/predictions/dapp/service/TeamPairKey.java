@@ -0,0 +1,52 @@
+package predictions.dapp.service;
+
+/**
+ * Cache key of an unordered pair of teams: the two ids packed into one
+ * {@code long}, lower id in the high half, so (86, 65) and (65, 86) share a key.
+ * The in-memory caches look it up boxed as a {@code Long}; the database-backed
+ * method cache keeps string signatures derived from it ({@link #signature}).
+ *
+ * A response is cached once per pair, oriented lower id first; a caller asking
+ * for the pair the other way round ({@link #isReversed}) gets it mirrored instead
+ * of computing it again.
+ */
+final class TeamPairKey {
+
+    private TeamPairKey() {
+    }
+
+    /**
+     * @throws NumberFormatException if an id is not a number
+     */
+    static long of(String teamId1, String teamId2) {
+        return of(Integer.parseInt(teamId1), Integer.parseInt(teamId2));
+    }
+
+    static long of(int teamId1, int teamId2) {
+        int low = Math.min(teamId1, teamId2);
+        int high = Math.max(teamId1, teamId2);
+        return ((long) low << 32) | (high & 0xFFFFFFFFL);
+    }
+
+    /** Whether the pair is asked for higher id first, the opposite of the cached orientation */
+    static boolean isReversed(String teamId1, String teamId2) {
+        return Integer.parseInt(teamId1) > Integer.parseInt(teamId2);
+    }
+
+    static int low(long key) {
+        return (int) (key >>> 32);
+    }
+
+    static int high(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Method cache signature of the pair, e.g. {@code predictWinner(65,86)}, the
+     * same for both orders. Built on every lookup, as the method cache rows are
+     * keyed by this string in the database.
+     */
+    static String signature(String method, long key) {
+        return method + "(" + low(key) + "," + high(key) + ")";
+    }
+}
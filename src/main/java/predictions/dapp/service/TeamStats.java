@@ -0,0 +1,28 @@
+package predictions.dapp.service;
+
+import java.util.List;
+
+/**
+ * Form and standings summary of a team, computed once by {@link TeamStatsService}
+ * and shared by predictions and comparisons.
+ *
+ * @param goalsInWins total goals (both sides) of the matches the team won
+ * @param leagueCount number of competitions where the team was found in the standings
+ */
+public record TeamStats(
+        String teamId,
+        String teamName,
+        int matchesPlayed,
+        int wonGames,
+        int drawnGames,
+        int lostGames,
+        int goalsScored,
+        int goalsConceded,
+        int goalsInWins,
+        int totalPoints,
+        double avgPosition,
+        int totalGoalDiff,
+        int leagueCount,
+        List<String> competitions
+) {
+}
@@ -0,0 +1,446 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import predictions.dapp.exceptions.MetricsException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Computes the per-team statistics used by predictions and comparisons.
+ * Results are cached per team id, so a team is fetched once no matter
+ * how many opponents it is paired with.
+ *
+ * Teams found in the {@link MatchStore} are computed straight from its int
+ * columns. For the rest, below the stats cache there are the last matches of
+ * each team and the competition name index, read from the local replica when it
+ * is fresh and from Football-Data otherwise; standings come from {@link StandingsSnapshotService},
+ * shared by every team of the league, so a round-robin of N teams costs N match
+ * lookups plus one standings call per league.
+ */
+@Service
+public class TeamStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeamStatsService.class);
+    private static final Duration STATS_TTL = Duration.ofMinutes(30);
+    private static final Duration MATCHES_TTL = Duration.ofMinutes(30);
+    private static final Duration COMPETITIONS_TTL = Duration.ofHours(24);
+    private static final String COMPETITIONS_KEY = "competitions";
+    private static final int LAST_MATCHES_LIMIT = 10;
+    private static final double DEFAULT_POSITION = 20;
+
+    private final FootballDataService footballDataService;
+    private final ReplicaService replicaService;
+    private final MatchStoreService matchStoreService;
+    private final StandingsSnapshotService standingsSnapshotService;
+    private final TtlCache<String, TeamStats> statsCache = new TtlCache<>(STATS_TTL);
+    private final TtlCache<String, JsonNode> matchesCache = new TtlCache<>(MATCHES_TTL);
+    private final TtlCache<String, Map<String, String>> competitionIndex = new TtlCache<>(COMPETITIONS_TTL);
+
+    public TeamStatsService(FootballDataService footballDataService,
+                            ReplicaService replicaService,
+                            MatchStoreService matchStoreService,
+                            StandingsSnapshotService standingsSnapshotService) {
+        this.footballDataService = footballDataService;
+        this.replicaService = replicaService;
+        this.matchStoreService = matchStoreService;
+        this.standingsSnapshotService = standingsSnapshotService;
+    }
+
+    // ============================================================
+    // PUBLIC API
+    // ============================================================
+
+    /**
+     * Returns the stats of a team, computing them only on a cache miss
+     */
+    public TeamStats getStats(String teamId) throws IOException, InterruptedException {
+        TeamStats cached = CacheMetrics.timeLookup("team_stats", () -> statsCache.get(teamId));
+        if (cached != null) {
+            logger.debug("Team stats cache HIT for team: {}", teamId);
+            return cached;
+        }
+
+        logger.debug("Team stats cache MISS for team: {}", teamId);
+        TeamStats stats = computeStats(teamId);
+        statsCache.put(teamId, stats);
+        return stats;
+    }
+
+    /**
+     * Returns the stats of several teams (duplicates are ignored), fetching what is
+     * missing concurrently through the async client: first the last matches of every
+     * team, then the standings of every competition involved, each exactly once.
+     */
+    public Map<String, TeamStats> getStatsForTeams(Collection<String> teamIds)
+            throws IOException, InterruptedException {
+
+        Set<String> uniqueIds = new LinkedHashSet<>(teamIds);
+        Set<String> missing = new LinkedHashSet<>();
+        for (String teamId : uniqueIds) {
+            if (statsCache.get(teamId) == null) missing.add(teamId);
+        }
+
+        if (!missing.isEmpty()) {
+            logger.info("Fetching stats for {} team(s) concurrently", missing.size());
+            MatchStore store = matchStoreService.current();
+            int[] slots = new int[LAST_MATCHES_LIMIT];
+            Map<String, CompletableFuture<JsonNode>> matches = new LinkedHashMap<>();
+            for (String teamId : missing) {
+                if (store.lastFinished(parseTeamId(teamId), slots) == 0) {
+                    matches.put(teamId, getLastMatchesAsync(teamId));
+                }
+            }
+            AsyncUpstream.await(AsyncUpstream.allOf(matches));
+
+            Set<String> competitionIds = new LinkedHashSet<>();
+            for (String teamId : missing) {
+                int count = store.lastFinished(parseTeamId(teamId), slots);
+                Map<String, LeagueRef> leagues = count > 0
+                        ? extractLeagues(store, slots, count)
+                        : extractLeagues(getLastMatches(teamId));
+                for (Map.Entry<String, LeagueRef> league : leagues.entrySet()) {
+                    String competitionId = resolveCompetitionId(league.getKey(), league.getValue());
+                    if (competitionId != null) competitionIds.add(competitionId);
+                }
+            }
+            List<CompletableFuture<StandingsSnapshot>> standings = new ArrayList<>();
+            for (String competitionId : competitionIds) {
+                standings.add(standingsSnapshotService.getSnapshotAsync(competitionId));
+            }
+            AsyncUpstream.await(AsyncUpstream.allOf(standings));
+        }
+
+        // Every raw layer is warm now, so this only parses cached data
+        Map<String, TeamStats> result = new LinkedHashMap<>();
+        for (String teamId : uniqueIds) {
+            result.put(teamId, getStats(teamId));
+        }
+        return result;
+    }
+
+    /**
+     * Removes expired team stats (maintenance operation)
+     */
+    public void clearExpiredEntries() {
+        int removed = statsCache.clearExpired()
+                + matchesCache.clearExpired()
+                + competitionIndex.clearExpired();
+        if (removed > 0) {
+            logger.info("Cleared {} expired team stats entr(ies)", removed);
+        }
+    }
+
+    public void clearAll() {
+        statsCache.clear();
+        matchesCache.clear();
+        standingsSnapshotService.clearAll();
+        competitionIndex.clear();
+    }
+
+    public int getCachedTeamCount() {
+        return statsCache.size();
+    }
+
+    // ============================================================
+    // COMPUTATION
+    // ============================================================
+
+    private TeamStats computeStats(String teamId) throws IOException, InterruptedException {
+        int id = parseTeamId(teamId);
+        MatchStore store = matchStoreService.current();
+        MatchStore.Form form = new MatchStore.Form();
+        Map<String, LeagueRef> leagueIds;
+
+        // A team may be in the store with no finished match in it (promoted side, old results)
+        int[] slots = new int[LAST_MATCHES_LIMIT];
+        int count = store.lastFinished(id, slots);
+        if (count > 0) {
+            form.teamName = store.teamName(id);
+            store.accumulateForm(id, slots, count, form);
+            leagueIds = extractLeagues(store, slots, count);
+        } else {
+            JsonNode matches = getLastMatches(teamId);
+            evaluateMatches(matches, id, form);
+            leagueIds = extractLeagues(matches);
+        }
+
+        Set<String> leagues = leagueIds.keySet();
+        StandingsData sd = processLeagueStandings(leagueIds, teamId);
+
+        return new TeamStats(
+                teamId,
+                form.teamName,
+                form.played,
+                form.won,
+                form.drawn,
+                form.lost,
+                form.scored,
+                form.conceded,
+                form.goalsInWins,
+                sd.totalPoints,
+                sd.avgPosition,
+                sd.totalGoalDiff,
+                sd.leagueCount,
+                new ArrayList<>(leagues)
+        );
+    }
+
+    private void evaluateMatches(JsonNode matchesResponse, int teamId, MatchStore.Form form) {
+        JsonNode matches = safeArray(matchesResponse, "matches");
+        if (matches == null) return;
+
+        for (JsonNode match : matches) {
+            MatchResult r = parseMatch(match, teamId);
+
+            if (r.teamName != null && !r.teamName.isEmpty()) form.teamName = r.teamName;
+            if (!r.played) continue;
+
+            form.played++;
+            form.scored += r.goalsScored;
+            form.conceded += r.goalsConceded;
+
+            if (r.won) {
+                form.won++;
+                form.goalsInWins += r.goalsScored + r.goalsConceded;
+            } else if (r.lost) {
+                form.lost++;
+            } else {
+                form.drawn++;
+            }
+        }
+    }
+
+    private MatchResult parseMatch(JsonNode match, int teamId) {
+
+        JsonNode score = match.get("score");
+        JsonNode full = (score != null) ? score.get("fullTime") : null;
+
+        if (full == null) return MatchResult.NOT_PLAYED;
+
+        int home = full.path("home").asInt(0);
+        int away = full.path("away").asInt(0);
+
+        JsonNode homeTeam = match.path("homeTeam");
+        JsonNode awayTeam = match.path("awayTeam");
+
+        boolean isHome = homeTeam.path("id").asInt(-1) == teamId;
+        boolean isAway = awayTeam.path("id").asInt(-1) == teamId;
+
+        if (!isHome && !isAway) return MatchResult.NOT_PLAYED;
+
+        String winner = score.path("winner").asText("");
+
+        String name = isHome ? homeTeam.path("name").asText("") : awayTeam.path("name").asText("");
+        boolean won = isHome ? "HOME_TEAM".equals(winner) : "AWAY_TEAM".equals(winner);
+        boolean lost = isHome ? "AWAY_TEAM".equals(winner) : "HOME_TEAM".equals(winner);
+
+        int gs = isHome ? home : away;
+        int gc = isHome ? away : home;
+
+        return new MatchResult(name, won, lost, gs, gc, true);
+    }
+
+    private JsonNode getLastMatches(String teamId) throws IOException, InterruptedException {
+        JsonNode cached = matchesCache.get(teamId);
+        if (cached != null) {
+            return cached;
+        }
+        JsonNode matches = replicaService.findLastMatchesFinished(teamId, LAST_MATCHES_LIMIT).orElse(null);
+        if (matches == null) {
+            matches = footballDataService.getLastMatchesFinished(teamId, LAST_MATCHES_LIMIT);
+        }
+        matchesCache.put(teamId, matches);
+        return matches;
+    }
+
+    private CompletableFuture<JsonNode> getLastMatchesAsync(String teamId) {
+        JsonNode cached = matchesCache.get(teamId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        Optional<JsonNode> local = replicaService.findLastMatchesFinished(teamId, LAST_MATCHES_LIMIT);
+        if (local.isPresent()) {
+            matchesCache.put(teamId, local.get());
+            return CompletableFuture.completedFuture(local.get());
+        }
+        return footballDataService.getLastMatchesFinishedAsync(teamId, LAST_MATCHES_LIMIT)
+                .thenApply(matches -> {
+                    matchesCache.put(teamId, matches);
+                    return matches;
+                });
+    }
+
+    /**
+     * Maps each league name found in the matches to its competition id (empty
+     * when the match payload does not carry it) and the latest kick-off seen
+     */
+    private Map<String, LeagueRef> extractLeagues(JsonNode matchesResponse) {
+        Map<String, LeagueRef> leagues = new LinkedHashMap<>();
+        JsonNode matches = safeArray(matchesResponse, "matches");
+        if (matches == null) return leagues;
+
+        for (JsonNode match : matches) {
+            JsonNode competition = match.path("competition");
+            String league = competition.path("name").asText("");
+            if (!league.isEmpty()) {
+                LeagueRef ref = new LeagueRef(competition.path("id").asText(""), parseKickOff(match));
+                leagues.merge(league, ref, LeagueRef::merge);
+            }
+        }
+        return leagues;
+    }
+
+    /**
+     * Same as {@link #extractLeagues(JsonNode)} over the slots of the store; they are
+     * newest first, so the first slot of each league carries its latest kick-off
+     */
+    private Map<String, LeagueRef> extractLeagues(MatchStore store, int[] slots, int count) {
+        Map<String, LeagueRef> leagues = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String league = store.competitionName(slots[i]);
+            if (league != null && !leagues.containsKey(league)) {
+                leagues.put(league, new LeagueRef(String.valueOf(store.competitionId(slots[i])),
+                        Instant.ofEpochSecond(store.kickOff(slots[i]))));
+            }
+        }
+        return leagues;
+    }
+
+    private Instant parseKickOff(JsonNode match) {
+        String utcDate = match.path("utcDate").asText("");
+        if (utcDate.isEmpty()) return null;
+        try {
+            return Instant.parse(utcDate);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private String resolveCompetitionId(String leagueName, LeagueRef ref) throws IOException, InterruptedException {
+        return ref.competitionId().isEmpty() ? getCompetitionId(leagueName) : ref.competitionId();
+    }
+
+    private String getCompetitionId(String leagueName) throws IOException, InterruptedException {
+        Map<String, String> index = competitionIndex.get(COMPETITIONS_KEY);
+        if (index == null) {
+            index = new HashMap<>();
+            JsonNode competitions = replicaService.findCompetitions().orElse(null);
+            if (competitions == null) {
+                competitions = footballDataService.getCompetitions();
+            }
+            JsonNode list = safeArray(competitions, "competitions");
+            if (list != null) {
+                for (JsonNode comp : list) {
+                    index.putIfAbsent(safeText(comp, "name"), safeText(comp, "id"));
+                }
+            }
+            competitionIndex.put(COMPETITIONS_KEY, index);
+        }
+        return index.get(leagueName);
+    }
+
+    private StandingResult evaluateLeague(String leagueName, LeagueRef ref, String teamId) {
+        try {
+            String competitionId = resolveCompetitionId(leagueName, ref);
+            if (competitionId != null) {
+                // The team's own finished matches tell whether the table has moved since the snapshot
+                standingsSnapshotService.onMatchFinished(competitionId, ref.lastKickOff());
+                StandingsSnapshot.Row row = standingsSnapshotService.getSnapshot(competitionId).find(teamId);
+                if (row != null) {
+                    return new StandingResult(true, row.points(), row.position(), row.goalDifference());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MetricsException("Error obteniendo standings para: " + leagueName, e);
+        } catch (IOException e) {
+            throw new MetricsException("Error obteniendo standings para: " + leagueName, e);
+        }
+
+        return StandingResult.NOT_FOUND;
+    }
+
+    private StandingsData processLeagueStandings(Map<String, LeagueRef> leagues, String teamId) {
+        int totalPoints = 0;
+        int totalPos = 0;
+        int totalGD = 0;
+        int count = 0;
+
+        for (Map.Entry<String, LeagueRef> league : leagues.entrySet()) {
+            StandingResult res = evaluateLeague(league.getKey(), league.getValue(), teamId);
+            if (res.found) {
+                totalPoints += res.points;
+                totalPos += res.position;
+                totalGD += res.goalDifference;
+                count++;
+            }
+        }
+
+        double avgPos = (count > 0) ? (double) totalPos / count : DEFAULT_POSITION;
+        return new StandingsData(totalPoints, avgPos, totalGD, count);
+    }
+
+    // ============================================================
+    // JSON HELPERS
+    // ============================================================
+
+    private JsonNode safeArray(JsonNode parent, String field) {
+        JsonNode arr = parent.get(field);
+        return (arr != null && arr.isArray()) ? arr : null;
+    }
+
+    private String safeText(JsonNode node, String field) {
+        return node != null ? node.path(field).asText("") : "";
+    }
+
+    private static int parseTeamId(String teamId) {
+        try {
+            return Integer.parseInt(teamId);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // ============================================================
+    // INTERNAL CLASSES
+    // ============================================================
+
+    private record LeagueRef(String competitionId, Instant lastKickOff) {
+        LeagueRef merge(LeagueRef other) {
+            String id = competitionId.isEmpty() ? other.competitionId : competitionId;
+            Instant latest = lastKickOff;
+            if (latest == null || (other.lastKickOff != null && other.lastKickOff.isAfter(latest))) {
+                latest = other.lastKickOff;
+            }
+            return new LeagueRef(id, latest);
+        }
+    }
+
+    private record StandingsData(int totalPoints, double avgPosition, int totalGoalDiff, int leagueCount) {
+    }
+
+    private record StandingResult(boolean found, int points, int position, int goalDifference) {
+        static final StandingResult NOT_FOUND = new StandingResult(false, 0, 0, 0);
+    }
+
+    private record MatchResult(String teamName, boolean won, boolean lost,
+                               int goalsScored, int goalsConceded, boolean played) {
+        static final MatchResult NOT_PLAYED = new MatchResult(null, false, false, 0, 0, false);
+    }
+}
@@ -0,0 +1,99 @@
+package predictions.dapp.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small thread-safe in-memory cache where every entry expires after a fixed TTL.
+ * Used by the engines that keep per-team or per-competition data between requests.
+ *
+ * A cache created with a maximum size drops the expired entries and then the
+ * oldest-written ones when a put takes it over that size. With a fixed TTL the
+ * oldest-written entry is the one closest to expiring anyway.
+ */
+final class TtlCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final int maxEntries;
+
+    TtlCache(Duration ttl) {
+        this(ttl, Integer.MAX_VALUE);
+    }
+
+    TtlCache(Duration ttl, int maxEntries) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached value, or null if it is missing or expired
+     */
+    V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    void put(K key, V value) {
+        entries.put(key, new Entry<>(value, Instant.now().plus(ttl)));
+        if (entries.size() > maxEntries) {
+            evict();
+        }
+    }
+
+    void remove(K key) {
+        entries.remove(key);
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes expired entries and returns how many were removed
+     */
+    int clearExpired() {
+        int removed = 0;
+        for (Map.Entry<K, Entry<V>> e : entries.entrySet()) {
+            if (e.getValue().isExpired() && entries.remove(e.getKey(), e.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private void evict() {
+        clearExpired();
+        while (entries.size() > maxEntries) {
+            Map.Entry<K, Entry<V>> oldest = null;
+            for (Map.Entry<K, Entry<V>> e : entries.entrySet()) {
+                if (oldest == null || e.getValue().expiresAt().isBefore(oldest.getValue().expiresAt())) {
+                    oldest = e;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            entries.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+
+    private record Entry<V>(V value, Instant expiresAt) {
+        boolean isExpired() {
+            return Instant.now().isAfter(expiresAt);
+        }
+    }
+}
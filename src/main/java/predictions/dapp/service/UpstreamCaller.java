@@ -0,0 +1,69 @@
+package predictions.dapp.service;
+
+/**
+ * Identifies which feature a Football-Data call is made for, so the upstream quota
+ * can be accounted per caller and low-priority work throttled first.
+ *
+ * The caller is bound to the current thread with {@link #enter()}; calls made
+ * outside any scope are treated as {@link #PASSTHROUGH}, the lowest priority.
+ */
+public enum UpstreamCaller {
+
+    PREDICTION(0, true),
+    COMPARISON(0, true),
+    PERFORMANCE(1, true),
+    SYNC(1, false),
+    PASSTHROUGH(2, true);
+
+    private static final ThreadLocal<UpstreamCaller> CURRENT = new ThreadLocal<>();
+
+    private final int tier;
+    private final boolean acceptsStale;
+
+    UpstreamCaller(int tier, boolean acceptsStale) {
+        this.tier = tier;
+        this.acceptsStale = acceptsStale;
+    }
+
+    /**
+     * 0 for user-facing calls; higher tiers are throttled earlier when the quota runs low
+     */
+    public int getTier() {
+        return tier;
+    }
+
+    /**
+     * Whether a stale copy may be served instead of a failure; the replica sync
+     * persists what it gets, so it must see the failure instead
+     */
+    public boolean acceptsStale() {
+        return acceptsStale;
+    }
+
+    public static UpstreamCaller current() {
+        UpstreamCaller caller = CURRENT.get();
+        return (caller != null) ? caller : PASSTHROUGH;
+    }
+
+    /**
+     * Binds this caller to the current thread until the returned scope is closed:
+     * <pre>try (UpstreamCaller.Scope ignored = UpstreamCaller.PREDICTION.enter()) { ... }</pre>
+     */
+    public Scope enter() {
+        UpstreamCaller previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,211 @@
+package predictions.dapp.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out the permits of the Football-Data bulkhead by caller priority.
+ *
+ * Calls that cannot start right away wait in a single queue ordered by
+ * {@code enqueuedAt + tier * agingNanos}: a user-facing call (tier 0) jumps ahead
+ * of background work that arrived less than {@code tier * aging} earlier, but a
+ * background call that has waited that long is served before any newer
+ * interactive call, so nothing starves.
+ *
+ * Blocking callers wait on their own condition; asynchronous callers leave a task
+ * that is started by whoever releases the permit.
+ */
+final class UpstreamDispatcher {
+
+    private final int maxQueued;
+    private final long agingNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+    private final Map<UpstreamCaller, AtomicInteger> queuedByCaller = new EnumMap<>(UpstreamCaller.class);
+
+    // Guarded by lock
+    private int available;
+    private long sequence;
+
+    UpstreamDispatcher(int permits, int maxQueued, long agingMillis) {
+        this.available = permits;
+        this.maxQueued = maxQueued;
+        this.agingNanos = TimeUnit.MILLISECONDS.toNanos(agingMillis);
+        for (UpstreamCaller caller : UpstreamCaller.values()) {
+            queuedByCaller.put(caller, new AtomicInteger());
+        }
+    }
+
+    /**
+     * Takes a permit, waiting up to {@code timeoutMillis} behind higher-ranked callers
+     *
+     * @return false if no permit was granted in time
+     */
+    boolean acquire(UpstreamCaller caller, long timeoutMillis) throws InterruptedException {
+        Waiter waiter;
+        lock.lock();
+        try {
+            if (available > 0 && waiters.isEmpty()) {
+                available--;
+                return true;
+            }
+            if (waiters.size() >= maxQueued || timeoutMillis <= 0) {
+                return false;
+            }
+            waiter = enqueue(caller, null);
+        } finally {
+            lock.unlock();
+        }
+        return awaitGrant(waiter, timeoutMillis);
+    }
+
+    /**
+     * Runs {@code start} with a permit, now or as soon as one is released and no
+     * higher-ranked caller is waiting
+     *
+     * @return false if the queue is full and the task was not accepted
+     */
+    boolean submit(UpstreamCaller caller, Runnable start) {
+        lock.lock();
+        try {
+            if (available > 0 && waiters.isEmpty()) {
+                available--;
+            } else if (waiters.size() >= maxQueued) {
+                return false;
+            } else {
+                enqueue(caller, start);
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        start.run();
+        return true;
+    }
+
+    /**
+     * Returns a permit, handing it directly to the best-ranked waiter if there is one
+     */
+    void release() {
+        Waiter next;
+        lock.lock();
+        try {
+            next = waiters.poll();
+            if (next == null) {
+                available++;
+                return;
+            }
+            queuedByCaller.get(next.caller).decrementAndGet();
+            next.granted = true;
+            if (next.condition != null) {
+                next.condition.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Async task: started outside the lock, it may release synchronously
+        next.task.run();
+    }
+
+    int available() {
+        lock.lock();
+        try {
+            return available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int queued() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int queued(UpstreamCaller caller) {
+        return queuedByCaller.get(caller).get();
+    }
+
+    // ============================================================
+    // INTERNALS
+    // ============================================================
+
+    /**
+     * Must hold lock
+     */
+    private Waiter enqueue(UpstreamCaller caller, Runnable task) {
+        long rank = System.nanoTime() + caller.getTier() * agingNanos;
+        Waiter waiter = new Waiter(caller, rank, sequence++, task, task == null ? lock.newCondition() : null);
+        waiters.add(waiter);
+        queuedByCaller.get(caller).incrementAndGet();
+        return waiter;
+    }
+
+    private boolean awaitGrant(Waiter waiter, long timeoutMillis) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        boolean handBack = false;
+        lock.lock();
+        try {
+            while (!waiter.granted && remaining > 0) {
+                remaining = waiter.condition.awaitNanos(remaining);
+            }
+            if (!waiter.granted) {
+                giveUp(waiter);
+            }
+            return waiter.granted;
+        } catch (InterruptedException e) {
+            // Granted while being interrupted: the permit is handed on
+            handBack = waiter.granted;
+            if (!handBack) {
+                giveUp(waiter);
+            }
+            throw e;
+        } finally {
+            lock.unlock();
+            if (handBack) {
+                release();
+            }
+        }
+    }
+
+    /**
+     * Must hold lock
+     */
+    private void giveUp(Waiter waiter) {
+        if (waiters.remove(waiter)) {
+            queuedByCaller.get(waiter.caller).decrementAndGet();
+        }
+    }
+
+    private static final class Waiter implements Comparable<Waiter> {
+        private final UpstreamCaller caller;
+        private final long rank;
+        private final long sequence;
+        private final Runnable task;
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(UpstreamCaller caller, long rank, long sequence, Runnable task, Condition condition) {
+            this.caller = caller;
+            this.rank = rank;
+            this.sequence = sequence;
+            this.task = task;
+            this.condition = condition;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int byRank = Long.compare(rank - other.rank, 0);
+            return byRank != 0 ? byRank : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,510 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import predictions.dapp.exceptions.UpstreamHttpException;
+import predictions.dapp.exceptions.UpstreamThrottledException;
+import predictions.dapp.exceptions.UpstreamUnavailableException;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Circuit breaker plus bulkhead in front of the Football-Data client.
+ *
+ * After {@code failureThreshold} consecutive failures (network errors, timeouts,
+ * 429 or 5xx) the circuit opens and calls fail fast for {@code openSeconds};
+ * then a single probe call is let through (half-open) and its outcome closes or
+ * re-opens the circuit. Independently, at most {@code maxConcurrent} calls may be
+ * in flight, so a slow upstream cannot hold every request thread.
+ *
+ * Every successful response is kept for a while (a bounded number of them); when a call is rejected or fails
+ * on the upstream side, that stale copy is served instead of an error, unless the
+ * caller does not accept stale data (see {@link UpstreamCaller#acceptsStale()}).
+ *
+ * Calls waiting for a permit are served by caller priority through
+ * {@link UpstreamDispatcher}: predictions and comparisons go ahead of background
+ * scans and passthrough, with aging so those still make progress. Asynchronous
+ * calls never block waiting for a permit: they are queued (up to
+ * {@code maxQueued}) and started as soon as an in-flight call completes.
+ *
+ * Right before a call is sent, {@link UpstreamQuota} decides whether the calling
+ * feature may still spend the upstream budget; throttled calls get the stale copy
+ * or fail fast like any other rejection.
+ */
+@Component
+public class UpstreamGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamGuard.class);
+    private static final Duration STALE_TTL = Duration.ofHours(6);
+    // Every team, player and matchday is its own key; keep the heap bounded regardless of traffic
+    private static final int STALE_MAX_ENTRIES = 1000;
+    private static final int MAX_QUEUED = 200;
+    private static final String QUOTA_RESERVED = "Football-Data quota reserved for higher-priority calls";
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final long bulkheadWaitMillis;
+    private final UpstreamDispatcher dispatcher;
+    private final int maxConcurrent;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TtlCache<String, JsonNode> staleResponses = new TtlCache<>(STALE_TTL, STALE_MAX_ENTRIES);
+
+    private final UpstreamQuota quota;
+    private final MeterRegistry registry;
+    private final Counter rejectedOpen;
+    private final Counter rejectedBulkhead;
+    private final Counter staleServed;
+    private final Counter callsInTransaction;
+
+    // Guarded by lock
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public UpstreamGuard(MeterRegistry registry,
+                         UpstreamQuota quota,
+                         @Value("${football.api.circuit.failure-threshold:5}") int failureThreshold,
+                         @Value("${football.api.circuit.open-seconds:30}") long openSeconds,
+                         @Value("${football.api.bulkhead.max-concurrent:8}") int maxConcurrent,
+                         @Value("${football.api.bulkhead.max-wait-ms:500}") long bulkheadWaitMillis,
+                         @Value("${football.api.dispatch.aging-ms:2000}") long agingMillis) {
+        this.registry = registry;
+        this.quota = quota;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.SECONDS.toNanos(openSeconds);
+        this.maxConcurrent = maxConcurrent;
+        this.dispatcher = new UpstreamDispatcher(maxConcurrent, MAX_QUEUED, agingMillis);
+        this.bulkheadWaitMillis = bulkheadWaitMillis;
+
+        Gauge.builder("football_api_circuit_state", this, g -> g.getState().ordinal())
+                .description("Estado del circuit breaker de Football-Data (0=closed, 1=open, 2=half-open)")
+                .register(registry);
+        Gauge.builder("football_api_bulkhead_available", dispatcher, UpstreamDispatcher::available)
+                .description("Llamadas concurrentes disponibles hacia Football-Data")
+                .register(registry);
+        Gauge.builder("football_api_bulkhead_queued", dispatcher, UpstreamDispatcher::queued)
+                .description("Llamadas a Football-Data esperando un lugar en el bulkhead")
+                .register(registry);
+        Gauge.builder("football_api_stale_entries", staleResponses, TtlCache::size)
+                .description("Respuestas de Football-Data guardadas como copia stale")
+                .register(registry);
+        for (UpstreamCaller caller : UpstreamCaller.values()) {
+            Gauge.builder("football_api_queue_depth", dispatcher, d -> d.queued(caller))
+                    .description("Llamadas a Football-Data esperando un lugar, por caller")
+                    .tag("caller", caller.name().toLowerCase())
+                    .register(registry);
+        }
+        this.rejectedOpen = Counter.builder("football_api_rejected_total")
+                .description("Llamadas a Football-Data rechazadas sin ejecutarse")
+                .tag("reason", "circuit_open")
+                .register(registry);
+        this.rejectedBulkhead = Counter.builder("football_api_rejected_total")
+                .description("Llamadas a Football-Data rechazadas sin ejecutarse")
+                .tag("reason", "bulkhead_full")
+                .register(registry);
+        this.staleServed = Counter.builder("football_api_stale_responses_total")
+                .description("Respuestas de Football-Data servidas desde la copia stale")
+                .register(registry);
+        this.callsInTransaction = Counter.builder("football_api_calls_in_transaction_total")
+                .description("Llamadas a Football-Data hechas con una transacción (y su conexión JDBC) abierta")
+                .register(registry);
+    }
+
+    @FunctionalInterface
+    public interface UpstreamCall {
+        JsonNode call() throws IOException, InterruptedException;
+    }
+
+    @FunctionalInterface
+    public interface AsyncUpstreamCall {
+        CompletableFuture<JsonNode> call();
+    }
+
+    /**
+     * Runs the call through the breaker and the bulkhead.
+     *
+     * @param key identifies the resource (path and query), used for the stale copy
+     */
+    public JsonNode execute(String key, UpstreamCall call) throws IOException, InterruptedException {
+        UpstreamCaller caller = UpstreamCaller.current();
+        if (!allowRequest()) {
+            rejectedOpen.increment();
+            return staleOrThrow(key, caller, new UpstreamUnavailableException("Football-Data circuit is open"));
+        }
+
+        long waitStart = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = dispatcher.acquire(caller, bulkheadWaitMillis);
+        } catch (InterruptedException e) {
+            releaseProbe();
+            throw e;
+        }
+        if (!acquired) {
+            releaseProbe();
+            rejectedBulkhead.increment();
+            return staleOrThrow(key, caller, new UpstreamUnavailableException("Too many concurrent Football-Data calls"));
+        }
+        recordWait(caller, waitStart);
+
+        if (!quota.tryAcquire(caller)) {
+            releaseProbe();
+            releasePermit();
+            return staleOrThrow(key, caller, new UpstreamThrottledException(QUOTA_RESERVED));
+        }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Should stay at zero: the caller is holding a pooled connection while we wait on the network
+            callsInTransaction.increment();
+            logger.debug("Football-Data call {} made inside a transaction", key);
+        }
+
+        Timer.Sample sample = Timer.start(registry);
+        Throwable failure = null;
+        try {
+            JsonNode result = call.call();
+            recordSuccess();
+            staleResponses.put(key, result);
+            return result;
+        } catch (UpstreamHttpException e) {
+            failure = e;
+            if (!e.isServerSideFailure()) {
+                // 4xx other than 429: the upstream is healthy, the request was wrong
+                recordSuccess();
+                throw e;
+            }
+            recordFailure();
+            return staleOr(key, caller, e);
+        } catch (IOException e) {
+            failure = e;
+            recordFailure();
+            return staleOr(key, caller, e);
+        } catch (InterruptedException | RuntimeException e) {
+            failure = e;
+            releaseProbe();
+            throw e;
+        } finally {
+            sample.stop(requestTimer(key, failure));
+            releasePermit();
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #execute}: the returned future completes with the
+     * response, a stale copy, or the failure (an {@link IOException} or a timeout)
+     */
+    public CompletableFuture<JsonNode> executeAsync(String key, AsyncUpstreamCall call) {
+        // Captured here: the call may be started later from another thread
+        UpstreamCaller caller = UpstreamCaller.current();
+        if (!allowRequest()) {
+            rejectedOpen.increment();
+            return staleOrFailed(key, caller, new UpstreamUnavailableException("Football-Data circuit is open"));
+        }
+
+        CompletableFuture<JsonNode> result = new CompletableFuture<>();
+        long waitStart = System.nanoTime();
+        Runnable start = () -> {
+            recordWait(caller, waitStart);
+            startAsync(key, caller, call, result);
+        };
+
+        if (!dispatcher.submit(caller, start)) {
+            releaseProbe();
+            rejectedBulkhead.increment();
+            return staleOrFailed(key, caller, new UpstreamUnavailableException("Too many queued Football-Data calls"));
+        }
+        return result;
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getConsecutiveFailures() {
+        lock.lock();
+        try {
+            return consecutiveFailures;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getAvailablePermits() {
+        return dispatcher.available();
+    }
+
+    public int getQueuedCalls() {
+        return dispatcher.queued();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Removes expired stale responses (maintenance operation)
+     */
+    public void clearExpiredEntries() {
+        staleResponses.clearExpired();
+    }
+
+    // ============================================================
+    // ASYNC DISPATCH
+    // ============================================================
+
+    /**
+     * Runs with a bulkhead permit already taken; the permit is returned when the call completes
+     */
+    private void startAsync(String key, UpstreamCaller caller, AsyncUpstreamCall call,
+                            CompletableFuture<JsonNode> result) {
+        if (!quota.tryAcquire(caller)) {
+            releaseProbe();
+            releasePermit();
+            staleOrFailed(key, caller, new UpstreamThrottledException(QUOTA_RESERVED))
+                    .whenComplete((value, error) -> {
+                        if (error == null) result.complete(value);
+                        else result.completeExceptionally(error);
+                    });
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(registry);
+        CompletableFuture<JsonNode> upstream;
+        try {
+            upstream = call.call();
+        } catch (RuntimeException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+
+        upstream.whenComplete((value, error) -> {
+            sample.stop(requestTimer(key, error == null ? null : unwrap(error)));
+            try {
+                if (error == null) {
+                    recordSuccess();
+                    staleResponses.put(key, value);
+                    result.complete(value);
+                } else {
+                    completeAfterFailure(key, caller, unwrap(error), result);
+                }
+            } finally {
+                releasePermit();
+            }
+        });
+    }
+
+    private void completeAfterFailure(String key, UpstreamCaller caller, Throwable failure,
+                                      CompletableFuture<JsonNode> result) {
+        if (failure instanceof UpstreamHttpException http && !http.isServerSideFailure()) {
+            recordSuccess();
+            result.completeExceptionally(failure);
+        } else if (failure instanceof IOException || failure instanceof TimeoutException) {
+            recordFailure();
+            JsonNode stale = staleCopy(key, caller);
+            if (stale != null) {
+                staleServed.increment();
+                result.complete(stale);
+            } else {
+                result.completeExceptionally(failure);
+            }
+        } else {
+            releaseProbe();
+            result.completeExceptionally(failure);
+        }
+    }
+
+    // ============================================================
+    // METRICS
+    // ============================================================
+
+    private Timer requestTimer(String key, Throwable failure) {
+        return Timer.builder("football_api_request_seconds")
+                .description("Latencia de las llamadas a Football-Data por recurso")
+                .tags("path", pathTemplate(key), "outcome", outcomeOf(failure))
+                .register(registry);
+    }
+
+    /**
+     * Turns a concrete path into its template, keeping tag cardinality bounded:
+     * Football-Data paths alternate collection and id, so every second segment is
+     * an id (e.g. /teams/86/matches?limit=10 becomes /teams/{id}/matches)
+     */
+    static String pathTemplate(String pathAndQuery) {
+        int query = pathAndQuery.indexOf('?');
+        String path = (query >= 0) ? pathAndQuery.substring(0, query) : pathAndQuery;
+
+        StringBuilder template = new StringBuilder();
+        int index = 0;
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) continue;
+            template.append('/').append(index % 2 == 1 ? "{id}" : segment);
+            index++;
+        }
+        return template.length() == 0 ? "/" : template.toString();
+    }
+
+    private static String outcomeOf(Throwable failure) {
+        if (failure == null) return "SUCCESS";
+        if (failure instanceof UpstreamHttpException http) {
+            if (http.getStatusCode() == 429) return "THROTTLED";
+            return http.isServerSideFailure() ? "SERVER_ERROR" : "CLIENT_ERROR";
+        }
+        if (failure instanceof TimeoutException || failure instanceof HttpTimeoutException) return "TIMEOUT";
+        if (failure instanceof IOException) return "IO_ERROR";
+        return "EXCEPTION";
+    }
+
+    private void recordWait(UpstreamCaller caller, long waitStart) {
+        Timer.builder("football_api_queue_wait_seconds")
+                .description("Espera por un lugar en el bulkhead de Football-Data, por caller")
+                .tag("caller", caller.name().toLowerCase())
+                .register(registry)
+                .record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+    }
+
+    private void releasePermit() {
+        dispatcher.release();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+    }
+
+    // ============================================================
+    // STATE MACHINE
+    // ============================================================
+
+    boolean allowRequest() {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.nanoTime() - openedAt < openNanos) {
+                        return false;
+                    }
+                    transitionTo(State.HALF_OPEN);
+                    probeInFlight = true;
+                    return true;
+                default:
+                    // HALF_OPEN: only one probe at a time
+                    if (probeInFlight) {
+                        return false;
+                    }
+                    probeInFlight = true;
+                    return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void recordSuccess() {
+        lock.lock();
+        try {
+            consecutiveFailures = 0;
+            probeInFlight = false;
+            if (state != State.CLOSED) {
+                transitionTo(State.CLOSED);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void recordFailure() {
+        lock.lock();
+        try {
+            consecutiveFailures++;
+            probeInFlight = false;
+            if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                openedAt = System.nanoTime();
+                if (state != State.OPEN) {
+                    transitionTo(State.OPEN);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees the half-open probe slot when the probe ended without a verdict
+     */
+    void releaseProbe() {
+        lock.lock();
+        try {
+            probeInFlight = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void transitionTo(State next) {
+        logger.warn("Football-Data circuit {} -> {}", state, next);
+        state = next;
+    }
+
+    // ============================================================
+    // STALE FALLBACK
+    // ============================================================
+
+    private JsonNode staleCopy(String key, UpstreamCaller caller) {
+        return caller.acceptsStale() ? staleResponses.get(key) : null;
+    }
+
+    private JsonNode staleOrThrow(String key, UpstreamCaller caller, UpstreamUnavailableException rejection)
+            throws UpstreamUnavailableException {
+        JsonNode stale = staleCopy(key, caller);
+        if (stale == null) {
+            throw rejection;
+        }
+        staleServed.increment();
+        logger.info("{} - serving stale response for {}", rejection.getMessage(), key);
+        return stale;
+    }
+
+    private CompletableFuture<JsonNode> staleOrFailed(String key, UpstreamCaller caller,
+                                                      UpstreamUnavailableException failure) {
+        JsonNode stale = staleCopy(key, caller);
+        if (stale == null) {
+            return CompletableFuture.failedFuture(failure);
+        }
+        staleServed.increment();
+        logger.info("{} - serving stale response for {}", failure.getMessage(), key);
+        return CompletableFuture.completedFuture(stale);
+    }
+
+    private JsonNode staleOr(String key, UpstreamCaller caller, IOException failure) throws IOException {
+        JsonNode stale = staleCopy(key, caller);
+        if (stale == null) {
+            throw failure;
+        }
+        staleServed.increment();
+        logger.info("Football-Data call failed ({}) - serving stale response for {}", failure.getMessage(), key);
+        return stale;
+    }
+}
@@ -0,0 +1,221 @@
+package predictions.dapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpHeaders;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks the Football-Data request quota.
+ *
+ * Every response carries the remaining requests of the current minute
+ * ({@code X-Requests-Available-Minute}) and the seconds until the counter resets
+ * ({@code X-RequestCounter-Reset}). Between responses the budget is decremented
+ * locally for each call sent. When the budget gets low, callers are throttled by
+ * tier: a caller of tier {@code t} is only let through while more than
+ * {@code t * reservePerTier} requests remain, so passthrough and background scans
+ * stop before user-facing predictions and comparisons do.
+ *
+ * Requests per minute are also counted per caller, which gives a forecast of how
+ * long the remaining budget lasts at the current pace.
+ */
+@Component
+public class UpstreamQuota {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamQuota.class);
+    private static final String AVAILABLE_HEADER = "X-Requests-Available-Minute";
+    private static final String RESET_HEADER = "X-RequestCounter-Reset";
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int UNKNOWN = -1;
+
+    private final int reservePerTier;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<UpstreamCaller, Deque<Long>> recentCalls = new EnumMap<>(UpstreamCaller.class);
+    private final Map<UpstreamCaller, Counter> callCounters = new EnumMap<>(UpstreamCaller.class);
+    private final Map<UpstreamCaller, Counter> throttledCounters = new EnumMap<>(UpstreamCaller.class);
+
+    // Guarded by lock
+    private int remaining = UNKNOWN;
+    private long resetAt;
+    private boolean exhaustionWarned;
+
+    public UpstreamQuota(MeterRegistry registry,
+                         @Value("${football.api.quota.reserve-per-tier:2}") int reservePerTier) {
+        this.reservePerTier = reservePerTier;
+
+        for (UpstreamCaller caller : UpstreamCaller.values()) {
+            Deque<Long> calls = new ConcurrentLinkedDeque<>();
+            recentCalls.put(caller, calls);
+            callCounters.put(caller, Counter.builder("football_api_calls_total")
+                    .description("Llamadas enviadas a Football-Data por caller")
+                    .tag("caller", caller.name().toLowerCase())
+                    .register(registry));
+            throttledCounters.put(caller, Counter.builder("football_api_throttled_total")
+                    .description("Llamadas a Football-Data frenadas para reservar cuota")
+                    .tag("caller", caller.name().toLowerCase())
+                    .register(registry));
+            Gauge.builder("football_api_requests_per_minute", this, q -> q.getRequestsPerMinute(caller))
+                    .description("Llamadas a Football-Data en el ultimo minuto por caller")
+                    .tag("caller", caller.name().toLowerCase())
+                    .register(registry);
+        }
+        Gauge.builder("football_api_quota_remaining", this, q -> q.getRemaining().orElse(UNKNOWN))
+                .description("Llamadas a Football-Data disponibles en la ventana actual (-1 = desconocido)")
+                .register(registry);
+        Gauge.builder("football_api_quota_exhaustion_seconds", this,
+                        q -> q.getSecondsToExhaustion().orElse(UNKNOWN))
+                .description("Segundos hasta agotar la cuota al ritmo actual (-1 = sin pronostico)")
+                .register(registry);
+    }
+
+    /**
+     * Reserves one request for the caller, or returns false if the remaining budget
+     * is kept for higher-priority callers
+     */
+    public boolean tryAcquire(UpstreamCaller caller) {
+        lock.lock();
+        try {
+            expireWindow();
+            if (remaining != UNKNOWN) {
+                if (remaining <= caller.getTier() * reservePerTier) {
+                    throttledCounters.get(caller).increment();
+                    return false;
+                }
+                remaining--;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        recentCalls.get(caller).addLast(System.nanoTime());
+        callCounters.get(caller).increment();
+        return true;
+    }
+
+    /**
+     * Updates the budget from the quota headers of a response (any status)
+     */
+    public void recordResponse(HttpHeaders headers) {
+        OptionalLong available = headers.firstValueAsLong(AVAILABLE_HEADER);
+        if (available.isEmpty()) {
+            return;
+        }
+        long resetSeconds = headers.firstValueAsLong(RESET_HEADER).orElse(60);
+
+        lock.lock();
+        try {
+            long newResetAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(resetSeconds);
+            if (remaining == UNKNOWN || newResetAt - resetAt > TimeUnit.SECONDS.toNanos(1)) {
+                // A new window started
+                exhaustionWarned = false;
+            }
+            remaining = (int) available.getAsLong();
+            resetAt = newResetAt;
+        } finally {
+            lock.unlock();
+        }
+        warnIfExhaustionForecast();
+    }
+
+    public OptionalLong getRemaining() {
+        lock.lock();
+        try {
+            expireWindow();
+            return remaining == UNKNOWN ? OptionalLong.empty() : OptionalLong.of(remaining);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Seconds until the upstream counter resets, if known
+     */
+    public OptionalLong getSecondsToReset() {
+        lock.lock();
+        try {
+            expireWindow();
+            if (remaining == UNKNOWN) {
+                return OptionalLong.empty();
+            }
+            return OptionalLong.of(TimeUnit.NANOSECONDS.toSeconds(resetAt - System.nanoTime()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getRequestsPerMinute(UpstreamCaller caller) {
+        Deque<Long> calls = recentCalls.get(caller);
+        long cutoff = System.nanoTime() - WINDOW_NANOS;
+        Long oldest;
+        while ((oldest = calls.peekFirst()) != null && oldest - cutoff < 0) {
+            calls.pollFirst();
+        }
+        return calls.size();
+    }
+
+    public int getTotalRequestsPerMinute() {
+        int total = 0;
+        for (UpstreamCaller caller : UpstreamCaller.values()) {
+            total += getRequestsPerMinute(caller);
+        }
+        return total;
+    }
+
+    /**
+     * How long the remaining budget lasts at the pace of the last minute; empty when
+     * the budget is unknown or nothing was sent recently
+     */
+    public OptionalLong getSecondsToExhaustion() {
+        OptionalLong left = getRemaining();
+        int perMinute = getTotalRequestsPerMinute();
+        if (left.isEmpty() || perMinute == 0) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(left.getAsLong() * 60 / perMinute);
+    }
+
+    // ============================================================
+    // INTERNALS
+    // ============================================================
+
+    /**
+     * Forgets the budget once the upstream window has reset (must hold lock)
+     */
+    private void expireWindow() {
+        if (remaining != UNKNOWN && System.nanoTime() - resetAt >= 0) {
+            remaining = UNKNOWN;
+        }
+    }
+
+    private void warnIfExhaustionForecast() {
+        OptionalLong exhaustion = getSecondsToExhaustion();
+        OptionalLong reset = getSecondsToReset();
+        if (exhaustion.isEmpty() || reset.isEmpty() || exhaustion.getAsLong() >= reset.getAsLong()) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (exhaustionWarned) {
+                return;
+            }
+            exhaustionWarned = true;
+        } finally {
+            lock.unlock();
+        }
+        logger.warn("Football-Data quota will run out in ~{}s, {}s before the counter resets ({} req/min)",
+                exhaustion.getAsLong(), reset.getAsLong(), getTotalRequestsPerMinute());
+    }
+}
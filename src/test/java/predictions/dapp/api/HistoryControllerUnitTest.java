@@ -17,11 +17,13 @@ import predictions.dapp.controller.HistoryController;
 import predictions.dapp.security.JwtUtil;
 import predictions.dapp.service.HistoryService;
 import predictions.dapp.service.MetricsService;
+import predictions.dapp.service.PredictionAccuracyService;
 
 import java.util.concurrent.Callable;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(HistoryController.class)
@@ -41,6 +43,9 @@ class HistoryControllerUnitTest {
     @MockitoBean
     private MetricsService metricsService;
 
+    @MockitoBean
+    private PredictionAccuracyService predictionAccuracyService;
+
     @BeforeEach
     void setUp() {
         Mockito.when(metricsService.measureLatency(any())).thenAnswer(invocation -> {
@@ -83,4 +88,16 @@ class HistoryControllerUnitTest {
 
         Mockito.verify(metricsService).incrementRequests();
     }
-}
\ No newline at end of file
+
+    @Tag("unit")
+    @Test
+    void testGetAccuracy_Unauthorized() throws Exception {
+        mockMvc.perform(get("/api/history/accuracy")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("User not logged in"));
+
+        Mockito.verify(metricsService).incrementRequests();
+        Mockito.verifyNoInteractions(predictionAccuracyService);
+    }
+}
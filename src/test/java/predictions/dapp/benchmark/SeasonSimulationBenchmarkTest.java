@@ -0,0 +1,92 @@
+package predictions.dapp.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import predictions.dapp.service.SeasonSimulator;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures how many full-season simulations per second {@link SeasonSimulator}
+ * runs for a 20-team league with half a season (190 fixtures) left, on one
+ * worker and on the common fork/join pool.
+ * Run with: gradle benchmarkTest
+ */
+class SeasonSimulationBenchmarkTest {
+
+    private static final int TEAMS = 20;
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int MEASURED_ITERATIONS = 200_000;
+
+    @Tag("benchmark")
+    @Test
+    void seasonSimulationThroughput() {
+        SeasonSimulator simulator = halfSeason();
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            double sequential = throughput(simulator, single);
+            double parallel = throughput(simulator, ForkJoinPool.commonPool());
+
+            System.out.printf("Season simulation, %d teams, %d fixtures left%n", TEAMS, simulator.fixtureCount());
+            System.out.printf("  1 worker:           %,.0f simulations/s%n", sequential);
+            System.out.printf("  common pool (%2d):   %,.0f simulations/s%n",
+                    ForkJoinPool.commonPool().getParallelism(), parallel);
+
+            assertTrue(sequential > 0);
+            if (ForkJoinPool.commonPool().getParallelism() > 1) {
+                assertTrue(parallel > sequential, "splitting the runs should scale across workers");
+            }
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    private static double throughput(SeasonSimulator simulator, ForkJoinPool pool) {
+        simulator.simulate(WARMUP_ITERATIONS, 1, pool);
+        long start = System.nanoTime();
+        long[] counts = simulator.simulate(MEASURED_ITERATIONS, 2, pool);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        assertEquals(MEASURED_ITERATIONS, sumPositions(counts, 0));
+        return MEASURED_ITERATIONS / seconds;
+    }
+
+    private static long sumPositions(long[] counts, int team) {
+        long total = 0;
+        for (int p = 0; p < TEAMS; p++) {
+            total += counts[team * TEAMS + p];
+        }
+        return total;
+    }
+
+    /** Every pairing left once, with probabilities drawn around a 45/27/28 split */
+    private static SeasonSimulator halfSeason() {
+        SplittableRandom random = new SplittableRandom(2025);
+        int fixtures = TEAMS * (TEAMS - 1) / 2;
+        int[] points = new int[TEAMS];
+        int[] goalDiff = new int[TEAMS];
+        int[] home = new int[fixtures];
+        int[] away = new int[fixtures];
+        double[] homeWin = new double[fixtures];
+        double[] draw = new double[fixtures];
+
+        for (int t = 0; t < TEAMS; t++) {
+            points[t] = 10 + random.nextInt(30);
+            goalDiff[t] = random.nextInt(-15, 16);
+        }
+        int k = 0;
+        for (int h = 0; h < TEAMS; h++) {
+            for (int a = h + 1; a < TEAMS; a++) {
+                home[k] = (k % 2 == 0) ? h : a;
+                away[k] = (k % 2 == 0) ? a : h;
+                homeWin[k] = 0.35 + random.nextDouble() * 0.2;
+                draw[k] = 0.27;
+                k++;
+            }
+        }
+        return new SeasonSimulator(points, goalDiff, home, away, homeWin, draw);
+    }
+}
@@ -0,0 +1,118 @@
+package predictions.dapp.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares how many cold requests can be in flight at once with Tomcat's default
+ * pool of 200 platform threads versus one virtual thread per request.
+ *
+ * Each simulated request blocks on an HTTP call to a local fake Football-Data that
+ * answers after a fixed delay, the same way a cold prediction blocks on the real API.
+ * Run with: gradle benchmarkTest
+ */
+class VirtualThreadsBenchmarkTest {
+
+    private static final int TOMCAT_DEFAULT_MAX_THREADS = 200;
+    private static final int CONCURRENT_REQUESTS = 1000;
+    private static final long UPSTREAM_DELAY_MS = 200;
+
+    private static HttpServer upstream;
+    private static HttpClient client;
+    private static URI upstreamUri;
+
+    @BeforeAll
+    static void startFakeUpstream() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), CONCURRENT_REQUESTS * 2);
+        upstream.createContext("/teams", exchange -> {
+            try {
+                Thread.sleep(UPSTREAM_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"matches\":[]}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        upstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        upstream.start();
+
+        upstreamUri = URI.create("http://127.0.0.1:" + upstream.getAddress().getPort() + "/teams");
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    static void stopFakeUpstream() {
+        upstream.stop(0);
+    }
+
+    @Tag("benchmark")
+    @Test
+    void virtualThreads_KeepMoreColdRequestsInFlight() throws Exception {
+        // Warm up connections and JIT
+        run(Executors.newVirtualThreadPerTaskExecutor(), 100);
+
+        Result platform = run(Executors.newFixedThreadPool(TOMCAT_DEFAULT_MAX_THREADS), CONCURRENT_REQUESTS);
+        Result virtual = run(Executors.newVirtualThreadPerTaskExecutor(), CONCURRENT_REQUESTS);
+
+        System.out.printf("%d cold requests, upstream delay %d ms%n", CONCURRENT_REQUESTS, UPSTREAM_DELAY_MS);
+        System.out.printf("  platform (%d threads): max in flight=%d, total=%d ms%n",
+                TOMCAT_DEFAULT_MAX_THREADS, platform.maxInFlight, platform.elapsedMs);
+        System.out.printf("  virtual threads:        max in flight=%d, total=%d ms%n",
+                virtual.maxInFlight, virtual.elapsedMs);
+
+        assertTrue(platform.maxInFlight <= TOMCAT_DEFAULT_MAX_THREADS);
+        assertTrue(virtual.maxInFlight > TOMCAT_DEFAULT_MAX_THREADS);
+        assertTrue(virtual.elapsedMs < platform.elapsedMs);
+    }
+
+    private Result run(ExecutorService executor, int requests) throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        HttpRequest request = HttpRequest.newBuilder(upstreamUri).GET().build();
+
+        long start = System.nanoTime();
+        try (executor) {
+            List<Future<Integer>> futures = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                futures.add(executor.submit(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        return client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode();
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(200, future.get());
+            }
+        }
+        return new Result(maxInFlight.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private record Result(int maxInFlight, long elapsedMs) {
+    }
+}
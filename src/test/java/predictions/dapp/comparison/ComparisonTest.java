@@ -1,5 +1,6 @@
 package predictions.dapp.comparison;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -15,15 +16,25 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import predictions.dapp.controller.ComparisonController;
+import predictions.dapp.dtos.CompareRequest;
 import predictions.dapp.exceptions.MetricsException;
 import predictions.dapp.service.CacheService;
 import predictions.dapp.service.ComparisonService;
 import predictions.dapp.service.FootballDataService;
+import predictions.dapp.service.MethodCacheService;
 import predictions.dapp.service.MetricsService;
+import predictions.dapp.service.TeamStats;
+import predictions.dapp.service.TeamStatsService;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -394,5 +405,67 @@ class ComparisonTest {
         verify(metricsService, times(1)).incrementErrors();
     }
 
+    @Tag("unit")
+    @Test
+    void testService_CompareManyTeams_FetchesEachTeamOnceAndRanksThem() throws Exception {
+        TeamStatsService teamStatsService = mock(TeamStatsService.class);
+        ComparisonService service = new ComparisonService(cacheService, mock(MethodCacheService.class), teamStatsService);
+        when(teamStatsService.getStatsForTeams(Set.of("86", "65", "57"))).thenReturn(Map.of(
+                "86", stats("86", "Arsenal FC", 28, 15),
+                "65", stats("65", "Manchester City FC", 32, 20),
+                "57", stats("57", "Chelsea FC", 28, 4)));
+
+        List<Map<String, Object>> table = service.compareTeams(List.of("86", "65", "57", "86"));
+
+        assertEquals(3, table.size());
+        assertEquals("65", table.get(0).get("id"));
+        assertEquals("86", table.get(1).get("id"));
+        assertEquals(2, table.get(1).get("rank"));
+        assertEquals("57", table.get(2).get("id"));
+        verify(teamStatsService, times(1)).getStatsForTeams(any());
+        verifyNoInteractions(footballDataService);
+    }
+
+    @Tag("unit")
+    @Test
+    void testService_CompareManyTeams_RejectsInvalidGroups() {
+        ComparisonService service = new ComparisonService(cacheService, mock(MethodCacheService.class),
+                mock(TeamStatsService.class));
+
+        assertThrows(IllegalArgumentException.class, () -> service.compareTeams(List.of("86", "86")));
+        assertThrows(IllegalArgumentException.class, () -> service.compareTeams(Arrays.asList("86", null)));
+        assertThrows(IllegalArgumentException.class, () -> service.compareTeams(
+                IntStream.range(0, 31).mapToObj(String::valueOf).toList()));
+    }
+
+    @Tag("unit")
+    @Test
+    void testController_CompareManyTeams_StreamsTheTable() throws Exception {
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn("user@example.com");
+        when(metricsService.measureLatency(any())).thenAnswer(invocation -> {
+            java.util.concurrent.Callable<?> callable = invocation.getArgument(0);
+            return callable.call();
+        });
+        when(comparisonService.compareTeams(List.of("86", "65"))).thenReturn(List.of(
+                Map.of("rank", 1, "id", "65"), Map.of("rank", 2, "id", "86")));
 
-}
\ No newline at end of file
+        ResponseEntity<StreamingResponseBody> response =
+                comparisonController.compareManyTeams(new CompareRequest(List.of("86", "65")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(200, response.getStatusCode().value());
+        JsonNode body = mapper.readTree(out.toByteArray());
+        assertEquals(2, body.get("teams").asInt());
+        assertEquals("65", body.get("table").get(0).get("id").asText());
+        verify(metricsService, never()).incrementErrors();
+    }
+
+    private static TeamStats stats(String teamId, String name, int points, int goalDiff) {
+        return new TeamStats(teamId, name, 10, 6, 2, 2, 20, 10, 30, points, 3.0, goalDiff, 1,
+                List.of("Premier League"));
+    }
+}
@@ -18,10 +18,13 @@ import org.springframework.test.context.ActiveProfiles;
 import predictions.dapp.controller.PerformanceController;
 import predictions.dapp.security.JwtUtil;
 import predictions.dapp.service.MetricsService;
+import predictions.dapp.service.PerformanceJob;
+import predictions.dapp.service.PerformanceJobService;
 import predictions.dapp.service.PerformanceService;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +38,9 @@ class Performance2Test {
     @Mock
     private PerformanceService performanceService;
 
+    @Mock
+    private PerformanceJobService performanceJobService;
+
     @Mock
     private JwtUtil jwtUtil;
 
@@ -751,4 +757,72 @@ class Performance2Test {
 
         verify(metricsService, times(5)).incrementRequests();
     }
-}
\ No newline at end of file
+
+    // ==================== ASYNC JOB MODE TESTS ====================
+
+    @Tag("unit")
+    @Test
+    void testPerformanceAsync_CachedResult_ReturnsOkRightAway() throws Exception {
+        String email = "test@example.com";
+        ObjectNode cached = mapper.createObjectNode().put("id", 44).put("name", "Harry Kane");
+
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(email);
+        when(authentication.getName()).thenReturn(email);
+        when(jwtUtil.extractUserId(email)).thenReturn(1L);
+        when(performanceService.findCachedPerformance("44")).thenReturn(Optional.of(cached));
+
+        ResponseEntity<Object> response = performanceController.performanceAsync("44");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(cached, response.getBody());
+        verify(performanceService).recordPerformance(1L, cached);
+        verify(performanceJobService, never()).submit(anyLong(), anyString());
+        verify(metricsService).incrementRequests();
+    }
+
+    @Tag("unit")
+    @Test
+    void testPerformanceAsync_CacheMiss_ReturnsAcceptedWithJob() throws Exception {
+        String email = "test@example.com";
+        PerformanceJob job = mock(PerformanceJob.class);
+
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(email);
+        when(authentication.getName()).thenReturn(email);
+        when(jwtUtil.extractUserId(email)).thenReturn(1L);
+        when(performanceService.findCachedPerformance("44")).thenReturn(Optional.empty());
+        when(performanceJobService.submit(1L, "44")).thenReturn(job);
+        when(job.getId()).thenReturn("job-1");
+        when(job.getPlayerId()).thenReturn("44");
+        when(job.getStatus()).thenReturn(PerformanceJob.Status.RUNNING);
+
+        ResponseEntity<Object> response = performanceController.performanceAsync("44");
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/api/performance/jobs/job-1", response.getHeaders().getLocation().toString());
+        Map<?, ?> body = (Map<?, ?>) response.getBody();
+        assertEquals("job-1", body.get("jobId"));
+        assertEquals("RUNNING", body.get("status"));
+        verify(performanceService, never()).handlePerformance(anyLong(), anyString());
+    }
+
+    @Tag("unit")
+    @Test
+    void testPerformanceJob_UnknownJob_ReturnsNotFound() {
+        String email = "test@example.com";
+
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(email);
+        when(authentication.getName()).thenReturn(email);
+        when(jwtUtil.extractUserId(email)).thenReturn(1L);
+        when(performanceJobService.getJob("missing")).thenReturn(Optional.empty());
+
+        ResponseEntity<Object> response = performanceController.performanceJob("missing");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+}
@@ -15,9 +15,12 @@ import org.springframework.test.context.ActiveProfiles;
 import predictions.dapp.controller.PredictionController;
 import predictions.dapp.security.JwtUtil;
 import predictions.dapp.service.MetricsService;
+import predictions.dapp.service.PredictionMatrixService;
 import predictions.dapp.service.PredictionService;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -33,6 +36,9 @@ class PredictionControllerTest {
     @Mock
     private PredictionService predictionService;
 
+    @Mock
+    private PredictionMatrixService predictionMatrixService;
+
     @Mock
     private MetricsService metricsService;
 
@@ -177,4 +183,15 @@ class PredictionControllerTest {
 
         verify(metricsService).incrementErrors();
     }
+
+    @Tag("unit")
+    @Test
+    void testPredictScorelines_NotFoundWithoutModel() {
+        when(predictionService.predictScorelines("86", "1")).thenReturn(Optional.empty());
+
+        ResponseEntity<Object> response = predictionController.predictScorelines("86", "1");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(Map.of("error", "No goal model for teams 86 and 1"), response.getBody());
+    }
 }
@@ -8,20 +8,37 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import predictions.dapp.dtos.BatchPredictionRequest;
 import predictions.dapp.exceptions.MetricsException;
 import predictions.dapp.model.Consultas;
+import predictions.dapp.repositories.CompetitionRepository;
 import predictions.dapp.repositories.ConsultasRepository;
+import predictions.dapp.repositories.MatchRepository;
 import predictions.dapp.service.CacheService;
 import predictions.dapp.service.FootballDataService;
+import predictions.dapp.service.GoalModelService;
+import predictions.dapp.service.MatchStoreService;
 import predictions.dapp.service.MethodCacheService;
+import predictions.dapp.service.PredictionMatrixService;
+import predictions.dapp.service.PredictionMode;
 import predictions.dapp.service.PredictionService;
+import predictions.dapp.service.RatingService;
+import predictions.dapp.service.ReplicaService;
+import predictions.dapp.service.StandingsSnapshotService;
+import predictions.dapp.service.TeamStatsService;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -43,6 +60,27 @@ class PredictionServiceTest {
     @Mock
     private MethodCacheService methodCacheService;
 
+    @Mock
+    private ReplicaService replicaService;
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private CompetitionRepository competitionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private RatingService ratingService;
+
+    @Mock
+    private GoalModelService goalModelService;
+
+    @Mock
+    private PredictionMatrixService predictionMatrixService;
+
     private PredictionService predictionService;
 
     private final ObjectMapper mapper = new ObjectMapper();
@@ -53,7 +91,16 @@ class PredictionServiceTest {
                 footballDataService,
                 consultasRepository,
                 cacheService,
-                methodCacheService
+                methodCacheService,
+                new TeamStatsService(footballDataService, replicaService,
+                        new MatchStoreService(matchRepository, competitionRepository, replicaService),
+                        new StandingsSnapshotService(footballDataService, replicaService, 30)),
+                replicaService,
+                transactionManager,
+                ratingService,
+                goalModelService,
+                predictionMatrixService,
+                PredictionMode.HEURISTIC
         );
     }
 
@@ -127,7 +174,7 @@ class PredictionServiceTest {
                 "prediction", "Arsenal FC con 60.00%"
         );
 
-        when(methodCacheService.getCachedMapResult("predictWinner(86,65)"))
+        when(methodCacheService.getCachedMapResult("predictWinner(65,86)"))
                 .thenReturn(Optional.of(cachedPrediction));
 
         Consultas consulta = new Consultas();
@@ -138,7 +185,7 @@ class PredictionServiceTest {
 
         assertEquals(cachedPrediction, result);
         verify(footballDataService, never()).getLastMatchesFinished(anyString(), anyInt());
-        verify(methodCacheService).getCachedMapResult("predictWinner(86,65)");
+        verify(methodCacheService).getCachedMapResult("predictWinner(65,86)");
         verify(consultasRepository).save(any(Consultas.class));
     }
 
@@ -164,7 +211,7 @@ class PredictionServiceTest {
 
         assertEquals(cachedPrediction, result);
         verify(footballDataService, never()).getLastMatchesFinished(anyString(), anyInt());
-        verify(methodCacheService).cacheResult("predictWinner(86,65)", cachedPrediction);
+        verify(methodCacheService).cacheResult("predictWinner(65,86)", cachedPrediction);
         verify(consultasRepository).save(any(Consultas.class));
     }
 
@@ -201,8 +248,15 @@ class PredictionServiceTest {
         verify(footballDataService).getLastMatchesFinished("86", 10);
         verify(footballDataService).getLastMatchesFinished("65", 10);
         verify(cacheService).cachePrediction(eq("86"), eq("65"), any());
-        verify(methodCacheService).cacheResult(eq("predictWinner(86,65)"), any());
+        verify(methodCacheService).cacheResult(eq("predictWinner(65,86)"), any());
         verify(consultasRepository).save(any(Consultas.class));
+
+        // The transaction only opens once the upstream calls are done
+        InOrder order = inOrder(footballDataService, transactionManager, consultasRepository);
+        order.verify(footballDataService).getStandings("2021");
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(consultasRepository).save(any(Consultas.class));
+        order.verify(transactionManager).commit(any());
     }
 
     // ==================== TEST 4: Team with No Wins ====================
@@ -357,7 +411,8 @@ class PredictionServiceTest {
         verify(consultasRepository).save(argThat(savedConsulta -> {
             try {
                 String predictions = savedConsulta.getPredicciones();
-                return predictions.contains("prediction") && predictions.contains("timestamp");
+                return predictions.contains("prediction") && predictions.contains("timestamp")
+                        && predictions.contains("\"teamId1\":\"86\",\"teamId2\":\"65\"");
             } catch (Exception e) {
                 return false;
             }
@@ -376,15 +431,17 @@ class PredictionServiceTest {
         ObjectNode team1Matches = createMockMatchesResponse("86", "Team A", 5, 10);
         ObjectNode team2Matches = createMockMatchesResponse("65", "Team B", 5, 10);
         ObjectNode competitions = createMockCompetitionsResponse();
-        ObjectNode standings1 = createMockStandingsResponse("86", "Team A", 3, 25, 10);
-        ObjectNode standings2 = createMockStandingsResponse("65", "Team B", 4, 24, 9);
+        ObjectNode standings = createMockStandingsResponse("86", "Team A", 3, 25, 10);
+        ObjectNode teamBStanding = ((ArrayNode) standings.get("standings").get(0).get("table")).addObject();
+        teamBStanding.putObject("team").put("id", "65").put("name", "Team B");
+        teamBStanding.put("position", 4);
+        teamBStanding.put("points", 24);
+        teamBStanding.put("goalDifference", 9);
 
         when(footballDataService.getLastMatchesFinished("86", 10)).thenReturn(team1Matches);
         when(footballDataService.getLastMatchesFinished("65", 10)).thenReturn(team2Matches);
         when(footballDataService.getCompetitions()).thenReturn(competitions);
-        when(footballDataService.getStandings("2021"))
-                .thenReturn(standings1)
-                .thenReturn(standings2);
+        when(footballDataService.getStandings("2021")).thenReturn(standings);
 
         Consultas consulta = new Consultas();
         consulta.setUserId(userId);
@@ -406,4 +463,133 @@ class PredictionServiceTest {
         assertEquals(100.0, probability1 + probability2, 0.01, "Probabilities should sum to 100%");
         assertTrue(Math.abs(probability1 - probability2) < 30, "Probabilities should be relatively close");
     }
-}
\ No newline at end of file
+
+    // ==================== TEST 11: Batch Fetches Each Team Once ====================
+    @Tag("unit")
+    @Test
+    void testPredictBatch_FetchesEachTeamOnceAndSavesOnce() throws IOException, InterruptedException {
+        Long userId = 1L;
+
+        when(methodCacheService.getCachedMapResult(anyString())).thenReturn(Optional.empty());
+        when(cacheService.getPrediction(anyString(), anyString())).thenReturn(null);
+
+        when(footballDataService.getLastMatchesFinishedAsync("86", 10))
+                .thenReturn(CompletableFuture.completedFuture(createMockMatchesResponse("86", "Arsenal FC", 7, 10)));
+        when(footballDataService.getLastMatchesFinishedAsync("65", 10))
+                .thenReturn(CompletableFuture.completedFuture(createMockMatchesResponse("65", "Manchester City FC", 8, 10)));
+        when(footballDataService.getLastMatchesFinishedAsync("57", 10))
+                .thenReturn(CompletableFuture.completedFuture(createMockMatchesResponse("57", "Chelsea FC", 4, 10)));
+        when(footballDataService.getCompetitions()).thenReturn(createMockCompetitionsResponse());
+        when(footballDataService.getStandingsAsync("2021"))
+                .thenReturn(CompletableFuture.completedFuture(createMockStandingsResponse("86", "Arsenal FC", 2, 28, 15)));
+
+        Consultas consulta = new Consultas();
+        consulta.setUserId(userId);
+        when(consultasRepository.findByUserId(userId)).thenReturn(Optional.of(consulta));
+
+        List<Map<String, Object>> result = predictionService.predictBatch(List.of(
+                new BatchPredictionRequest.Fixture("86", "65"),
+                new BatchPredictionRequest.Fixture("65", "57")
+        ), userId);
+
+        assertEquals(2, result.size());
+        assertEquals("86", result.get(0).get("teamId1"));
+        assertEquals("57", result.get(1).get("teamId2"));
+        assertTrue(result.get(1).containsKey("prediction"));
+
+        verify(footballDataService, times(1)).getLastMatchesFinishedAsync("65", 10);
+        verify(footballDataService, times(1)).getStandingsAsync("2021");
+        verify(footballDataService, never()).getLastMatchesFinished(anyString(), anyInt());
+        verify(cacheService).cachePrediction(eq("65"), eq("57"), any());
+        verify(consultasRepository, times(1)).save(any(Consultas.class));
+    }
+
+    // ==================== TEST 12: Invalid Batch ====================
+    @Tag("unit")
+    @Test
+    void testPredictBatch_RejectsFixtureWithoutTeams() {
+        List<BatchPredictionRequest.Fixture> fixtures = List.of(new BatchPredictionRequest.Fixture("86", ""));
+
+        assertThrows(IllegalArgumentException.class, () -> predictionService.predictBatch(fixtures, 1L));
+        verifyNoInteractions(footballDataService, consultasRepository);
+    }
+
+    @Tag("unit")
+    @Test
+    void testPredictWinner_EloModeReadsRatingsOnly() throws IOException, InterruptedException {
+        PredictionService eloService = new PredictionService(footballDataService, consultasRepository, cacheService,
+                methodCacheService, mock(TeamStatsService.class), replicaService, transactionManager,
+                ratingService, goalModelService, predictionMatrixService, PredictionMode.ELO);
+        when(ratingService.winProbability("86", "65")).thenReturn(OptionalDouble.of(0.64));
+        when(ratingService.getTeamName("86")).thenReturn("Arsenal FC");
+        when(ratingService.getTeamName("65")).thenReturn("Manchester City FC");
+        when(consultasRepository.findByUserId(1L)).thenReturn(Optional.empty());
+
+        Map<String, Object> result = eloService.predictWinner("86", "65", 1L);
+
+        assertEquals("64.00%", result.get("probabilidad_Arsenal FC"));
+        assertEquals("36.00%", result.get("probabilidad_Manchester City FC"));
+        assertEquals("Arsenal FC con 64.00%", result.get("prediction"));
+        verifyNoInteractions(footballDataService, methodCacheService, cacheService);
+        verify(consultasRepository).save(any(Consultas.class));
+    }
+
+    @Tag("unit")
+    @Test
+    void testPredictWinner_ReadsCompetitionMatrix() throws IOException, InterruptedException {
+        when(predictionMatrixService.findProbability("86", "65")).thenReturn(OptionalDouble.of(0.25));
+        when(predictionMatrixService.getTeamName("86")).thenReturn("Arsenal FC");
+        when(predictionMatrixService.getTeamName("65")).thenReturn("Manchester City FC");
+        when(consultasRepository.findByUserId(1L)).thenReturn(Optional.empty());
+
+        Map<String, Object> result = predictionService.predictWinner("86", "65", 1L);
+
+        assertEquals("Manchester City FC con 75.00%", result.get("prediction"));
+        verifyNoInteractions(footballDataService, methodCacheService, cacheService);
+    }
+
+    @Tag("unit")
+    @Test
+    void testPredictWinner_ReversedPairServedMirroredFromCache() throws IOException, InterruptedException {
+        // Cached once for the pair, lower id (65) first
+        Map<String, Object> cachedPrediction = new LinkedHashMap<>();
+        cachedPrediction.put("probabilidad_Manchester City FC", "40.00%");
+        cachedPrediction.put("probabilidad_Arsenal FC", "60.00%");
+        cachedPrediction.put("prediction", "Arsenal FC con 60.00%");
+        when(methodCacheService.getCachedMapResult("predictWinner(65,86)")).thenReturn(Optional.of(cachedPrediction));
+        when(consultasRepository.findByUserId(1L)).thenReturn(Optional.empty());
+
+        Map<String, Object> forward = predictionService.predictWinner("65", "86", 1L);
+        Map<String, Object> reversed = predictionService.predictWinner("86", "65", 1L);
+
+        assertEquals(List.copyOf(cachedPrediction.keySet()), List.copyOf(forward.keySet()));
+        assertEquals(List.of("probabilidad_Arsenal FC", "probabilidad_Manchester City FC", "prediction"),
+                List.copyOf(reversed.keySet()));
+        assertEquals(cachedPrediction, reversed);
+        verify(methodCacheService, times(2)).getCachedMapResult("predictWinner(65,86)");
+        verifyNoInteractions(footballDataService, cacheService);
+    }
+
+    @Tag("unit")
+    @Test
+    void testPredictWinner_CachesFreshPredictionLowerIdFirst() throws IOException, InterruptedException {
+        when(methodCacheService.getCachedMapResult(anyString())).thenReturn(Optional.empty());
+        when(cacheService.getPrediction(anyString(), anyString())).thenReturn(null);
+        when(footballDataService.getLastMatchesFinished("86", 10))
+                .thenReturn(createMockMatchesResponse("86", "Arsenal FC", 7, 10));
+        when(footballDataService.getLastMatchesFinished("65", 10))
+                .thenReturn(createMockMatchesResponse("65", "Manchester City FC", 8, 10));
+        when(footballDataService.getCompetitions()).thenReturn(createMockCompetitionsResponse());
+        when(footballDataService.getStandings("2021"))
+                .thenReturn(createMockStandingsResponse("86", "Arsenal FC", 2, 28, 15));
+        when(consultasRepository.findByUserId(1L)).thenReturn(Optional.empty());
+
+        Map<String, Object> result = predictionService.predictWinner("86", "65", 1L);
+
+        assertEquals("probabilidad_Arsenal FC", result.keySet().iterator().next());
+        verify(methodCacheService).cacheResult(eq("predictWinner(65,86)"), argThat(cached ->
+                ((Map<?, ?>) cached).keySet().iterator().next().equals("probabilidad_Manchester City FC")));
+        verify(cacheService).cachePrediction(eq("86"), eq("65"), argThat(cached ->
+                cached.keySet().iterator().next().equals("probabilidad_Manchester City FC")));
+    }
+}
@@ -0,0 +1,85 @@
+package predictions.dapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static predictions.dapp.service.MatchFixtures.finished;
+
+@ExtendWith(MockitoExtension.class)
+class BacktestServiceTest {
+
+    @Mock
+    private MatchStoreService matchStoreService;
+
+    private BacktestService backtestService;
+
+    @BeforeEach
+    void setUp() {
+        backtestService = new BacktestService(matchStoreService);
+    }
+
+    @Tag("unit")
+    @Test
+    void replay_PredictsFromTheSeasonAsItStoodAtKickOff() {
+        // First meeting is a coin toss; by the rematch 86 has won and is favoured, and wins again
+        Backtester.Result result = Backtester.replay(2, new int[]{0, 1, 0}, new int[]{1, 0, 1},
+                new int[]{2, 0, 1}, new int[]{0, 1, 1});
+
+        assertEquals(3, result.matches());
+        assertEquals(2, result.decided());
+        assertEquals(1, result.correct());
+        double second = HeuristicScore.score(0, 0, 0, 2, -2)
+                / (HeuristicScore.score(0, 0, 0, 2, -2) + HeuristicScore.score(1, 2, 3, 1, 2));
+        assertTrue(second < 0.5);
+        double third = HeuristicScore.score(2, 3, 6, 1, 3)
+                / (HeuristicScore.score(2, 3, 6, 1, 3) + HeuristicScore.score(0, 0, 0, 2, -3));
+        double brier = 0.25 + second * second + (third - 0.5) * (third - 0.5);
+        assertEquals(brier / 3, result.brierScore(), 1e-9);
+    }
+
+    @Tag("unit")
+    @Test
+    @SuppressWarnings("unchecked")
+    void backtestAll_ReplaysEachCompetitionSeasonSeparately() {
+        when(matchStoreService.current()).thenReturn(MatchStore.build(List.of(
+                finished(1, 2021, Instant.parse("2024-05-01T15:00:00Z"), 86, 65, 1, 0),
+                finished(2, 2021, Instant.parse("2024-09-01T15:00:00Z"), 86, 65, 1, 0),
+                finished(3, 2021, Instant.parse("2025-02-01T15:00:00Z"), 65, 86, 0, 2),
+                finished(4, 2014, Instant.parse("2025-02-01T18:00:00Z"), 81, 86, 1, 1)),
+                Map.of(2021L, "Premier League", 2014L, "Primera Division"), Instant.now()));
+
+        Map<String, Object> response = backtestService.backtestAll();
+
+        assertEquals(3, response.get("seasons"));
+        assertEquals(4, response.get("matches"));
+        assertEquals(3, response.get("decided"));
+        List<Map<String, Object>> seasons = (List<Map<String, Object>>) response.get("bySeason");
+        assertEquals("2024/25", seasons.get(0).get("season"));
+        assertEquals("2014", seasons.get(0).get("competitionId"));
+        assertEquals("Premier League", seasons.get(1).get("competition"));
+        assertEquals(2, seasons.get(1).get("matches"));
+        assertEquals("50.00%", seasons.get(1).get("accuracy"));
+        assertEquals("2023/24", seasons.get(2).get("season"));
+        assertTrue((long) response.get("matchesPerSecond") > 0);
+    }
+
+    @Tag("unit")
+    @Test
+    void backtest_RejectsCompetitionsWithoutFinishedMatches() {
+        when(matchStoreService.current()).thenReturn(MatchStore.EMPTY);
+
+        assertThrows(IllegalArgumentException.class, () -> backtestService.backtest("2021"));
+        assertThrows(IllegalArgumentException.class, () -> backtestService.backtest("PL"));
+        verify(matchStoreService).current();
+    }
+}
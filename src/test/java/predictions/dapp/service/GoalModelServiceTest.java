@@ -0,0 +1,137 @@
+package predictions.dapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import predictions.dapp.model.Match;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class GoalModelServiceTest {
+
+    // Team 1 scores the most, team 4 concedes the most
+    private static final int[] TEAMS = {1, 2, 3, 4};
+    private static final double[] ATTACK = {1.8, 1.0, 0.9, 0.6};
+    private static final double[] DEFENCE = {0.6, 1.0, 1.0, 1.6};
+
+    @Mock
+    private MatchStoreService matchStoreService;
+
+    private GoalModelService goalModelService;
+
+    @BeforeEach
+    void setUp() {
+        goalModelService = new GoalModelService(matchStoreService);
+    }
+
+    /**
+     * Every pairing played {@code rounds} times home and away, goals drawn from
+     * the strengths above with a home rate of 1.5 and an away rate of 1.1
+     */
+    private static List<Match> season(long competitionId, int rounds) {
+        SplittableRandom random = new SplittableRandom(42);
+        Instant kickOff = Instant.parse("2025-01-01T15:00:00Z");
+        List<Match> matches = new ArrayList<>();
+        long id = competitionId * 10_000;
+        for (int r = 0; r < rounds; r++) {
+            for (int h = 0; h < TEAMS.length; h++) {
+                for (int a = 0; a < TEAMS.length; a++) {
+                    if (h == a) continue;
+                    int homeGoals = poisson(random, 1.5 * ATTACK[h] * DEFENCE[a]);
+                    int awayGoals = poisson(random, 1.1 * ATTACK[a] * DEFENCE[h]);
+                    Match match = new Match();
+                    match.setId(id++);
+                    match.setCompetitionId(competitionId);
+                    match.setUtcDate(kickOff);
+                    match.setStatus("FINISHED");
+                    match.setHomeTeamId((long) TEAMS[h]);
+                    match.setHomeTeamName("Team " + TEAMS[h]);
+                    match.setAwayTeamId((long) TEAMS[a]);
+                    match.setAwayTeamName("Team " + TEAMS[a]);
+                    match.setHomeGoals(homeGoals);
+                    match.setAwayGoals(awayGoals);
+                    match.setWinner(homeGoals > awayGoals ? "HOME_TEAM" : homeGoals < awayGoals ? "AWAY_TEAM" : "DRAW");
+                    matches.add(match);
+                    kickOff = kickOff.plus(1, ChronoUnit.DAYS);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static int poisson(SplittableRandom random, double mean) {
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int goals = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            goals++;
+        }
+        return goals;
+    }
+
+    @Tag("unit")
+    @Test
+    void fit_RecoversTheOrderOfTeamStrengths() {
+        MatchStore store = MatchStore.build(season(2021, 20), Map.of(2021L, "Premier League"), Instant.now());
+
+        assertEquals(1, goalModelService.fit(store));
+
+        double strongWins = goalModelService.winProbability("1", "4").orElseThrow();
+        assertTrue(strongWins > 0.8, "strong side should be a clear favourite: " + strongWins);
+        assertEquals(1.0, strongWins + goalModelService.winProbability("4", "1").orElseThrow(), 1e-9);
+        assertEquals("Team 1", goalModelService.getTeamName("1"));
+        assertTrue(goalModelService.winProbability("1", "99").isEmpty());
+    }
+
+    @Tag("unit")
+    @Test
+    void fit_SkipsCompetitionsWithTooFewMatches() {
+        List<Match> matches = season(2021, 20);
+        matches.addAll(season(2001, 1));
+        MatchStore store = MatchStore.build(matches,
+                Map.of(2021L, "Premier League", 2001L, "Champions League"), Instant.now());
+
+        assertEquals(1, goalModelService.fit(store));
+        assertEquals(1, goalModelService.getModelCount());
+    }
+
+    @Tag("unit")
+    @Test
+    @SuppressWarnings("unchecked")
+    void getScorelines_UsesTheHomeSideOfTheModel() {
+        goalModelService.fit(MatchStore.build(season(2021, 20), Map.of(2021L, "Premier League"), Instant.now()));
+
+        Map<String, Object> scorelines = goalModelService.getScorelines("1", "4").orElseThrow();
+
+        assertEquals("Premier League", scorelines.get("competition"));
+        assertEquals("Team 1", scorelines.get("homeTeam"));
+        Map<String, Double> expected = (Map<String, Double>) scorelines.get("expectedGoals");
+        assertTrue(expected.get("home") > expected.get("away"));
+        List<Map<String, Object>> likely = (List<Map<String, Object>>) scorelines.get("scorelines");
+        assertEquals(10, likely.size());
+        assertTrue(goalModelService.getScorelines("1", "99").isEmpty());
+    }
+
+    @Tag("unit")
+    @Test
+    void outcome_SumsToOneAndFavoursTheStrongerSide() {
+        double[] outcome = PoissonModel.outcome(2.0, 0.8);
+
+        assertEquals(1.0, outcome[0] + outcome[1] + outcome[2], 1e-12);
+        assertTrue(outcome[0] > outcome[2]);
+        double[] even = PoissonModel.outcome(1.3, 1.3);
+        assertEquals(even[0], even[2], 1e-12);
+    }
+}
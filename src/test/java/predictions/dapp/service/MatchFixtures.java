@@ -0,0 +1,60 @@
+package predictions.dapp.service;
+
+import predictions.dapp.model.Match;
+
+import java.time.Instant;
+
+/**
+ * Replica match rows for the {@link MatchStore} based tests. Teams are named
+ * "Team {id}" and matches belong to the Premier League (2021) unless given.
+ */
+final class MatchFixtures {
+
+    static final long PREMIER_LEAGUE = 2021L;
+
+    private MatchFixtures() {}
+
+    /** Finished match whose winner follows from the goals */
+    static Match finished(long id, Instant kickOff, long homeId, long awayId, int homeGoals, int awayGoals) {
+        return finished(id, PREMIER_LEAGUE, kickOff, homeId, awayId, homeGoals, awayGoals);
+    }
+
+    static Match finished(long id, String kickOff, long homeId, long awayId, int homeGoals, int awayGoals) {
+        return finished(id, Instant.parse(kickOff), homeId, awayId, homeGoals, awayGoals);
+    }
+
+    static Match finished(long id, long competitionId, Instant kickOff, long homeId, long awayId,
+                          int homeGoals, int awayGoals) {
+        Match match = fixture(id, kickOff, homeId, awayId, "FINISHED");
+        match.setCompetitionId(competitionId);
+        match.setHomeGoals(homeGoals);
+        match.setAwayGoals(awayGoals);
+        match.setWinner(winner(homeGoals, awayGoals));
+        return match;
+    }
+
+    /** Match without a result, in the given status (TIMED, POSTPONED, ...) */
+    static Match fixture(long id, Instant kickOff, long homeId, long awayId, String status) {
+        Match match = new Match();
+        match.setId(id);
+        match.setCompetitionId(PREMIER_LEAGUE);
+        match.setUtcDate(kickOff);
+        match.setStatus(status);
+        match.setHomeTeamId(homeId);
+        match.setHomeTeamName("Team " + homeId);
+        match.setAwayTeamId(awayId);
+        match.setAwayTeamName("Team " + awayId);
+        return match;
+    }
+
+    static Match fixture(long id, String kickOff, long homeId, long awayId, String status) {
+        return fixture(id, Instant.parse(kickOff), homeId, awayId, status);
+    }
+
+    /** Football-Data winner code of a result */
+    static String winner(int homeGoals, int awayGoals) {
+        if (homeGoals > awayGoals) return "HOME_TEAM";
+        if (homeGoals < awayGoals) return "AWAY_TEAM";
+        return "DRAW";
+    }
+}
@@ -0,0 +1,83 @@
+package predictions.dapp.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static predictions.dapp.service.MatchFixtures.finished;
+import static predictions.dapp.service.MatchFixtures.fixture;
+
+class MatchStoreTest {
+
+    private static MatchStore store() {
+        return MatchStore.build(List.of(
+                finished(1, "2025-03-01T15:00:00Z", 86, 65, 2, 0),
+                finished(2, "2025-03-15T15:00:00Z", 57, 86, 1, 1),
+                fixture(3, "2025-04-01T15:00:00Z", 86, 57, "TIMED"),
+                finished(4, "2025-03-08T15:00:00Z", 65, 86, 3, 1)
+        ), Map.of(2021L, "Premier League"), Instant.now());
+    }
+
+    @Tag("unit")
+    @Test
+    void lastFinished_ReturnsFinishedSlotsNewestFirst() {
+        MatchStore store = store();
+        int[] slots = new int[10];
+
+        int count = store.lastFinished(86, slots);
+
+        assertEquals(3, count);
+        assertEquals(57, store.homeTeam(slots[0]));
+        assertEquals(65, store.homeTeam(slots[1]));
+        assertEquals(86, store.homeTeam(slots[2]));
+        assertTrue(store.kickOff(slots[0]) > store.kickOff(slots[1]));
+        assertEquals("Premier League", store.competitionName(slots[0]));
+    }
+
+    @Tag("unit")
+    @Test
+    void lastFinished_StopsAtTheSizeOfTheBuffer() {
+        int[] slots = new int[2];
+
+        assertEquals(2, store().lastFinished(86, slots));
+        assertEquals(0, store().lastFinished(1, slots));
+    }
+
+    @Tag("unit")
+    @Test
+    void accumulateForm_CountsResultsFromTheTeamSide() {
+        MatchStore store = store();
+        int[] slots = new int[10];
+        int count = store.lastFinished(86, slots);
+        MatchStore.Form form = new MatchStore.Form();
+
+        store.accumulateForm(86, slots, count, form);
+
+        assertEquals(3, form.played);
+        assertEquals(1, form.won);
+        assertEquals(1, form.drawn);
+        assertEquals(1, form.lost);
+        assertEquals(4, form.scored);
+        assertEquals(4, form.conceded);
+        assertEquals(2, form.goalsInWins);
+    }
+
+    @Tag("unit")
+    @Test
+    void build_IndexesEveryTeamOnce() {
+        MatchStore store = store();
+
+        assertEquals(4, store.size());
+        assertEquals(3, store.teamCount());
+        assertTrue(store.hasTeam(57));
+        assertFalse(store.hasTeam(1));
+        assertEquals("Team 65", store.teamName(65));
+        int[] last = new int[1];
+        store.lastFinished(57, last);
+        assertEquals(MatchStore.WINNER_DRAW, store.winner(last[0]));
+    }
+}
@@ -0,0 +1,85 @@
+package predictions.dapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import predictions.dapp.exceptions.MetricsException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private MetricsService metricsService;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        metricsService = new MetricsService(registry);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/predictions/86/65");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/predictions/{teamId1}/{teamId2}");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(this, MetricsServiceTest.class.getDeclaredMethod("setUp")));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Tag("unit")
+    @Test
+    void incrementRequests_TagsRouteTemplateAndHandler() {
+        metricsService.incrementRequests();
+        metricsService.incrementRequests();
+
+        assertEquals(2.0, registry.get("predictions_requests_total")
+                .tag("endpoint", "/api/predictions/{teamId1}/{teamId2}")
+                .tag("handler", "MetricsServiceTest.setUp")
+                .counter().count());
+    }
+
+    @Tag("unit")
+    @Test
+    void measureLatency_TagsOutcomeFromResponseStatus() {
+        metricsService.measureLatency(() -> ResponseEntity.ok("ok"));
+        metricsService.measureLatency(() -> ResponseEntity.status(404).build());
+        metricsService.measureLatency(() -> ResponseEntity.internalServerError().build());
+
+        assertEquals(1, registry.get("predictions_latency_seconds").tag("outcome", "SUCCESS").timer().count());
+        assertEquals(1, registry.get("predictions_latency_seconds").tag("outcome", "CLIENT_ERROR").timer().count());
+        assertEquals(1, registry.get("predictions_latency_seconds").tag("outcome", "SERVER_ERROR").timer().count());
+    }
+
+    @Tag("unit")
+    @Test
+    void measureLatency_RecordsExceptionOutcome() {
+        assertThrows(MetricsException.class, () -> metricsService.measureLatency(() -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(1, registry.get("predictions_latency_seconds").tag("outcome", "EXCEPTION").timer().count());
+    }
+
+    @Tag("unit")
+    @Test
+    void incrementErrors_OutsideRequestUsesUnknownEndpoint() {
+        RequestContextHolder.resetRequestAttributes();
+
+        metricsService.incrementErrors();
+
+        assertEquals(1.0, registry.get("predictions_errors_total")
+                .tag("endpoint", "unknown")
+                .tag("type", "internal")
+                .counter().count());
+    }
+}
@@ -0,0 +1,98 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PerformanceJobServiceTest {
+
+    @Mock
+    private PerformanceService performanceService;
+
+    private final List<Runnable> queued = new ArrayList<>();
+
+    private PerformanceJobService performanceJobService;
+
+    @BeforeEach
+    void setUp() {
+        // Jobs only run when the test drains the queue
+        performanceJobService = new PerformanceJobService(performanceService, queued::add);
+    }
+
+    private void runQueuedJobs() {
+        List<Runnable> jobs = new ArrayList<>(queued);
+        queued.clear();
+        jobs.forEach(Runnable::run);
+    }
+
+    @Tag("unit")
+    @Test
+    void submit_SamePlayerWhileRunning_JoinsExistingJob() throws IOException, InterruptedException {
+        ObjectNode result = new ObjectMapper().createObjectNode().put("id", 44);
+        when(performanceService.computePerformance("44")).thenReturn(result);
+
+        PerformanceJob first = performanceJobService.submit(1L, "44");
+        PerformanceJob second = performanceJobService.submit(2L, "44");
+
+        assertSame(first, second);
+        assertEquals(PerformanceJob.Status.PENDING, first.getStatus());
+        assertEquals(1, queued.size());
+
+        runQueuedJobs();
+
+        assertEquals(PerformanceJob.Status.DONE, first.getStatus());
+        assertSame(result, first.getResult());
+        assertTrue(first.getCompletion().isDone());
+        verify(performanceService, times(1)).computePerformance("44");
+        verify(performanceService).recordPerformance(1L, result);
+        verify(performanceService).recordPerformance(2L, result);
+    }
+
+    @Tag("unit")
+    @Test
+    void submit_AfterJobFinished_StartsNewJob() throws IOException, InterruptedException {
+        when(performanceService.computePerformance("44"))
+                .thenReturn(new ObjectMapper().createObjectNode().put("id", 44));
+
+        PerformanceJob first = performanceJobService.submit(1L, "44");
+        runQueuedJobs();
+        PerformanceJob second = performanceJobService.submit(1L, "44");
+
+        assertNotSame(first, second);
+        assertEquals(first, performanceJobService.getJob(first.getId()).orElseThrow());
+        assertEquals(second, performanceJobService.getJob(second.getId()).orElseThrow());
+    }
+
+    @Tag("unit")
+    @Test
+    void run_UpstreamFailure_MarksJobFailedWithoutSaving() throws IOException, InterruptedException {
+        when(performanceService.computePerformance("44")).thenThrow(new IOException("Football-Data HTTP 503"));
+
+        PerformanceJob job = performanceJobService.submit(1L, "44");
+        runQueuedJobs();
+
+        assertEquals(PerformanceJob.Status.FAILED, job.getStatus());
+        assertEquals("Failed to fetch performance data: Football-Data HTTP 503", job.getError());
+        verify(performanceService, never()).recordPerformance(any(), any());
+    }
+
+    @Tag("unit")
+    @Test
+    void getJob_UnknownId_ReturnsEmpty() {
+        assertTrue(performanceJobService.getJob("missing").isEmpty());
+    }
+}
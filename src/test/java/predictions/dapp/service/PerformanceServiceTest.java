@@ -9,6 +9,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 import predictions.dapp.model.Consultas;
 import predictions.dapp.repositories.ConsultasRepository;
 
@@ -31,6 +32,15 @@ class PerformanceServiceTest {
     @Mock
     private CacheService cacheService;
 
+    @Mock
+    private MethodCacheService methodCacheService;
+
+    @Mock
+    private ReplicaService replicaService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private PerformanceService performanceService;
 
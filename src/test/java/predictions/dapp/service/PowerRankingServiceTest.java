@@ -0,0 +1,123 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static predictions.dapp.service.MatchFixtures.finished;
+
+@ExtendWith(MockitoExtension.class)
+class PowerRankingServiceTest {
+
+    private static final Instant KICK_OFF = Instant.parse("2025-03-01T15:00:00Z");
+
+    @Mock
+    private StandingsSnapshotService standingsSnapshotService;
+
+    @Mock
+    private MatchStoreService matchStoreService;
+
+    private PowerRankingService rankingService;
+
+    @BeforeEach
+    void setUp() {
+        rankingService = new PowerRankingService(standingsSnapshotService, matchStoreService);
+    }
+
+    private static StandingsSnapshot table(long version, int[][] rows) {
+        ObjectNode response = new ObjectMapper().createObjectNode();
+        ArrayNode table = response.putArray("standings").addObject().putArray("table");
+        for (int[] row : rows) {
+            ObjectNode entry = table.addObject();
+            entry.putObject("team").put("id", row[0]);
+            entry.put("position", table.size());
+            entry.put("points", row[1]);
+            entry.put("goalDifference", row[2]);
+        }
+        return StandingsSnapshot.from("2021", version, Instant.now(), response);
+    }
+
+    @Tag("unit")
+    @Test
+    @SuppressWarnings("unchecked")
+    void getPowerRankings_ScoresEveryTeamLikeAPrediction() throws Exception {
+        // 65 is second in the table but won its recent matches
+        when(standingsSnapshotService.getSnapshot("2021"))
+                .thenReturn(table(1, new int[][]{{86, 40, 10}, {65, 38, 12}, {57, 20, -5}}));
+        when(matchStoreService.current()).thenReturn(MatchStore.build(
+                List.of(finished(1, KICK_OFF, 65, 86, 3, 0),
+                        finished(2, KICK_OFF.plusSeconds(2), 57, 65, 0, 2),
+                        finished(3, KICK_OFF.plusSeconds(3), 86, 57, 1, 1)),
+                Map.of(2021L, "Premier League"), Instant.now()));
+
+        Map<String, Object> response = rankingService.getPowerRankings("2021");
+
+        List<Map<String, Object>> teams = (List<Map<String, Object>>) response.get("teams");
+        assertEquals(List.of("65", "86", "57"), teams.stream().map(team -> team.get("id")).toList());
+        Map<String, Object> first = teams.getFirst();
+        assertEquals(1, first.get("rank"));
+        assertEquals("Team 65", first.get("name"));
+        assertEquals(2, first.get("recentWins"));
+        assertEquals(5, first.get("goalsInWins"));
+        assertEquals(HeuristicScore.score(2, 5, 38, 2, 12), (double) first.get("score"), 0.01);
+    }
+
+    @Tag("unit")
+    @Test
+    void getPowerRankings_RecomputesOnlyForANewStandingsVersion() throws Exception {
+        when(matchStoreService.current()).thenReturn(MatchStore.EMPTY);
+        when(standingsSnapshotService.getSnapshot("2021"))
+                .thenReturn(table(1, new int[][]{{86, 40, 10}, {65, 38, 12}}))
+                .thenReturn(table(1, new int[][]{{86, 40, 10}, {65, 38, 12}}))
+                .thenReturn(table(2, new int[][]{{65, 41, 13}, {86, 40, 10}}));
+
+        Map<String, Object> first = rankingService.getPowerRankings("2021");
+        assertSame(first, rankingService.getPowerRankings("2021"));
+        Map<String, Object> updated = rankingService.getPowerRankings("2021");
+
+        assertNotSame(first, updated);
+        assertEquals(2L, updated.get("standingsVersion"));
+        assertEquals(1, rankingService.getRankingCount());
+    }
+
+    @Tag("unit")
+    @Test
+    void getPowerRankings_RejectsCompetitionsWithoutATable() throws Exception {
+        when(standingsSnapshotService.getSnapshot("9999")).thenReturn(table(1, new int[][]{}));
+
+        assertThrows(IllegalArgumentException.class, () -> rankingService.getPowerRankings("9999"));
+        verifyNoInteractions(matchStoreService);
+    }
+
+    @Tag("unit")
+    @Test
+    void scoreAll_MatchesScoreForEveryTeam() {
+        // Within and beyond every cap, and a team at the minimum score
+        int[] wins = {0, 3, 10, 12};
+        int[] goalsInWins = {0, 7, 60, 40};
+        int[] points = {0, 12, 70, 45};
+        int[] positions = {20, 8, 1, 25};
+        int[] goalDiffs = {-15, 4, 40, -2};
+        double[] scores = new double[wins.length];
+
+        HeuristicScore.scoreAll(wins, goalsInWins, points, positions, goalDiffs, scores);
+
+        for (int i = 0; i < scores.length; i++) {
+            assertEquals(HeuristicScore.score(wins[i], goalsInWins[i], points[i], positions[i], goalDiffs[i]),
+                    scores[i]);
+        }
+        assertEquals(1.0, scores[0]);
+    }
+}
@@ -0,0 +1,147 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import predictions.dapp.model.PredictionAccuracy;
+import predictions.dapp.model.PredictionHistory;
+import predictions.dapp.repositories.ConsultasRepository;
+import predictions.dapp.repositories.PredictionAccuracyRepository;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static predictions.dapp.service.MatchFixtures.finished;
+
+@ExtendWith(MockitoExtension.class)
+class PredictionAccuracyServiceTest {
+
+    private static final String PREDICTED_AT = new Date(Instant.parse("2025-02-01T12:00:00Z").toEpochMilli()).toString();
+
+    @Mock
+    private ConsultasRepository consultasRepository;
+
+    @Mock
+    private PredictionAccuracyRepository predictionAccuracyRepository;
+
+    @Mock
+    private MatchStoreService matchStoreService;
+
+    @Mock
+    private FootballDataService footballDataService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PredictionAccuracyService accuracyService;
+
+    @BeforeEach
+    void setUp() {
+        accuracyService = new PredictionAccuracyService(consultasRepository, predictionAccuracyRepository,
+                matchStoreService, footballDataService, transactionManager, true);
+    }
+
+    private static String entry(String teamId1, String teamId2, String probability1, String probability2) {
+        return "{\"teamId1\":\"" + teamId1 + "\",\"teamId2\":\"" + teamId2 + "\","
+                + "\"probabilidad_A\":\"" + probability1 + "\",\"probabilidad_B\":\"" + probability2 + "\","
+                + "\"prediction\":\"A\",\"timestamp\":\"" + PREDICTED_AT + "\"}";
+    }
+
+    private static PredictionHistory history(long userId, String predicciones) {
+        PredictionHistory history = mock(PredictionHistory.class);
+        when(history.getUserId()).thenReturn(userId);
+        when(history.getPredicciones()).thenReturn(predicciones);
+        return history;
+    }
+
+    @Tag("unit")
+    @Test
+    @SuppressWarnings("unchecked")
+    void evaluate_SettlesPredictionsByTheNextMeetingOfTheTwoTeams() throws Exception {
+        when(matchStoreService.current()).thenReturn(MatchStore.build(List.of(
+                finished(1, "2025-01-01T15:00:00Z", 65, 86, 1, 0),
+                finished(2, "2025-03-01T15:00:00Z", 86, 65, 2, 1)),
+                Map.of(2021L, "Premier League"), Instant.now()));
+
+        ObjectNode upstream = new ObjectMapper().createObjectNode();
+        ObjectNode draw = upstream.putArray("matches").addObject();
+        draw.put("utcDate", "2025-02-10T20:00:00Z");
+        draw.putObject("homeTeam").put("id", 81);
+        draw.putObject("awayTeam").put("id", 86);
+        draw.putObject("score").putObject("fullTime").put("home", 1).put("away", 1);
+        when(footballDataService.getResultsByTeam("81")).thenReturn(upstream);
+
+        // 86 beats 65 after the predictions; the earlier 65 win does not count
+        PredictionHistory first = history(7L, "["
+                + entry("86", "65", "60.00%", "40.00%") + ","
+                + entry("65", "86", "70.00%", "30.00%") + ","
+                + "{\"prediction\":\"Team A\",\"timestamp\":\"2024-01-01\"}]");
+        PredictionHistory second = history(8L, "[" + entry("81", "86", "50.50%", "49.50%") + "]");
+        when(consultasRepository.streamPredictionHistories()).thenReturn(Stream.of(first, second));
+
+        assertEquals(2, accuracyService.evaluate());
+
+        ArgumentCaptor<Iterable<PredictionAccuracy>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(predictionAccuracyRepository).saveAll(saved.capture());
+        Map<Long, PredictionAccuracy> byUser = StreamSupport.stream(saved.getValue().spliterator(), false)
+                .collect(Collectors.toMap(PredictionAccuracy::getUserId, Function.identity()));
+
+        assertEquals(3, byUser.get(7L).getPredictions());
+        assertEquals(2, byUser.get(7L).getEvaluated());
+        assertEquals(1, byUser.get(7L).getCorrect());
+        assertEquals(1, byUser.get(8L).getEvaluated());
+        assertEquals(1, byUser.get(8L).getDraws());
+        assertEquals(0, byUser.get(8L).getCorrect());
+        PredictionAccuracy global = byUser.get(PredictionAccuracyService.GLOBAL_ID);
+        assertEquals(4, global.getPredictions());
+        assertEquals(3, global.getEvaluated());
+        assertEquals(1, global.getCorrect());
+        assertNotNull(global.getEvaluatedAt());
+        verify(footballDataService, times(1)).getResultsByTeam(anyString());
+
+        // Football-Data is only called once the history cursor is closed
+        InOrder order = inOrder(transactionManager, footballDataService);
+        order.verify(transactionManager).commit(any());
+        order.verify(footballDataService).getResultsByTeam("81");
+    }
+
+    @Tag("unit")
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAccuracy_ReadsTheMaterialisedAggregates() {
+        PredictionAccuracy accuracy = new PredictionAccuracy(7L);
+        accuracy.setPredictions(4);
+        accuracy.setEvaluated(3);
+        accuracy.setCorrect(2);
+        accuracy.setEvaluatedAt(Instant.parse("2025-03-02T00:00:00Z"));
+        when(predictionAccuracyRepository.findById(7L)).thenReturn(Optional.of(accuracy));
+        when(predictionAccuracyRepository.findById(PredictionAccuracyService.GLOBAL_ID)).thenReturn(Optional.empty());
+
+        Map<String, Object> response = accuracyService.getAccuracy(7L);
+
+        Map<String, Object> user = (Map<String, Object>) response.get("user");
+        assertEquals("66.67%", user.get("accuracy"));
+        assertEquals(1, user.get("pending"));
+        assertNull(response.get("global"));
+        verifyNoInteractions(consultasRepository, footballDataService);
+    }
+}
@@ -0,0 +1,104 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static predictions.dapp.service.MatchFixtures.finished;
+
+@ExtendWith(MockitoExtension.class)
+class PredictionMatrixServiceTest {
+
+    private static final Instant KICK_OFF = Instant.parse("2025-03-01T15:00:00Z");
+
+    @Mock
+    private TeamStatsService teamStatsService;
+
+    @Mock
+    private MatchStoreService matchStoreService;
+
+    @Mock
+    private FootballDataService footballDataService;
+
+    private PredictionMatrixService matrixService;
+
+    @BeforeEach
+    void setUp() {
+        matrixService = new PredictionMatrixService(teamStatsService, matchStoreService, footballDataService);
+    }
+
+    private static TeamStats stats(String teamId, String name, int won) {
+        return new TeamStats(teamId, name, 10, won, 0, 10 - won, won * 2, 5, won * 3,
+                won * 3, 5.0, won, 1, List.of("Premier League"));
+    }
+
+    @Tag("unit")
+    @Test
+    void build_PrecomputesEveryPairOfTheCompetition() throws Exception {
+        when(matchStoreService.current()).thenReturn(MatchStore.build(
+                List.of(finished(1, KICK_OFF, 86, 65, 1, 0), finished(2, KICK_OFF.plusSeconds(2), 57, 86, 1, 0)),
+                Map.of(2021L, "Premier League"), Instant.now()));
+        TeamStats arsenal = stats("86", "Arsenal FC", 8);
+        TeamStats city = stats("65", "Manchester City FC", 5);
+        TeamStats chelsea = stats("57", "Chelsea FC", 2);
+        when(teamStatsService.getStatsForTeams(Set.of("86", "65", "57")))
+                .thenReturn(Map.of("86", arsenal, "65", city, "57", chelsea));
+
+        Map<String, Object> summary = matrixService.build("2021");
+
+        assertEquals("Premier League", summary.get("competition"));
+        assertEquals(3, summary.get("teams"));
+        assertEquals(6, summary.get("pairs"));
+        double score86 = PredictionService.calculateProbability(arsenal);
+        double score65 = PredictionService.calculateProbability(city);
+        double probability = matrixService.findProbability("86", "65").orElseThrow();
+        assertEquals(score86 / (score86 + score65), probability, 1e-6);
+        assertEquals(1.0, probability + matrixService.findProbability("65", "86").orElseThrow(), 1e-6);
+        assertEquals("Chelsea FC", matrixService.getTeamName("57"));
+        assertTrue(matrixService.findProbability("86", "1").isEmpty());
+        verifyNoInteractions(footballDataService);
+    }
+
+    @Tag("unit")
+    @Test
+    void build_ListsTeamsUpstreamWhenNotInTheStore() throws Exception {
+        when(matchStoreService.current()).thenReturn(MatchStore.EMPTY);
+        ObjectNode response = new ObjectMapper().createObjectNode();
+        response.putObject("competition").put("name", "Primera Division");
+        response.putArray("teams").add(new ObjectMapper().createObjectNode().put("id", 86))
+                .add(new ObjectMapper().createObjectNode().put("id", 81));
+        when(footballDataService.getTeamsByCompetition("2014")).thenReturn(response);
+        when(teamStatsService.getStatsForTeams(any()))
+                .thenReturn(Map.of("86", stats("86", "Real Madrid CF", 7), "81", stats("81", "FC Barcelona", 7)));
+
+        Map<String, Object> summary = matrixService.build("2014");
+
+        assertEquals("Primera Division", summary.get("competition"));
+        assertEquals(0.5, matrixService.findProbability("86", "81").orElseThrow(), 1e-6);
+    }
+
+    @Tag("unit")
+    @Test
+    void build_RejectsCompetitionsWithoutTeams() throws Exception {
+        when(matchStoreService.current()).thenReturn(MatchStore.EMPTY);
+        when(footballDataService.getTeamsByCompetition("9999")).thenReturn(new ObjectMapper().createObjectNode());
+
+        assertThrows(IllegalArgumentException.class, () -> matrixService.build("9999"));
+        assertThrows(IllegalArgumentException.class, () -> matrixService.build("PL"));
+        assertEquals(0, matrixService.getMatrixCount());
+        verify(teamStatsService, never()).getStatsForTeams(any());
+    }
+}
@@ -0,0 +1,146 @@
+package predictions.dapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import predictions.dapp.model.Match;
+import predictions.dapp.model.TeamRating;
+import predictions.dapp.repositories.RatedMatchRepository;
+import predictions.dapp.repositories.TeamRatingRepository;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+import static predictions.dapp.service.MatchFixtures.finished;
+
+@ExtendWith(MockitoExtension.class)
+class RatingServiceTest {
+
+    @Mock
+    private TeamRatingRepository teamRatingRepository;
+
+    @Mock
+    private RatedMatchRepository ratedMatchRepository;
+
+    @Mock
+    private MatchStoreService matchStoreService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RatingService ratingService;
+
+    @BeforeEach
+    void setUp() {
+        ratingService = new RatingService(teamRatingRepository, ratedMatchRepository, matchStoreService, transactionManager);
+    }
+
+    private static MatchStore store(Match... matches) {
+        return MatchStore.build(List.of(matches), Map.of(2021L, "Premier League"), Instant.now());
+    }
+
+    @Tag("unit")
+    @Test
+    void update_AppliesSettledMatchesOnceInKickOffOrder() {
+        Instant lastWeek = Instant.now().minus(7, ChronoUnit.DAYS);
+        MatchStore store = store(
+                finished(1, lastWeek, 86, 65, 3, 0),
+                finished(2, lastWeek.plus(1, ChronoUnit.DAYS), 65, 57, 1, 1),
+                finished(3, Instant.now().minus(1, ChronoUnit.HOURS), 57, 86, 2, 0));
+        when(teamRatingRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        assertEquals(2, ratingService.update(store));
+        assertEquals(0, ratingService.update(store));
+
+        double arsenal = ratingService.getRating("86").orElseThrow();
+        double city = ratingService.getRating("65").orElseThrow();
+        assertTrue(arsenal > RatingService.INITIAL_RATING);
+        assertTrue(city < RatingService.INITIAL_RATING);
+        assertEquals(3 * RatingService.INITIAL_RATING,
+                arsenal + city + ratingService.getRating("57").orElseThrow(), 1e-9);
+        assertTrue(ratingService.winProbability("86", "65").orElseThrow() > 0.5);
+        assertTrue(ratingService.winProbability("86", "1").isEmpty());
+        assertEquals("Team 86", ratingService.getTeamName("86"));
+        verify(teamRatingRepository, times(1)).saveAll(any());
+        verify(ratedMatchRepository, times(1)).saveAll(any());
+    }
+
+    @Tag("unit")
+    @Test
+    void update_RatesALateArrivingOlderMatch() {
+        Instant twoDaysAgo = Instant.now().minus(2, ChronoUnit.DAYS);
+        when(teamRatingRepository.findAllById(anyIterable())).thenReturn(List.of());
+        Match recent = finished(2, twoDaysAgo, 86, 65, 2, 0);
+        assertEquals(1, ratingService.update(store(recent)));
+        assertTrue(ratingService.getRating("57").isEmpty());
+
+        // Synced later, e.g. a competition added afterwards or a postponed match under its original date
+        Match late = finished(1, twoDaysAgo.minus(3, ChronoUnit.DAYS), 57, 61, 1, 0);
+        assertEquals(1, ratingService.update(store(recent, late)));
+        assertTrue(ratingService.getRating("57").orElseThrow() > RatingService.INITIAL_RATING);
+        assertEquals(0, ratingService.update(store(recent, late)));
+    }
+
+    @Tag("unit")
+    @Test
+    @SuppressWarnings("unchecked")
+    void update_PersistsRatingsOfTheTeamsInvolved() {
+        Instant kickOff = Instant.now().minus(2, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+        TeamRating existing = new TeamRating(86L);
+        existing.setRating(1550);
+        existing.setMatchesRated(30);
+        when(teamRatingRepository.findAllById(anyIterable())).thenReturn(List.of(existing));
+
+        ratingService.update(store(finished(1, kickOff, 86, 65, 1, 0)));
+
+        ArgumentCaptor<Collection<TeamRating>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(teamRatingRepository).saveAll(saved.capture());
+        List<TeamRating> ratings = new ArrayList<>(saved.getValue());
+        assertEquals(2, ratings.size());
+        TeamRating arsenal = ratings.stream().filter(r -> r.getTeamId() == 86L).findFirst().orElseThrow();
+        assertEquals(31, arsenal.getMatchesRated());
+        assertEquals(kickOff, arsenal.getLastMatchAt());
+        assertEquals("Team 86", arsenal.getTeamName());
+    }
+
+    @Tag("unit")
+    @Test
+    void load_RestoresRatingsAndRatedMatches() {
+        Instant kickOff = Instant.now().minus(2, ChronoUnit.DAYS);
+        TeamRating arsenal = new TeamRating(86L);
+        arsenal.setRating(1600);
+        arsenal.setTeamName("Arsenal FC");
+        arsenal.setLastMatchAt(kickOff);
+        when(teamRatingRepository.findAll()).thenReturn(List.of(arsenal));
+        when(ratedMatchRepository.findAllMatchIds()).thenReturn(List.of(1L));
+
+        ratingService.load();
+
+        assertEquals(1600, ratingService.getRating("86").orElseThrow());
+        assertEquals("Arsenal FC", ratingService.getTeamName("86"));
+        assertEquals(0, ratingService.update(store(finished(1, kickOff, 86, 65, 1, 0))));
+        verifyNoMoreInteractions(ratedMatchRepository);
+    }
+
+    @Tag("unit")
+    @Test
+    void expected_FollowsTheEloCurve() {
+        assertEquals(0.5, RatingService.expected(1500, 1500), 1e-9);
+        assertEquals(0.909, RatingService.expected(1900, 1500), 1e-3);
+        assertEquals(1.0, RatingService.marginMultiplier(1));
+        assertEquals(1.75, RatingService.marginMultiplier(3));
+    }
+}
@@ -0,0 +1,135 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import predictions.dapp.model.Competition;
+import predictions.dapp.model.Match;
+import predictions.dapp.model.Standing;
+import predictions.dapp.repositories.CompetitionRepository;
+import predictions.dapp.repositories.MatchRepository;
+import predictions.dapp.repositories.PlayerRepository;
+import predictions.dapp.repositories.ScorerRepository;
+import predictions.dapp.repositories.StandingRepository;
+import predictions.dapp.repositories.TeamRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaServiceTest {
+
+    @Mock
+    private CompetitionRepository competitionRepository;
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private StandingRepository standingRepository;
+
+    @Mock
+    private ScorerRepository scorerRepository;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    private ReplicaService replicaService;
+
+    @BeforeEach
+    void setUp() {
+        replicaService = new ReplicaService(competitionRepository, matchRepository, standingRepository,
+                scorerRepository, playerRepository, teamRepository, 24);
+    }
+
+    private Competition premierLeague(Instant syncedAt) {
+        Competition competition = new Competition(2021L, "PL", "Premier League", "England");
+        competition.setLastSyncedAt(syncedAt);
+        return competition;
+    }
+
+    private Match finished(long id, long homeId, long awayId, int homeGoals, int awayGoals, String winner) {
+        Match match = new Match();
+        match.setId(id);
+        match.setCompetitionId(2021L);
+        match.setUtcDate(Instant.parse("2025-03-01T15:00:00Z").plus(Duration.ofDays(id)));
+        match.setStatus("FINISHED");
+        match.setHomeTeamId(homeId);
+        match.setHomeTeamName(homeId == 86 ? "Arsenal FC" : "Other");
+        match.setAwayTeamId(awayId);
+        match.setAwayTeamName(awayId == 86 ? "Arsenal FC" : "Other");
+        match.setHomeGoals(homeGoals);
+        match.setAwayGoals(awayGoals);
+        match.setWinner(winner);
+        return match;
+    }
+
+    @Tag("unit")
+    @Test
+    void findLastMatchesFinished_BuildsFootballDataShape() {
+        when(matchRepository.findLatestByTeam(eq(86L), eq("FINISHED"), any()))
+                .thenReturn(List.of(finished(2, 86, 99, 3, 1, "HOME_TEAM")));
+        when(competitionRepository.findAllById(Set.of(2021L))).thenReturn(List.of(premierLeague(Instant.now())));
+
+        JsonNode response = replicaService.findLastMatchesFinished("86", 10).orElseThrow();
+
+        JsonNode match = response.path("matches").get(0);
+        assertEquals(86, match.path("homeTeam").path("id").asInt());
+        assertEquals("Arsenal FC", match.path("homeTeam").path("name").asText());
+        assertEquals("HOME_TEAM", match.path("score").path("winner").asText());
+        assertEquals(3, match.path("score").path("fullTime").path("home").asInt());
+        assertEquals("2021", match.path("competition").path("id").asText());
+        assertEquals("Premier League", match.path("competition").path("name").asText());
+    }
+
+    @Tag("unit")
+    @Test
+    void findLastMatchesFinished_EmptyWhenCompetitionIsStale() {
+        when(matchRepository.findLatestByTeam(eq(86L), eq("FINISHED"), any()))
+                .thenReturn(List.of(finished(2, 86, 99, 3, 1, "HOME_TEAM")));
+        when(competitionRepository.findAllById(Set.of(2021L)))
+                .thenReturn(List.of(premierLeague(Instant.now().minus(Duration.ofDays(3)))));
+
+        assertTrue(replicaService.findLastMatchesFinished("86", 10).isEmpty());
+    }
+
+    @Tag("unit")
+    @Test
+    void findStandings_CanBeReadAsSnapshot() {
+        when(competitionRepository.findById(2021L)).thenReturn(Optional.of(premierLeague(Instant.now())));
+        when(standingRepository.findByCompetitionIdOrderByPosition(2021L)).thenReturn(List.of(
+                new Standing(2021L, 64L, "Liverpool FC", 1, 70, 40, 30),
+                new Standing(2021L, 86L, "Arsenal FC", 2, 65, 35, 30)));
+
+        JsonNode response = replicaService.findStandings("2021").orElseThrow();
+        StandingsSnapshot snapshot = StandingsSnapshot.from("2021", 1, Instant.now(), response);
+
+        assertEquals(new StandingsSnapshot.Row(86, 2, 65, 35, 30), snapshot.find("86"));
+    }
+
+    @Tag("unit")
+    @Test
+    void lookups_EmptyWhenNothingWasSynced() {
+        when(competitionRepository.findById(2021L)).thenReturn(Optional.of(premierLeague(null)));
+
+        assertTrue(replicaService.findStandings("2021").isEmpty());
+        assertTrue(replicaService.findTopScorers("2021", "2024").isEmpty());
+        assertTrue(replicaService.findStandings("not-a-number").isEmpty());
+        verifyNoInteractions(standingRepository, scorerRepository);
+    }
+}
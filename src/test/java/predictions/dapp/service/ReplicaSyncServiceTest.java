@@ -0,0 +1,220 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import predictions.dapp.exceptions.UpstreamHttpException;
+import predictions.dapp.exceptions.UpstreamThrottledException;
+import predictions.dapp.model.Competition;
+import predictions.dapp.model.Match;
+import predictions.dapp.model.Standing;
+import predictions.dapp.repositories.CompetitionRepository;
+import predictions.dapp.repositories.MatchRepository;
+import predictions.dapp.repositories.PlayerRepository;
+import predictions.dapp.repositories.ScorerRepository;
+import predictions.dapp.repositories.StandingRepository;
+import predictions.dapp.repositories.TeamRepository;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaSyncServiceTest {
+
+    @Mock
+    private FootballDataService footballDataService;
+
+    @Mock
+    private UpstreamQuota upstreamQuota;
+
+    @Mock
+    private CompetitionRepository competitionRepository;
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private StandingRepository standingRepository;
+
+    @Mock
+    private ScorerRepository scorerRepository;
+
+    @Mock
+    private MatchStoreService matchStoreService;
+
+    @Mock
+    private RatingService ratingService;
+
+    @Mock
+    private GoalModelService goalModelService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReplicaSyncService syncService;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        syncService = new ReplicaSyncService(footballDataService, upstreamQuota, competitionRepository,
+                teamRepository, playerRepository, matchRepository, standingRepository, scorerRepository,
+                matchStoreService, ratingService, goalModelService, transactionManager, true, List.of(), 14);
+    }
+
+    private ObjectNode standings() {
+        ObjectNode response = mapper.createObjectNode();
+        ObjectNode home = response.putArray("standings").addObject().put("type", "HOME");
+        home.putArray("table").addObject().put("position", 9).putObject("team").put("id", 86);
+        ObjectNode total = ((ArrayNode) response.get("standings")).addObject();
+        total.put("type", "TOTAL");
+        ObjectNode row = total.putArray("table").addObject();
+        row.putObject("team").put("id", 86).put("name", "Arsenal FC");
+        row.put("position", 2).put("points", 65).put("goalDifference", 35).put("playedGames", 30);
+        return response;
+    }
+
+    private ObjectNode matches() {
+        ObjectNode response = mapper.createObjectNode();
+        ObjectNode match = response.putArray("matches").addObject();
+        match.put("id", 500).put("utcDate", "2025-03-01T15:00:00Z").put("status", "FINISHED").put("matchday", 27);
+        match.putObject("homeTeam").put("id", 86).put("name", "Arsenal FC");
+        match.putObject("awayTeam").put("id", 65).put("name", "Manchester City FC");
+        ObjectNode score = match.putObject("score").put("winner", "DRAW");
+        score.putObject("fullTime").put("home", 1).put("away", 1);
+        // Knockout placeholder without teams yet
+        ObjectNode pending = ((ArrayNode) response.get("matches")).addObject();
+        pending.put("id", 501).put("status", "SCHEDULED");
+        pending.putObject("homeTeam").putNull("id");
+        pending.putObject("awayTeam").putNull("id");
+        return response;
+    }
+
+    private ObjectNode emptyList(String field) {
+        ObjectNode response = mapper.createObjectNode();
+        response.putArray(field);
+        return response;
+    }
+
+    @Tag("unit")
+    @Test
+    @SuppressWarnings("unchecked")
+    void syncCompetition_StoresEveryPartAndMarksItSynced() throws Exception {
+        Competition competition = new Competition(2021L, "PL", "Premier League", "England");
+        when(footballDataService.getStandings("2021")).thenReturn(standings());
+        when(footballDataService.getTeamsByCompetition("2021")).thenReturn(emptyList("teams"));
+        when(footballDataService.getMatchesByCompetition("2021", null)).thenReturn(matches());
+        when(footballDataService.getTopScorersByCompetitionId("2021", 200, PerformanceService.SCORERS_SEASON))
+                .thenReturn(emptyList("scorers"));
+
+        assertTrue(syncService.syncCompetition(competition));
+
+        ArgumentCaptor<List<Standing>> standings = ArgumentCaptor.forClass(List.class);
+        verify(standingRepository).deleteByCompetitionId(2021L);
+        verify(standingRepository).saveAll(standings.capture());
+        assertEquals(1, standings.getValue().size());
+        assertEquals(2, standings.getValue().get(0).getPosition());
+
+        ArgumentCaptor<List<Match>> matches = ArgumentCaptor.forClass(List.class);
+        verify(matchRepository).saveAll(matches.capture());
+        assertEquals(1, matches.getValue().size());
+        assertEquals(1, matches.getValue().get(0).getHomeGoals());
+        assertEquals(27, matches.getValue().get(0).getMatchday());
+
+        assertNotNull(competition.getLastSyncedAt());
+        assertEquals(LocalDate.now(ZoneOffset.UTC), competition.getMatchesSyncedThrough());
+        verify(competitionRepository).save(competition);
+    }
+
+    @Tag("unit")
+    @Test
+    void syncCompetition_OnlyFetchesWindowsSinceHighWaterMark() throws Exception {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        Competition competition = new Competition(2021L, "PL", "Premier League", "England");
+        competition.setMatchesSyncedThrough(today.minusDays(3));
+
+        when(footballDataService.getStandings("2021")).thenReturn(standings());
+        when(footballDataService.getTeamsByCompetition("2021")).thenReturn(emptyList("teams"));
+        when(footballDataService.getTopScorersByCompetitionId("2021", 200, PerformanceService.SCORERS_SEASON))
+                .thenReturn(emptyList("scorers"));
+        when(footballDataService.getMatchesByCompetitionBetween(eq("2021"), any(), any()))
+                .thenReturn(matches());
+
+        assertTrue(syncService.syncCompetition(competition));
+
+        // today-4 .. today+14 is 19 days: two windows
+        verify(footballDataService).getMatchesByCompetitionBetween("2021", today.minusDays(4), today.plusDays(5));
+        verify(footballDataService).getMatchesByCompetitionBetween("2021", today.plusDays(6), today.plusDays(14));
+        verify(footballDataService, never()).getMatchesByCompetition(anyString(), any());
+        verify(matchRepository, times(2)).saveAll(anyList());
+        assertEquals(today, competition.getMatchesSyncedThrough());
+    }
+
+    @Tag("unit")
+    @Test
+    void windows_SplitsRangeIntoTenDayChunks() {
+        LocalDate from = LocalDate.of(2025, 3, 1);
+
+        assertEquals(List.of(new ReplicaSyncService.DateWindow(from, from)),
+                ReplicaSyncService.windows(from, from));
+        assertEquals(List.of(
+                        new ReplicaSyncService.DateWindow(from, LocalDate.of(2025, 3, 10)),
+                        new ReplicaSyncService.DateWindow(LocalDate.of(2025, 3, 11), LocalDate.of(2025, 3, 20)),
+                        new ReplicaSyncService.DateWindow(LocalDate.of(2025, 3, 21), LocalDate.of(2025, 3, 22))),
+                ReplicaSyncService.windows(from, LocalDate.of(2025, 3, 22)));
+    }
+
+    @Tag("unit")
+    @Test
+    void syncCompetition_KeepsPreviousCopyWhenAPartFails() throws Exception {
+        Competition competition = new Competition(2021L, "PL", "Premier League", "England");
+        when(footballDataService.getStandings("2021")).thenReturn(standings());
+        when(footballDataService.getTeamsByCompetition("2021"))
+                .thenThrow(new UpstreamHttpException(403, "Football-Data HTTP 403"));
+
+        assertFalse(syncService.syncCompetition(competition));
+
+        assertNull(competition.getLastSyncedAt());
+        verifyNoInteractions(standingRepository, matchRepository, competitionRepository);
+    }
+
+    @Tag("unit")
+    @Test
+    void syncAll_WaitsForQuotaResetWhenThrottled() throws Exception {
+        when(upstreamQuota.getSecondsToReset()).thenReturn(OptionalLong.of(0));
+        when(footballDataService.getCompetitions())
+                .thenThrow(new UpstreamThrottledException("Football-Data quota reserved for higher-priority calls"))
+                .thenReturn(emptyList("competitions"));
+        when(competitionRepository.findAll()).thenReturn(List.of());
+        when(competitionRepository.saveAll(anyList())).thenReturn(List.of());
+
+        assertEquals(0, syncService.syncAll());
+        verify(footballDataService, times(2)).getCompetitions();
+        verify(matchRepository, never()).saveAll(any());
+        verify(matchStoreService, never()).rebuild();
+        verify(goalModelService, never()).fit(any());
+    }
+}
@@ -0,0 +1,118 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static predictions.dapp.service.MatchFixtures.fixture;
+
+@ExtendWith(MockitoExtension.class)
+class SeasonSimulationServiceTest {
+
+    private static final Instant KICK_OFF = Instant.parse("2025-05-01T15:00:00Z");
+
+    @Mock
+    private StandingsSnapshotService standingsSnapshotService;
+
+    @Mock
+    private MatchStoreService matchStoreService;
+
+    @Mock
+    private GoalModelService goalModelService;
+
+    @Mock
+    private RatingService ratingService;
+
+    @Mock
+    private FootballDataService footballDataService;
+
+    private SeasonSimulationService simulationService;
+
+    @BeforeEach
+    void setUp() {
+        simulationService = new SeasonSimulationService(standingsSnapshotService, matchStoreService,
+                goalModelService, ratingService, footballDataService);
+    }
+
+    private static StandingsSnapshot table(int[][] rows) {
+        ObjectNode response = new ObjectMapper().createObjectNode();
+        ArrayNode table = response.putArray("standings").addObject().putArray("table");
+        for (int[] row : rows) {
+            ObjectNode entry = table.addObject();
+            entry.putObject("team").put("id", row[0]);
+            entry.put("position", table.size());
+            entry.put("points", row[1]);
+            entry.put("goalDifference", row[2]);
+        }
+        return StandingsSnapshot.from("2021", 1, Instant.now(), response);
+    }
+
+    @Tag("unit")
+    @Test
+    @SuppressWarnings("unchecked")
+    void simulate_PlaysTheUnfinishedReplicaFixtures() throws Exception {
+        when(standingsSnapshotService.getSnapshot("2021")).thenReturn(table(new int[][]{{86, 80, 40}, {65, 60, 30}}));
+        when(matchStoreService.current()).thenReturn(MatchStore.build(List.of(
+                fixture(1, KICK_OFF, 86, 65, "TIMED"),
+                fixture(2, KICK_OFF.plusSeconds(2), 65, 86, "TIMED"),
+                fixture(3, KICK_OFF.plusSeconds(3), 86, 1, "TIMED")),
+                Map.of(2021L, "Premier League"), Instant.now()));
+        when(goalModelService.getOutcome("86", "65")).thenReturn(Optional.of(new double[]{0.5, 0.3, 0.2}));
+        when(goalModelService.getOutcome("65", "86")).thenReturn(Optional.empty());
+        when(ratingService.winProbability("65", "86")).thenReturn(OptionalDouble.empty());
+
+        Map<String, Object> result = simulationService.simulate("2021", 2_000);
+
+        assertEquals(2, result.get("remainingFixtures"));
+        assertEquals(1, result.get("modelledFixtures"));
+        List<Map<String, Object>> teams = (List<Map<String, Object>>) result.get("teams");
+        assertEquals("Team 86", teams.get(0).get("name"));
+        assertEquals("100.00%", teams.get(0).get("title"));
+        assertEquals("0.00%", teams.get(1).get("title"));
+        verifyNoInteractions(footballDataService);
+    }
+
+    @Tag("unit")
+    @Test
+    void simulate_IgnoresCancelledAndPostponedFixtures() throws Exception {
+        when(standingsSnapshotService.getSnapshot("2021")).thenReturn(table(new int[][]{{86, 80, 40}, {65, 60, 30}}));
+        when(matchStoreService.current()).thenReturn(MatchStore.build(List.of(
+                fixture(1, KICK_OFF, 86, 65, "SCHEDULED"),
+                fixture(2, KICK_OFF.plusSeconds(2), 65, 86, "CANCELLED"),
+                fixture(3, KICK_OFF.plusSeconds(3), 86, 65, "POSTPONED")),
+                Map.of(2021L, "Premier League"), Instant.now()));
+        when(goalModelService.getOutcome("86", "65")).thenReturn(Optional.of(new double[]{0.5, 0.3, 0.2}));
+
+        Map<String, Object> result = simulationService.simulate("2021", 1_000);
+
+        assertEquals(1, result.get("remainingFixtures"));
+        assertEquals(1, result.get("modelledFixtures"));
+        verifyNoInteractions(footballDataService);
+    }
+
+    @Tag("unit")
+    @Test
+    void simulate_RejectsOutOfRangeIterationsAndMissingTables() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> simulationService.simulate("2021", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> simulationService.simulate("2021", SeasonSimulationService.MAX_ITERATIONS + 1));
+
+        when(standingsSnapshotService.getSnapshot(anyString())).thenReturn(table(new int[][]{}));
+        assertThrows(IllegalArgumentException.class, () -> simulationService.simulate("2021", 100));
+    }
+}
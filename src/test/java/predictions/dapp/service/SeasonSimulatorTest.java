@@ -0,0 +1,60 @@
+package predictions.dapp.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeasonSimulatorTest {
+
+    private static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+
+    @Tag("unit")
+    @Test
+    void simulate_CountsEveryRunOncePerTeamAndPosition() {
+        // Three teams level on points, every fixture a coin flip
+        SeasonSimulator simulator = new SeasonSimulator(new int[]{10, 10, 10}, new int[]{0, 0, 0},
+                new int[]{0, 1, 2}, new int[]{1, 2, 0},
+                new double[]{0.4, 0.4, 0.4}, new double[]{0.2, 0.2, 0.2});
+        int iterations = 3 * SeasonSimulator.BATCH_SIZE + 7;
+
+        long[] counts = simulator.simulate(iterations, 42, POOL);
+
+        for (int t = 0; t < 3; t++) {
+            long runs = 0;
+            long atPosition = 0;
+            for (int p = 0; p < 3; p++) {
+                runs += counts[t * 3 + p];
+                atPosition += counts[p * 3 + t];
+            }
+            assertEquals(iterations, runs);
+            assertEquals(iterations, atPosition);
+            assertTrue(counts[t * 3] > iterations / 10, "every team should win the title sometimes");
+        }
+    }
+
+    @Tag("unit")
+    @Test
+    void simulate_IsReproducibleForASeed() {
+        SeasonSimulator simulator = new SeasonSimulator(new int[]{30, 28}, new int[]{5, 9},
+                new int[]{0, 1}, new int[]{1, 0}, new double[]{0.45, 0.45}, new double[]{0.25, 0.25});
+
+        assertArrayEquals(simulator.simulate(5_000, 7, POOL), simulator.simulate(5_000, 7, POOL));
+    }
+
+    @Tag("unit")
+    @Test
+    void simulate_UnbeatableLeaderTakesTheTitleEveryTime() {
+        SeasonSimulator simulator = new SeasonSimulator(new int[]{20, 20}, new int[]{0, 0},
+                new int[]{0, 1}, new int[]{1, 0}, new double[]{1.0, 0.0}, new double[]{0.0, 0.0});
+
+        long[] counts = simulator.simulate(1_000, 1, POOL);
+
+        assertEquals(1_000, counts[0]);
+        assertEquals(1_000, counts[3]);
+        assertEquals(26_000, counts[4]);
+        assertEquals(20_000, counts[5]);
+    }
+}
@@ -0,0 +1,90 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static predictions.dapp.service.MatchFixtures.finished;
+
+class SnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    private static StandingsSnapshot standings(Instant fetchedAt) {
+        ObjectNode response = new ObjectMapper().createObjectNode();
+        ObjectNode row = response.putArray("standings").addObject().putArray("table").addObject();
+        row.putObject("team").put("id", 86);
+        row.put("position", 4).put("points", 30).put("goalDifference", 12).put("playedGames", 15);
+        return StandingsSnapshot.from("2021", 7, fetchedAt, response);
+    }
+
+    @Tag("unit")
+    @Test
+    void writeAndRead_RoundTripsMatchStoreAndStandings() throws IOException {
+        Instant builtAt = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MILLIS);
+        MatchStore store = MatchStore.build(List.of(
+                finished(1, "2025-03-01T15:00:00Z", 86, 65, 2, 0),
+                finished(2, "2025-03-15T15:00:00Z", 57, 86, 1, 1)
+        ), Map.of(2021L, "Premier League"), builtAt);
+        Path path = dir.resolve("snapshot.bin");
+
+        SnapshotFile.write(path, Instant.now(), store, List.of(standings(builtAt)));
+        SnapshotFile file = SnapshotFile.read(path).orElseThrow();
+
+        MatchStore read = file.getMatchStore();
+        assertEquals(builtAt, read.builtAt());
+        assertEquals(2, read.size());
+        assertEquals(3, read.teamCount());
+        assertEquals("Team 57", read.teamName(57));
+
+        int[] slots = new int[10];
+        int count = read.lastFinished(86, slots);
+        MatchStore.Form form = new MatchStore.Form();
+        read.accumulateForm(86, slots, count, form);
+        assertEquals(2, form.played);
+        assertEquals(1, form.won);
+        assertEquals(1, form.drawn);
+        assertEquals("Premier League", read.competitionName(slots[0]));
+        assertEquals(2L, read.matchId(slots[0]));
+
+        StandingsSnapshot table = file.getStandings().get(0);
+        assertEquals("2021", table.getCompetitionId());
+        assertEquals(builtAt, table.getFetchedAt());
+        assertEquals(new StandingsSnapshot.Row(86, 4, 30, 12, 15), table.find(86));
+        assertFalse(Files.exists(dir.resolve("snapshot.bin.tmp")));
+    }
+
+    @Tag("unit")
+    @Test
+    void read_IsEmptyWithoutFile() throws IOException {
+        assertTrue(SnapshotFile.read(dir.resolve("missing.bin")).isEmpty());
+    }
+
+    @Tag("unit")
+    @Test
+    void read_RejectsForeignAndTruncatedFiles() throws IOException {
+        Path foreign = dir.resolve("foreign.bin");
+        Files.write(foreign, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        assertThrows(IOException.class, () -> SnapshotFile.read(foreign));
+
+        Path truncated = dir.resolve("truncated.bin");
+        SnapshotFile.write(truncated, Instant.now(), MatchStore.EMPTY, List.of(standings(Instant.now())));
+        byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 6));
+        IOException e = assertThrows(IOException.class, () -> SnapshotFile.read(truncated));
+        assertTrue(e.getMessage().startsWith("Truncated snapshot file"));
+    }
+}
@@ -0,0 +1,143 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StandingsSnapshotServiceTest {
+
+    @Mock
+    private FootballDataService footballDataService;
+
+    @Mock
+    private ReplicaService replicaService;
+
+    private StandingsSnapshotService standingsSnapshotService;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        standingsSnapshotService = new StandingsSnapshotService(footballDataService, replicaService, 30);
+    }
+
+    private ObjectNode standingsResponse(int teams) {
+        ObjectNode response = mapper.createObjectNode();
+        ArrayNode table = response.putArray("standings").addObject().putArray("table");
+        for (int i = 1; i <= teams; i++) {
+            ObjectNode row = table.addObject();
+            row.putObject("team").put("id", 100 + i);
+            row.put("position", i).put("points", 100 - i).put("goalDifference", 20 - i).put("playedGames", 10);
+        }
+        return response;
+    }
+
+    @Tag("unit")
+    @Test
+    void getSnapshot_IndexesEveryTeamOfTheTable() throws IOException, InterruptedException {
+        when(footballDataService.getStandings("2021")).thenReturn(standingsResponse(20));
+
+        StandingsSnapshot snapshot = standingsSnapshotService.getSnapshot("2021");
+
+        assertEquals(20, snapshot.size());
+        assertEquals(new StandingsSnapshot.Row(113, 13, 87, 7, 10), snapshot.find("113"));
+        assertEquals(1, snapshot.find(101).position());
+        assertNull(snapshot.find("999"));
+        assertNull(snapshot.find("not-a-number"));
+    }
+
+    @Tag("unit")
+    @Test
+    void getSnapshot_FetchesOncePerRefreshInterval() throws IOException, InterruptedException {
+        when(footballDataService.getStandings("2021")).thenReturn(standingsResponse(4));
+
+        StandingsSnapshot first = standingsSnapshotService.getSnapshot("2021");
+        StandingsSnapshot second = standingsSnapshotService.getSnapshot("2021");
+
+        assertSame(first, second);
+        verify(footballDataService, times(1)).getStandings("2021");
+    }
+
+    @Tag("unit")
+    @Test
+    void onMatchFinished_RefreshesWhenMatchEndedAfterSnapshot() throws IOException, InterruptedException {
+        when(footballDataService.getStandings("2021")).thenReturn(standingsResponse(4));
+
+        StandingsSnapshot first = standingsSnapshotService.getSnapshot("2021");
+
+        // A match that ended days ago does not invalidate the table
+        standingsSnapshotService.onMatchFinished("2021", Instant.now().minus(3, ChronoUnit.DAYS));
+        assertSame(first, standingsSnapshotService.getSnapshot("2021"));
+
+        // A match kicked off an hour ago finished after the snapshot
+        standingsSnapshotService.onMatchFinished("2021", Instant.now().minus(1, ChronoUnit.HOURS));
+        StandingsSnapshot refreshed = standingsSnapshotService.getSnapshot("2021");
+
+        assertNotSame(first, refreshed);
+        assertTrue(refreshed.getVersion() > first.getVersion());
+        verify(footballDataService, times(2)).getStandings("2021");
+    }
+
+    @Tag("unit")
+    @Test
+    void getSnapshot_DatesReplicaCopiesBySyncAndKeepsTheVersionWhileUnchanged()
+            throws IOException, InterruptedException {
+        Instant syncedAt = Instant.now().minus(3, ChronoUnit.HOURS);
+        ObjectNode synced = standingsResponse(4);
+        synced.putObject("competition").put("lastUpdated", syncedAt.toString());
+        ObjectNode resynced = standingsResponse(5);
+        resynced.putObject("competition").put("lastUpdated", Instant.now().toString());
+        when(replicaService.findStandings("2021"))
+                .thenReturn(Optional.of(synced), Optional.of(synced), Optional.of(resynced));
+
+        StandingsSnapshot first = standingsSnapshotService.getSnapshot("2021");
+        assertEquals(syncedAt, first.getFetchedAt());
+        // Dated hours back, but only read again when invalidated or after the refresh interval
+        assertSame(first, standingsSnapshotService.getSnapshot("2021"));
+
+        standingsSnapshotService.onMatchFinished("2021", Instant.now().minus(1, ChronoUnit.HOURS));
+        StandingsSnapshot reread = standingsSnapshotService.getSnapshot("2021");
+        assertEquals(first.getVersion(), reread.getVersion());
+
+        standingsSnapshotService.onMatchFinished("2021", Instant.now().minus(1, ChronoUnit.HOURS));
+        StandingsSnapshot changed = standingsSnapshotService.getSnapshot("2021");
+        assertEquals(5, changed.size());
+        assertTrue(changed.getVersion() > first.getVersion());
+        verifyNoInteractions(footballDataService);
+    }
+
+    @Tag("unit")
+    @Test
+    void restore_ServesRestoredTableUntilANewerCopyIsStored() throws IOException, InterruptedException {
+        Instant fetchedAt = Instant.now().minus(2, ChronoUnit.HOURS);
+        StandingsSnapshot fromFile = StandingsSnapshot.from("2021", 0, fetchedAt, standingsResponse(4));
+        when(replicaService.isFresh(fetchedAt)).thenReturn(true);
+        when(footballDataService.getStandings("2021")).thenReturn(standingsResponse(6));
+
+        standingsSnapshotService.restore(fromFile);
+        StandingsSnapshot restored = standingsSnapshotService.getSnapshot("2021");
+
+        assertEquals(4, restored.size());
+        assertTrue(restored.getVersion() > 0);
+        verifyNoInteractions(footballDataService);
+
+        when(replicaService.isFresh(fetchedAt)).thenReturn(false);
+        assertEquals(6, standingsSnapshotService.getSnapshot("2021").size());
+        assertEquals(1, standingsSnapshotService.getSnapshots().size());
+    }
+}
@@ -0,0 +1,307 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import predictions.dapp.model.Competition;
+import predictions.dapp.model.Match;
+import predictions.dapp.repositories.CompetitionRepository;
+import predictions.dapp.repositories.MatchRepository;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TeamStatsServiceTest {
+
+    @Mock
+    private FootballDataService footballDataService;
+
+    @Mock
+    private ReplicaService replicaService;
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private CompetitionRepository competitionRepository;
+
+    private MatchStoreService matchStoreService;
+
+    private TeamStatsService teamStatsService;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        matchStoreService = new MatchStoreService(matchRepository, competitionRepository, replicaService);
+        teamStatsService = new TeamStatsService(
+                footballDataService,
+                replicaService,
+                matchStoreService,
+                new StandingsSnapshotService(footballDataService, replicaService, 30)
+        );
+    }
+
+    private ObjectNode matchesResponse(String teamId, String teamName) {
+        ObjectNode response = mapper.createObjectNode();
+        ArrayNode matches = response.putArray("matches");
+
+        // Win 3-1 at home, draw 1-1 away, loss 0-2 at home
+        addMatch(matches, teamId, teamName, "999", "Other", 3, 1, "HOME_TEAM");
+        addMatch(matches, "998", "Other", teamId, teamName, 1, 1, "DRAW");
+        addMatch(matches, teamId, teamName, "997", "Other", 0, 2, "AWAY_TEAM");
+        return response;
+    }
+
+    private void addMatch(ArrayNode matches, String homeId, String homeName, String awayId, String awayName,
+                          int homeGoals, int awayGoals, String winner) {
+        ObjectNode match = matches.addObject();
+        match.putObject("homeTeam").put("id", homeId).put("name", homeName);
+        match.putObject("awayTeam").put("id", awayId).put("name", awayName);
+        ObjectNode score = match.putObject("score");
+        score.put("winner", winner);
+        score.putObject("fullTime").put("home", homeGoals).put("away", awayGoals);
+        match.putObject("competition").put("name", "Premier League");
+    }
+
+    private ObjectNode competitionsResponse() {
+        ObjectNode response = mapper.createObjectNode();
+        response.putArray("competitions").addObject().put("id", "2021").put("name", "Premier League");
+        return response;
+    }
+
+    private ObjectNode standingsResponse(String teamId) {
+        ObjectNode response = mapper.createObjectNode();
+        ObjectNode row = response.putArray("standings").addObject().putArray("table").addObject();
+        row.putObject("team").put("id", teamId);
+        row.put("position", 4).put("points", 30).put("goalDifference", 12);
+        return response;
+    }
+
+    @Tag("unit")
+    @Test
+    void getStats_ComputesFormAndStandings() throws IOException, InterruptedException {
+        when(footballDataService.getLastMatchesFinished("86", 10)).thenReturn(matchesResponse("86", "Arsenal FC"));
+        when(footballDataService.getCompetitions()).thenReturn(competitionsResponse());
+        when(footballDataService.getStandings("2021")).thenReturn(standingsResponse("86"));
+
+        TeamStats stats = teamStatsService.getStats("86");
+
+        assertEquals("Arsenal FC", stats.teamName());
+        assertEquals(3, stats.matchesPlayed());
+        assertEquals(1, stats.wonGames());
+        assertEquals(1, stats.drawnGames());
+        assertEquals(1, stats.lostGames());
+        assertEquals(4, stats.goalsScored());
+        assertEquals(4, stats.goalsConceded());
+        assertEquals(4, stats.goalsInWins());
+        assertEquals(30, stats.totalPoints());
+        assertEquals(4.0, stats.avgPosition());
+        assertEquals(12, stats.totalGoalDiff());
+        assertEquals(1, stats.leagueCount());
+    }
+
+    @Tag("unit")
+    @Test
+    void getStats_SecondCallIsServedFromCache() throws IOException, InterruptedException {
+        when(footballDataService.getLastMatchesFinished("86", 10)).thenReturn(matchesResponse("86", "Arsenal FC"));
+        when(footballDataService.getCompetitions()).thenReturn(competitionsResponse());
+        when(footballDataService.getStandings("2021")).thenReturn(standingsResponse("86"));
+
+        TeamStats first = teamStatsService.getStats("86");
+        TeamStats second = teamStatsService.getStats("86");
+
+        assertSame(first, second);
+        verify(footballDataService, times(1)).getLastMatchesFinished("86", 10);
+        verify(footballDataService, times(1)).getStandings("2021");
+    }
+
+    @Tag("unit")
+    @Test
+    void clearAll_ForcesRecomputation() throws IOException, InterruptedException {
+        ObjectNode empty = mapper.createObjectNode();
+        empty.putArray("matches");
+        when(footballDataService.getLastMatchesFinished("86", 10)).thenReturn(empty);
+
+        teamStatsService.getStats("86");
+        teamStatsService.clearAll();
+        TeamStats stats = teamStatsService.getStats("86");
+
+        assertEquals(20.0, stats.avgPosition());
+        verify(footballDataService, times(2)).getLastMatchesFinished("86", 10);
+    }
+
+    @Tag("unit")
+    @Test
+    void getStats_StandingsAndCompetitionsAreSharedAcrossTeams() throws IOException, InterruptedException {
+        ObjectNode standings = standingsResponse("86");
+        ObjectNode otherRow = ((ArrayNode) standings.get("standings").get(0).get("table")).addObject();
+        otherRow.putObject("team").put("id", "65");
+        otherRow.put("position", 1).put("points", 40).put("goalDifference", 20);
+
+        when(footballDataService.getLastMatchesFinished("86", 10)).thenReturn(matchesResponse("86", "Arsenal FC"));
+        when(footballDataService.getLastMatchesFinished("65", 10)).thenReturn(matchesResponse("65", "Manchester City FC"));
+        when(footballDataService.getCompetitions()).thenReturn(competitionsResponse());
+        when(footballDataService.getStandings("2021")).thenReturn(standings);
+
+        TeamStats arsenal = teamStatsService.getStats("86");
+        TeamStats city = teamStatsService.getStats("65");
+
+        assertEquals(4.0, arsenal.avgPosition());
+        assertEquals(1.0, city.avgPosition());
+        verify(footballDataService, times(1)).getCompetitions();
+        verify(footballDataService, times(1)).getStandings("2021");
+    }
+
+    @Tag("unit")
+    @Test
+    void getStats_UsesCompetitionIdFromMatchesWhenPresent() throws IOException, InterruptedException {
+        ObjectNode matches = matchesResponse("86", "Arsenal FC");
+        matches.get("matches").forEach(m -> ((ObjectNode) m.get("competition")).put("id", 2021));
+
+        when(footballDataService.getLastMatchesFinished("86", 10)).thenReturn(matches);
+        when(footballDataService.getStandings("2021")).thenReturn(standingsResponse("86"));
+
+        TeamStats stats = teamStatsService.getStats("86");
+
+        assertEquals(30, stats.totalPoints());
+        verify(footballDataService, never()).getCompetitions();
+    }
+
+    @Tag("unit")
+    @Test
+    void getStatsForTeams_FetchesAsynchronouslyOncePerTeamAndCompetition() throws IOException, InterruptedException {
+        ObjectNode standings = standingsResponse("86");
+        ObjectNode otherRow = ((ArrayNode) standings.get("standings").get(0).get("table")).addObject();
+        otherRow.putObject("team").put("id", "65");
+        otherRow.put("position", 1).put("points", 40).put("goalDifference", 20);
+
+        when(footballDataService.getLastMatchesFinishedAsync("86", 10))
+                .thenReturn(CompletableFuture.completedFuture(matchesResponse("86", "Arsenal FC")));
+        when(footballDataService.getLastMatchesFinishedAsync("65", 10))
+                .thenReturn(CompletableFuture.completedFuture(matchesResponse("65", "Manchester City FC")));
+        when(footballDataService.getCompetitions()).thenReturn(competitionsResponse());
+        when(footballDataService.getStandingsAsync("2021")).thenReturn(CompletableFuture.completedFuture(standings));
+
+        Map<String, TeamStats> stats = teamStatsService.getStatsForTeams(List.of("86", "65", "86"));
+
+        assertEquals(List.of("86", "65"), List.copyOf(stats.keySet()));
+        assertEquals(1.0, stats.get("65").avgPosition());
+        verify(footballDataService, times(1)).getStandingsAsync("2021");
+        verify(footballDataService, never()).getLastMatchesFinished(anyString(), anyInt());
+        verify(footballDataService, never()).getStandings(anyString());
+    }
+
+    @Tag("unit")
+    @Test
+    void getStatsForTeams_PropagatesUpstreamFailure() {
+        when(footballDataService.getLastMatchesFinishedAsync("86", 10))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("Football-Data HTTP 503")));
+
+        List<String> teams = List.of("86");
+        IOException e = assertThrows(IOException.class, () -> teamStatsService.getStatsForTeams(teams));
+        assertEquals("Football-Data HTTP 503", e.getMessage());
+    }
+
+    @Tag("unit")
+    @Test
+    void getStats_ReadsFromReplicaWhenFresh() throws IOException, InterruptedException {
+        ObjectNode matches = matchesResponse("86", "Arsenal FC");
+        matches.get("matches").forEach(m -> ((ObjectNode) m.get("competition")).put("id", 2021));
+
+        when(replicaService.findLastMatchesFinished("86", 10)).thenReturn(Optional.of(matches));
+        when(replicaService.findStandings("2021")).thenReturn(Optional.of(standingsResponse("86")));
+
+        TeamStats stats = teamStatsService.getStats("86");
+
+        assertEquals(30, stats.totalPoints());
+        verifyNoInteractions(footballDataService);
+    }
+
+    @Tag("unit")
+    @Test
+    void getStats_ComputesFormFromMatchStore() throws IOException, InterruptedException {
+        Competition premier = new Competition(2021L, "PL", "Premier League", "England");
+        when(competitionRepository.findAll()).thenReturn(List.of(premier));
+        when(replicaService.isFresh(premier)).thenReturn(true);
+        when(replicaService.isFresh(any(Instant.class))).thenReturn(true);
+        when(matchRepository.findByCompetitionIdIn(any())).thenReturn(List.of(
+                storedMatch(1, "2025-03-01T15:00:00Z", 86, 999, 3, 1, "HOME_TEAM"),
+                storedMatch(2, "2025-03-08T15:00:00Z", 998, 86, 1, 1, "DRAW"),
+                storedMatch(3, "2025-03-15T15:00:00Z", 86, 997, 0, 2, "AWAY_TEAM")));
+        when(replicaService.findStandings("2021")).thenReturn(Optional.of(standingsResponse("86")));
+        matchStoreService.rebuild();
+
+        TeamStats stats = teamStatsService.getStats("86");
+
+        assertEquals("Arsenal FC", stats.teamName());
+        assertEquals(3, stats.matchesPlayed());
+        assertEquals(1, stats.wonGames());
+        assertEquals(1, stats.drawnGames());
+        assertEquals(1, stats.lostGames());
+        assertEquals(4, stats.goalsScored());
+        assertEquals(4, stats.goalsConceded());
+        assertEquals(4, stats.goalsInWins());
+        assertEquals(30, stats.totalPoints());
+        assertEquals(List.of("Premier League"), stats.competitions());
+        verify(replicaService, never()).findLastMatchesFinished(anyString(), anyInt());
+        verifyNoInteractions(footballDataService);
+    }
+
+    @Tag("unit")
+    @Test
+    void getStats_FallsBackToMatchesWhenTheStoreHasNoFinishedOne() throws IOException, InterruptedException {
+        // A promoted side: only its upcoming fixtures are in the store
+        Competition premier = new Competition(2021L, "PL", "Premier League", "England");
+        when(competitionRepository.findAll()).thenReturn(List.of(premier));
+        when(replicaService.isFresh(premier)).thenReturn(true);
+        when(matchRepository.findByCompetitionIdIn(any())).thenReturn(List.of(
+                MatchFixtures.fixture(1, "2025-08-16T14:00:00Z", 86, 999, "TIMED")));
+        matchStoreService.rebuild();
+        ObjectNode matches = matchesResponse("86", "Arsenal FC");
+        matches.get("matches").forEach(m -> ((ObjectNode) m.get("competition")).put("id", 2021));
+        when(replicaService.findLastMatchesFinished("86", 10)).thenReturn(Optional.of(matches));
+        when(replicaService.findStandings("2021")).thenReturn(Optional.of(standingsResponse("86")));
+
+        TeamStats stats = teamStatsService.getStats("86");
+
+        assertEquals("Arsenal FC", stats.teamName());
+        assertEquals(3, stats.matchesPlayed());
+        assertEquals(List.of("Premier League"), stats.competitions());
+        assertEquals(30, stats.totalPoints());
+    }
+
+    private Match storedMatch(long id, String utcDate, long homeId, long awayId,
+                              int homeGoals, int awayGoals, String winner) {
+        Match match = new Match();
+        match.setId(id);
+        match.setCompetitionId(2021L);
+        match.setUtcDate(Instant.parse(utcDate));
+        match.setStatus("FINISHED");
+        match.setHomeTeamId(homeId);
+        match.setHomeTeamName(homeId == 86 ? "Arsenal FC" : "Other");
+        match.setAwayTeamId(awayId);
+        match.setAwayTeamName(awayId == 86 ? "Arsenal FC" : "Other");
+        match.setWinner(winner);
+        match.setHomeGoals(homeGoals);
+        match.setAwayGoals(awayGoals);
+        return match;
+    }
+}
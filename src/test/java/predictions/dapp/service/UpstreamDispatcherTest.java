@@ -0,0 +1,110 @@
+package predictions.dapp.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamDispatcherTest {
+
+    @Tag("unit")
+    @Test
+    void release_ServesInteractiveCallersBeforeBackgroundWork() {
+        UpstreamDispatcher dispatcher = new UpstreamDispatcher(1, 10, 60_000);
+        List<String> order = new ArrayList<>();
+
+        assertTrue(dispatcher.submit(UpstreamCaller.PREDICTION, () -> order.add("first")));
+        dispatcher.submit(UpstreamCaller.PASSTHROUGH, () -> order.add("passthrough"));
+        dispatcher.submit(UpstreamCaller.PERFORMANCE, () -> order.add("performance"));
+        dispatcher.submit(UpstreamCaller.COMPARISON, () -> order.add("comparison"));
+
+        assertEquals(1, dispatcher.queued(UpstreamCaller.PASSTHROUGH));
+        assertEquals(3, dispatcher.queued());
+
+        dispatcher.release();
+        dispatcher.release();
+        dispatcher.release();
+        dispatcher.release();
+
+        assertEquals(List.of("first", "comparison", "performance", "passthrough"), order);
+        assertEquals(1, dispatcher.available());
+        assertEquals(0, dispatcher.queued());
+    }
+
+    @Tag("unit")
+    @Test
+    void release_AgedBackgroundCallGoesAheadOfNewerInteractiveCall() throws InterruptedException {
+        UpstreamDispatcher dispatcher = new UpstreamDispatcher(1, 10, 5);
+        List<String> order = new ArrayList<>();
+
+        dispatcher.submit(UpstreamCaller.PREDICTION, () -> order.add("first"));
+        dispatcher.submit(UpstreamCaller.PERFORMANCE, () -> order.add("performance"));
+        // Longer than one tier of aging
+        Thread.sleep(20);
+        dispatcher.submit(UpstreamCaller.PREDICTION, () -> order.add("prediction"));
+
+        dispatcher.release();
+        dispatcher.release();
+
+        assertEquals(List.of("first", "performance", "prediction"), order);
+    }
+
+    @Tag("unit")
+    @Test
+    void acquire_WaitingCallerIsHandedTheReleasedPermit() throws Exception {
+        UpstreamDispatcher dispatcher = new UpstreamDispatcher(1, 10, 2000);
+        assertTrue(dispatcher.acquire(UpstreamCaller.PERFORMANCE, 0));
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                if (dispatcher.acquire(UpstreamCaller.PREDICTION, 5000)) {
+                    acquired.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+
+        while (dispatcher.queued(UpstreamCaller.PREDICTION) == 0) {
+            Thread.onSpinWait();
+        }
+        dispatcher.release();
+
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(0, dispatcher.available());
+    }
+
+    @Tag("unit")
+    @Test
+    void acquire_TimesOutAndLeavesTheQueue() throws InterruptedException {
+        UpstreamDispatcher dispatcher = new UpstreamDispatcher(1, 10, 2000);
+        assertTrue(dispatcher.acquire(UpstreamCaller.PREDICTION, 0));
+
+        assertFalse(dispatcher.acquire(UpstreamCaller.PASSTHROUGH, 20));
+        assertEquals(0, dispatcher.queued());
+
+        dispatcher.release();
+        assertEquals(1, dispatcher.available());
+    }
+
+    @Tag("unit")
+    @Test
+    void submit_RejectsWhenQueueIsFull() {
+        UpstreamDispatcher dispatcher = new UpstreamDispatcher(1, 1, 2000);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertTrue(dispatcher.submit(UpstreamCaller.PREDICTION, () -> { }));
+        assertTrue(dispatcher.submit(UpstreamCaller.PREDICTION, () -> { }));
+        assertFalse(dispatcher.submit(UpstreamCaller.PREDICTION, () -> ran.set(true)));
+        assertFalse(ran.get());
+    }
+}
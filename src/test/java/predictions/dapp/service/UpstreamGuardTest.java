@@ -0,0 +1,287 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import predictions.dapp.exceptions.UpstreamHttpException;
+import predictions.dapp.exceptions.UpstreamUnavailableException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamGuardTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private UpstreamGuard guard(int threshold, long openSeconds, int maxConcurrent) {
+        return new UpstreamGuard(registry, new UpstreamQuota(registry, 2), threshold, openSeconds, maxConcurrent, 0, 2000);
+    }
+
+    private UpstreamGuard.UpstreamCall failing(int status) {
+        return () -> {
+            throw new UpstreamHttpException(status, "Football-Data HTTP " + status);
+        };
+    }
+
+    @Tag("unit")
+    @Test
+    void execute_OpensAfterThresholdAndFailsFast() throws Exception {
+        UpstreamGuard guard = guard(2, 60, 4);
+        AtomicInteger calls = new AtomicInteger();
+        UpstreamGuard.UpstreamCall call = () -> {
+            calls.incrementAndGet();
+            throw new IOException("timeout");
+        };
+
+        assertThrows(IOException.class, () -> guard.execute("/teams/86", call));
+        assertThrows(IOException.class, () -> guard.execute("/teams/86", call));
+        assertEquals(UpstreamGuard.State.OPEN, guard.getState());
+
+        assertThrows(UpstreamUnavailableException.class, () -> guard.execute("/teams/86", call));
+        assertEquals(2, calls.get());
+        assertEquals(1.0, registry.get("football_api_circuit_state").gauge().value());
+    }
+
+    @Tag("unit")
+    @Test
+    void execute_ServesStaleResponseWhileOpen() throws Exception {
+        UpstreamGuard guard = guard(1, 60, 4);
+        JsonNode fresh = mapper.readTree("{\"name\":\"Arsenal FC\"}");
+
+        guard.execute("/teams/86", () -> fresh);
+        JsonNode afterFailure = guard.execute("/teams/86", failing(503));
+        JsonNode whileOpen = guard.execute("/teams/86", () -> fail("Must not call upstream while open"));
+
+        assertSame(fresh, afterFailure);
+        assertSame(fresh, whileOpen);
+        assertEquals(UpstreamGuard.State.OPEN, guard.getState());
+        assertEquals(2.0, registry.get("football_api_stale_responses_total").counter().count());
+    }
+
+    @Tag("unit")
+    @Test
+    void execute_KeepsABoundedNumberOfStaleCopies() throws Exception {
+        UpstreamGuard guard = guard(1, 60, 4);
+        JsonNode team = mapper.readTree("{}");
+
+        for (int id = 0; id < 1_500; id++) {
+            guard.execute("/teams/" + id, () -> team);
+        }
+
+        assertEquals(1_000.0, registry.get("football_api_stale_entries").gauge().value());
+        assertThrows(UpstreamHttpException.class, () -> guard.execute("/teams/0", failing(503)));
+        assertSame(team, guard.execute("/teams/1499", () -> fail("Must not call upstream while open")));
+    }
+
+    @Tag("unit")
+    @Test
+    void execute_SyncCallsGetTheFailureInsteadOfAStaleCopy() throws Exception {
+        UpstreamGuard guard = guard(1, 60, 4);
+        guard.execute("/competitions/2021/matches", () -> mapper.readTree("{\"matches\":[]}"));
+
+        try (UpstreamCaller.Scope ignored = UpstreamCaller.SYNC.enter()) {
+            assertThrows(UpstreamHttpException.class, () -> guard.execute("/competitions/2021/matches", failing(503)));
+            assertThrows(UpstreamUnavailableException.class,
+                    () -> guard.execute("/competitions/2021/matches", () -> fail("Must not call upstream while open")));
+        }
+        assertNotNull(guard.execute("/competitions/2021/matches", () -> fail("Must not call upstream while open")));
+    }
+
+    @Tag("unit")
+    @Test
+    void execute_HalfOpenProbeClosesCircuitOnSuccess() throws Exception {
+        UpstreamGuard guard = guard(1, 0, 4);
+        JsonNode ok = mapper.createObjectNode();
+
+        assertThrows(IOException.class, () -> guard.execute("/competitions", failing(429)));
+        assertEquals(UpstreamGuard.State.OPEN, guard.getState());
+
+        // Open period is zero, so the next call is the half-open probe
+        assertSame(ok, guard.execute("/competitions", () -> ok));
+        assertEquals(UpstreamGuard.State.CLOSED, guard.getState());
+        assertEquals(0, guard.getConsecutiveFailures());
+    }
+
+    @Tag("unit")
+    @Test
+    void execute_HalfOpenProbeFailureReopens() {
+        UpstreamGuard guard = guard(1, 0, 4);
+
+        assertThrows(IOException.class, () -> guard.execute("/competitions", failing(500)));
+        assertThrows(IOException.class, () -> guard.execute("/competitions", failing(500)));
+
+        assertEquals(UpstreamGuard.State.OPEN, guard.getState());
+    }
+
+    @Tag("unit")
+    @Test
+    void execute_ClientErrorsDoNotOpenCircuit() {
+        UpstreamGuard guard = guard(1, 60, 4);
+
+        assertThrows(UpstreamHttpException.class, () -> guard.execute("/persons/1", failing(404)));
+
+        assertEquals(UpstreamGuard.State.CLOSED, guard.getState());
+    }
+
+    @Tag("unit")
+    @Test
+    void execute_RejectsWhenBulkheadIsFull() throws Exception {
+        UpstreamGuard guard = guard(5, 60, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread slowCall = new Thread(() -> {
+            try {
+                guard.execute("/slow", () -> {
+                    started.countDown();
+                    release.await();
+                    return mapper.createObjectNode();
+                });
+            } catch (Exception e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        slowCall.start();
+        started.await();
+
+        assertThrows(UpstreamUnavailableException.class,
+                () -> guard.execute("/other", () -> mapper.createObjectNode()));
+        assertEquals(0, guard.getAvailablePermits());
+
+        release.countDown();
+        slowCall.join();
+        assertEquals(1, guard.getAvailablePermits());
+    }
+
+    @Tag("unit")
+    @Test
+    void executeAsync_QueuesCallsBeyondBulkheadWithoutBlocking() throws Exception {
+        UpstreamGuard guard = guard(5, 60, 1);
+        CompletableFuture<JsonNode> firstUpstream = new CompletableFuture<>();
+        AtomicInteger started = new AtomicInteger();
+
+        CompletableFuture<JsonNode> first = guard.executeAsync("/a", () -> {
+            started.incrementAndGet();
+            return firstUpstream;
+        });
+        CompletableFuture<JsonNode> second = guard.executeAsync("/b", () -> {
+            started.incrementAndGet();
+            return CompletableFuture.completedFuture(mapper.createObjectNode().put("id", "b"));
+        });
+
+        // Second call waits for the only permit
+        assertEquals(1, started.get());
+        assertFalse(second.isDone());
+
+        firstUpstream.complete(mapper.createObjectNode().put("id", "a"));
+
+        assertEquals("a", first.get().path("id").asText());
+        assertEquals("b", second.get().path("id").asText());
+        assertEquals(2, started.get());
+        assertEquals(1, guard.getAvailablePermits());
+    }
+
+    @Tag("unit")
+    @Test
+    void executeAsync_TimeoutCountsAsFailureAndFallsBackToStale() throws Exception {
+        UpstreamGuard guard = guard(1, 60, 4);
+        JsonNode fresh = mapper.createObjectNode().put("id", "86");
+
+        guard.executeAsync("/teams/86", () -> CompletableFuture.completedFuture(fresh)).get();
+        JsonNode result = guard.executeAsync("/teams/86",
+                () -> CompletableFuture.failedFuture(new TimeoutException())).get();
+
+        assertSame(fresh, result);
+        assertEquals(UpstreamGuard.State.OPEN, guard.getState());
+    }
+
+    @Tag("unit")
+    @Test
+    void await_TranslatesFailuresToCheckedExceptions() {
+        CompletableFuture<JsonNode> timedOut = AsyncUpstream.withTimeout(new CompletableFuture<>(), Duration.ofMillis(10));
+
+        IOException e = assertThrows(IOException.class, () -> AsyncUpstream.await(timedOut));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+
+    @Tag("unit")
+    @Test
+    void pathTemplate_ReplacesIdsAndDropsQuery() {
+        assertEquals("/teams/{id}/matches", UpstreamGuard.pathTemplate("/teams/86/matches?status=FINISHED&limit=10"));
+        assertEquals("/competitions/{id}/scorers", UpstreamGuard.pathTemplate("/competitions/2021/scorers?limit=200"));
+        assertEquals("/persons/{id}", UpstreamGuard.pathTemplate("/persons/44"));
+        assertEquals("/competitions", UpstreamGuard.pathTemplate("/competitions"));
+    }
+
+    @Tag("unit")
+    @Test
+    void execute_TimesCallsPerPathTemplateAndOutcome() throws Exception {
+        UpstreamGuard guard = guard(5, 60, 4);
+
+        guard.execute("/teams/86/matches?limit=10", () -> mapper.createObjectNode());
+        guard.execute("/teams/65/matches?limit=10", () -> mapper.createObjectNode());
+        assertThrows(IOException.class, () -> guard.execute("/teams/57/matches", failing(429)));
+
+        assertEquals(2, registry.get("football_api_request_seconds")
+                .tag("path", "/teams/{id}/matches").tag("outcome", "SUCCESS").timer().count());
+        assertEquals(1, registry.get("football_api_request_seconds")
+                .tag("path", "/teams/{id}/matches").tag("outcome", "THROTTLED").timer().count());
+    }
+
+    @Tag("unit")
+    @Test
+    void executeAsync_QueuedPredictionStartsBeforeQueuedPassthrough() throws Exception {
+        UpstreamGuard guard = guard(5, 60, 1);
+        CompletableFuture<JsonNode> firstUpstream = new CompletableFuture<>();
+        List<String> started = new ArrayList<>();
+
+        guard.executeAsync("/first", () -> firstUpstream);
+        CompletableFuture<JsonNode> passthrough = guard.executeAsync("/competitions", () -> {
+            started.add("passthrough");
+            return CompletableFuture.completedFuture(mapper.createObjectNode());
+        });
+        CompletableFuture<JsonNode> prediction;
+        try (UpstreamCaller.Scope ignored = UpstreamCaller.PREDICTION.enter()) {
+            prediction = guard.executeAsync("/teams/86/matches", () -> {
+                started.add("prediction");
+                return CompletableFuture.completedFuture(mapper.createObjectNode());
+            });
+        }
+        assertEquals(1.0, registry.get("football_api_queue_depth").tag("caller", "prediction").gauge().value());
+
+        firstUpstream.complete(mapper.createObjectNode());
+        prediction.get();
+        passthrough.get();
+
+        assertEquals(List.of("prediction", "passthrough"), started);
+        assertEquals(0.0, registry.get("football_api_bulkhead_queued").gauge().value());
+    }
+
+    @Tag("unit")
+    @Test
+    void execute_CountsCallsMadeInsideATransaction() throws Exception {
+        UpstreamGuard guard = guard(5, 60, 4);
+
+        guard.execute("/competitions", () -> mapper.createObjectNode());
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            guard.execute("/competitions", () -> mapper.createObjectNode());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(1.0, registry.get("football_api_calls_in_transaction_total").counter().count());
+    }
+}
@@ -0,0 +1,126 @@
+package predictions.dapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import predictions.dapp.exceptions.UpstreamThrottledException;
+
+import java.net.http.HttpHeaders;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamQuotaTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UpstreamQuota quota = new UpstreamQuota(registry, 2);
+
+    private static HttpHeaders quotaHeaders(int available, int resetSeconds) {
+        return HttpHeaders.of(Map.of(
+                "X-Requests-Available-Minute", List.of(String.valueOf(available)),
+                "X-RequestCounter-Reset", List.of(String.valueOf(resetSeconds))
+        ), (name, value) -> true);
+    }
+
+    @Tag("unit")
+    @Test
+    void tryAcquire_AllowsEveryoneWhileBudgetIsUnknown() {
+        assertTrue(quota.tryAcquire(UpstreamCaller.PASSTHROUGH));
+        assertTrue(quota.getRemaining().isEmpty());
+        assertEquals(1, quota.getRequestsPerMinute(UpstreamCaller.PASSTHROUGH));
+    }
+
+    @Tag("unit")
+    @Test
+    void tryAcquire_ThrottlesLowerTiersFirst() {
+        quota.recordResponse(quotaHeaders(5, 40));
+
+        // 5 left: passthrough (reserve 4) gets one call, then stops
+        assertTrue(quota.tryAcquire(UpstreamCaller.PASSTHROUGH));
+        assertFalse(quota.tryAcquire(UpstreamCaller.PASSTHROUGH));
+
+        // 4 left: performance (reserve 2) gets two more
+        assertTrue(quota.tryAcquire(UpstreamCaller.PERFORMANCE));
+        assertTrue(quota.tryAcquire(UpstreamCaller.PERFORMANCE));
+        assertFalse(quota.tryAcquire(UpstreamCaller.PERFORMANCE));
+
+        // 2 left: predictions spend the rest
+        assertTrue(quota.tryAcquire(UpstreamCaller.PREDICTION));
+        assertTrue(quota.tryAcquire(UpstreamCaller.COMPARISON));
+        assertFalse(quota.tryAcquire(UpstreamCaller.PREDICTION));
+
+        assertEquals(0, quota.getRemaining().getAsLong());
+        assertEquals(1.0, registry.get("football_api_throttled_total").tag("caller", "passthrough").counter().count());
+        assertEquals(2.0, registry.get("football_api_calls_total").tag("caller", "performance").counter().count());
+    }
+
+    @Tag("unit")
+    @Test
+    void recordResponse_HeadersOverrideLocalEstimate() {
+        quota.recordResponse(quotaHeaders(3, 40));
+        quota.tryAcquire(UpstreamCaller.PREDICTION);
+        assertEquals(2, quota.getRemaining().getAsLong());
+
+        quota.recordResponse(quotaHeaders(9, 60));
+        assertEquals(9, quota.getRemaining().getAsLong());
+        assertEquals(9.0, registry.get("football_api_quota_remaining").gauge().value());
+    }
+
+    @Tag("unit")
+    @Test
+    void recordResponse_BudgetIsForgottenAfterReset() {
+        quota.recordResponse(quotaHeaders(0, 0));
+
+        assertTrue(quota.getRemaining().isEmpty());
+        assertTrue(quota.tryAcquire(UpstreamCaller.PASSTHROUGH));
+    }
+
+    @Tag("unit")
+    @Test
+    void getSecondsToExhaustion_ForecastsFromLastMinutePace() {
+        assertTrue(quota.getSecondsToExhaustion().isEmpty());
+
+        for (int i = 0; i < 4; i++) {
+            quota.tryAcquire(UpstreamCaller.PREDICTION);
+        }
+        quota.recordResponse(quotaHeaders(6, 50));
+
+        // 6 left at 4 req/min
+        assertEquals(90, quota.getSecondsToExhaustion().getAsLong());
+    }
+
+    @Tag("unit")
+    @Test
+    void enter_BindsCallerToThreadAndRestoresPrevious() {
+        assertEquals(UpstreamCaller.PASSTHROUGH, UpstreamCaller.current());
+
+        try (UpstreamCaller.Scope outer = UpstreamCaller.PERFORMANCE.enter()) {
+            try (UpstreamCaller.Scope inner = UpstreamCaller.PREDICTION.enter()) {
+                assertEquals(UpstreamCaller.PREDICTION, UpstreamCaller.current());
+            }
+            assertEquals(UpstreamCaller.PERFORMANCE, UpstreamCaller.current());
+        }
+        assertEquals(UpstreamCaller.PASSTHROUGH, UpstreamCaller.current());
+    }
+
+    @Tag("unit")
+    @Test
+    void guard_ThrottledCallIsNotSentAndServesStaleCopy() throws Exception {
+        UpstreamGuard guard = new UpstreamGuard(registry, quota, 5, 60, 4, 0, 2000);
+        JsonNode fresh = new ObjectMapper().readTree("{\"competitions\":[]}");
+
+        guard.execute("/competitions", () -> fresh);
+        quota.recordResponse(quotaHeaders(1, 40));
+
+        assertSame(fresh, guard.execute("/competitions", () -> fail("should not be sent")));
+        assertThrows(UpstreamThrottledException.class,
+                () -> guard.execute("/teams", () -> fail("should not be sent")));
+
+        try (UpstreamCaller.Scope ignored = UpstreamCaller.PREDICTION.enter()) {
+            assertSame(fresh, guard.execute("/teams", () -> fresh));
+        }
+    }
+}